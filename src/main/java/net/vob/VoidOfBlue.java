@@ -10,6 +10,7 @@ import java.time.Instant;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 import net.vob.mods.ModManager;
+import net.vob.core.graphics.CommandBatch;
 import net.vob.core.graphics.GraphicsEngine;
 import net.vob.util.ArrayTree;
 import net.vob.util.logging.Level;
@@ -132,40 +133,35 @@ public final class VoidOfBlue {
         skeleton.add(b1);
         skeleton.add(b2);
         
-        GraphicsEngine.MESSAGE_LOCK.lock();
-        try {
-            GraphicsEngine.msgEnableDebugMode();
-            
-            GraphicsEngine.msgViewportSetTransform(camera);
-            GraphicsEngine.msgTextureSelectDefaultCubemap();
-            GraphicsEngine.msgSkyboxSetTexture();
-            GraphicsEngine.msgSkyboxEnable();
-            
-            GraphicsEngine.msgRenderableNew(1);
-            GraphicsEngine.msgMeshSelectDefaultCube();
-            GraphicsEngine.msgTextureSelectDefaultCubemap();
-            GraphicsEngine.msgShaderProgramSelectDefaultCube();
-            GraphicsEngine.msgRenderableAttachMesh();
-            GraphicsEngine.msgRenderableAttachTexture();
-            GraphicsEngine.msgShaderProgramAssignRenderable();
-            
-            GraphicsEngine.msgRenderableSetInstanceTransform(t1, 0);
-            
-            GraphicsEngine.msgRenderableNew(1);
-            GraphicsEngine.msgRenderableAttachMesh();
-            GraphicsEngine.msgRenderableAttachTexture();
-            GraphicsEngine.msgShaderProgramAssignRenderable();
-            GraphicsEngine.msgSkeletonNew(skeleton, weights);
-            
-            GraphicsEngine.msgRenderableSetInstanceTransform(t2, 0);
-            GraphicsEngine.msgRenderableAttachSkeleton();
-            
-            t1.setTranslation(new Vector3(1, 0, 0));
-            t2.setTranslation(new Vector3(-1, 0, 0));
-            
-        } finally {
-            GraphicsEngine.MESSAGE_LOCK.unlock();
-        }
+        GraphicsEngine.msgBatch(new CommandBatch()
+                .enableDebugMode()
+                
+                .viewportSetTransform(camera)
+                .textureSelectDefaultCubemap()
+                .skyboxSetTexture()
+                .skyboxEnable()
+                
+                .renderableNew(1)
+                .meshSelectDefaultCube()
+                .textureSelectDefaultCubemap()
+                .shaderProgramSelectDefaultCube()
+                .renderableAttachMesh()
+                .renderableAttachTexture()
+                .shaderProgramAssignRenderable()
+                
+                .renderableSetInstanceTransform(t1, 0)
+                
+                .renderableNew(1)
+                .renderableAttachMesh()
+                .renderableAttachTexture()
+                .shaderProgramAssignRenderable()
+                .skeletonNew(skeleton, weights)
+                
+                .renderableSetInstanceTransform(t2, 0)
+                .renderableAttachSkeleton());
+        
+        t1.setTranslation(new Vector3(1, 0, 0));
+        t2.setTranslation(new Vector3(-1, 0, 0));
         
         while (getContinueExecution()) {
             Instant loopStartTime = Instant.now();
@@ -171,7 +171,8 @@ public abstract class AbstractRenderable extends Closable {
      * Returns the ID value of this renderable. This is defined to be the unique
      * identifying integer that can be passed to
      * {@link GraphicsEngine#msgRenderableSelect(int)} in order to select the renderable
-     * and perform operations on it.<p>
+     * and perform operations on it, or passed directly to the handle-based messages of
+     * {@link GraphicsEngine} without selecting it.<p>
      * 
      * Note that this method returns {@code null} if-and-only-if {@link hasRendID()}
      * returns {@code false}; hence, checking for {@code null} (or using
@@ -192,7 +193,12 @@ public abstract class AbstractRenderable extends Closable {
      * 
      * Note that this method returns early without altering anything if this renderable
      * has not yet been fully initialized in the graphics engine, or the given mesh is
-     * already assigned to this renderable.
+     * already assigned to this renderable.<p>
+     * 
+     * If the mesh has not yet been instantiated in the graphics engine, it is
+     * instantiated as part of the same sequence of messages, which are queued while
+     * {@link GraphicsEngine#MESSAGE_LOCK} is held, rather than waiting for the graphics
+     * thread to return its ID.
      * 
      * @param mesh the new mesh
      * @throws NullPointerException if {@code mesh} is {@code null}
@@ -205,6 +211,11 @@ public abstract class AbstractRenderable extends Closable {
         
         this.mesh = mesh;
         
+        if (mesh.hasHandle()) {
+            GraphicsEngine.msgRenderableAttachMesh(getRendID(), mesh.getHandle());
+            return;
+        }
+        
         GraphicsEngine.MESSAGE_LOCK.lock();
         
         try {
@@ -229,7 +240,12 @@ public abstract class AbstractRenderable extends Closable {
      * 
      * Note that this method returns early without altering anything if this renderable
      * has not yet been fully initialized in the graphics engine, or the given texture
-     * is already assigned to this renderable.
+     * is already assigned to this renderable.<p>
+     * 
+     * If the texture has not yet been instantiated in the graphics engine, it is
+     * instantiated as part of the same sequence of messages, which are queued while
+     * {@link GraphicsEngine#MESSAGE_LOCK} is held, rather than waiting for the graphics
+     * thread to return its ID.
      * 
      * @param texture the new texture
      * @throws NullPointerException if {@code texture} is {@code null}
@@ -248,6 +264,11 @@ public abstract class AbstractRenderable extends Closable {
         
         this.textures[texture.unit] = texture;
         
+        if (texture.hasHandle()) {
+            GraphicsEngine.msgRenderableAttachTexture(getRendID(), texture.getHandle());
+            return;
+        }
+        
         GraphicsEngine.MESSAGE_LOCK.lock();
         
         try {
@@ -281,15 +302,7 @@ public abstract class AbstractRenderable extends Closable {
         
         this.textures[unit] = null;
         
-        GraphicsEngine.MESSAGE_LOCK.lock();
-        
-        try {
-            GraphicsEngine.msgRenderableSelect(getRendID());
-            GraphicsEngine.msgRenderableDetachTexture(unit);
-            
-        } finally {
-            GraphicsEngine.MESSAGE_LOCK.unlock();
-        }
+        GraphicsEngine.msgRenderableDetachTexture(getRendID(), unit);
     }
     
     /**
@@ -313,7 +326,12 @@ public abstract class AbstractRenderable extends Closable {
      * 
      * Note that this method returns early without altering anything if this renderable
      * has not yet been fully initialized in the graphics engine, or the given shader
-     * is already assigned to this renderable.
+     * is already assigned to this renderable.<p>
+     * 
+     * If the shader has not yet been instantiated in the graphics engine, it is
+     * instantiated as part of the same sequence of messages, which are queued while
+     * {@link GraphicsEngine#MESSAGE_LOCK} is held, rather than waiting for the graphics
+     * thread to return its ID.
      * 
      * @param shader the new shader
      * @throws NullPointerException if {@code shader} is {@code null}
@@ -328,6 +346,11 @@ public abstract class AbstractRenderable extends Closable {
             for (int i = 0; i < textures.length; ++i)
                 textures[i] = null;
         
+        if (shader.hasHandle()) {
+            GraphicsEngine.msgShaderProgramAssignRenderable(shader.getHandle(), getRendID());
+            return;
+        }
+        
         GraphicsEngine.MESSAGE_LOCK.lock();
         
         try {
@@ -352,16 +375,7 @@ public abstract class AbstractRenderable extends Closable {
         if (!hasRendID())
             return false;
         
-        GraphicsEngine.MESSAGE_LOCK.lock();
-        
-        try {
-            GraphicsEngine.msgRenderableSelect(getRendID());
-            GraphicsEngine.msgRenderableClose();
-            
-        } finally {
-            GraphicsEngine.MESSAGE_LOCK.unlock();
-        }
-        
+        GraphicsEngine.msgRenderableClose(getRendID());
         return true;
     }
 }
@@ -32,7 +32,7 @@ public final class Mesh extends Closable {
     
     private Cuboid boundingBox;
     
-    private Future<Integer> meshID = null;
+    private volatile Future<Integer> meshID = null;
     
     public static final Mesh DEFAULT_QUAD, DEFAULT_CUBE, DEFAULT_INV_CUBE;
     
@@ -103,17 +103,56 @@ public final class Mesh extends Closable {
     }
     
     void select() {
-        try {
-            if (meshID == null)
+        Future<Integer> id;
+        
+        synchronized (this) {
+            if (meshID == null) {
                 meshID = GraphicsEngine.msgMeshNew(positions, uvs, normals, triangles);
-            else
-                GraphicsEngine.msgMeshSelect(meshID.get(5, TimeUnit.SECONDS));
+                return;
+            }
+            id = meshID;
+        }
+        
+        try {
+            GraphicsEngine.msgMeshSelect(id.get(5, TimeUnit.SECONDS));
 
         } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
             throw new IllegalStateException(LocaleUtils.format("Mesh.select.InitFailed"), e);
         }
     }
     
+    /**
+     * Checks if this mesh has been instantiated in the graphics engine and its ID is
+     * available, i.e. if {@link getHandle()} would return without waiting.
+     */
+    boolean hasHandle() {
+        Future<Integer> id = meshID;
+        return id != null && id.isDone();
+    }
+    
+    /**
+     * Gets the ID of this mesh in the graphics engine, instantiating the mesh first if
+     * necessary, and waiting for the graphics thread to instantiate it. Unlike
+     * {@link select()}, this does not alter the selection state of the graphics engine,
+     * and the caller need not hold {@link GraphicsEngine#MESSAGE_LOCK}.
+     */
+    int getHandle() {
+        Future<Integer> id;
+        
+        synchronized (this) {
+            if (meshID == null)
+                meshID = GraphicsEngine.msgMeshCreate(positions, uvs, normals, triangles);
+            id = meshID;
+        }
+        
+        try {
+            return id.get(5, TimeUnit.SECONDS);
+            
+        } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
+            throw new IllegalStateException(LocaleUtils.format("Mesh.select.InitFailed"), e);
+        }
+    }
+    
     /**
      * Sets this mesh as read-only. This is a one-way operation, and cannot be undone.
      */
@@ -123,6 +162,11 @@ public final class Mesh extends Closable {
         
         readonly = true;
         
+        if (hasHandle()) {
+            GraphicsEngine.msgMeshSetReadonly(getHandle());
+            return;
+        }
+        
         GraphicsEngine.MESSAGE_LOCK.lock();
         
         try {
@@ -196,17 +240,8 @@ public final class Mesh extends Closable {
         if (triangles != null) 
             this.triangles = triangles;
         
-        if (meshID != null) {
-            GraphicsEngine.MESSAGE_LOCK.lock();
-            
-            try {
-                select();
-                GraphicsEngine.msgMeshSetAttributes(positions, uvs, normals, triangles);
-                
-            } finally {
-                GraphicsEngine.MESSAGE_LOCK.unlock();
-            }
-        }
+        if (meshID != null)
+            GraphicsEngine.msgMeshSetAttributes(getHandle(), positions, uvs, normals, triangles);
     }
     
     private void resetBoundingBox() {
@@ -242,17 +277,11 @@ public final class Mesh extends Closable {
     @Override
     protected boolean doClose() {
         if (meshID != null) {
-            GraphicsEngine.MESSAGE_LOCK.lock();
-
             try {
-                select();
-                GraphicsEngine.msgMeshClose();
+                GraphicsEngine.msgMeshClose(getHandle());
 
             } catch (IllegalStateException e) {
                 return false;
-                
-            } finally {
-                GraphicsEngine.MESSAGE_LOCK.unlock();
             }
         }
         
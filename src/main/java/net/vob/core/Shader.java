@@ -21,7 +21,7 @@ import net.vob.util.logging.LocaleUtils;
 public final class Shader extends Closable {
     private final Identity vertID, geomID, fragID;
     
-    private Future<Integer> progID = null;
+    private volatile Future<Integer> progID = null;
     final boolean mode;
     
     public static final Shader DEFAULT_2D, DEFAULT_CUBE, DEFAULT_UI;
@@ -103,7 +103,9 @@ public final class Shader extends Closable {
     }
     
     void select() {
-        try {
+        Future<Integer> id;
+        
+        synchronized (this) {
             if (progID == null) {
                 progID = GraphicsEngine.msgShaderProgramNew(mode);
             
@@ -118,14 +120,63 @@ public final class Shader extends Closable {
                 GraphicsEngine.msgShaderNewFragment(fragID);
                 GraphicsEngine.msgShaderProgramAttachShader();
                 
-            } else
-                GraphicsEngine.msgShaderProgramSelect(progID.get(5, TimeUnit.SECONDS));
+                return;
+            }
+            id = progID;
+        }
+        
+        try {
+            GraphicsEngine.msgShaderProgramSelect(id.get(5, TimeUnit.SECONDS));
 
         } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
             throw new IllegalStateException(LocaleUtils.format("Shader.select.InitFailed"), e);
         }
     }
     
+    /**
+     * Checks if the shader program of this shader has been instantiated in the graphics
+     * engine and its ID is available, i.e. if {@link getHandle()} would return without
+     * waiting.
+     */
+    boolean hasHandle() {
+        Future<Integer> id = progID;
+        return id != null && id.isDone();
+    }
+    
+    /**
+     * Gets the ID of the shader program of this shader in the graphics engine,
+     * instantiating the program first if necessary, and waiting for the graphics thread
+     * to instantiate it. The caller need not hold {@link GraphicsEngine#MESSAGE_LOCK}.
+     * The program is instantiated through the selection state of the graphics engine, so
+     * only then is the lock taken, for as long as the messages take to queue; once the
+     * program has been instantiated, no lock is taken.
+     */
+    int getHandle() {
+        Future<Integer> id = progID;
+        
+        if (id == null) {
+            GraphicsEngine.MESSAGE_LOCK.lock();
+            
+            try {
+                synchronized (this) {
+                    if (progID == null)
+                        select();
+                    id = progID;
+                }
+                
+            } finally {
+                GraphicsEngine.MESSAGE_LOCK.unlock();
+            }
+        }
+        
+        try {
+            return id.get(5, TimeUnit.SECONDS);
+            
+        } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
+            throw new IllegalStateException(LocaleUtils.format("Shader.select.InitFailed"), e);
+        }
+    }
+    
     /**
      * Checks if the given texture is compatible with this shader mode. This checks
      * the texture type against the mode of the shader.
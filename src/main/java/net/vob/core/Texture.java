@@ -15,7 +15,7 @@ import net.vob.util.logging.LocaleUtils;
 public abstract class Texture extends Closable {
     final int unit;
     
-    protected Future<Integer> texID = null;
+    protected volatile Future<Integer> texID = null;
     
     protected Texture(int unit) {
         if (unit < 0 || unit >= GraphicsEngine.getMaxCombinedTextureUnit())
@@ -26,20 +26,31 @@ public abstract class Texture extends Closable {
     
     abstract void select();
     
+    /**
+     * Checks if this texture has been instantiated in the graphics engine and its ID is
+     * available, i.e. if {@link getHandle()} would return without waiting.
+     */
+    boolean hasHandle() {
+        Future<Integer> id = texID;
+        return id != null && id.isDone();
+    }
+    
+    /**
+     * Gets the ID of this texture in the graphics engine, instantiating the texture first
+     * if necessary, and waiting for the graphics thread to instantiate it. Unlike
+     * {@link select()}, this does not alter the selection state of the graphics engine,
+     * and the caller need not hold {@link GraphicsEngine#MESSAGE_LOCK}.
+     */
+    abstract int getHandle();
+    
     @Override
     protected final boolean doClose() {
         if (texID != null) {
-            GraphicsEngine.MESSAGE_LOCK.lock();
-
             try {
-                select();
-                GraphicsEngine.msgTextureClose();
+                GraphicsEngine.msgTextureClose(getHandle());
 
             } catch (IllegalStateException e) {
                 return false;
-                
-            } finally {
-                GraphicsEngine.MESSAGE_LOCK.unlock();
             }
         }
         
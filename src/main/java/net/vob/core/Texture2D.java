@@ -86,21 +86,52 @@ public final class Texture2D extends Texture {
     
     @Override
     void select() {
-        try {
+        Future<Integer> handle;
+        
+        synchronized (this) {
             if (texID == null) {
                 if (id == null) {
                     texID = GraphicsEngine.msgTexture2DNew(im, unit);
                     im = null;
                 } else
                     texID = GraphicsEngine.msgTexture2DNew(id, unit);
-            } else
-                GraphicsEngine.msgTextureSelect(texID.get(5, TimeUnit.SECONDS));
+                
+                return;
+            }
+            handle = texID;
+        }
+        
+        try {
+            GraphicsEngine.msgTextureSelect(handle.get(5, TimeUnit.SECONDS));
 
         } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
             throw new IllegalStateException(LocaleUtils.format("Texture.select.InitFailed"), e);
         }
     }
     
+    @Override
+    int getHandle() {
+        Future<Integer> handle;
+        
+        synchronized (this) {
+            if (texID == null) {
+                if (id == null) {
+                    texID = GraphicsEngine.msgTexture2DCreate(im, unit);
+                    im = null;
+                } else
+                    texID = GraphicsEngine.msgTexture2DCreate(id, unit);
+            }
+            handle = texID;
+        }
+        
+        try {
+            return handle.get(5, TimeUnit.SECONDS);
+            
+        } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
+            throw new IllegalStateException(LocaleUtils.format("Texture.select.InitFailed"), e);
+        }
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (o == null || !(o instanceof Texture2D)) return false;
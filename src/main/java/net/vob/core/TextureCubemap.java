@@ -85,28 +85,67 @@ public final class TextureCubemap extends Texture {
     
     @Override
     void select() {
-        try {
+        Future<Integer> handle;
+        
+        synchronized (this) {
             if (texID == null) {
                 if (pxID == null) {
                     if (pyIm == null)
-                        GraphicsEngine.msgTextureCubemapNew(pxIm, unit);
+                        texID = GraphicsEngine.msgTextureCubemapNew(pxIm, unit);
                     else
-                        GraphicsEngine.msgTextureCubemapNew(pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit);
+                        texID = GraphicsEngine.msgTextureCubemapNew(pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit);
                     
                     pxIm = pyIm = pzIm = nxIm = nyIm = nzIm = null;
                 } else {
                     if (pyID == null)
-                        GraphicsEngine.msgTextureCubemapNew(pxID, unit);
+                        texID = GraphicsEngine.msgTextureCubemapNew(pxID, unit);
                     else
-                        GraphicsEngine.msgTextureCubemapNew(pxID, nxID, pyID, nyID, pzID, nzID, unit);
+                        texID = GraphicsEngine.msgTextureCubemapNew(pxID, nxID, pyID, nyID, pzID, nzID, unit);
                 }
-            } else
-                GraphicsEngine.msgTextureSelect(texID.get(5, TimeUnit.SECONDS));
+                
+                return;
+            }
+            handle = texID;
+        }
+        
+        try {
+            GraphicsEngine.msgTextureSelect(handle.get(5, TimeUnit.SECONDS));
 
         } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
             throw new IllegalStateException(LocaleUtils.format("Texture.select.InitFailed"), e);
         }
     }
+    
+    @Override
+    int getHandle() {
+        Future<Integer> handle;
+        
+        synchronized (this) {
+            if (texID == null) {
+                if (pxID == null) {
+                    if (pyIm == null)
+                        texID = GraphicsEngine.msgTextureCubemapCreate(pxIm, unit);
+                    else
+                        texID = GraphicsEngine.msgTextureCubemapCreate(pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit);
+                    
+                    pxIm = pyIm = pzIm = nxIm = nyIm = nzIm = null;
+                } else {
+                    if (pyID == null)
+                        texID = GraphicsEngine.msgTextureCubemapCreate(pxID, unit);
+                    else
+                        texID = GraphicsEngine.msgTextureCubemapCreate(pxID, nxID, pyID, nyID, pzID, nzID, unit);
+                }
+            }
+            handle = texID;
+        }
+        
+        try {
+            return handle.get(5, TimeUnit.SECONDS);
+            
+        } catch (InterruptedException | ExecutionException | CancellationException | TimeoutException e) {
+            throw new IllegalStateException(LocaleUtils.format("Texture.select.InitFailed"), e);
+        }
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -45,7 +45,7 @@ public final class UIRenderable extends AbstractRenderable {
     @Override
     protected Future<Integer> initialize() {
         Future<Integer> future = GraphicsEngine.msgRenderableNew(1);
-        GraphicsEngine.msgRenderableSetInstanceTransform(transform, 0);
+        GraphicsEngine.postRenderableSetInstanceTransform(transform, 0);
         
         getMesh().select();
         GraphicsEngine.msgRenderableAttachMesh();
@@ -0,0 +1,1483 @@
+package net.vob.core.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
+import net.vob.util.Identity;
+import net.vob.util.Tree;
+import net.vob.util.logging.LocaleUtils;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.Matrix;
+import net.vob.util.math.Vector3;
+
+/**
+ * A recorded sequence of graphics engine commands. Each of the recording methods of this
+ * class corresponds to one of the {@code msg*} methods of {@link GraphicsEngine}, and
+ * takes the same parameters; however, instead of queueing a message immediately, the
+ * command is appended to this batch.<p>
+ * 
+ * Once recorded, the batch can be submitted with {@link GraphicsEngine#msgBatch(CommandBatch)}.
+ * A submitted batch occupies a single entry in the message queue, and is replayed by the
+ * graphics thread in a single pass; thus, no other thread's messages can be interleaved
+ * with the commands of the batch, and {@link GraphicsEngine#MESSAGE_LOCK} need not be
+ * held while recording or submitting it. The batch as a whole has a single
+ * {@link CompletableFuture}, rather than one per command.<p>
+ * 
+ * If any command in the batch fails, the replay stops at that command and the future of
+ * the batch is cancelled; note that any commands before the failed command will have
+ * already taken effect. Otherwise, the future completes with the result of the command
+ * marked with {@link markResult()}, or with 0 if no command was marked.<p>
+ * 
+ * Batches are cheap to record into, and require no communication with the graphics thread
+ * until submitted. Submitting a batch takes a snapshot of the commands recorded so far, so
+ * a batch may be cleared and reused, or recorded into further and submitted again. A
+ * single batch instance is <i>not</i> thread-safe; each recording thread should use its
+ * own batch.
+ * 
+ * @author Lyn-Park
+ */
+public final class CommandBatch {
+    private final List<Message> entries = new ArrayList<>();
+    private int resultIndex = -1;
+    
+    /**
+     * Marks the most recently recorded command as the result of this batch. When the
+     * batch is replayed successfully, its future completes with the result of this
+     * command (for example, the ID of a newly created renderable). Only one command can
+     * be marked; marking a command replaces any previous mark.
+     * 
+     * @return this batch
+     * @throws IllegalStateException if no commands have been recorded
+     */
+    public CommandBatch markResult() {
+        if (entries.isEmpty())
+            throw new IllegalStateException(LocaleUtils.format("CommandBatch.markResult.Empty"));
+        
+        resultIndex = entries.size() - 1;
+        return this;
+    }
+    
+    /**
+     * @return the number of commands recorded in this batch
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * @return {@code true} if no commands have been recorded in this batch, {@code false}
+     * otherwise
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+    
+    /**
+     * Removes all recorded commands and the result mark from this batch. This does not
+     * affect any batch that has already been submitted.
+     * 
+     * @return this batch
+     */
+    public CommandBatch clear() {
+        entries.clear();
+        resultIndex = -1;
+        return this;
+    }
+    
+    /**
+     * Builds the single message that replays a snapshot of this batch.
+     */
+    Message toMessage() {
+        return new Message(Message.Type.BATCH, entries.toArray(new Message[entries.size()]), resultIndex);
+    }
+    
+    private CommandBatch record(Message.Type type, Object... args) {
+        entries.add(Message.unbound(type, args));
+        return this;
+    }
+    
+    
+    
+    // --- RECORDING METHODS ---
+    
+    
+    
+    /**
+     * Records a {@link GraphicsEngine#msgEnableVSync() msgEnableVSync} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch enableVSync() {
+        return record(Message.Type.ENABLE_VSYNC);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgDisableVSync() msgDisableVSync} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch disableVSync() {
+        return record(Message.Type.DISABLE_VSYNC);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgEnableDebugMode() msgEnableDebugMode} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch enableDebugMode() {
+        return record(Message.Type.ENABLE_DEBUGGING);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgDisableDebugMode() msgDisableDebugMode} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch disableDebugMode() {
+        return record(Message.Type.DISABLE_DEBUGGING);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgViewportSetTransform(AffineTransformation) msgViewportSetTransform} command.
+     * 
+     * @param transform the new transform of the viewport
+     * @return this batch
+     */
+    public CommandBatch viewportSetTransform(AffineTransformation transform) {
+        return record(Message.Type.VIEWPORT_SET_TRANSFORM, transform);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkyboxEnable() msgSkyboxEnable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch skyboxEnable() {
+        return record(Message.Type.SKYBOX_ENABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkyboxDisable() msgSkyboxDisable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch skyboxDisable() {
+        return record(Message.Type.SKYBOX_DISABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkyboxSetTexture() msgSkyboxSetTexture} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch skyboxSetTexture() {
+        return record(Message.Type.SKYBOX_SET_TEXTURE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkyboxSetTexture(int) msgSkyboxSetTexture} command.
+     * 
+     * @param texture the unique id of the texture
+     * @return this batch
+     */
+    public CommandBatch skyboxSetTexture(int texture) {
+        return record(Message.Type.SKYBOX_SET_TEXTURE_BY_HANDLE, texture);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshNew(Vector3[], Vector3[], Vector3[], int[]) msgMeshNew} command.
+     * 
+     * @param positions the array of positions vectors for the vertices of the mesh
+     * @param uvs the array of uv coordinate vectors for the vertices of the mesh. Must be
+     * of the same length as {@code positions}
+     * @param normals the array of normal vectors for the vertices of the mesh. If this is
+     * {@code null}, then the normals of the mesh will be automatically generated from the
+     * other parameters; otherwise, this must be of the same length as {@code positions}
+     * @param triangles the triangle indices of the mesh. Each triplet of indices defines a
+     * triangle using the indexed vertices, in counter-clockwise order. Must be of length
+     * evenly divisible by 3, and each entry must be greater than or equal to 0 and less than 
+     * {@code positions.length}
+     * @return this batch
+     */
+    public CommandBatch meshNew(Vector3[] positions, Vector3[] uvs, @Nullable Vector3[] normals, int[] triangles) {
+        return record(Message.Type.MESH_NEW, positions, uvs, normals, triangles);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshCreate(Vector3[], Vector3[], Vector3[], int[]) msgMeshCreate} command.
+     * 
+     * @param positions the array of positions vectors for the vertices of the mesh
+     * @param uvs the array of uv coordinate vectors for the vertices of the mesh. Must be
+     * of the same length as {@code positions}
+     * @param normals the array of normal vectors for the vertices of the mesh. If this is
+     * {@code null}, then the normals of the mesh will be automatically generated from the
+     * other parameters; otherwise, this must be of the same length as {@code positions}
+     * @param triangles the triangle indices of the mesh. Each triplet of indices defines a
+     * triangle using the indexed vertices, in counter-clockwise order. Must be of length
+     * evenly divisible by 3, and each entry must be greater than or equal to 0 and less than 
+     * {@code positions.length}
+     * @return this batch
+     */
+    public CommandBatch meshCreate(Vector3[] positions, Vector3[] uvs, @Nullable Vector3[] normals, int[] triangles) {
+        return record(Message.Type.MESH_CREATE, positions, uvs, normals, triangles);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSelect(int) msgMeshSelect} command.
+     * 
+     * @param index the index of the mesh to select
+     * @return this batch
+     */
+    public CommandBatch meshSelect(int index) {
+        return record(Message.Type.MESH_SELECT, index);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSelectDefaultQuad() msgMeshSelectDefaultQuad} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshSelectDefaultQuad() {
+        return record(Message.Type.MESH_SELECT_QUAD);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSelectDefaultCube() msgMeshSelectDefaultCube} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshSelectDefaultCube() {
+        return record(Message.Type.MESH_SELECT_CUBE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSelectDefaultInvCube() msgMeshSelectDefaultInvCube} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshSelectDefaultInvCube() {
+        return record(Message.Type.MESH_SELECT_INV_CUBE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshRebuffer() msgMeshRebuffer} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshRebuffer() {
+        return record(Message.Type.MESH_REBUFFER);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshRebuffer(int) msgMeshRebuffer} command.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return this batch
+     */
+    public CommandBatch meshRebuffer(int mesh) {
+        return record(Message.Type.MESH_REBUFFER_BY_HANDLE, mesh);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshClose() msgMeshClose} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshClose() {
+        return record(Message.Type.MESH_CLOSE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshClose(int) msgMeshClose} command.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return this batch
+     */
+    public CommandBatch meshClose(int mesh) {
+        return record(Message.Type.MESH_CLOSE_BY_HANDLE, mesh);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSetAttributes(Vector3[], Vector3[], Vector3[], int[]) msgMeshSetAttributes} command.
+     * 
+     * @param positions the new array of position vectors for the mesh vertices, or
+     * {@code null} to leave the mesh positions unchanged
+     * @param uvs the new array of uv coordinate vectors for the mesh vertices, or
+     * {@code null} to leave the mesh uv coordinates unchanged. Must have the same length as
+     * {@code positions} to be valid
+     * @param normals the new array of normal vector for the mesh vertices, or {@code null}
+     * to leave the mesh normals unchanged. Must have the same length as {@code positions}
+     * to be valid
+     * @param triangles the new array of triangle indices for the mesh, or {@code null} to
+     * leave the mesh triangles unchanged. Must have a length evenly divisible by 3, and each
+     * entry must be greater than or equal to 0 and less than {@code positions.length} to be
+     * valid
+     * @return this batch
+     */
+    public CommandBatch meshSetAttributes(@Nullable Vector3[] positions, @Nullable Vector3[] uvs, @Nullable Vector3[] normals, @Nullable int[] triangles) {
+        return record(Message.Type.MESH_SET_ATTRIBUTES, positions, uvs, normals, triangles);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSetAttributes(int, Vector3[], Vector3[], Vector3[], int[]) msgMeshSetAttributes} command.
+     * 
+     * @param mesh the unique id of the mesh
+     * @param positions the new array of position vectors for the mesh vertices, or
+     * {@code null} to leave the mesh positions unchanged
+     * @param uvs the new array of uv coordinate vectors for the mesh vertices, or
+     * {@code null} to leave the mesh uv coordinates unchanged. Must have the same length as
+     * {@code positions} to be valid
+     * @param normals the new array of normal vector for the mesh vertices, or {@code null}
+     * to leave the mesh normals unchanged. Must have the same length as {@code positions}
+     * to be valid
+     * @param triangles the new array of triangle indices for the mesh, or {@code null} to
+     * leave the mesh triangles unchanged. Must have a length evenly divisible by 3, and each
+     * entry must be greater than or equal to 0 and less than {@code positions.length} to be
+     * valid
+     * @return this batch
+     */
+    public CommandBatch meshSetAttributes(int mesh, @Nullable Vector3[] positions, @Nullable Vector3[] uvs, @Nullable Vector3[] normals, @Nullable int[] triangles) {
+        return record(Message.Type.MESH_SET_ATTRIBUTES_BY_HANDLE, mesh, positions, uvs, normals, triangles);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshRecalculateNormals() msgMeshRecalculateNormals} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshRecalculateNormals() {
+        return record(Message.Type.MESH_RECALC_NORMALS);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshRecalculateNormals(int) msgMeshRecalculateNormals} command.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return this batch
+     */
+    public CommandBatch meshRecalculateNormals(int mesh) {
+        return record(Message.Type.MESH_RECALC_NORMALS_BY_HANDLE, mesh);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSetReadonly() msgMeshSetReadonly} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshSetReadonly() {
+        return record(Message.Type.MESH_SET_READONLY);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshSetReadonly(int) msgMeshSetReadonly} command.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return this batch
+     */
+    public CommandBatch meshSetReadonly(int mesh) {
+        return record(Message.Type.MESH_SET_READONLY_BY_HANDLE, mesh);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgMeshGetID() msgMeshGetID} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch meshGetID() {
+        return record(Message.Type.MESH_GET_ID);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderNewVertex(Identity) msgShaderNewVertex} command.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .vert}
+     * @return this batch
+     */
+    public CommandBatch shaderNewVertex(Identity id) {
+        return record(Message.Type.SHADER_NEW_VERT, id);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderCreateVertex(Identity) msgShaderCreateVertex} command.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .vert}
+     * @return this batch
+     */
+    public CommandBatch shaderCreateVertex(Identity id) {
+        return record(Message.Type.SHADER_CREATE_VERT, id);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderNewFragment(Identity) msgShaderNewFragment} command.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .frag}
+     * @return this batch
+     */
+    public CommandBatch shaderNewFragment(Identity id) {
+        return record(Message.Type.SHADER_NEW_FRAG, id);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderCreateFragment(Identity) msgShaderCreateFragment} command.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .frag}
+     * @return this batch
+     */
+    public CommandBatch shaderCreateFragment(Identity id) {
+        return record(Message.Type.SHADER_CREATE_FRAG, id);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderNewGeometry(Identity) msgShaderNewGeometry} command.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .geom}
+     * @return this batch
+     */
+    public CommandBatch shaderNewGeometry(Identity id) {
+        return record(Message.Type.SHADER_NEW_GEOM, id);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderCreateGeometry(Identity) msgShaderCreateGeometry} command.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .geom}
+     * @return this batch
+     */
+    public CommandBatch shaderCreateGeometry(Identity id) {
+        return record(Message.Type.SHADER_CREATE_GEOM, id);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderSelect(int) msgShaderSelect} command.
+     * 
+     * @param index the index of the shader to select
+     * @return this batch
+     */
+    public CommandBatch shaderSelect(int index) {
+        return record(Message.Type.SHADER_SELECT, index);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderSelectDefaultVert2D() msgShaderSelectDefaultVert2D} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderSelectDefaultVert2D() {
+        return record(Message.Type.SHADER_SELECT_DEFAULT_VERT_2D);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderSelectDefaultFrag2D() msgShaderSelectDefaultFrag2D} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderSelectDefaultFrag2D() {
+        return record(Message.Type.SHADER_SELECT_DEFAULT_FRAG_2D);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderSelectDefaultVertCube() msgShaderSelectDefaultVertCube} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderSelectDefaultVertCube() {
+        return record(Message.Type.SHADER_SELECT_DEFAULT_VERT_CUBE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderSelectDefaultFragCube() msgShaderSelectDefaultFragCube} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderSelectDefaultFragCube() {
+        return record(Message.Type.SHADER_SELECT_DEFAULT_FRAG_CUBE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderSelectDefaultVertUI() msgShaderSelectDefaultVertUI} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderSelectDefaultVertUI() {
+        return record(Message.Type.SHADER_SELECT_DEFAULT_VERT_UI);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderSelectDefaultFragUI() msgShaderSelectDefaultFragUI} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderSelectDefaultFragUI() {
+        return record(Message.Type.SHADER_SELECT_DEFAULT_FRAG_UI);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderClose() msgShaderClose} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderClose() {
+        return record(Message.Type.SHADER_CLOSE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderClose(int) msgShaderClose} command.
+     * 
+     * @param shader the unique id of the shader
+     * @return this batch
+     */
+    public CommandBatch shaderClose(int shader) {
+        return record(Message.Type.SHADER_CLOSE_BY_HANDLE, shader);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderGetID() msgShaderGetID} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderGetID() {
+        return record(Message.Type.SHADER_GET_ID);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramNew(boolean) msgShaderProgramNew} command.
+     * 
+     * @param mode {@code true} if the new shader program is intended to take cubemap
+     * textures, or {@code false} for 2D textures
+     * @return this batch
+     */
+    public CommandBatch shaderProgramNew(boolean mode) {
+        return record(Message.Type.SHADER_PROGRAM_NEW, mode);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramCreate(boolean) msgShaderProgramCreate} command.
+     * 
+     * @param mode {@code true} if the new shader program is intended to take cubemap
+     * textures, or {@code false} for 2D textures
+     * @return this batch
+     */
+    public CommandBatch shaderProgramCreate(boolean mode) {
+        return record(Message.Type.SHADER_PROGRAM_CREATE, mode);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramSelect(int) msgShaderProgramSelect} command.
+     * 
+     * @param index the index of the shader program to select
+     * @return this batch
+     */
+    public CommandBatch shaderProgramSelect(int index) {
+        return record(Message.Type.SHADER_PROGRAM_SELECT, index);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramSelectDefault2D() msgShaderProgramSelectDefault2D} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramSelectDefault2D() {
+        return record(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_2D);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramSelectDefaultCube() msgShaderProgramSelectDefaultCube} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramSelectDefaultCube() {
+        return record(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_CUBE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramSelectDefaultUI() msgShaderProgramSelectDefaultUI} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramSelectDefaultUI() {
+        return record(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_UI);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramClose() msgShaderProgramClose} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramClose() {
+        return record(Message.Type.SHADER_PROGRAM_CLOSE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramClose(int) msgShaderProgramClose} command.
+     * 
+     * @param program the unique id of the shader program
+     * @return this batch
+     */
+    public CommandBatch shaderProgramClose(int program) {
+        return record(Message.Type.SHADER_PROGRAM_CLOSE_BY_HANDLE, program);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramSetReadonly() msgShaderProgramSetReadonly} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramSetReadonly() {
+        return record(Message.Type.SHADER_PROGRAM_SET_READONLY);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramSetReadonly(int) msgShaderProgramSetReadonly} command.
+     * 
+     * @param program the unique id of the shader program
+     * @return this batch
+     */
+    public CommandBatch shaderProgramSetReadonly(int program) {
+        return record(Message.Type.SHADER_PROGRAM_SET_READONLY_BY_HANDLE, program);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramAttachShader() msgShaderProgramAttachShader} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramAttachShader() {
+        return record(Message.Type.SHADER_PROGRAM_ATTACH);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramAttachShader(int, int) msgShaderProgramAttachShader} command.
+     * 
+     * @param program the unique id of the shader program
+     * @param shader the unique id of the shader
+     * @return this batch
+     */
+    public CommandBatch shaderProgramAttachShader(int program, int shader) {
+        return record(Message.Type.SHADER_PROGRAM_ATTACH_BY_HANDLE, program, shader);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramGetID() msgShaderProgramGetID} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramGetID() {
+        return record(Message.Type.SHADER_PROGRAM_GET_ID);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTexture2DNew(Identity, int) msgTexture2DNew} command.
+     * 
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch texture2DNew(Identity id, int unit) {
+        return record(Message.Type.TEXTURE_ID_NEW_2D, id, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTexture2DCreate(Identity, int) msgTexture2DCreate} command.
+     * 
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch texture2DCreate(Identity id, int unit) {
+        return record(Message.Type.TEXTURE_ID_CREATE_2D, id, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTexture2DNew(BufferedImage, int) msgTexture2DNew} command.
+     * 
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch texture2DNew(BufferedImage im, int unit) {
+        return record(Message.Type.TEXTURE_IM_NEW_2D, im, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTexture2DCreate(BufferedImage, int) msgTexture2DCreate} command.
+     * 
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch texture2DCreate(BufferedImage im, int unit) {
+        return record(Message.Type.TEXTURE_IM_CREATE_2D, im, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapNew(Identity, int) msgTextureCubemapNew} command.
+     * 
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapNew(Identity id, int unit) {
+        return record(Message.Type.TEXTURE_ID_NEW_CUBE, id, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapCreate(Identity, int) msgTextureCubemapCreate} command.
+     * 
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapCreate(Identity id, int unit) {
+        return record(Message.Type.TEXTURE_ID_CREATE_CUBE, id, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapNew(BufferedImage, int) msgTextureCubemapNew} command.
+     * 
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapNew(BufferedImage im, int unit) {
+        return record(Message.Type.TEXTURE_IM_NEW_CUBE, im, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapCreate(BufferedImage, int) msgTextureCubemapCreate} command.
+     * 
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapCreate(BufferedImage im, int unit) {
+        return record(Message.Type.TEXTURE_IM_CREATE_CUBE, im, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapNew(Identity, Identity, Identity, Identity, Identity, Identity, int) msgTextureCubemapNew} command.
+     * 
+     * @param pxID the {@link Identity} to get the texture image data for the positive-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nxID the {@link Identity} to get the texture image data for the negative-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pyID the {@link Identity} to get the texture image data for the positive-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nyID the {@link Identity} to get the texture image data for the negative-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pzID the {@link Identity} to get the texture image data for the positive-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nzID the {@link Identity} to get the texture image data for the negative-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapNew(Identity pxID, Identity nxID, Identity pyID, Identity nyID, Identity pzID, Identity nzID, int unit) {
+        return record(Message.Type.TEXTURE_ID6_NEW_CUBE, pxID, nxID, pyID, nyID, pzID, nzID, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapCreate(Identity, Identity, Identity, Identity, Identity, Identity, int) msgTextureCubemapCreate} command.
+     * 
+     * @param pxID the {@link Identity} to get the texture image data for the positive-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nxID the {@link Identity} to get the texture image data for the negative-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pyID the {@link Identity} to get the texture image data for the positive-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nyID the {@link Identity} to get the texture image data for the negative-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pzID the {@link Identity} to get the texture image data for the positive-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nzID the {@link Identity} to get the texture image data for the negative-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapCreate(Identity pxID, Identity nxID, Identity pyID, Identity nyID, Identity pzID, Identity nzID, int unit) {
+        return record(Message.Type.TEXTURE_ID6_CREATE_CUBE, pxID, nxID, pyID, nyID, pzID, nzID, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapNew(BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, int) msgTextureCubemapNew} command.
+     * 
+     * @param pxIm the {@link BufferedImage} to get the image data for the positive-X face
+     * of the cubemap from
+     * @param nxIm the {@link BufferedImage} to get the image data for the negative-X face
+     * of the cubemap from
+     * @param pyIm the {@link BufferedImage} to get the image data for the positive-Y face
+     * of the cubemap from
+     * @param nyIm the {@link BufferedImage} to get the image data for the negative-Y face
+     * of the cubemap from
+     * @param pzIm the {@link BufferedImage} to get the image data for the positive-Z face
+     * of the cubemap from
+     * @param nzIm the {@link BufferedImage} to get the image data for the negative-Z face
+     * of the cubemap from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapNew(BufferedImage pxIm, BufferedImage nxIm, BufferedImage pyIm, BufferedImage nyIm, BufferedImage pzIm, BufferedImage nzIm, int unit) {
+        return record(Message.Type.TEXTURE_IM6_NEW_CUBE, pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureCubemapCreate(BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, int) msgTextureCubemapCreate} command.
+     * 
+     * @param pxIm the {@link BufferedImage} to get the image data for the positive-X face
+     * of the cubemap from
+     * @param nxIm the {@link BufferedImage} to get the image data for the negative-X face
+     * of the cubemap from
+     * @param pyIm the {@link BufferedImage} to get the image data for the positive-Y face
+     * of the cubemap from
+     * @param nyIm the {@link BufferedImage} to get the image data for the negative-Y face
+     * of the cubemap from
+     * @param pzIm the {@link BufferedImage} to get the image data for the positive-Z face
+     * of the cubemap from
+     * @param nzIm the {@link BufferedImage} to get the image data for the negative-Z face
+     * of the cubemap from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch textureCubemapCreate(BufferedImage pxIm, BufferedImage nxIm, BufferedImage pyIm, BufferedImage nyIm, BufferedImage pzIm, BufferedImage nzIm, int unit) {
+        return record(Message.Type.TEXTURE_IM6_CREATE_CUBE, pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureSelect(int) msgTextureSelect} command.
+     * 
+     * @param index the index of the texture to select
+     * @return this batch
+     */
+    public CommandBatch textureSelect(int index) {
+        return record(Message.Type.TEXTURE_SELECT, index);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureSelectDefault2D() msgTextureSelectDefault2D} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch textureSelectDefault2D() {
+        return record(Message.Type.TEXTURE_SELECT_DEFAULT_2D);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureSelectDefaultCubemap() msgTextureSelectDefaultCubemap} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch textureSelectDefaultCubemap() {
+        return record(Message.Type.TEXTURE_SELECT_DEFAULT_CUBE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureClose() msgTextureClose} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch textureClose() {
+        return record(Message.Type.TEXTURE_CLOSE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureClose(int) msgTextureClose} command.
+     * 
+     * @param texture the unique id of the texture
+     * @return this batch
+     */
+    public CommandBatch textureClose(int texture) {
+        return record(Message.Type.TEXTURE_CLOSE_BY_HANDLE, texture);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgTextureGetID() msgTextureGetID} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch textureGetID() {
+        return record(Message.Type.TEXTURE_GET_ID);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkeletonNew(Tree, Matrix) msgSkeletonNew} command.
+     * 
+     * @param skeleton the tree of affine transformation bones to use as the new skeleton
+     * @param weights the vertex-bone weights of the new skeleton. Each row of the weights
+     * corresponds to a vertex within the renderable's mesh, and each column of weights
+     * corresponds to a bone within the skeleton, where the bones are ordered using a
+     * {@linkplain Tree#preOrderWalk() pre-order walk}
+     * @return this batch
+     */
+    public CommandBatch skeletonNew(Tree<? extends AffineTransformation, ?> skeleton, Matrix weights) {
+        return record(Message.Type.SKELETON_NEW, skeleton, weights);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkeletonCreate(Tree, Matrix) msgSkeletonCreate} command.
+     * 
+     * @param skeleton the tree of affine transformation bones to use as the new skeleton
+     * @param weights the vertex-bone weights of the new skeleton. Each row of the weights
+     * corresponds to a vertex within the renderable's mesh, and each column of weights
+     * corresponds to a bone within the skeleton, where the bones are ordered using a
+     * {@linkplain Tree#preOrderWalk() pre-order walk}
+     * @return this batch
+     */
+    public CommandBatch skeletonCreate(Tree<? extends AffineTransformation, ?> skeleton, Matrix weights) {
+        return record(Message.Type.SKELETON_CREATE, skeleton, weights);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkeletonSelect(int) msgSkeletonSelect} command.
+     * 
+     * @param index the index of the skeleton to select
+     * @return this batch
+     */
+    public CommandBatch skeletonSelect(int index) {
+        return record(Message.Type.SKELETON_SELECT, index);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkeletonClose() msgSkeletonClose} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch skeletonClose() {
+        return record(Message.Type.SKELETON_CLOSE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkeletonClose(int) msgSkeletonClose} command.
+     * 
+     * @param skeleton the unique id of the skeleton
+     * @return this batch
+     */
+    public CommandBatch skeletonClose(int skeleton) {
+        return record(Message.Type.SKELETON_CLOSE_BY_HANDLE, skeleton);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgSkeletonGetID() msgSkeletonGetID} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch skeletonGetID() {
+        return record(Message.Type.SKELETON_GET_ID);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableNew(int) msgRenderableNew} command.
+     * 
+     * @param numInstances the affine transformations for each renderable instance
+     * @return this batch
+     */
+    public CommandBatch renderableNew(int numInstances) {
+        return record(Message.Type.RENDERABLE_NEW, numInstances);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableCreate(int) msgRenderableCreate} command.
+     * 
+     * @param numInstances the affine transformations for each renderable instance
+     * @return this batch
+     */
+    public CommandBatch renderableCreate(int numInstances) {
+        return record(Message.Type.RENDERABLE_CREATE, numInstances);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableNew(AffineTransformation[]) msgRenderableNew} command.
+     * 
+     * @param transforms the affine transformations for each renderable instance
+     * @return this batch
+     */
+    public CommandBatch renderableNew(AffineTransformation[] transforms) {
+        return record(Message.Type.RENDERABLE_NEW_TRANSFORMS, (Object)transforms);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableCreate(AffineTransformation[]) msgRenderableCreate} command.
+     * 
+     * @param transforms the affine transformations for each renderable instance
+     * @return this batch
+     */
+    public CommandBatch renderableCreate(AffineTransformation[] transforms) {
+        return record(Message.Type.RENDERABLE_CREATE_TRANSFORMS, (Object)transforms);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSelect(int) msgRenderableSelect} command.
+     * 
+     * @param index the index of the renderable to select
+     * @return this batch
+     */
+    public CommandBatch renderableSelect(int index) {
+        return record(Message.Type.RENDERABLE_SELECT, index);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableClose() msgRenderableClose} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableClose() {
+        return record(Message.Type.RENDERABLE_CLOSE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableClose(int) msgRenderableClose} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableClose(int renderable) {
+        return record(Message.Type.RENDERABLE_CLOSE_BY_HANDLE, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAttachMesh() msgRenderableAttachMesh} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableAttachMesh() {
+        return record(Message.Type.RENDERABLE_ATTACH_MESH);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAttachMesh(int, int) msgRenderableAttachMesh} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param mesh the unique id of the mesh
+     * @return this batch
+     */
+    public CommandBatch renderableAttachMesh(int renderable, int mesh) {
+        return record(Message.Type.RENDERABLE_ATTACH_MESH_BY_HANDLE, renderable, mesh);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAttachTexture() msgRenderableAttachTexture} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableAttachTexture() {
+        return record(Message.Type.RENDERABLE_ATTACH_TEXTURE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAttachTexture(int, int) msgRenderableAttachTexture} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param texture the unique id of the texture
+     * @return this batch
+     */
+    public CommandBatch renderableAttachTexture(int renderable, int texture) {
+        return record(Message.Type.RENDERABLE_ATTACH_TEXTURE_BY_HANDLE, renderable, texture);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableDetachTexture() msgRenderableDetachTexture} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableDetachTexture() {
+        return record(Message.Type.RENDERABLE_DETACH_TEXTURE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableDetachTexture(int) msgRenderableDetachTexture} command.
+     * 
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than or equal to {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch renderableDetachTexture(int unit) {
+        return record(Message.Type.RENDERABLE_DETACH_TEXTURE_UNIT, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableDetachTexture(int, int) msgRenderableDetachTexture} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than or equal to {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch renderableDetachTexture(int renderable, int unit) {
+        return record(Message.Type.RENDERABLE_DETACH_TEXTURE_UNIT_BY_HANDLE, renderable, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSetInstanceTransforms(int) msgRenderableSetInstanceTransforms} command.
+     * 
+     * @param numInstances the new number of instances for the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableSetInstanceTransforms(int numInstances) {
+        return record(Message.Type.RENDERABLE_SET_INSTANCES, numInstances);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSetInstanceTransforms(int, int) msgRenderableSetInstanceTransforms} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param numInstances the new number of instances for the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableSetInstanceTransforms(int renderable, int numInstances) {
+        return record(Message.Type.RENDERABLE_SET_INSTANCES_BY_HANDLE, renderable, numInstances);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSetInstanceTransforms(AffineTransformation...) msgRenderableSetInstanceTransforms} command.
+     * 
+     * @param transforms the new number of instances for the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableSetInstanceTransforms(AffineTransformation... transforms) {
+        return record(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS, (Object)GraphicsEngine.unmodifiable(transforms));
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSetInstanceTransforms(int, AffineTransformation...) msgRenderableSetInstanceTransforms} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param transforms the new number of instances for the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableSetInstanceTransforms(int renderable, AffineTransformation... transforms) {
+        return record(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS_BY_HANDLE, renderable, GraphicsEngine.unmodifiable(transforms));
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSetInstanceTransform(AffineTransformation, int) msgRenderableSetInstanceTransform} command.
+     * 
+     * @param transform the new affine transformation of the renderable
+     * @param instance the index of the instance
+     * @return this batch
+     */
+    public CommandBatch renderableSetInstanceTransform(AffineTransformation transform, int instance) {
+        return record(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM, GraphicsEngine.unmodifiable(transform), instance);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSetInstanceTransform(int, AffineTransformation, int) msgRenderableSetInstanceTransform} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param transform the new affine transformation of the renderable
+     * @param instance the index of the instance
+     * @return this batch
+     */
+    public CommandBatch renderableSetInstanceTransform(int renderable, AffineTransformation transform, int instance) {
+        return record(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE, renderable, GraphicsEngine.unmodifiable(transform), instance);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAddInstance(AffineTransformation) msgRenderableAddInstance} command.
+     * 
+     * @param transform the affine transformation of the new instance
+     * @return this batch
+     */
+    public CommandBatch renderableAddInstance(AffineTransformation transform) {
+        return record(Message.Type.RENDERABLE_ADD_INSTANCE, GraphicsEngine.unmodifiable(transform));
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAddInstance(int, AffineTransformation) msgRenderableAddInstance} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param transform the affine transformation of the new instance
+     * @return this batch
+     */
+    public CommandBatch renderableAddInstance(int renderable, AffineTransformation transform) {
+        return record(Message.Type.RENDERABLE_ADD_INSTANCE_BY_HANDLE, renderable, GraphicsEngine.unmodifiable(transform));
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableRemoveInstance(int) msgRenderableRemoveInstance} command.
+     * 
+     * @param instance the index of the instance
+     * @return this batch
+     */
+    public CommandBatch renderableRemoveInstance(int instance) {
+        return record(Message.Type.RENDERABLE_REMOVE_INSTANCE, instance);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableRemoveInstance(int, int) msgRenderableRemoveInstance} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param instance the index of the instance
+     * @return this batch
+     */
+    public CommandBatch renderableRemoveInstance(int renderable, int instance) {
+        return record(Message.Type.RENDERABLE_REMOVE_INSTANCE_BY_HANDLE, renderable, instance);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAttachSkeleton() msgRenderableAttachSkeleton} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableAttachSkeleton() {
+        return record(Message.Type.RENDERABLE_ATTACH_SKELETON);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableAttachSkeleton(int, int) msgRenderableAttachSkeleton} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param skeleton the unique id of the skeleton
+     * @return this batch
+     */
+    public CommandBatch renderableAttachSkeleton(int renderable, int skeleton) {
+        return record(Message.Type.RENDERABLE_ATTACH_SKELETON_BY_HANDLE, renderable, skeleton);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableDetachSkeleton() msgRenderableDetachSkeleton} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableDetachSkeleton() {
+        return record(Message.Type.RENDERABLE_DETACH_SKELETON);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableDetachSkeleton(int) msgRenderableDetachSkeleton} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableDetachSkeleton(int renderable) {
+        return record(Message.Type.RENDERABLE_DETACH_SKELETON_BY_HANDLE, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSelectMesh() msgRenderableSelectMesh} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableSelectMesh() {
+        return record(Message.Type.RENDERABLE_SELECT_MESH);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableGetMesh(int) msgRenderableGetMesh} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableGetMesh(int renderable) {
+        return record(Message.Type.RENDERABLE_GET_MESH_BY_HANDLE, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSelectTexture(int) msgRenderableSelectTexture} command.
+     * 
+     * @param unit the texture unit being queried. Must be greater than or equal to 0
+     * and less than or equal to {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch renderableSelectTexture(int unit) {
+        return record(Message.Type.RENDERABLE_SELECT_TEXTURE, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableGetTexture(int, int) msgRenderableGetTexture} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param unit the texture unit being queried. Must be greater than or equal to 0
+     * and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return this batch
+     */
+    public CommandBatch renderableGetTexture(int renderable, int unit) {
+        return record(Message.Type.RENDERABLE_GET_TEXTURE_BY_HANDLE, renderable, unit);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableSelectShaderProgram() msgRenderableSelectShaderProgram} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableSelectShaderProgram() {
+        return record(Message.Type.RENDERABLE_SELECT_SHADER_PROGRAM);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableGetShaderProgram(int) msgRenderableGetShaderProgram} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableGetShaderProgram(int renderable) {
+        return record(Message.Type.RENDERABLE_GET_SHADER_PROGRAM_BY_HANDLE, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableCopy() msgRenderableCopy} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableCopy() {
+        return record(Message.Type.RENDERABLE_COPY);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableCopy(int) msgRenderableCopy} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch renderableCopy(int renderable) {
+        return record(Message.Type.RENDERABLE_COPY_BY_HANDLE, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgRenderableGetID() msgRenderableGetID} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch renderableGetID() {
+        return record(Message.Type.RENDERABLE_GET_ID);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramAssignRenderable() msgShaderProgramAssignRenderable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramAssignRenderable() {
+        return record(Message.Type.SHADER_PROGRAM_ASSIGN_RENDERABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramAssignRenderable(int, int) msgShaderProgramAssignRenderable} command.
+     * 
+     * @param program the unique id of the shader program
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch shaderProgramAssignRenderable(int program, int renderable) {
+        return record(Message.Type.SHADER_PROGRAM_ASSIGN_RENDERABLE_BY_HANDLE, program, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramUnassignRenderable() msgShaderProgramUnassignRenderable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch shaderProgramUnassignRenderable() {
+        return record(Message.Type.SHADER_PROGRAM_UNASSIGN_RENDERABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgShaderProgramUnassignRenderable(int) msgShaderProgramUnassignRenderable} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch shaderProgramUnassignRenderable(int renderable) {
+        return record(Message.Type.SHADER_PROGRAM_UNASSIGN_RENDERABLE_BY_HANDLE, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgUIEnable() msgUIEnable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch uiEnable() {
+        return record(Message.Type.UI_ENABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgUIDisable() msgUIDisable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch uiDisable() {
+        return record(Message.Type.UI_DISABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgUIAssignRenderable() msgUIAssignRenderable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch uiAssignRenderable() {
+        return record(Message.Type.UI_ASSIGN_RENDERABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgUIAssignRenderable(int) msgUIAssignRenderable} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch uiAssignRenderable(int renderable) {
+        return record(Message.Type.UI_ASSIGN_RENDERABLE_BY_HANDLE, renderable);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgUIUnassignRenderable() msgUIUnassignRenderable} command.
+     * 
+     * @return this batch
+     */
+    public CommandBatch uiUnassignRenderable() {
+        return record(Message.Type.UI_UNASSIGN_RENDERABLE);
+    }
+    
+    /**
+     * Records a {@link GraphicsEngine#msgUIUnassignRenderable(int) msgUIUnassignRenderable} command.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return this batch
+     */
+    public CommandBatch uiUnassignRenderable(int renderable) {
+        return record(Message.Type.UI_UNASSIGN_RENDERABLE_BY_HANDLE, renderable);
+    }
+}
@@ -0,0 +1,279 @@
+package net.vob.core.graphics;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import net.vob.util.math.Matrix;
+import net.vob.util.math.Quaternion;
+import org.lwjgl.BufferUtils;
+
+/**
+ * The draws of a single frame, as built by the {@link FramePipeline}. A draw list is
+ * produced in two halves: the graphics thread first snapshots the scene into it,
+ * recording the camera matrices, and the renderables of each shader program in the
+ * order they are to be drawn in; the prepare stage of the pipeline then computes the
+ * visible instances of every renderable, and packs their matrices into a single array.
+ * Once prepared, the draw list is only read from, and the graphics thread submits it
+ * without computing any matrices itself.<p>
+ *
+ * The draws are grouped into passes, one for each shader program. If the UI is to be
+ * rendered, the UI renderables form the last pass. Each entry of a pass holds a
+ * renderable, along with the number of its visible instances, and the offset of their
+ * matrices in {@link instanceData}. The instances of each pass are packed in the
+ * instance layout of its program, as given by {@link GLShaderProgram#isCompactLayout()}
+ * when the frame was snapshotted. Note that only the instance data is captured; the
+ * mesh, textures and skeleton of each renderable are read when it is submitted.<p>
+ *
+ * The arrays of a draw list are reused each time it is cleared, and only grow.
+ *
+ * @author Lyn-Park
+ */
+final class DrawList {
+    // --- SNAPSHOT, written by the graphics thread ---
+
+    /** The projection and view matrices of the camera. */
+    Matrix projMatrix, viewMatrix, projViewMatrix;
+    /** The rotation of the camera. */
+    Quaternion viewRotation;
+    /** Whether the camera matrices have changed since the last draw list was snapshotted. */
+    boolean matricesChanged;
+    /** Whether the instance index is queried for visible instances. */
+    boolean cull;
+    /** Whether the instances of renderables in the compact layout are culled on the GPU. */
+    boolean gpuCull;
+    /**
+     * The planes of the view frustum, as written by
+     * {@link net.vob.util.math.Frustum#writeToFloatArray(float[], int)}.
+     */
+    final float[] frustumPlanes = new float[24];
+
+    int numPasses = 0;
+    GLShaderProgram[] passPrograms = new GLShaderProgram[8];
+    /** The index of the entry after the last entry of each pass. */
+    int[] passEnds = new int[8];
+    /** Whether the instances of each pass are in the compact layout. */
+    boolean[] passCompact = new boolean[8];
+    /** Whether the last pass is the UI pass. */
+    boolean hasUIPass;
+
+    int size = 0;
+    GLRenderable[] renderables = new GLRenderable[64];
+    /** The bounds of the mesh of each renderable, as returned by {@link GLMesh#getBounds()}. */
+    double[][] meshBounds = new double[64][];
+    /** Whether the instances of each renderable are culled against the view frustum. */
+    boolean[] culled = new boolean[64];
+    /** Whether the instances of each renderable are kept in the instance index. */
+    boolean[] indexed = new boolean[64];
+    /** Whether the instances of each renderable are in the compact layout. */
+    boolean[] compact = new boolean[64];
+    /**
+     * Whether the instances of each renderable are culled on the GPU by the
+     * {@link GLInstanceCuller}, rather than on the CPU. Such a renderable is neither
+     * culled nor indexed on the CPU, and so every instance of it is counted as visible
+     * and drawn from the instance arena.
+     */
+    boolean[] gpuCulled = new boolean[64];
+
+    // --- PREPARED, written by the prepare stage ---
+
+    /** The number of visible instances of each renderable. */
+    int[] visibleCounts = new int[64];
+    /**
+     * Whether each renderable is drawn from the
+     * {@link GraphicsManager#INSTANCE_ARENA instance arena}, rather than having its
+     * visible instances packed into {@link instanceData}. This is the case if the
+     * renderable is in the compact layout, and every instance of it is visible; the
+     * instances are then drawn straight from the range of the renderable in the arena,
+     * in which only the instances that have changed are uploaded again.
+     */
+    boolean[] resident = new boolean[64];
+    /** The index of the first packed instance of each renderable, counting every packed instance. */
+    int[] offsets = new int[64];
+    /**
+     * The index of the first float of the packed instances of each renderable in
+     * {@link instanceData}. Each offset is a multiple of the number of floats in an
+     * instance of the renderable, so that it is a whole number of instances in its
+     * layout.
+     */
+    int[] dataOffsets = new int[64];
+    /**
+     * The instance data of every visible instance, in the layout of its pass. This is
+     * an off-heap buffer, written to concurrently by the workers of the prepare stage,
+     * and read from by the graphics thread when uploading instances; thus, its position
+     * and limit are meaningless, and only absolute or duplicated access is allowed.
+     */
+    FloatBuffer instanceData = BufferUtils.createFloatBuffer(0);
+    /** The number of floats used in {@link instanceData}, including any padding between renderables. */
+    int instanceFloats;
+    int instancesVisible, instancesCulled;
+    /** The number of instances packed into {@link instanceData}. */
+    int instancesPacked;
+    /** The time taken to prepare this draw list, in nanoseconds. */
+    long prepareNanos;
+
+    /**
+     * Clears this draw list, releasing its references to renderables and matrices.
+     */
+    void clear() {
+        Arrays.fill(renderables, 0, size, null);
+        Arrays.fill(meshBounds, 0, size, null);
+        Arrays.fill(passPrograms, 0, numPasses, null);
+
+        projMatrix = viewMatrix = projViewMatrix = null;
+        viewRotation = null;
+
+        numPasses = 0;
+        size = 0;
+        hasUIPass = false;
+        instancesVisible = instancesCulled = instancesPacked = 0;
+        instanceFloats = 0;
+    }
+
+    /**
+     * Starts a new pass. Every renderable added afterwards is drawn with the given
+     * program, until the next pass is started. The program should be linked, so that
+     * its instance layout is known.
+     * @param program the program of the pass
+     * @param ui {@code true} if this is the UI pass, {@code false} otherwise
+     */
+    void beginPass(GLShaderProgram program, boolean ui) {
+        if (numPasses == passPrograms.length) {
+            passPrograms = Arrays.copyOf(passPrograms, 2 * numPasses);
+            passEnds = Arrays.copyOf(passEnds, 2 * numPasses);
+            passCompact = Arrays.copyOf(passCompact, 2 * numPasses);
+        }
+
+        passPrograms[numPasses] = program;
+        passEnds[numPasses] = size;
+        passCompact[numPasses] = program.isCompactLayout();
+        ++numPasses;
+        hasUIPass = ui;
+    }
+
+    /**
+     * Adds the given renderable to the current pass.
+     * @param renderable the renderable
+     * @param culled {@code true} if the instances of the renderable are culled against
+     * the view frustum; if {@link gpuCull} is set, and the current pass is in the
+     * compact layout, they are culled on the GPU instead
+     * @param indexed {@code true} if the instances of the renderable are kept in the
+     * instance index
+     */
+    void add(GLRenderable renderable, boolean culled, boolean indexed) {
+        if (size == renderables.length) {
+            int capacity = 2 * size;
+            renderables = Arrays.copyOf(renderables, capacity);
+            meshBounds = Arrays.copyOf(meshBounds, capacity);
+            this.culled = Arrays.copyOf(this.culled, capacity);
+            this.indexed = Arrays.copyOf(this.indexed, capacity);
+            compact = Arrays.copyOf(compact, capacity);
+            gpuCulled = Arrays.copyOf(gpuCulled, capacity);
+            visibleCounts = Arrays.copyOf(visibleCounts, capacity);
+            resident = Arrays.copyOf(resident, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            dataOffsets = Arrays.copyOf(dataOffsets, capacity);
+        }
+
+        renderables[size] = renderable;
+        meshBounds[size] = renderable.mesh.getBounds();
+        compact[size] = passCompact[numPasses - 1];
+        gpuCulled[size] = culled && gpuCull && compact[size];
+        this.culled[size] = culled && !gpuCulled[size];
+        this.indexed[size] = indexed && !gpuCulled[size];
+        ++size;
+
+        passEnds[numPasses - 1] = size;
+    }
+
+    /**
+     * Gets the index of the first entry of the given pass.
+     * @param pass the pass
+     * @return the index of the first entry
+     */
+    int getPassStart(int pass) {
+        return pass == 0 ? 0 : passEnds[pass - 1];
+    }
+
+    /**
+     * Gets the number of floats in each instance of the given entry.
+     * @param entry the entry
+     * @return the number of floats
+     */
+    int getFloatsPerInstance(int entry) {
+        return GraphicsManager.getInstanceStride(compact[entry]) / Float.BYTES;
+    }
+
+    /**
+     * Gets the number of instances of the given entry packed into {@link instanceData}.
+     * @param entry the entry
+     * @return the number of visible instances, or 0 if the entry is resident
+     */
+    int getPackedCount(int entry) {
+        return resident[entry] ? 0 : visibleCounts[entry];
+    }
+
+    /**
+     * Gets the instance buffer the given entry is drawn from. The instance data of the
+     * frame must have been uploaded.
+     * @param entry the entry
+     * @return the buffer of the {@link GraphicsManager#INSTANCE_ARENA instance arena}
+     * if the entry is resident, or of the {@link GraphicsManager#INSTANCE_RING instance
+     * ring} otherwise
+     */
+    int getInstanceBuffer(int entry) {
+        return resident[entry] ? GraphicsManager.INSTANCE_ARENA.getBuffer() : GraphicsManager.INSTANCE_RING.getBuffer();
+    }
+
+    /**
+     * Gets the generation of the instance buffer the given entry is drawn from, as
+     * given by {@link getInstanceBuffer(int)}.
+     * @param entry the entry
+     * @return the generation of the buffer
+     */
+    int getInstanceGeneration(int entry) {
+        return resident[entry] ? GraphicsManager.INSTANCE_ARENA.getGeneration() : GraphicsManager.INSTANCE_RING.getGeneration();
+    }
+
+    /**
+     * Gets the base instance of the first visible instance of the given entry, in the
+     * buffer given by {@link getInstanceBuffer(int)}.
+     * @param entry the entry
+     * @return the base instance
+     */
+    int getBaseInstance(int entry) {
+        if (resident[entry])
+            return renderables[entry].getArenaBaseInstance();
+
+        return GraphicsManager.INSTANCE_RING.getBaseInstance(dataOffsets[entry], GraphicsManager.getInstanceStride(compact[entry]));
+    }
+
+    /**
+     * Computes the offset of the packed instances of each renderable from the number
+     * of visible instances, and grows {@link instanceData} to fit them all; resident
+     * renderables have no instances packed. The data of each renderable is padded to
+     * start on a whole instance of its layout, so that the whole array can be uploaded
+     * at once, and each renderable located within it by a base instance. Also totals
+     * the number of visible, culled and packed instances.
+     */
+    void layoutInstances() {
+        int offset = 0, dataOffset = 0, visible = 0, culled = 0;
+        for (int i = 0; i < size; ++i) {
+            int floatsPerInstance = getFloatsPerInstance(i), packed = getPackedCount(i);
+            dataOffset = ((dataOffset + floatsPerInstance - 1) / floatsPerInstance) * floatsPerInstance;
+            
+            offsets[i] = offset;
+            dataOffsets[i] = dataOffset;
+            offset += packed;
+            dataOffset += packed * floatsPerInstance;
+            visible += visibleCounts[i];
+            culled += renderables[i].getNumPreparedInstances() - visibleCounts[i];
+        }
+
+        instancesVisible = visible;
+        instancesCulled = culled;
+        instancesPacked = offset;
+        instanceFloats = dataOffset;
+
+        if (instanceData.capacity() < dataOffset)
+            instanceData = BufferUtils.createFloatBuffer(Math.max(dataOffset, 2 * instanceData.capacity()));
+    }
+}
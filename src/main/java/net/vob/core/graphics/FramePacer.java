@@ -0,0 +1,158 @@
+package net.vob.core.graphics;
+
+/**
+ * Paces the loop of the graphical thread. After each loop, the pacer decides when the
+ * next loop should start, according to its {@link GraphicsEngine.FramePacing pacing
+ * mode}; the graphical thread then schedules the next loop to wake a little before that
+ * deadline, and spins for the remainder. Spinning covers the imprecision of the
+ * scheduler, which may wake the thread up to a few milliseconds late on some platforms;
+ * the spin time adapts to how late the thread has been woken recently.<p>
+ *
+ * In the target frame rate mode, loops start at a fixed period from each other. If a
+ * loop overruns its period, the next loop starts immediately, and the period is counted
+ * from there; missed loops are dropped rather than run back-to-back to catch up, so a
+ * stall never causes a burst of frames afterwards. In the v-sync and uncapped modes, the
+ * next loop always starts immediately; with v-sync, the loop is instead paced by
+ * {@link GraphicsEngine#swapBuffers()} blocking until the next vertical blank.<p>
+ *
+ * The pacer also measures the CPU time of each loop, being the time from the start of
+ * the loop until the frame is presented; this excludes any time spent blocked on
+ * presentation. The pacer is only touched by the graphical thread, except for its mode
+ * and target period, which may be set from any thread.
+ *
+ * @author Lyn-Park
+ */
+final class FramePacer {
+    /** The minimum time to spin for before a deadline, in nanoseconds. */
+    private static final long MIN_SPIN_NANOS = 250_000L;
+    /** The maximum time to spin for before a deadline, in nanoseconds. */
+    private static final long MAX_SPIN_NANOS = 4_000_000L;
+
+    private volatile GraphicsEngine.FramePacing mode = GraphicsEngine.FramePacing.TARGET_FPS;
+    private volatile long targetPeriod;
+    /** The mode the swap interval was last set for. */
+    private GraphicsEngine.FramePacing appliedMode = GraphicsEngine.FramePacing.TARGET_FPS;
+
+    private long spinNanos = 1_000_000L;
+    private boolean started = false;
+    /** The time the next loop should start at. */
+    private long deadline;
+    /** The time the graphical thread was scheduled to wake at, if it was scheduled with a delay. */
+    private long wakeTime;
+    private boolean scheduled = false;
+    private long loopStart, presentStart;
+    private long cpuNanos = 0;
+
+    /**
+     * Constructs the pacer, in the target frame rate mode.
+     * @param targetPeriod the target period between loops, in nanoseconds
+     */
+    FramePacer(long targetPeriod) {
+        this.targetPeriod = targetPeriod;
+    }
+
+    GraphicsEngine.FramePacing getMode() {
+        return mode;
+    }
+
+    void setMode(GraphicsEngine.FramePacing mode) {
+        this.mode = mode;
+    }
+
+    long getTargetPeriod() {
+        return targetPeriod;
+    }
+
+    void setTargetPeriod(long targetPeriod) {
+        this.targetPeriod = targetPeriod;
+    }
+
+    /**
+     * Gets the CPU time of the last loop.
+     * @return the CPU time, in nanoseconds
+     */
+    long getCPUNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * Starts a loop, spinning until its deadline first. Must be invoked at the very
+     * start of each loop.
+     */
+    void beginLoop() {
+        long now = System.nanoTime();
+
+        if (!started) {
+            deadline = now;
+            started = true;
+        }
+
+        // Adapt the spin time towards twice the lateness of the scheduler
+        if (scheduled) {
+            long late = now - wakeTime;
+            spinNanos = Math.max(MIN_SPIN_NANOS, Math.min(MAX_SPIN_NANOS, spinNanos + ((2 * late) - spinNanos) / 8));
+            scheduled = false;
+        }
+
+        while (now - deadline < 0) {
+            Thread.yield();
+            now = System.nanoTime();
+        }
+
+        loopStart = now;
+        presentStart = 0;
+    }
+
+    /**
+     * Sets the swap interval for the current mode, if the mode has changed since it was
+     * last set. Entering the v-sync mode enables v-sync; leaving it, or entering the
+     * uncapped mode, disables v-sync. Otherwise, v-sync is left as set by
+     * {@link GraphicsEngine#msgEnableVSync()} and
+     * {@link GraphicsEngine#msgDisableVSync()}.
+     */
+    void applyMode() {
+        GraphicsEngine.FramePacing current = mode;
+        if (current == appliedMode)
+            return;
+
+        if (current == GraphicsEngine.FramePacing.VSYNC)
+            GraphicsEngine.doEnableVSync();
+        else if (appliedMode == GraphicsEngine.FramePacing.VSYNC || current == GraphicsEngine.FramePacing.UNCAPPED)
+            GraphicsEngine.doDisableVSync();
+
+        appliedMode = current;
+    }
+
+    /**
+     * Marks the point at which the frame of the current loop is presented. Must be
+     * invoked immediately before presenting, if the loop presents a frame.
+     */
+    void beginPresent() {
+        presentStart = System.nanoTime();
+    }
+
+    /**
+     * Ends a loop, and computes the deadline of the next loop. Must be invoked at the
+     * very end of each loop.
+     * @return the delay to schedule the next loop with, in nanoseconds
+     */
+    long endLoop() {
+        long now = System.nanoTime();
+        cpuNanos = (presentStart != 0 ? presentStart : now) - loopStart;
+
+        if (appliedMode == GraphicsEngine.FramePacing.TARGET_FPS) {
+            deadline += targetPeriod;
+            if (deadline - now < 0)
+                deadline = now;
+        } else
+            deadline = now;
+
+        long delay = (deadline - now) - spinNanos;
+        if (delay <= 0)
+            return 0;
+
+        wakeTime = now + delay;
+        scheduled = true;
+        return delay;
+    }
+}
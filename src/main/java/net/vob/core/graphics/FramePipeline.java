@@ -0,0 +1,261 @@
+package net.vob.core.graphics;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+/**
+ * The two-stage pipeline that frames are built in. Each frame is first snapshotted
+ * into a {@link DrawList} by the graphics thread, then <i>prepared</i> on a pool of
+ * worker threads: this computes the model matrices and world bounds of every instance,
+ * refits the instance index, culls the instances against the view frustum, and packs
+ * the instance data of the visible instances into the draw list. The prepared draw list is
+ * then <i>submitted</i> by the graphics thread, which makes every GL call for the frame.
+ * <p>
+ *
+ * The pipeline holds two draw lists, which are used alternately; thus, the graphics
+ * thread can submit one frame while the next is still being prepared. The graphics
+ * thread must {@link await() await} any frame being prepared before modifying the
+ * scene, as the prepare stage reads the renderables of the draw list, and writes to the
+ * instance index; this makes the loop of the graphics thread:
+ * <ol>
+ *  <li>Await the frame launched during the previous loop</li>
+ *  <li>Handle messages, and update the camera</li>
+ *  <li>Snapshot the next frame, and launch its preparation</li>
+ *  <li>Submit the awaited frame</li>
+ * </ol>
+ * While the prepare stage runs, the graphics thread may only touch the GL objects of
+ * renderables, not their instances.
+ *
+ * @author Lyn-Park
+ */
+final class FramePipeline {
+    /** The maximum number of instances in each range of {@link InstanceRangeAction}. */
+    private static final int INSTANCE_GRAIN = 256;
+
+    private ForkJoinPool pool;
+    private final DrawList[] drawLists = { new DrawList(), new DrawList() };
+    private int next = 0;
+    private ForkJoinTask<DrawList> pending = null;
+
+    /**
+     * Constructs the pipeline, with a worker pool of the given parallelism.
+     * @param parallelism the number of worker threads
+     */
+    FramePipeline(int parallelism) {
+        pool = createPool(parallelism);
+    }
+
+    private static ForkJoinPool createPool(int parallelism) {
+        return new ForkJoinPool(parallelism, (p) -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("Graphics-prepare-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Sets the number of worker threads, replacing the worker pool if the number has
+     * changed. No frame may be being prepared.
+     * @param parallelism the number of worker threads
+     */
+    void setParallelism(int parallelism) {
+        if (pool.getParallelism() == parallelism)
+            return;
+
+        pool.shutdown();
+        pool = createPool(parallelism);
+    }
+
+    /**
+     * Gets the next draw list to snapshot a frame into, clearing it. This is never the
+     * draw list of the frame last returned by {@link await()}.
+     * @return the draw list
+     */
+    DrawList acquire() {
+        DrawList drawList = drawLists[next];
+        next ^= 1;
+
+        drawList.clear();
+        return drawList;
+    }
+
+    /**
+     * Launches the preparation of the given draw list on the worker pool. Any frame
+     * previously launched must have been awaited first.
+     * @param drawList the snapshotted draw list
+     */
+    void launch(DrawList drawList) {
+        pending = pool.submit(new PrepareTask(drawList));
+    }
+
+    /**
+     * Waits for the frame last launched to finish preparing.
+     * @return the prepared draw list, or {@code null} if no frame was launched since
+     * this method was last invoked
+     */
+    DrawList await() {
+        if (pending == null)
+            return null;
+
+        try {
+            return pending.join();
+        } finally {
+            pending = null;
+        }
+    }
+
+    /**
+     * Waits for any frame being prepared, then shuts down the worker pool. The frame is
+     * discarded, and any exception thrown while preparing it is ignored.
+     */
+    void close() {
+        if (pending != null) {
+            pending.quietlyJoin();
+            pending = null;
+        }
+
+        pool.shutdown();
+    }
+
+    /**
+     * The task preparing a single draw list. The task alternates between phases run in
+     * parallel over the renderables, which only touch the instances of a single
+     * renderable each, and phases run serially, which touch the instance index.
+     */
+    private static final class PrepareTask extends RecursiveTask<DrawList> {
+        private final DrawList drawList;
+
+        PrepareTask(DrawList drawList) {
+            this.drawList = drawList;
+        }
+
+        @Override
+        protected DrawList compute() {
+            DrawList d = drawList;
+            long start = System.nanoTime();
+
+            // Update the model matrices and world bounds, then refit the instance index
+            // with them, and query it for the visible instances
+            forEach(d.size, (i) -> d.renderables[i].prepareInstances(d.meshBounds[i]));
+
+            for (int i = 0; i < d.size; ++i)
+                d.renderables[i].indexInstances(d.indexed[i]);
+
+            if (d.cull)
+                GraphicsManager.INSTANCE_INDEX.query(GraphicsManager.FRUSTUM, GLRenderable.Instance::markVisible);
+
+            // Cull the instances, then lay out the visible ones in the draw list, and
+            // compute and pack their matrices over contiguous ranges of instances;
+            // renderables with every instance visible in the compact layout are drawn
+            // from the instance arena instead, and so are not packed
+            forEach(d.size, (i) -> {
+                d.visibleCounts[i] = d.renderables[i].cullInstances(d.culled[i], d.compact[i], d.projViewMatrix);
+                d.resident[i] = d.compact[i] && d.visibleCounts[i] == d.renderables[i].getNumPreparedInstances();
+            });
+
+            d.layoutInstances();
+
+            new InstanceRangeAction(d, 0, d.instancesPacked).invoke();
+
+            d.prepareNanos = System.nanoTime() - start;
+            return d;
+        }
+    }
+
+    /**
+     * The task computing and packing the matrices of a range of the packed instances
+     * of a draw list, splitting the range in half until it holds at most
+     * {@link INSTANCE_GRAIN} instances. The ranges are over the packed instances of
+     * every renderable in the draw list, in the order they are packed in; thus, a range
+     * may span several renderables, and a renderable with many instances may be spread
+     * over several ranges. Each range writes to its own duplicate of the instance
+     * buffer of the draw list.
+     */
+    private static final class InstanceRangeAction extends RecursiveAction {
+        private final DrawList drawList;
+        private final int start, end;
+
+        InstanceRangeAction(DrawList drawList, int start, int end) {
+            this.drawList = drawList;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > INSTANCE_GRAIN) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new InstanceRangeAction(drawList, start, mid), new InstanceRangeAction(drawList, mid, end));
+                return;
+            }
+
+            DrawList d = drawList;
+            FloatBuffer dst = d.instanceData.duplicate();
+
+            // Find the last entry starting at or before the start of the range; entries
+            // with no packed instances start at the same offset as the next entry, and
+            // so are skipped over by this
+            int lo = 0, hi = d.size - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (d.offsets[mid] <= start)
+                    lo = mid;
+                else
+                    hi = mid - 1;
+            }
+
+            for (int i = start, entry = lo; i < end; ++entry) {
+                int entryEnd = Math.min(end, d.offsets[entry] + d.getPackedCount(entry));
+                if (entryEnd <= i)
+                    continue;
+
+                int first = i - d.offsets[entry];
+                d.renderables[entry].writeVisibleInstances(first, entryEnd - i, d.projViewMatrix, d.compact[entry], dst,
+                                                           d.dataOffsets[entry] + (first * d.getFloatsPerInstance(entry)));
+                i = entryEnd;
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for every index in {@code [0, size)} in parallel, and
+     * waits for every action to complete. Must be invoked from within the worker pool.
+     * @param size the number of indices
+     * @param action the action
+     */
+    private static void forEach(int size, IntConsumer action) {
+        new RangeAction(0, size, action).invoke();
+    }
+
+    /**
+     * The task performing an action over a range of indices, splitting the range in
+     * half until a single index remains.
+     */
+    private static final class RangeAction extends RecursiveAction {
+        private final int start, end;
+        private final IntConsumer action;
+
+        RangeAction(int start, int end, IntConsumer action) {
+            this.start = start;
+            this.end = end;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= 1) {
+                if (end > start)
+                    action.accept(start);
+                return;
+            }
+
+            int mid = (start + end) >>> 1;
+            invokeAll(new RangeAction(start, mid, action), new RangeAction(mid, end, action));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package net.vob.core.graphics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The CPU and GPU times of a single frame, broken down into each of its render passes.
+ * The CPU time of a pass is the time taken by the graphics thread to submit the GL
+ * commands of the pass, and its GPU time is the time between the GPU reaching the start
+ * and the end of those commands, as measured by timestamp queries.<p>
+ *
+ * The passes of a frame are named: the skybox pass is named {@link SKYBOX}, the UI pass
+ * {@link UI}, and the pass of each other shader program is named by
+ * {@link getProgramPassName(int)}. The name {@link FRAME} refers to the whole frame,
+ * and is never the name of a pass.<p>
+ *
+ * As the GPU runs behind the graphics thread, and its timestamps are read back without
+ * waiting on it, the most recent profile is that of a frame a few loops before the
+ * last.
+ *
+ * @author Lyn-Park
+ */
+public final class FrameProfile {
+    /** The name referring to the whole frame. */
+    public static final String FRAME = "frame";
+    /** The name of the skybox pass. */
+    public static final String SKYBOX = "skybox";
+    /** The name of the pass culling instances on the GPU. */
+    public static final String CULL = "cull";
+    /** The name of the UI pass. */
+    public static final String UI = "ui";
+
+    private static final Map<Integer, String> PROGRAM_PASS_NAMES = new ConcurrentHashMap<>();
+
+    private final String[] passNames;
+    private final long[] passCPUNanos, passGPUNanos;
+    private final long cpuNanos, gpuNanos;
+
+    FrameProfile(String[] passNames, long[] passCPUNanos, long[] passGPUNanos, long cpuNanos, long gpuNanos) {
+        this.passNames = passNames;
+        this.passCPUNanos = passCPUNanos;
+        this.passGPUNanos = passGPUNanos;
+        this.cpuNanos = cpuNanos;
+        this.gpuNanos = gpuNanos;
+    }
+
+    /**
+     * Gets the name of the pass of the shader program with the given ID.
+     * @param id the ID of the shader program
+     * @return the name of the pass
+     */
+    public static String getProgramPassName(int id) {
+        return PROGRAM_PASS_NAMES.computeIfAbsent(id, (i) -> "program " + i);
+    }
+
+    /**
+     * Gets the number of passes in the frame.
+     * @return the number of passes
+     */
+    public int getNumPasses() {
+        return passNames.length;
+    }
+
+    /**
+     * Gets the name of the given pass.
+     * @param pass the index of the pass
+     * @return the name of the pass
+     * @throws IndexOutOfBoundsException if {@code pass} is negative, or not less than
+     * {@link getNumPasses()}
+     */
+    public String getPassName(int pass) {
+        return passNames[pass];
+    }
+
+    /**
+     * Gets the CPU time of the given pass.
+     * @param pass the index of the pass
+     * @return the CPU time of the pass, in milliseconds
+     * @throws IndexOutOfBoundsException if {@code pass} is negative, or not less than
+     * {@link getNumPasses()}
+     */
+    public double getPassCPUTime(int pass) {
+        return passCPUNanos[pass] / 1e6;
+    }
+
+    /**
+     * Gets the GPU time of the given pass.
+     * @param pass the index of the pass
+     * @return the GPU time of the pass, in milliseconds
+     * @throws IndexOutOfBoundsException if {@code pass} is negative, or not less than
+     * {@link getNumPasses()}
+     */
+    public double getPassGPUTime(int pass) {
+        return passGPUNanos[pass] / 1e6;
+    }
+
+    /**
+     * Gets the CPU time of the whole frame, from the start of its submission until its
+     * last GL command was submitted. This excludes presenting the frame.
+     * @return the CPU time of the frame, in milliseconds
+     */
+    public double getCPUTime() {
+        return cpuNanos / 1e6;
+    }
+
+    /**
+     * Gets the GPU time of the whole frame.
+     * @return the GPU time of the frame, in milliseconds
+     */
+    public double getGPUTime() {
+        return gpuNanos / 1e6;
+    }
+}
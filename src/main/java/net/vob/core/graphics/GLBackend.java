@@ -0,0 +1,166 @@
+package net.vob.core.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.lwjgl.opengl.GLDebugMessageCallbackI;
+
+/**
+ * The set of OpenGL and context functions used by the graphics engine. Every GL call
+ * made by the graphics thread goes through the current backend,
+ * {@link GraphicsManager#BACKEND}, rather than directly through the LWJGL static
+ * functions; this allows the engine to run with an implementation other than
+ * {@link LWJGLBackend}, such as the {@link HeadlessGLBackend}, which requires no GL
+ * context at all.<p>
+ *
+ * The GL functions are named and typed after their LWJGL counterparts, and behave
+ * identically; see the OpenGL specification for their documentation.
+ *
+ * @author Lyn-Park
+ */
+interface GLBackend {
+
+    // --- CONTEXT ---
+
+    /**
+     * Makes the context of the given window current on the calling thread.
+     * @param window the GLFW handle of the window
+     */
+    void makeContextCurrent(long window);
+
+    /**
+     * Creates the GL capabilities for the context that is current on the calling thread.
+     */
+    void createCapabilities();
+
+    /**
+     * Checks if immutable buffer storage ({@code glBufferStorage}) is supported by the
+     * current context, either through GL 4.4 or the {@code ARB_buffer_storage} extension.
+     * @return {@code true} if buffer storage is supported, {@code false} otherwise
+     */
+    boolean isBufferStorageSupported();
+
+    /**
+     * Swaps the front and back buffers of the given window.
+     * @param window the GLFW handle of the window
+     */
+    void swapBuffers(long window);
+
+    /**
+     * Sets the swap interval of the current context.
+     * @param interval the number of screen updates to wait for before swapping buffers
+     */
+    void swapInterval(int interval);
+
+    void glDebugMessageCallback(GLDebugMessageCallbackI callback, long userParam);
+
+    // --- STATE ---
+
+    void glEnable(int cap);
+    void glDisable(int cap);
+    void glBlendFunc(int sfactor, int dfactor);
+    void glClearColor(float red, float green, float blue, float alpha);
+    void glClear(int mask);
+    void glViewport(int x, int y, int width, int height);
+    int glGetInteger(int pname);
+
+    // --- BUFFERS ---
+
+    int glGenBuffers();
+    void glDeleteBuffers(int buffer);
+    void glBindBuffer(int target, int buffer);
+    void glBindBufferBase(int target, int index, int buffer);
+    void glBufferData(int target, ByteBuffer data, int usage);
+    void glBufferData(int target, IntBuffer data, int usage);
+    void glBufferData(int target, FloatBuffer data, int usage);
+    void glBufferData(int target, int[] data, int usage);
+    void glBufferData(int target, long size, int usage);
+    void glBufferSubData(int target, long offset, ByteBuffer data);
+    void glBufferSubData(int target, long offset, FloatBuffer data);
+    void glCopyBufferSubData(int readTarget, int writeTarget, long readOffset, long writeOffset, long size);
+    void glBufferStorage(int target, long size, int flags);
+    ByteBuffer glMapBufferRange(int target, long offset, long length, int access);
+    boolean glUnmapBuffer(int target);
+
+    // --- SYNC OBJECTS ---
+
+    long glFenceSync(int condition, int flags);
+    int glClientWaitSync(long sync, int flags, long timeout);
+    void glDeleteSync(long sync);
+
+    // --- QUERIES ---
+
+    int glGenQueries();
+    void glDeleteQueries(int id);
+    void glQueryCounter(int id, int target);
+    int glGetQueryObjecti(int id, int pname);
+    long glGetQueryObjectui64(int id, int pname);
+
+    // --- VERTEX ARRAYS ---
+
+    int glGenVertexArrays();
+    void glDeleteVertexArrays(int array);
+    void glBindVertexArray(int array);
+    void glEnableVertexAttribArray(int index);
+    void glDisableVertexAttribArray(int index);
+    void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer);
+    void glVertexAttribDivisor(int index, int divisor);
+    void glDrawElementsInstanced(int mode, int count, int type, long indices, int primcount);
+    void glDrawElementsInstancedBaseInstance(int mode, int count, int type, long indices, int primcount, int baseinstance);
+    void glMultiDrawElementsIndirect(int mode, int type, long indirect, int drawcount, int stride);
+    void glDrawElementsIndirect(int mode, int type, long indirect);
+
+    // --- TEXTURES ---
+
+    int glGenTextures();
+    void glDeleteTextures(int texture);
+    void glActiveTexture(int texture);
+    void glBindTexture(int target, int texture);
+    void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels);
+    void glTexParameteri(int target, int pname, int param);
+    void glGenerateMipmap(int target);
+
+    // --- FRAMEBUFFERS ---
+
+    int glGenFramebuffers();
+    void glDeleteFramebuffers(int framebuffer);
+    void glBindFramebuffer(int target, int framebuffer);
+    int glCheckFramebufferStatus(int target);
+    int glGenRenderbuffers();
+    void glDeleteRenderbuffers(int renderbuffer);
+    void glBindRenderbuffer(int target, int renderbuffer);
+    void glRenderbufferStorage(int target, int internalformat, int width, int height);
+    void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer);
+    void glReadPixels(int x, int y, int width, int height, int format, int type, ByteBuffer pixels);
+
+    // --- SHADERS ---
+
+    int glCreateShader(int type);
+    void glDeleteShader(int shader);
+    void glShaderSource(int shader, CharSequence string);
+    void glCompileShader(int shader);
+    int glGetShaderi(int shader, int pname);
+    String glGetShaderInfoLog(int shader);
+
+    int glCreateProgram();
+    void glDeleteProgram(int program);
+    void glAttachShader(int program, int shader);
+    void glDetachShader(int program, int shader);
+    void glBindAttribLocation(int program, int index, CharSequence name);
+    void glLinkProgram(int program);
+    void glValidateProgram(int program);
+    int glGetProgrami(int program, int pname);
+    String glGetProgramInfoLog(int program);
+    int glGetProgramInterfacei(int program, int programInterface, int pname);
+    String glGetProgramResourceName(int program, int programInterface, int index);
+    void glShaderStorageBlockBinding(int program, int storageBlockIndex, int storageBlockBinding);
+    void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding);
+    void glUseProgram(int program);
+    void glUniform3ui(int location, int v0, int v1, int v2);
+    void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value);
+
+    // --- COMPUTE ---
+
+    void glDispatchCompute(int numGroupsX, int numGroupsY, int numGroupsZ);
+    void glMemoryBarrier(int barriers);
+}
@@ -0,0 +1,159 @@
+package net.vob.core.graphics;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+
+/**
+ * Measures the time the GPU takes to execute each frame and each of its render passes,
+ * using timestamp queries. A timestamp is recorded at the start and end of the GL
+ * commands of each frame, and of each pass within it; as the GPU executes these
+ * commands some time after they are submitted, the timestamps are only read back
+ * {@link LATENCY} frames later, once they are available, so that the CPU never waits
+ * on them. If the timestamps of a frame are still not available by then, the frame is
+ * not measured.<p>
+ *
+ * Alongside the timestamps, the timer records the CPU time taken to submit the frame
+ * and each of its passes, so that both are read back together into a
+ * {@link FrameProfile}.
+ *
+ * @author Lyn-Park
+ */
+final class GLFrameTimer extends GLObject {
+    /** The number of frames between recording the timestamps of a frame and reading them back. */
+    static final int LATENCY = 4;
+
+    /**
+     * The queries of each slot. The first query holds the start of the frame, followed
+     * by the start and end of each pass, and the last query used holds the end of the
+     * frame. Queries are generated as needed, and kept until the timer is closed.
+     */
+    private final int[][] queries = new int[LATENCY][];
+    /** The number of queries generated for each slot. */
+    private final int[] numQueries = new int[LATENCY];
+    private final String[][] passNames = new String[LATENCY][];
+    private final long[][] passCPUNanos = new long[LATENCY][];
+    private final int[] numPasses = new int[LATENCY];
+    private final long[] cpuNanos = new long[LATENCY];
+    /** Whether the timestamps of each slot have been recorded, but not yet read back. */
+    private final boolean[] pending = new boolean[LATENCY];
+    private int slot = 0;
+    private long frameStart, passStart;
+
+    /** The GPU time of the last frame read back, in nanoseconds. */
+    private long gpuNanos = 0;
+
+    @Override
+    void init() {
+        for (int i = 0; i < LATENCY; ++i) {
+            queries[i] = new int[4];
+            passNames[i] = new String[1];
+            passCPUNanos[i] = new long[1];
+        }
+    }
+
+    @Override
+    protected boolean doClose() {
+        for (int i = 0; i < LATENCY; ++i)
+            for (int j = 0; j < numQueries[i]; ++j)
+                GraphicsManager.BACKEND.glDeleteQueries(queries[i][j]);
+
+        return true;
+    }
+
+    /**
+     * Gets the GPU time of the most recent frame that has been read back. This lags
+     * behind the current frame by {@link LATENCY} frames.
+     * @return the GPU time, in nanoseconds
+     */
+    long getGPUNanos() {
+        return gpuNanos;
+    }
+
+    /**
+     * Records the timestamp of the start of a frame. Before the queries of the oldest
+     * frame are reused for this frame, its timestamps are read back if available.
+     * @return the profile of the oldest frame, or {@code null} if it was not measured
+     */
+    @Nullable FrameProfile beginFrame() {
+        FrameProfile profile = null;
+
+        if (pending[slot]) {
+            profile = readBack(slot);
+            pending[slot] = false;
+        }
+
+        numPasses[slot] = 0;
+        recordTimestamp(0);
+        frameStart = System.nanoTime();
+
+        return profile;
+    }
+
+    /**
+     * Records the timestamp of the start of a pass. Passes may not overlap.
+     * @param name the name of the pass
+     */
+    void beginPass(String name) {
+        int pass = numPasses[slot];
+        if (pass == passNames[slot].length) {
+            passNames[slot] = Arrays.copyOf(passNames[slot], 2 * pass);
+            passCPUNanos[slot] = Arrays.copyOf(passCPUNanos[slot], 2 * pass);
+        }
+
+        passNames[slot][pass] = name;
+        recordTimestamp(1 + (2 * pass));
+        passStart = System.nanoTime();
+    }
+
+    /**
+     * Records the timestamp of the end of the current pass.
+     */
+    void endPass() {
+        int pass = numPasses[slot];
+        passCPUNanos[slot][pass] = System.nanoTime() - passStart;
+        recordTimestamp(2 + (2 * pass));
+        ++numPasses[slot];
+    }
+
+    /**
+     * Records the timestamp of the end of a frame, and moves on to the next frame.
+     */
+    void endFrame() {
+        cpuNanos[slot] = System.nanoTime() - frameStart;
+        recordTimestamp(1 + (2 * numPasses[slot]));
+        pending[slot] = true;
+        slot = (slot + 1) % LATENCY;
+    }
+
+    private void recordTimestamp(int index) {
+        if (index == queries[slot].length)
+            queries[slot] = Arrays.copyOf(queries[slot], 2 * index);
+        if (index == numQueries[slot])
+            queries[slot][numQueries[slot]++] = GraphicsManager.BACKEND.glGenQueries();
+
+        GraphicsManager.BACKEND.glQueryCounter(queries[slot][index], GL33.GL_TIMESTAMP);
+    }
+
+    private @Nullable FrameProfile readBack(int s) {
+        int[] q = queries[s];
+        int n = numPasses[s];
+
+        // Timestamps become available in order, so if the last is available, so are
+        // all the others
+        if (GraphicsManager.BACKEND.glGetQueryObjecti(q[1 + (2 * n)], GL15.GL_QUERY_RESULT_AVAILABLE) != GL11.GL_TRUE)
+            return null;
+
+        long[] passGPUNanos = new long[n];
+        for (int pass = 0; pass < n; ++pass)
+            passGPUNanos[pass] = GraphicsManager.BACKEND.glGetQueryObjectui64(q[2 + (2 * pass)], GL15.GL_QUERY_RESULT) -
+                                 GraphicsManager.BACKEND.glGetQueryObjectui64(q[1 + (2 * pass)], GL15.GL_QUERY_RESULT);
+
+        gpuNanos = GraphicsManager.BACKEND.glGetQueryObjectui64(q[1 + (2 * n)], GL15.GL_QUERY_RESULT) -
+                   GraphicsManager.BACKEND.glGetQueryObjectui64(q[0], GL15.GL_QUERY_RESULT);
+
+        return new FrameProfile(Arrays.copyOf(passNames[s], n), Arrays.copyOf(passCPUNanos[s], n), passGPUNanos, cpuNanos[s], gpuNanos);
+    }
+}
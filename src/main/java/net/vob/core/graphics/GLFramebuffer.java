@@ -0,0 +1,119 @@
+package net.vob.core.graphics;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import net.vob.util.logging.LocaleUtils;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+/**
+ * An offscreen framebuffer object, with an RGBA color attachment and a combined
+ * depth/stencil attachment. When the graphics engine is initialized in offscreen mode,
+ * each frame is rendered into an instance of this class rather than into the default
+ * framebuffer of the window, and can be read back into an image.
+ *
+ * @author Lyn-Park
+ */
+final class GLFramebuffer extends GLObject {
+    private int fbo = 0, colorRBO = 0, depthRBO = 0;
+    private int width, height;
+
+    GLFramebuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Creates the framebuffer and its attachments.
+     *
+     * @throws IllegalStateException if the framebuffer is not complete
+     */
+    @Override
+    void init() {
+        fbo = GraphicsManager.BACKEND.glGenFramebuffers();
+        colorRBO = GraphicsManager.BACKEND.glGenRenderbuffers();
+        depthRBO = GraphicsManager.BACKEND.glGenRenderbuffers();
+
+        allocateStorage();
+
+        GraphicsManager.BACKEND.glBindFramebuffer(GL30.GL_FRAMEBUFFER, fbo);
+        GraphicsManager.BACKEND.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, GL30.GL_RENDERBUFFER, colorRBO);
+        GraphicsManager.BACKEND.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_STENCIL_ATTACHMENT, GL30.GL_RENDERBUFFER, depthRBO);
+
+        int status = GraphicsManager.BACKEND.glCheckFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        GraphicsManager.BACKEND.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE)
+            throw new IllegalStateException(LocaleUtils.format("GLFramebuffer.init.Incomplete", status));
+    }
+
+    @Override
+    protected boolean doClose() {
+        GraphicsManager.BACKEND.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        GraphicsManager.BACKEND.glDeleteFramebuffers(fbo);
+        GraphicsManager.BACKEND.glDeleteRenderbuffers(colorRBO);
+        GraphicsManager.BACKEND.glDeleteRenderbuffers(depthRBO);
+
+        fbo = colorRBO = depthRBO = 0;
+        return true;
+    }
+
+    /**
+     * Binds this framebuffer, such that all subsequent rendering is drawn into it.
+     */
+    void bind() {
+        GraphicsManager.BACKEND.glBindFramebuffer(GL30.GL_FRAMEBUFFER, fbo);
+    }
+
+    /**
+     * Resizes the attachments of this framebuffer. Does nothing if the size is unchanged;
+     * otherwise, the contents of the framebuffer are undefined until the next frame is
+     * rendered.
+     *
+     * @param width the new width of the framebuffer
+     * @param height the new height of the framebuffer
+     */
+    void resize(int width, int height) {
+        if (this.width == width && this.height == height)
+            return;
+
+        this.width = width;
+        this.height = height;
+        allocateStorage();
+    }
+
+    /**
+     * Reads the contents of the color attachment of this framebuffer into a new image.
+     * This framebuffer must be bound.
+     *
+     * @return the image, with the origin in its upper-left corner
+     */
+    BufferedImage readPixels() {
+        ByteBuffer buf = BufferUtils.createByteBuffer(width * height * 4);
+        GraphicsManager.BACKEND.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buf);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] row = new int[width];
+
+        // GL rows are ordered bottom-to-top, so flip them into the image
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int r = buf.get() & 0xFF, g = buf.get() & 0xFF, b = buf.get() & 0xFF, a = buf.get() & 0xFF;
+                row[x] = (a << 24) | (r << 16) | (g << 8) | b;
+            }
+
+            image.setRGB(0, height - 1 - y, width, 1, row, 0, width);
+        }
+
+        return image;
+    }
+
+    private void allocateStorage() {
+        GraphicsManager.BACKEND.glBindRenderbuffer(GL30.GL_RENDERBUFFER, colorRBO);
+        GraphicsManager.BACKEND.glRenderbufferStorage(GL30.GL_RENDERBUFFER, GL11.GL_RGBA8, width, height);
+        GraphicsManager.BACKEND.glBindRenderbuffer(GL30.GL_RENDERBUFFER, depthRBO);
+        GraphicsManager.BACKEND.glRenderbufferStorage(GL30.GL_RENDERBUFFER, GL30.GL_DEPTH24_STENCIL8, width, height);
+        GraphicsManager.BACKEND.glBindRenderbuffer(GL30.GL_RENDERBUFFER, 0);
+    }
+}
@@ -0,0 +1,255 @@
+package net.vob.core.graphics;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import net.vob.util.logging.LocaleUtils;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL31;
+
+/**
+ * A single large buffer holding the instances of renderables that stay resident on the
+ * GPU between frames, in the compact layout. Each renderable that is drawn from the
+ * arena is {@link allocate(int) allocated} a contiguous range of instances in it, sized
+ * to the instance capacity of the renderable; only the instances that have changed
+ * since they were last uploaded are written to it again, as one or more contiguous
+ * runs uploaded under a single bind of the buffer. Draws then locate the instances of a
+ * renderable by the base instance of its range, and so every draw from the arena uses
+ * the same bound buffer.<p>
+ *
+ * Ranges are handed out by a first-fit free-list allocator. The free ranges are kept
+ * sorted by offset, and a freed range is merged with any free neighbours, so that the
+ * free list only holds ranges separated by allocated ones. If no free range is large
+ * enough, the buffer is reallocated with at least twice the capacity, and the contents
+ * of the old buffer are copied over on the GPU; every allocated range keeps its offset,
+ * but the buffer changes, and so any VAO pointing at it must be updated. As the name of
+ * the old buffer may be handed out again, VAOs detect this by the
+ * {@link getGeneration() generation} of the buffer, rather than its name alone.
+ *
+ * @author Lyn-Park
+ */
+final class GLInstanceArena extends GLObject {
+    /** The initial capacity of the buffer, in instances. */
+    private static final int INITIAL_CAPACITY = 4096;
+    /** The number of floats in each instance. */
+    private static final int FLOATS_PER_INSTANCE = GraphicsManager.COMPACT_INSTANCE_STRIDE / Float.BYTES;
+
+    private int buffer = 0;
+    /** The generation of the buffer, as given by {@link GraphicsManager#nextInstanceBufferGeneration()}. */
+    private int generation = 0;
+    /** The number of instances the buffer can hold. */
+    private int capacity = 0;
+    /** The length of each free range, keyed by its offset, in instances. */
+    private final TreeMap<Integer, Integer> freeRanges = new TreeMap<>();
+    /** The buffer the instances of each upload are written to before buffering. */
+    private FloatBuffer staging = BufferUtils.createFloatBuffer(0);
+    /** The offset and number of instances of each run of the current upload. */
+    private int[] runOffsets = new int[0], runCounts = new int[0];
+    private int numRuns = 0;
+
+    /**
+     * Allocates the buffer, with every instance free.
+     */
+    @Override
+    void init() {
+        buffer = GraphicsManager.BACKEND.glGenBuffers();
+        generation = GraphicsManager.nextInstanceBufferGeneration();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, buffer);
+        GraphicsManager.BACKEND.glBufferData(GL15.GL_ARRAY_BUFFER, (long)INITIAL_CAPACITY * GraphicsManager.COMPACT_INSTANCE_STRIDE, GL15.GL_DYNAMIC_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+        capacity = INITIAL_CAPACITY;
+        freeRanges.clear();
+        freeRanges.put(0, capacity);
+    }
+
+    @Override
+    protected boolean doClose() {
+        GraphicsManager.BACKEND.glDeleteBuffers(buffer);
+        buffer = 0;
+        freeRanges.clear();
+        return true;
+    }
+
+    /**
+     * Gets the name of the buffer. This changes whenever the buffer grows.
+     * @return the buffer object
+     */
+    int getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Gets the generation of the buffer. This changes whenever the buffer grows, even
+     * if the GL hands out the name of a deleted buffer for the new one.
+     * @return the generation
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the number of instances the buffer can hold.
+     * @return the capacity, in instances
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the free ranges of the buffer.
+     * @return an unmodifiable view of the length of each free range, keyed by its
+     * offset, in instances
+     */
+    SortedMap<Integer, Integer> getFreeRanges() {
+        return Collections.unmodifiableSortedMap(freeRanges);
+    }
+
+    /**
+     * Allocates a range of the given number of instances, growing the buffer if no free
+     * range is large enough.
+     * @param count the number of instances
+     * @return the offset of the range, in instances; this is also the base instance of
+     * the first instance of the range
+     * @throws IllegalArgumentException if {@code count} is less than 1
+     */
+    int allocate(int count) {
+        if (count < 1)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>", "count", count, 0));
+
+        for (Iterator<Map.Entry<Integer, Integer>> it = freeRanges.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, Integer> range = it.next();
+            if (range.getValue() < count)
+                continue;
+
+            int offset = range.getKey(), length = range.getValue();
+            it.remove();
+            if (length > count)
+                freeRanges.put(offset + count, length - count);
+
+            return offset;
+        }
+
+        grow(count);
+        return allocate(count);
+    }
+
+    /**
+     * Frees the given range, merging it with any free neighbours.
+     * @param offset the offset of the range, as returned by {@link allocate(int)}
+     * @param count the number of instances in the range, as passed to
+     * {@link allocate(int)}
+     * @throws IllegalArgumentException if the range lies outside the buffer, or any
+     * part of it is already free
+     */
+    void free(int offset, int count) {
+        Map.Entry<Integer, Integer> prev = freeRanges.floorEntry(offset);
+        Integer nextOffset = freeRanges.ceilingKey(offset);
+
+        if (offset < 0 || count < 1 || offset + count > capacity ||
+            (prev != null && prev.getKey() + prev.getValue() > offset) ||
+            (nextOffset != null && nextOffset < offset + count))
+            throw new IllegalArgumentException(LocaleUtils.format("GLInstanceArena.free.InvalidRange", offset, count));
+
+        if (prev != null && prev.getKey() + prev.getValue() == offset) {
+            offset = prev.getKey();
+            count += prev.getValue();
+        }
+
+        Integer next = freeRanges.remove(offset + count);
+        if (next != null)
+            count += next;
+
+        freeRanges.put(offset, count);
+    }
+
+    /**
+     * Gets a buffer to write the instances of an upload into, and starts a new upload.
+     * The buffer is cleared, and holds at least the given number of instances; it must
+     * be written to contiguously from its start, with each run of instances written to
+     * it recorded by {@link addRun(int, int)}, then passed to {@link upload(FloatBuffer)}.
+     * @param count the number of instances to upload
+     * @return the staging buffer
+     */
+    FloatBuffer stage(int count) {
+        if (staging.capacity() < count * FLOATS_PER_INSTANCE)
+            staging = BufferUtils.createFloatBuffer(Math.max(count * FLOATS_PER_INSTANCE, 2 * staging.capacity()));
+
+        staging.clear();
+        numRuns = 0;
+        return staging;
+    }
+
+    /**
+     * Records that the next instances written into the staging buffer, following those
+     * of the previous run, are to be uploaded to the given offset.
+     * @param offset the offset to upload the run to, in instances
+     * @param count the number of instances in the run
+     */
+    void addRun(int offset, int count) {
+        if (numRuns == runOffsets.length) {
+            runOffsets = Arrays.copyOf(runOffsets, Math.max(8, 2 * numRuns));
+            runCounts = Arrays.copyOf(runCounts, runOffsets.length);
+        }
+
+        runOffsets[numRuns] = offset;
+        runCounts[numRuns] = count;
+        ++numRuns;
+    }
+
+    /**
+     * Uploads the instances written into the staging buffer, with a single
+     * {@code glBufferSubData} call for each run of the upload.
+     * @param data the staging buffer, as returned by {@link stage(int)}; its position
+     * and limit are modified by this method
+     */
+    void upload(FloatBuffer data) {
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, buffer);
+
+        int position = 0;
+        for (int i = 0; i < numRuns; ++i) {
+            int floats = runCounts[i] * FLOATS_PER_INSTANCE;
+            data.limit(position + floats);
+            data.position(position);
+            GraphicsManager.BACKEND.glBufferSubData(GL15.GL_ARRAY_BUFFER, (long)runOffsets[i] * GraphicsManager.COMPACT_INSTANCE_STRIDE, data);
+            position += floats;
+        }
+
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        numRuns = 0;
+    }
+
+    /**
+     * Reallocates the buffer with enough free space at its end for the given number of
+     * instances, copying the contents of the old buffer over.
+     * @param count the number of instances
+     */
+    private void grow(int count) {
+        // a free range at the end of the buffer is extended, rather than left behind
+        Map.Entry<Integer, Integer> last = freeRanges.lastEntry();
+        int tail = last != null && last.getKey() + last.getValue() == capacity ? last.getValue() : 0;
+        int newCapacity = Math.max(2 * capacity, capacity + count - tail);
+
+        int newBuffer = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, newBuffer);
+        GraphicsManager.BACKEND.glBufferData(GL31.GL_COPY_WRITE_BUFFER, (long)newCapacity * GraphicsManager.COMPACT_INSTANCE_STRIDE, GL15.GL_DYNAMIC_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_READ_BUFFER, buffer);
+        GraphicsManager.BACKEND.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, 0, 0,
+                                                    (long)capacity * GraphicsManager.COMPACT_INSTANCE_STRIDE);
+        GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+
+        GraphicsManager.BACKEND.glDeleteBuffers(buffer);
+        buffer = newBuffer;
+        generation = GraphicsManager.nextInstanceBufferGeneration();
+
+        int oldCapacity = capacity;
+        capacity = newCapacity;
+        free(oldCapacity, newCapacity - oldCapacity);
+    }
+}
@@ -0,0 +1,288 @@
+package net.vob.core.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import net.vob.VoidOfBlue;
+import net.vob.util.logging.Level;
+import net.vob.util.logging.LocaleUtils;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL42;
+import org.lwjgl.opengl.GL43;
+
+/**
+ * Culls the instances of renderables against the view frustum on the GPU, with the
+ * {@link GLShader#CULL_COMP culling compute shader}. The instances of every GPU-culled
+ * renderable in a frame are read straight from its range in the
+ * {@link GraphicsManager#INSTANCE_ARENA instance arena}, in which only the instances
+ * that have changed are ever uploaded; thus, the CPU does no per-instance work for them
+ * at all. The instances found visible are compacted into the visible instance buffer,
+ * and counted into the instance count of an indirect draw command for each renderable,
+ * which the renderable is then drawn with.<p>
+ *
+ * The instances of each renderable are split into <i>jobs</i> of contiguous ranges of
+ * instances, each starting at its own work group; the jobs of a frame are all culled
+ * with a single dispatch, unless there are more work groups than a single dispatch is
+ * guaranteed to support, in which case they are split over several dispatches. The
+ * visible instances of each renderable are written after the base instance of its
+ * command, which is the sum of the instances of the GPU-culled renderables before it;
+ * they are thus never written past the end of its range, however many are visible.<p>
+ *
+ * As the visible instances are never read back, the CPU does not learn how many
+ * instances were culled; every instance of a GPU-culled renderable is counted as
+ * visible.
+ *
+ * @author Lyn-Park
+ */
+final class GLInstanceCuller extends GLObject {
+    private static final Logger LOG = VoidOfBlue.getLogger(GLInstanceCuller.class);
+
+    /** The number of invocations in each work group; must match the compute shader. */
+    private static final int GROUP_SIZE = 64;
+    /** The number of work groups in a single dispatch; the minimum guaranteed by GL. */
+    private static final int MAX_GROUPS = 65535;
+    /**
+     * The number of integers in each draw command; these are the index count, instance
+     * count, first index, base vertex and base instance, in that order.
+     */
+    private static final int COMMAND_SIZE = 5;
+    /** The size of the frustum planes and job count preceding the jobs, in bytes. */
+    private static final int JOB_HEADER_SIZE = (24 * Float.BYTES) + (4 * Integer.BYTES);
+    /** The size of each job, in bytes, as laid out by the {@code std430} rules. */
+    private static final int JOB_SIZE = (8 * Float.BYTES) + (4 * Integer.BYTES);
+
+    private static final int JOB_BINDING = 0, ARENA_BINDING = 1, VISIBLE_BINDING = 2, COMMAND_BINDING = 3;
+
+    private int prog = 0;
+    private int jobBuffer, visibleBuffer, commandBuffer;
+    /** The generation of the visible instance buffer, which is never regenerated. */
+    private int visibleGeneration;
+    private boolean available = false;
+
+    private ByteBuffer jobs = BufferUtils.createByteBuffer(JOB_HEADER_SIZE + (16 * JOB_SIZE));
+    private IntBuffer commands = BufferUtils.createIntBuffer(16 * COMMAND_SIZE);
+    private final float[] planes = new float[24];
+    /** The command of each entry of the draw list last culled, or -1 if not GPU-culled. */
+    private int[] entryCommands = new int[64];
+    private int numJobs, numGroups;
+
+    /**
+     * Links the culling program, and creates the buffers. If the program fails to link,
+     * the failure is logged, and GPU culling is left unavailable.
+     */
+    @Override
+    void init() {
+        jobBuffer = GraphicsManager.BACKEND.glGenBuffers();
+        visibleBuffer = GraphicsManager.BACKEND.glGenBuffers();
+        visibleGeneration = GraphicsManager.nextInstanceBufferGeneration();
+        commandBuffer = GraphicsManager.BACKEND.glGenBuffers();
+
+        prog = GraphicsManager.BACKEND.glCreateProgram();
+        GraphicsManager.BACKEND.glAttachShader(prog, GLShader.CULL_COMP.shd);
+        GraphicsManager.BACKEND.glLinkProgram(prog);
+        GraphicsManager.BACKEND.glDetachShader(prog, GLShader.CULL_COMP.shd);
+
+        available = GraphicsManager.BACKEND.glGetProgrami(prog, GL20.GL_LINK_STATUS) != GL11.GL_FALSE;
+        if (!available)
+            LOG.log(Level.WARNING, LocaleUtils.format("GLShaderProgram.linkAndValidate.LinkingError", GraphicsManager.BACKEND.glGetProgramInfoLog(prog)));
+    }
+
+    @Override
+    protected boolean doClose() {
+        GraphicsManager.BACKEND.glDeleteProgram(prog);
+        GraphicsManager.BACKEND.glDeleteBuffers(jobBuffer);
+        GraphicsManager.BACKEND.glDeleteBuffers(visibleBuffer);
+        GraphicsManager.BACKEND.glDeleteBuffers(commandBuffer);
+        return true;
+    }
+
+    /**
+     * Checks if GPU culling is available, i.e. if the culling program linked.
+     * @return {@code true} if instances can be culled on the GPU, {@code false}
+     * otherwise
+     */
+    boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Gets the name of the buffer the visible instances are compacted into. The name
+     * never changes, although the buffer is reallocated every frame.
+     * @return the buffer object
+     */
+    int getVisibleBuffer() {
+        return visibleBuffer;
+    }
+
+    /**
+     * Gets the generation of the visible instance buffer.
+     * @return the generation
+     */
+    int getVisibleGeneration() {
+        return visibleGeneration;
+    }
+
+    /**
+     * Gets the name of the buffer holding the draw commands.
+     * @return the buffer object
+     */
+    int getCommandBuffer() {
+        return commandBuffer;
+    }
+
+    /**
+     * Gets the offset of the draw command of the given entry of the draw list last
+     * culled.
+     * @param entry the entry; must be GPU-culled
+     * @return the offset of the command in the command buffer, in bytes
+     */
+    long getCommandOffset(int entry) {
+        return (long)entryCommands[entry] * COMMAND_SIZE * Integer.BYTES;
+    }
+
+    /**
+     * Culls the instances of every GPU-culled renderable in the given draw list. The
+     * instance arena must be up to date with the draw list. Builds a draw command for
+     * each renderable, with an instance count of 0, then dispatches the jobs of every
+     * renderable; the commands are complete once the dispatches have, which is awaited
+     * by the GL with a memory barrier before any of them is drawn with. The culling
+     * program and the shader storage bindings it uses are unbound afterwards.
+     * @param frame the prepared draw list
+     */
+    void cull(DrawList frame) {
+        if (entryCommands.length < frame.size)
+            entryCommands = new int[Math.max(frame.size, 2 * entryCommands.length)];
+        Arrays.fill(entryCommands, 0, frame.size, -1);
+
+        // Build the draw commands of every renderable that can be drawn, leaving room
+        // after the base instance of each for every one of its instances
+        int numCommands = 0, numInstances = 0;
+        commands.clear();
+
+        for (int i = 0; i < frame.size; ++i) {
+            GLRenderable renderable = frame.renderables[i];
+            if (!frame.gpuCulled[i] || renderable.isClosed() || renderable.mesh == null || renderable.mesh.isClosed())
+                continue;
+
+            // The mesh is updated first, as its number of indices may change
+            renderable.mesh.updateGLBuffers();
+
+            if (commands.remaining() < COMMAND_SIZE) {
+                commands.flip();
+                commands = BufferUtils.createIntBuffer(2 * commands.capacity()).put(commands);
+            }
+
+            commands.put(renderable.mesh.getNumTriangleIndices()).put(0).put(0).put(0).put(numInstances);
+            entryCommands[i] = numCommands++;
+            numInstances += frame.visibleCounts[i];
+        }
+
+        if (numCommands == 0)
+            return;
+
+        commands.flip();
+
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, commandBuffer);
+        GraphicsManager.BACKEND.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, commands, GL15.GL_STREAM_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, visibleBuffer);
+        GraphicsManager.BACKEND.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, (long)Math.max(1, numInstances) * GraphicsManager.COMPACT_INSTANCE_STRIDE, GL15.GL_STREAM_COPY);
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+
+        GraphicsManager.BACKEND.glUseProgram(prog);
+        GraphicsManager.BACKEND.glBindBufferBase(GL43.GL_SHADER_STORAGE_BUFFER, ARENA_BINDING, GraphicsManager.INSTANCE_ARENA.getBuffer());
+        GraphicsManager.BACKEND.glBindBufferBase(GL43.GL_SHADER_STORAGE_BUFFER, VISIBLE_BINDING, visibleBuffer);
+        GraphicsManager.BACKEND.glBindBufferBase(GL43.GL_SHADER_STORAGE_BUFFER, COMMAND_BINDING, commandBuffer);
+
+        // Split the instances of each renderable into jobs, dispatching the jobs so far
+        // whenever the next would not fit in the dispatch
+        System.arraycopy(frame.frustumPlanes, 0, planes, 0, planes.length);
+        beginJobs();
+
+        for (int i = 0; i < frame.size; ++i) {
+            if (entryCommands[i] < 0)
+                continue;
+
+            double[] bounds = frame.meshBounds[i];
+            int arenaOffset = frame.renderables[i].getArenaBaseInstance(), count = frame.visibleCounts[i];
+
+            for (int start = 0; start < count; start += MAX_GROUPS * GROUP_SIZE) {
+                int jobCount = Math.min(count - start, MAX_GROUPS * GROUP_SIZE);
+                int jobGroups = (jobCount + GROUP_SIZE - 1) / GROUP_SIZE;
+
+                if (numGroups + jobGroups > MAX_GROUPS) {
+                    dispatchJobs();
+                    beginJobs();
+                }
+
+                addJob(bounds, arenaOffset + start, jobCount, entryCommands[i]);
+                numGroups += jobGroups;
+            }
+        }
+
+        dispatchJobs();
+
+        GraphicsManager.BACKEND.glMemoryBarrier(GL42.GL_COMMAND_BARRIER_BIT | GL42.GL_VERTEX_ATTRIB_ARRAY_BARRIER_BIT);
+
+        for (int binding = JOB_BINDING; binding <= COMMAND_BINDING; ++binding)
+            GraphicsManager.BACKEND.glBindBufferBase(GL43.GL_SHADER_STORAGE_BUFFER, binding, 0);
+        GraphicsManager.BACKEND.glUseProgram(0);
+    }
+
+    /**
+     * Clears the job buffer, and writes the frustum planes to its header.
+     */
+    private void beginJobs() {
+        jobs.clear();
+        jobs.position(JOB_HEADER_SIZE);
+        numJobs = numGroups = 0;
+    }
+
+    /**
+     * Adds a job to the job buffer, growing it if full.
+     * @param bounds the bounds of the mesh of the renderable
+     * @param arenaOffset the offset of the first instance of the job in the arena
+     * @param count the number of instances in the job
+     * @param command the draw command of the renderable
+     */
+    private void addJob(double[] bounds, int arenaOffset, int count, int command) {
+        if (jobs.remaining() < JOB_SIZE) {
+            int position = jobs.position();
+            jobs.flip();
+            jobs = BufferUtils.createByteBuffer(2 * jobs.capacity()).put(jobs);
+            jobs.position(position);
+        }
+
+        jobs.putFloat((float)bounds[0]).putFloat((float)bounds[1]).putFloat((float)bounds[2]).putFloat(0)
+            .putFloat((float)bounds[3]).putFloat((float)bounds[4]).putFloat((float)bounds[5]).putFloat(0)
+            .putInt(numGroups).putInt(arenaOffset).putInt(count).putInt(command);
+        ++numJobs;
+    }
+
+    /**
+     * Uploads the job buffer, and dispatches every job in it. The culling program must
+     * be bound.
+     */
+    private void dispatchJobs() {
+        if (numJobs == 0)
+            return;
+
+        int end = jobs.position();
+        jobs.position(0);
+        for (float plane : planes)
+            jobs.putFloat(plane);
+        jobs.putInt(numJobs).putInt(0).putInt(0).putInt(0);
+        jobs.position(end);
+        jobs.flip();
+
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, jobBuffer);
+        GraphicsManager.BACKEND.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, jobs, GL15.GL_STREAM_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBufferBase(GL43.GL_SHADER_STORAGE_BUFFER, JOB_BINDING, jobBuffer);
+
+        GraphicsManager.BACKEND.glDispatchCompute(numGroups, 1, 1);
+    }
+}
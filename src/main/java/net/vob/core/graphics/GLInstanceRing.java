@@ -0,0 +1,242 @@
+package net.vob.core.graphics;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL44;
+
+/**
+ * A ring buffer holding the instance data of every renderable drawn in a frame.
+ * The buffer is split into {@link NUM_REGIONS} equally sized regions, and each frame
+ * writes into the next region in turn; thus, the CPU can write the instances of one
+ * frame while the GPU is still reading the instances of the previous frames.<p>
+ *
+ * The instance data of a whole frame, as packed in its {@link DrawList}, is
+ * {@link upload(FloatBuffer, int) uploaded} in one go at the start of the frame,
+ * before anything is drawn. If immutable buffer storage is supported, the buffer is
+ * mapped persistently and coherently, and the data is copied straight into the mapped
+ * memory without any GL calls; a fence is placed after the draws of each frame, and is
+ * waited on before the region of that frame is written to again. Otherwise, the buffer
+ * is allocated with mutable storage, and the data is uploaded with a single
+ * {@code glBufferSubData} call. As there are no fences in that case, the GPU may still
+ * be reading the region being written to, in which case the driver must either stall or
+ * copy the data aside; this is cheap for small uploads, but if the frame fills more than
+ * {@link ORPHAN_FRACTION} of a region, the buffer is orphaned first instead, so that
+ * the driver can hand out fresh storage for it.<p>
+ *
+ * Draws locate their instances by {@link getBaseInstance(int, int) base instance},
+ * which is an index into the whole buffer rather than the current region. Instances of
+ * the full and compact layouts share a region; as each region starts on a whole
+ * instance of either layout, and the draw list pads the data of each renderable to a
+ * whole instance of its layout, every base instance is exact. If a frame needs more
+ * space than a region holds, the buffer is reallocated with twice the capacity; draws
+ * already made from the old buffer are unaffected, but the buffer changes, and so any
+ * VAO pointing at it must be updated; VAOs detect this by the
+ * {@link getGeneration() generation} of the buffer, as the GL may reuse its name.
+ *
+ * @author Lyn-Park
+ */
+final class GLInstanceRing extends GLObject {
+    /** The number of regions in the ring; one for each frame that may be in flight. */
+    static final int NUM_REGIONS = 3;
+
+    /**
+     * The alignment of the size of each region, in bytes; this is a multiple of every
+     * instance stride, so that each region starts on a whole instance of any layout.
+     */
+    private static final int REGION_ALIGNMENT = 3 * GraphicsManager.INSTANCE_STRIDE;
+    private static final int INITIAL_CAPACITY = 1024 * GraphicsManager.INSTANCE_STRIDE;
+    /**
+     * The fraction of a region that the instance data of a frame must fill for the
+     * buffer to be orphaned before uploading it, if the buffer is not mapped.
+     */
+    private static final double ORPHAN_FRACTION = 0.5;
+    /** The time to wait on a fence before flushing and waiting again, in nanoseconds. */
+    private static final long FENCE_TIMEOUT = 1_000_000L;
+
+    private static final int STORAGE_FLAGS = GL30.GL_MAP_WRITE_BIT | GL44.GL_MAP_PERSISTENT_BIT | GL44.GL_MAP_COHERENT_BIT;
+
+    private boolean persistent;
+    private int buffer = 0;
+    /** The generation of the buffer, as given by {@link GraphicsManager#nextInstanceBufferGeneration()}. */
+    private int generation = 0;
+    /** The number of bytes each region can hold. */
+    private int capacity = 0;
+    private int region = 0;
+    private final long[] fences = new long[NUM_REGIONS];
+    /** The index of the first float of the instance data of the current frame. */
+    private int frameOffset = 0;
+
+    /** The persistently mapped contents of the buffer, or {@code null} if not mapped. */
+    private FloatBuffer mapped = null;
+
+    /**
+     * Allocates the buffer, using persistent mapping if supported by the context.
+     */
+    @Override
+    void init() {
+        persistent = GraphicsManager.BACKEND.isBufferStorageSupported();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    protected boolean doClose() {
+        delete();
+        return true;
+    }
+
+    /**
+     * Checks if the buffer is persistently mapped.
+     * @return {@code true} if instances are written straight into mapped memory,
+     * {@code false} if they are uploaded with {@code glBufferSubData}
+     */
+    boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * Gets the name of the buffer. This changes whenever the buffer is reallocated.
+     * @return the buffer object
+     */
+    int getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Gets the generation of the buffer. This changes whenever the buffer is
+     * reallocated, even if the GL hands out the same name for the new buffer.
+     * @return the generation
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Moves on to the next region, waiting until the GPU has finished reading the
+     * instances last written to it. Must be invoked at the start of each frame, before
+     * the instance data of the frame is uploaded.
+     */
+    void beginFrame() {
+        region = (region + 1) % NUM_REGIONS;
+
+        long fence = fences[region];
+        if (fence != 0) {
+            int result;
+            do {
+                result = GraphicsManager.BACKEND.glClientWaitSync(fence, GL32.GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT);
+            } while (result == GL32.GL_TIMEOUT_EXPIRED);
+
+            GraphicsManager.BACKEND.glDeleteSync(fence);
+            fences[region] = 0;
+        }
+    }
+
+    /**
+     * Places a fence after every draw made so far, guarding the current region. Must be
+     * invoked at the end of each frame, after all draws have been made.
+     */
+    void endFrame() {
+        if (persistent)
+            fences[region] = GraphicsManager.BACKEND.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+    }
+
+    /**
+     * Uploads the instance data of the current frame into the current region, growing
+     * the buffer if the region cannot hold it.
+     * @param data the instance data of the frame, as packed by the {@link DrawList};
+     * its position and limit are ignored, and left unchanged
+     * @param floats the number of floats of instance data to upload
+     */
+    void upload(FloatBuffer data, int floats) {
+        int size = floats * Float.BYTES;
+        if (size > capacity)
+            allocate(Math.max(2 * capacity, size));
+
+        frameOffset = (region * capacity) / Float.BYTES;
+        if (floats == 0)
+            return;
+
+        FloatBuffer src = data.duplicate();
+        src.limit(floats);
+        src.position(0);
+
+        if (persistent) {
+            mapped.position(frameOffset);
+            mapped.put(src);
+            return;
+        }
+
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, buffer);
+        if (size > ORPHAN_FRACTION * capacity)
+            GraphicsManager.BACKEND.glBufferData(GL15.GL_ARRAY_BUFFER, (long)NUM_REGIONS * capacity, GL15.GL_STREAM_DRAW);
+        GraphicsManager.BACKEND.glBufferSubData(GL15.GL_ARRAY_BUFFER, (long)frameOffset * Float.BYTES, src);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Gets the base instance of the given instance data of the current frame.
+     * @param dataOffset the index of the first float of the instance data in the
+     * uploaded data, as given by {@link DrawList#dataOffsets}
+     * @param stride the stride of each instance, in bytes, as given by
+     * {@link GraphicsManager#getInstanceStride(boolean)}
+     * @return the base instance, as an index into the whole buffer in units of
+     * {@code stride}
+     */
+    int getBaseInstance(int dataOffset, int stride) {
+        return (frameOffset + dataOffset) / (stride / Float.BYTES);
+    }
+
+    private void allocate(int capacity) {
+        // The new buffer is generated before the old one is deleted, so that it never
+        // reuses the name of the old buffer
+        int newBuffer = GraphicsManager.BACKEND.glGenBuffers();
+        delete();
+
+        this.capacity = ((capacity + REGION_ALIGNMENT - 1) / REGION_ALIGNMENT) * REGION_ALIGNMENT;
+        region = 0;
+
+        long size = (long)NUM_REGIONS * this.capacity;
+
+        buffer = newBuffer;
+        generation = GraphicsManager.nextInstanceBufferGeneration();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, buffer);
+
+        if (persistent) {
+            GraphicsManager.BACKEND.glBufferStorage(GL15.GL_ARRAY_BUFFER, size, STORAGE_FLAGS);
+            mapped = GraphicsManager.BACKEND.glMapBufferRange(GL15.GL_ARRAY_BUFFER, 0, size, STORAGE_FLAGS)
+                                            .order(ByteOrder.nativeOrder())
+                                            .asFloatBuffer();
+        } else
+            GraphicsManager.BACKEND.glBufferData(GL15.GL_ARRAY_BUFFER, size, GL15.GL_STREAM_DRAW);
+
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Deletes the buffer and any pending fences, if they exist. Draws already made from
+     * the buffer still complete, as the GL defers the deletion until they have.
+     */
+    private void delete() {
+        for (int i = 0; i < NUM_REGIONS; ++i) {
+            if (fences[i] != 0) {
+                GraphicsManager.BACKEND.glDeleteSync(fences[i]);
+                fences[i] = 0;
+            }
+        }
+
+        if (buffer == 0)
+            return;
+
+        if (persistent) {
+            GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, buffer);
+            GraphicsManager.BACKEND.glUnmapBuffer(GL15.GL_ARRAY_BUFFER);
+            mapped = null;
+        }
+
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glDeleteBuffers(buffer);
+        buffer = 0;
+    }
+}
@@ -13,9 +13,7 @@ import net.vob.util.math.Vector3;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL15;
-import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
-import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL40;
 
 /**
  * Collection of vertex attributes and triangles. Can be used on it's own for rendering,
@@ -141,6 +139,29 @@ final class GLMesh extends GLObject {
     private int vao, vbo, ebo;
     private byte status = 0;
     
+    /**
+     * The number of times the GL data buffers have been reallocated or updated. This is
+     * used by {@link GLMultiDrawBatch} to detect when its copy of the mesh is outdated.
+     */
+    private int bufferVersion = 0;
+    /**
+     * The number of vertices and triangle indices held by the GL data buffers, as last
+     * uploaded; these may differ from the lengths of the vertex and triangle arrays
+     * until the buffers are next updated.
+     */
+    private int uploadedVertices = 0, uploadedIndices = 0;
+    /** The instance buffer object the instance attributes of the VAO point at, or 0 if none. */
+    private int instanceBuffer = 0;
+    /** The generation of {@link instanceBuffer}, as names of deleted buffers may be reused. */
+    private int instanceGeneration = 0;
+    /** Whether the instance attributes of the VAO are in the compact layout. */
+    private boolean instanceCompact = false;
+    
+    /** The bounds of the vertex positions, as a center and half-extents. */
+    private double[] bounds = null;
+    /** The positions array that {@link bounds} was computed from. */
+    private Vector3[] boundsSource = null;
+    
     /**
      * Constructs a new mesh.
      * @param positions the array of vertex positions
@@ -185,11 +206,11 @@ final class GLMesh extends GLObject {
      */
     @Override
     final void init() {
-        vao = GL30.glGenVertexArrays();
+        vao = GraphicsManager.BACKEND.glGenVertexArrays();
         
-        GL30.glBindVertexArray(vao);
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
         reallocateBuffers();
-        GL30.glBindVertexArray(0);
+        GraphicsManager.BACKEND.glBindVertexArray(0);
     }
     
     /**
@@ -266,6 +287,75 @@ final class GLMesh extends GLObject {
         return positions.length;
     }
     
+    /**
+     * Gets the number of triangle indices in this mesh.
+     * @return 
+     */
+    final int getNumTriangleIndices() {
+        return triangles.length;
+    }
+    
+    /**
+     * Gets the number of vertices in the vertex buffer object of this mesh, as last
+     * uploaded.
+     * @return the number of uploaded vertices
+     */
+    final int getNumUploadedVertices() {
+        return uploadedVertices;
+    }
+    
+    /**
+     * Gets the number of triangle indices in the element buffer object of this mesh,
+     * as last uploaded.
+     * @return the number of uploaded triangle indices
+     */
+    final int getNumUploadedTriangleIndices() {
+        return uploadedIndices;
+    }
+    
+    final int getVBO() {
+        return vbo;
+    }
+    
+    final int getEBO() {
+        return ebo;
+    }
+    
+    final int getBufferVersion() {
+        return bufferVersion;
+    }
+    
+    /**
+     * Gets the axis-aligned bounds of the vertex positions of this mesh, as the 3
+     * coordinates of the center of the bounds followed by the 3 half-extents along each
+     * axis. The bounds are recomputed only when the positions change; a new array is
+     * returned when they do, so the identity of the returned array can be used to detect
+     * changes.
+     * 
+     * @return the bounds of this mesh
+     */
+    final double[] getBounds() {
+        if (boundsSource != positions) {
+            double xL = Double.POSITIVE_INFINITY, yL = Double.POSITIVE_INFINITY, zL = Double.POSITIVE_INFINITY;
+            double xH = Double.NEGATIVE_INFINITY, yH = Double.NEGATIVE_INFINITY, zH = Double.NEGATIVE_INFINITY;
+            
+            for (Vector3 pos : positions) {
+                xL = Math.min(xL, pos.getX()); xH = Math.max(xH, pos.getX());
+                yL = Math.min(yL, pos.getY()); yH = Math.max(yH, pos.getY());
+                zL = Math.min(zL, pos.getZ()); zH = Math.max(zH, pos.getZ());
+            }
+            
+            if (positions.length == 0)
+                bounds = new double[6];
+            else
+                bounds = new double[] { (xL + xH) / 2, (yL + yH) / 2, (zL + zH) / 2,
+                                        (xH - xL) / 2, (yH - yL) / 2, (zH - zL) / 2 };
+            boundsSource = positions;
+        }
+        
+        return bounds;
+    }
+    
     /**
      * Sets the positions of the vertices of this mesh.
      * @param positions the new array of vertex positions
@@ -400,15 +490,15 @@ final class GLMesh extends GLObject {
         vBuf.flip();
 
         // Regenerate vertex buffer
-        vbo = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vBuf, GL15.GL_STATIC_DRAW);
+        vbo = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GraphicsManager.BACKEND.glBufferData(GL15.GL_ARRAY_BUFFER, vBuf, GL15.GL_STATIC_DRAW);
 
-        GL20.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX, GraphicsManager.NUM_POSITION_COMPONENTS_PER_VERTEX,
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX, GraphicsManager.NUM_POSITION_COMPONENTS_PER_VERTEX,
                                    GL11.GL_FLOAT, false, GraphicsManager.VERTEX_STRIDE, GraphicsManager.VERTEX_POSITION_OFFSET);
-        GL20.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX, GraphicsManager.NUM_UV_COMPONENTS_PER_VERTEX,
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX, GraphicsManager.NUM_UV_COMPONENTS_PER_VERTEX,
                                    GL11.GL_FLOAT, false, GraphicsManager.VERTEX_STRIDE, GraphicsManager.VERTEX_UV_OFFSET);
-        GL20.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX, GraphicsManager.NUM_NORMAL_COMPONENTS_PER_VERTEX,
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX, GraphicsManager.NUM_NORMAL_COMPONENTS_PER_VERTEX,
                                    GL11.GL_FLOAT, false, GraphicsManager.VERTEX_STRIDE, GraphicsManager.VERTEX_NORMAL_OFFSET);
 
         // Rebuffer indices
@@ -417,13 +507,17 @@ final class GLMesh extends GLObject {
         iBuf.flip();
 
         // Regenerate index buffer
-        ebo = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
-        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, iBuf, GL15.GL_STATIC_DRAW);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        ebo = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+        GraphicsManager.BACKEND.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, iBuf, GL15.GL_STATIC_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        
+        uploadedVertices = positions.length;
+        uploadedIndices = triangles.length;
         
         // Clear statuses
         clearStatus(STATUS_DIRTY_ALL | STATUS_REBUFFER);
+        ++bufferVersion;
     }
     
     /**
@@ -436,7 +530,7 @@ final class GLMesh extends GLObject {
         for (int i = 0; i < positions.length; ++i) {
             bufferVertexAttribute(positions[i], pBuf);
             pBuf.flip();
-            GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.VERTEX_POSITION_OFFSET + (i * GraphicsManager.VERTEX_STRIDE), pBuf);
+            GraphicsManager.BACKEND.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.VERTEX_POSITION_OFFSET + (i * GraphicsManager.VERTEX_STRIDE), pBuf);
             pBuf.clear();
         }
     }
@@ -451,7 +545,7 @@ final class GLMesh extends GLObject {
         for (int i = 0; i < positions.length; ++i) {
             bufferVertexAttribute(uvs[i], uBuf);
             uBuf.flip();
-            GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.VERTEX_UV_OFFSET + (i * GraphicsManager.VERTEX_STRIDE), uBuf);
+            GraphicsManager.BACKEND.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.VERTEX_UV_OFFSET + (i * GraphicsManager.VERTEX_STRIDE), uBuf);
             uBuf.clear();
         }
     }
@@ -466,7 +560,7 @@ final class GLMesh extends GLObject {
         for (int i = 0; i < positions.length; ++i) {
             bufferVertexAttribute(normals[i], nBuf);
             nBuf.flip();
-            GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.VERTEX_NORMAL_OFFSET + (i * GraphicsManager.VERTEX_STRIDE), nBuf);
+            GraphicsManager.BACKEND.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.VERTEX_NORMAL_OFFSET + (i * GraphicsManager.VERTEX_STRIDE), nBuf);
             nBuf.clear();
         }
     }
@@ -479,13 +573,15 @@ final class GLMesh extends GLObject {
         iBuf.put(triangles);
         iBuf.flip();
 
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
-        GL15.glDeleteBuffers(ebo);
-        ebo = GL15.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glDeleteBuffers(ebo);
+        ebo = GraphicsManager.BACKEND.glGenBuffers();
 
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
-        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, iBuf, GL15.GL_STATIC_DRAW);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+        GraphicsManager.BACKEND.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, iBuf, GL15.GL_STATIC_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        
+        uploadedIndices = triangles.length;
     }
     
     /**
@@ -503,7 +599,7 @@ final class GLMesh extends GLObject {
         }
         
         // Bind VBO for updating
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
 
         // If any attribute is dirty, update them
         if (getStatus(STATUS_DIRTY_VERTS_POS))  updatePositions();
@@ -511,7 +607,7 @@ final class GLMesh extends GLObject {
         if (getStatus(STATUS_DIRTY_VERTS_NORM)) updateNormals();
 
         // Unbind VBO
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
 
         // If triangles are dirty, update them
         if (getStatus(STATUS_DIRTY_TRIS))
@@ -519,6 +615,7 @@ final class GLMesh extends GLObject {
         
         // Clear all dirty statuses
         clearStatus(STATUS_DIRTY_ALL);
+        ++bufferVersion;
     }
     
     /**
@@ -526,32 +623,33 @@ final class GLMesh extends GLObject {
      * or when the mesh is closed. Does not bind or delete the VAO.
      */
     private void deleteBuffers() {
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
         
-        GL15.glDeleteBuffers(vbo);
-        GL15.glDeleteBuffers(ebo);
+        GraphicsManager.BACKEND.glDeleteBuffers(vbo);
+        GraphicsManager.BACKEND.glDeleteBuffers(ebo);
     }
     
     /**
-     * Renders this mesh. Also preforms any rebuffering or updating of the GL data
-     * buffers. If the mesh currently has invalid parameters, it reverts back to the
-     * last valid set of parameters.<p>
-     * 
-     * Note that any require uniforms, textures, buffers, etc. must be bound before
-     * calling this method.
+     * Binds the VAO of this mesh.
+     */
+    final void bind() {
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
+    }
+    
+    /**
+     * Checks this mesh for validity, and performs any rebuffering or updating of the GL
+     * data buffers. If the mesh currently has invalid parameters, it reverts back to the
+     * last valid set of parameters. The VAO of this mesh is only bound if the buffers
+     * need updating, through {@link GraphicsManager#bindMesh(GLMesh)}.
      * 
-     * @param ivbo the instance vertex buffer object
-     * @param instances the number of instances
      * @return {@code false} if the mesh had invalid attributes, {@code true}
      * otherwise
      */
-    final boolean render(int ivbo, int instances) {
+    final boolean updateGLBuffers() {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLMesh"));
         
-        // Bind the VAO, and check for validity
-        GL30.glBindVertexArray(vao);
         boolean noError = areParamsValid();
         
         // If no error occured, update the old attribute variables, and 
@@ -559,10 +657,14 @@ final class GLMesh extends GLObject {
         // Otherwise, update the current attribute variables with the old ones
         if (noError) 
         {
-            if (getStatus(STATUS_REBUFFER))
-                reallocateBuffers();
-            else
-                updateBuffers();
+            if (getStatus(STATUS_REBUFFER | STATUS_DIRTY_ALL)) {
+                GraphicsManager.bindMesh(this);
+                
+                if (getStatus(STATUS_REBUFFER))
+                    reallocateBuffers();
+                else
+                    updateBuffers();
+            }
             
             prevPos = positions;
             prevUV = uvs;
@@ -577,52 +679,115 @@ final class GLMesh extends GLObject {
             triangles = prevTri;
         }
         
-        // Bind instance vertex buffer object
-        
-        // This is here because the instance vertex buffer object is per renderable,
-        // not per mesh; thus, the attributes must be rebound to the VAO between
-        // rendering calls
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
-        
-        GraphicsManager.vertexAttribPointerMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, 4,
-                                                  false, GraphicsManager.INSTANCE_STRIDE, GraphicsManager.INSTANCE_MODEL_MATRIX_OFFSET);
-        GraphicsManager.vertexAttribPointerMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX, 4,
-                                                  false, GraphicsManager.INSTANCE_STRIDE, GraphicsManager.INSTANCE_PROJECTION_VIEW_MODEL_MATRIX_OFFSET);
+        return noError;
+    }
+    
+    /**
+     * Renders this mesh. Also preforms any rebuffering or updating of the GL data
+     * buffers. If the mesh currently has invalid parameters, it reverts back to the
+     * last valid set of parameters.<p>
+     * 
+     * Note that any require uniforms, textures, buffers, etc. must be bound before
+     * calling this method. The VAO of this mesh is bound through
+     * {@link GraphicsManager#bindMesh(GLMesh)}, and is left bound afterwards.
+     * 
+     * @param ivbo the instance vertex buffer object
+     * @param generation the generation of {@code ivbo}, as given by
+     * {@link GraphicsManager#nextInstanceBufferGeneration()} when it was allocated
+     * @param compact {@code true} if the instances are in the compact layout,
+     * {@code false} if they are in the full layout
+     * @param baseInstance the index of the first instance in {@code ivbo}
+     * @param instances the number of instances
+     * @return {@code false} if the mesh had invalid attributes, {@code true}
+     * otherwise
+     */
+    final boolean render(int ivbo, int generation, boolean compact, int baseInstance, int instances) {
+        boolean noError = beginRender(ivbo, generation, compact);
         
-        GraphicsManager.vertexAttribDivisorMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, 1);
-        GraphicsManager.vertexAttribDivisorMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX, 1);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+        GraphicsManager.BACKEND.glDrawElementsInstancedBaseInstance(GL11.GL_TRIANGLES, triangles.length, GL11.GL_UNSIGNED_INT, 0, instances, baseInstance);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
         
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        endRender(compact);
+        return noError;
+    }
+    
+    /**
+     * Renders this mesh with an indirect draw command, as written by the
+     * {@link GLInstanceCuller}. Otherwise identical to
+     * {@link render(int, int, boolean, int, int)}; the instances are always in the
+     * compact layout.
+     * 
+     * @param ivbo the instance vertex buffer object
+     * @param generation the generation of {@code ivbo}
+     * @param commandBuffer the buffer holding the draw command
+     * @param command the offset of the draw command in {@code commandBuffer}, in
+     * bytes
+     * @return {@code false} if the mesh had invalid attributes, {@code true}
+     * otherwise
+     */
+    final boolean renderIndirect(int ivbo, int generation, int commandBuffer, long command) {
+        boolean noError = beginRender(ivbo, generation, true);
         
-        // Perform rendering operation
-        GL20.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
-        GL20.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
-        GL20.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX);
-        GraphicsManager.enableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX);
-        GraphicsManager.enableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+        GraphicsManager.BACKEND.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, commandBuffer);
+        GraphicsManager.BACKEND.glDrawElementsIndirect(GL11.GL_TRIANGLES, GL11.GL_UNSIGNED_INT, command);
+        GraphicsManager.BACKEND.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
         
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
-        GL31.glDrawElementsInstanced(GL11.GL_TRIANGLES, triangles.length, GL11.GL_UNSIGNED_INT, 0, instances);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        endRender(true);
+        return noError;
+    }
+    
+    /**
+     * Updates the buffers, binds the VAO, points it at the given instance buffer and
+     * enables the vertex attributes, ready for a draw.
+     */
+    private boolean beginRender(int ivbo, int generation, boolean compact) {
+        // Update the buffers, then bind the VAO if not already bound
+        boolean noError = updateGLBuffers();
+        GraphicsManager.bindMesh(this);
+        
+        // Bind instance vertex buffer object, if the VAO doesn't already point at it
+        
+        // Every renderable streams its instances through the same instance ring, and
+        // locates them with the base instance; thus, the attributes only need to be
+        // rebound to the VAO when the ring is reallocated, or the mesh is drawn with a
+        // program taking the other instance layout. The generation is compared as well
+        // as the name, as a reallocated buffer may be handed the name of a deleted one
+        if (instanceBuffer != ivbo || instanceGeneration != generation || instanceCompact != compact) {
+            GraphicsManager.pointInstanceAttributes(ivbo, compact);
+            instanceBuffer = ivbo;
+            instanceGeneration = generation;
+            instanceCompact = compact;
+        }
         
-        GL20.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
-        GL20.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
-        GL20.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX);
-        GraphicsManager.disableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX);
-        GraphicsManager.disableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX);
-        GL30.glBindVertexArray(0);
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX);
+        GraphicsManager.enableInstanceAttributes(compact);
         
         return noError;
     }
     
+    /**
+     * Disables the vertex attributes enabled by {@link beginRender(int, int, boolean)}.
+     */
+    private void endRender(boolean compact) {
+        GraphicsManager.BACKEND.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
+        GraphicsManager.BACKEND.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
+        GraphicsManager.BACKEND.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX);
+        GraphicsManager.disableInstanceAttributes(compact);
+    }
+    
     @Override
     protected boolean doClose() {
-        GL30.glBindVertexArray(vao);
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
         
         deleteBuffers();
         
-        GL30.glBindVertexArray(0);
-        GL30.glDeleteVertexArrays(vao);
+        GraphicsManager.BACKEND.glBindVertexArray(0);
+        GraphicsManager.BACKEND.glDeleteVertexArrays(vao);
         
         return true;
     }
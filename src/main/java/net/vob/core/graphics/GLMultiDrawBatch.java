@@ -0,0 +1,313 @@
+package net.vob.core.graphics;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL40;
+
+/**
+ * A batch of renderables that are drawn with a single {@code glMultiDrawElementsIndirect}
+ * call. Renderables may only be batched together if they share a shader program, have
+ * no skeleton, and have the same textures bound to every unit; they may have different
+ * meshes.<p>
+ *
+ * The geometry of every batched mesh is copied into a pair of shared vertex and index
+ * buffers, and each mesh is then drawn by offsetting into them with the base vertex and
+ * first index of its draw command. The shared buffers are rebuilt whenever a batched mesh
+ * is not yet in them, or its buffers have changed since it was copied; these copies are
+ * made between buffers on the GPU. The visible instances of every renderable, as packed
+ * in the {@link DrawList} of the frame, are already uploaded to the
+ * {@link GraphicsManager#INSTANCE_RING instance ring} when the batch is drawn, and are
+ * offset into with the base instance of each draw command; the instances of resident
+ * renderables are instead already up to date in the
+ * {@link GraphicsManager#INSTANCE_ARENA instance arena}. As every renderable of a
+ * batch shares a program, they also share an instance layout, and the graphics manager
+ * only batches renderables that are either all resident or all not, so that they also
+ * share an instance buffer.<p>
+ *
+ * A single batch is reused by the graphics manager for every run of batchable
+ * renderables.
+ *
+ * @author Lyn-Park
+ */
+final class GLMultiDrawBatch extends GLObject {
+    /**
+     * The number of integers in each draw command; these are the index count, instance
+     * count, first index, base vertex and base instance, in that order.
+     */
+    private static final int COMMAND_SIZE = 5;
+
+    private int vao, vbo, ebo, dibo;
+    private int vertexCapacity = 0, indexCapacity = 0;
+    /** The instance buffer object the instance attributes of the VAO point at, or 0 if none. */
+    private int instanceBuffer = 0;
+    /** The generation of {@link instanceBuffer}, as names of deleted buffers may be reused. */
+    private int instanceGeneration = 0;
+    /** Whether the instance attributes of the VAO are in the compact layout. */
+    private boolean instanceCompact = false;
+
+    /**
+     * The location of each mesh in the shared buffers, as its base vertex, first index,
+     * and the buffer version of the mesh when it was copied.
+     */
+    private final Map<GLMesh, int[]> slots = new HashMap<>();
+
+    /** The draw list the entries of this batch are in. */
+    private DrawList drawList = null;
+    private int[] entries = new int[16];
+    private int size = 0;
+    private IntBuffer commands = BufferUtils.createIntBuffer(16 * COMMAND_SIZE);
+
+    /**
+     * Creates the VAO and shared buffers of this batch, and sets up the vertex attributes
+     * of the VAO. The buffers are initially empty, and grow as required. The instance
+     * attributes are set up, and enabled, when the batch is first drawn.
+     */
+    @Override
+    void init() {
+        vao = GraphicsManager.BACKEND.glGenVertexArrays();
+        vbo = GraphicsManager.BACKEND.glGenBuffers();
+        ebo = GraphicsManager.BACKEND.glGenBuffers();
+        dibo = GraphicsManager.BACKEND.glGenBuffers();
+
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
+
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX, GraphicsManager.NUM_POSITION_COMPONENTS_PER_VERTEX,
+                                   GL11.GL_FLOAT, false, GraphicsManager.VERTEX_STRIDE, GraphicsManager.VERTEX_POSITION_OFFSET);
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX, GraphicsManager.NUM_UV_COMPONENTS_PER_VERTEX,
+                                   GL11.GL_FLOAT, false, GraphicsManager.VERTEX_STRIDE, GraphicsManager.VERTEX_UV_OFFSET);
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX, GraphicsManager.NUM_NORMAL_COMPONENTS_PER_VERTEX,
+                                   GL11.GL_FLOAT, false, GraphicsManager.VERTEX_STRIDE, GraphicsManager.VERTEX_NORMAL_OFFSET);
+
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX);
+
+        // the index buffer binding is part of the VAO state, and is never unbound
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+
+        GraphicsManager.BACKEND.glBindVertexArray(0);
+    }
+
+    @Override
+    protected boolean doClose() {
+        GraphicsManager.BACKEND.glBindVertexArray(0);
+        GraphicsManager.BACKEND.glDeleteVertexArrays(vao);
+
+        GraphicsManager.BACKEND.glDeleteBuffers(vbo);
+        GraphicsManager.BACKEND.glDeleteBuffers(ebo);
+        GraphicsManager.BACKEND.glDeleteBuffers(dibo);
+
+        slots.clear();
+        clear();
+        return true;
+    }
+
+    /**
+     * Binds the VAO of this batch.
+     */
+    void bind() {
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
+    }
+
+    /**
+     * Adds the renderable of the given entry of a draw list to this batch. The
+     * renderable must have been validated with
+     * {@link GLRenderable#validate(GLShaderProgram)}, must have at least one visible
+     * instance, and must be batchable with every other renderable in this batch. Every
+     * entry of the batch must be from the same draw list.
+     * @param drawList the prepared draw list
+     * @param entry the entry of the renderable to add
+     */
+    void add(DrawList drawList, int entry) {
+        if (size == entries.length)
+            entries = Arrays.copyOf(entries, entries.length * 2);
+
+        this.drawList = drawList;
+        entries[size++] = entry;
+    }
+
+    int size() {
+        return size;
+    }
+
+    GLRenderable get(int index) {
+        return drawList.renderables[entries[index]];
+    }
+
+    int getEntry(int index) {
+        return entries[index];
+    }
+
+    DrawList getDrawList() {
+        return drawList;
+    }
+
+    void clear() {
+        drawList = null;
+        size = 0;
+    }
+
+    /**
+     * Draws every renderable in this batch with a single multi-draw call using an
+     * already bound shader program, then clears this batch. The textures of the first
+     * renderable and the empty skeleton are bound, and the VAO of this batch is left
+     * bound.
+     * @param program the program to use for the rendering
+     * @return {@code false} if any mesh had invalid parameters and reverted back to some
+     * previous valid parameters, {@code true} otherwise
+     */
+    boolean draw(GLShaderProgram program) {
+        int numDraws = size;
+
+        // update the meshes, checking if any are missing or outdated in the shared
+        // buffers; this may bind the VAO of any mesh, so is done before binding the VAO
+        // of this batch
+        boolean noError = true, outdated = false;
+
+        for (int i = 0; i < numDraws; ++i) {
+            GLMesh mesh = get(i).mesh;
+            noError &= mesh.updateGLBuffers();
+
+            int[] slot = slots.get(mesh);
+            outdated |= slot == null || slot[2] != mesh.getBufferVersion();
+        }
+
+        GraphicsManager.bindBatch(this);
+
+        if (outdated)
+            rebuildGeometry();
+
+        // bind the textures shared by every renderable, and the empty skeleton
+        GLRenderable first = get(0);
+        GraphicsManager.bindSkeleton(program, null);
+
+        for (int i = 0; i < first.textures.length; ++i)
+            GraphicsManager.bindTexture(i, first.textures[i]);
+
+        // build the draw commands, offsetting into the instances of each renderable
+        // already uploaded to the instance ring, or the instance arena if resident
+        boolean compact = drawList.compact[entries[0]];
+        int buffer = drawList.getInstanceBuffer(entries[0]);
+        int generation = drawList.getInstanceGeneration(entries[0]);
+
+        if (instanceBuffer != buffer || instanceGeneration != generation || instanceCompact != compact)
+            pointInstanceAttributes(buffer, generation, compact);
+
+        if (commands.capacity() < numDraws * COMMAND_SIZE)
+            commands = BufferUtils.createIntBuffer(2 * numDraws * COMMAND_SIZE);
+        commands.clear();
+
+        for (int i = 0; i < numDraws; ++i) {
+            GLRenderable renderable = get(i);
+
+            int[] slot = slots.get(renderable.mesh);
+            commands.put(renderable.mesh.getNumUploadedTriangleIndices())
+                    .put(drawList.visibleCounts[entries[i]])
+                    .put(slot[1])
+                    .put(slot[0])
+                    .put(drawList.getBaseInstance(entries[i]));
+        }
+
+        commands.flip();
+
+        // perform the rendering
+        GraphicsManager.BACKEND.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, dibo);
+        GraphicsManager.BACKEND.glBufferData(GL40.GL_DRAW_INDIRECT_BUFFER, commands, GL15.GL_STREAM_DRAW);
+        GraphicsManager.BACKEND.glMultiDrawElementsIndirect(GL11.GL_TRIANGLES, GL11.GL_UNSIGNED_INT, 0, numDraws, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, 0);
+
+        clear();
+        return noError;
+    }
+
+    /**
+     * Points the instance attributes of the VAO at the given instance buffer, in the
+     * given layout, and enables the attributes of that layout. The VAO of this batch
+     * must be bound.
+     * @param ivbo the instance vertex buffer object
+     * @param generation the generation of {@code ivbo}
+     * @param compact {@code true} for the compact layout, {@code false} for the full
+     * layout
+     */
+    private void pointInstanceAttributes(int ivbo, int generation, boolean compact) {
+        if (instanceBuffer != 0)
+            GraphicsManager.disableInstanceAttributes(instanceCompact);
+        
+        GraphicsManager.pointInstanceAttributes(ivbo, compact);
+        GraphicsManager.enableInstanceAttributes(compact);
+
+        instanceBuffer = ivbo;
+        instanceGeneration = generation;
+        instanceCompact = compact;
+    }
+
+    /**
+     * Rebuilds the shared vertex and index buffers. Meshes that have been closed are
+     * dropped, and the meshes of the current renderables are added if missing; every
+     * mesh is then copied into the shared buffers again. Meshes are copied by the
+     * number of vertices and indices last uploaded to their buffers, rather than the
+     * lengths of their arrays, as meshes not drawn this frame may have been resized
+     * without being uploaded yet. The VAO of this batch must be bound.
+     */
+    private void rebuildGeometry() {
+        slots.keySet().removeIf(GLMesh::isClosed);
+        for (int i = 0; i < size; ++i)
+            slots.putIfAbsent(get(i).mesh, new int[3]);
+
+        int numVertices = 0, numIndices = 0;
+        for (GLMesh mesh : slots.keySet()) {
+            numVertices += mesh.getNumUploadedVertices();
+            numIndices += mesh.getNumUploadedTriangleIndices();
+        }
+
+        if (numVertices > vertexCapacity) {
+            vertexCapacity = Math.max(numVertices, 2 * vertexCapacity);
+
+            GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+            GraphicsManager.BACKEND.glBufferData(GL15.GL_ARRAY_BUFFER, (long)vertexCapacity * GraphicsManager.VERTEX_STRIDE, GL15.GL_STATIC_DRAW);
+            GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        }
+
+        if (numIndices > indexCapacity) {
+            indexCapacity = Math.max(numIndices, 2 * indexCapacity);
+            GraphicsManager.BACKEND.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, (long)indexCapacity * Integer.BYTES, GL15.GL_STATIC_DRAW);
+        }
+
+        int baseVertex = 0, firstIndex = 0;
+        for (Map.Entry<GLMesh, int[]> entry : slots.entrySet()) {
+            GLMesh mesh = entry.getKey();
+            int[] slot = entry.getValue();
+
+            GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, vbo);
+            GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_READ_BUFFER, mesh.getVBO());
+            GraphicsManager.BACKEND.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, 0,
+                                                        (long)baseVertex * GraphicsManager.VERTEX_STRIDE,
+                                                        (long)mesh.getNumUploadedVertices() * GraphicsManager.VERTEX_STRIDE);
+
+            GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, ebo);
+            GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_READ_BUFFER, mesh.getEBO());
+            GraphicsManager.BACKEND.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, 0,
+                                                        (long)firstIndex * Integer.BYTES,
+                                                        (long)mesh.getNumUploadedTriangleIndices() * Integer.BYTES);
+
+            slot[0] = baseVertex;
+            slot[1] = firstIndex;
+            slot[2] = mesh.getBufferVersion();
+
+            baseVertex += mesh.getNumUploadedVertices();
+            firstIndex += mesh.getNumUploadedTriangleIndices();
+        }
+
+        GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+    }
+}
@@ -1,14 +1,15 @@
 package net.vob.core.graphics;
 
 import java.nio.FloatBuffer;
+import java.util.Arrays;
 import net.vob.util.Closable;
+import net.vob.util.DirtySet;
 import net.vob.util.Registry;
 import net.vob.util.logging.LocaleUtils;
 import net.vob.util.math.AffineTransformation;
 import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Frustum;
 import net.vob.util.math.Matrix;
-import org.lwjgl.BufferUtils;
-import org.lwjgl.opengl.GL15;
 
 /**
  * Container class for a mesh, array of textures, an affine transform, and a reference
@@ -17,14 +18,31 @@ import org.lwjgl.opengl.GL15;
  * instances the renderable has. Renderables also contain references to their current
  * skeleton buffer objects, if they have one.<p>
  * 
- * When this renderable is rendered using {@link render(GLShaderProgram)}, the mesh,
- * skeleton, and textures are checked for validity; if the mesh is invalid, then it is
- * reverted to a previous valid state; if the skeleton/weights are invalid, they are
- * removed; if a texture is invalid, then that texture is removed from the renderable
- * (as a special case, an invalid diffuse texture will instead be replaced with the
- * default texture). Otherwise, the textures are bound and the mesh is rendered; the
- * affine transforms for each instance are also combined with the global projection-view
- * matrix to form a complete projection-view-model matrix, and buffered.<p>
+ * Renderables are rendered in two stages, as laid out by the {@link FramePipeline}.
+ * In the prepare stage, the affine transforms for each instance are combined into a
+ * model matrix, and the matrices of the visible instances are packed into the
+ * {@link DrawList} of the frame. If the shader program takes instances in the compact
+ * layout, only the top 3 rows of the model matrix are packed, and the shader applies the
+ * projection and view matrices itself; otherwise, the model matrix is also combined with
+ * the projection-view matrix of the frame to form a complete projection-view-model
+ * matrix, which must be recomputed for every instance whenever the camera moves.<p>
+ * 
+ * In the submit stage, the mesh, skeleton, and textures are checked for validity by
+ * {@link validate(GLShaderProgram)}; if the mesh is invalid, then it is reverted to a
+ * previous valid state; if the skeleton/weights are invalid, they are removed; if a
+ * texture is invalid, then that texture is removed from the renderable (as a special
+ * case, an invalid diffuse texture will instead be replaced with the default texture).
+ * Otherwise, the textures are bound and the mesh is rendered, with the packed matrices
+ * streamed through the instance ring.<p>
+ * 
+ * Each instance is culled if its world-space bounds, computed from the bounding box of
+ * the mesh, lie entirely outside of the view frustum. The bounds of every instance of
+ * every renderable in the rendering map are held in a single
+ * {@link net.vob.util.math.BoundingVolumeHierarchy BoundingVolumeHierarchy}, which is
+ * refitted as instances move, and queried once per frame to find the visible instances.
+ * Only the matrices of visible instances are computed; culled instances are computed
+ * once they become visible again. Renderables with a skeleton are never culled, as the
+ * skeleton can move vertices outside of the bounds of the mesh.<p>
  * 
  * Skeletons are buffered to a Shader Storage Buffer Object (SSBO) such that each bone in
  * the skeleton is in <i>model</i> space rather than relative space (this means each bone
@@ -52,18 +70,114 @@ import org.lwjgl.opengl.GL15;
  * 
  * @author Lyn-Park
  */
-final class GLRenderable extends Closable {
+final class GLRenderable extends Closable implements AffineTransformation.ChangeListener {
     static final Registry<GLRenderable> REGISTRY = new Registry<>();
     
-    AffineTransformation[] instanceTransforms;
-    boolean instanceNumDirty = true;
-    private int ivbo;
+    /**
+     * The transform of each instance, followed by spare capacity; only the first
+     * {@link numInstances} transforms are in use. This renderable is subscribed to each
+     * transform in use, keyed by the instance ID, and so the transforms must only be
+     * changed through the methods of this renderable.
+     */
+    private AffineTransformation[] instanceTransforms;
+    /** The number of instances, i.e. the number of transforms in use. */
+    private int numInstances;
+    /**
+     * The instances whose transforms have changed since this renderable was last
+     * prepared. This is marked by the threads changing the transforms, and drained by
+     * the prepare stage, so that only the changed instances are visited. The set is
+     * replaced whenever the per-instance arrays grow, so it is read through a volatile
+     * field.
+     */
+    private volatile DirtySet dirtyInstances;
+    
+    /*
+     * The per-instance arrays below all share the capacity of instanceTransforms, and
+     * grow geometrically with it; an instance can thus be appended or removed without
+     * touching the others.
+     */
+    
+    /** The cached model matrix of each instance, or {@code null} if not yet computed. */
+    private Matrix[] models = new Matrix[0];
+    /**
+     * The model and projection-view-model matrices of each instance, laid out as in the
+     * full instance layout. Only the matrices of visible instances drawn in the full
+     * layout are kept up to date.
+     */
+    private float[] instanceData = new float[0];
+    /** The projection-view matrix that the matrices in {@link instanceData} were computed with. */
+    private Matrix instanceProjView = null;
+    /** The world-space bounds of each instance, as a center and half-extents. */
+    private double[] worldBounds = new double[0];
+    /** Whether the matrices of each instance in {@link instanceData} are out of date. */
+    private boolean[] stale = new boolean[0];
+    /** The IDs of the instances that were visible when last prepared, in order. */
+    private int[] visibleInstances = new int[0];
+    /** The mesh bounds that {@link worldBounds} was computed from. */
+    private double[] boundsSource;
+    /** The proxy of each instance in the instance index, or {@link NO_PROXY} if none. */
+    private int[] proxies = new int[0];
+    /** Whether any instance may have a proxy in the instance index. */
+    private boolean hasProxies = false;
+    /** The loop number of the loop each instance was last found visible in. */
+    private int[] visibleLoops = new int[0];
+    /** Whether the world bounds of each instance have changed since it was last indexed. */
+    private boolean[] boundsDirty = new boolean[0];
+    private int numBoundsDirty = 0;
+    
+    /**
+     * The offset of the range of this renderable in the
+     * {@link GraphicsManager#INSTANCE_ARENA instance arena}, or -1 if it has none.
+     */
+    private int arenaOffset = -1;
+    /** The number of instances in the range of this renderable in the instance arena. */
+    private int arenaCapacity = 0;
+    /**
+     * The range of instances whose model matrices have changed since they were last
+     * uploaded to the instance arena; empty if {@code arenaDirtyStart >= arenaDirtyEnd}.
+     */
+    private int arenaDirtyStart = Integer.MAX_VALUE, arenaDirtyEnd = 0;
+    /** Whether the model matrix of each instance has changed since it was last uploaded. */
+    private boolean[] arenaDirty = new boolean[0];
+    private int numArenaDirty = 0;
+    
+    private static final int NO_PROXY = -1;
+    /**
+     * The fraction of the changed range of instances above which the whole range is
+     * uploaded to the instance arena at once, rather than only its changed runs.
+     */
+    private static final double ARENA_RANGE_FRACTION = 0.5;
+    /**
+     * The largest number of unchanged instances between two changed ones that are
+     * uploaded along with them, merging their runs into one.
+     */
+    private static final int ARENA_RUN_GAP = 4;
+    /**
+     * The estimated cost of each upload call to the instance arena, as the number of
+     * instances that could be uploaded for the same cost instead.
+     */
+    private static final int ARENA_CALL_COST = 64;
+    private static final int FLOATS_PER_INSTANCE = GraphicsManager.INSTANCE_STRIDE / Float.BYTES;
     
     GLMesh mesh = null;
     GLTexture[] textures = new GLTexture[GraphicsManager.MAX_COMBINED_TEXTURE_UNITS];
     GLShaderProgram program = null;
     GLSkeleton skeleton = null;
     
+    /**
+     * The sort key of this renderable within its {@link RenderQueue}. This packs the
+     * identity hashes of the texture set (24 bits), the skeleton (20 bits) and the mesh
+     * (20 bits), in that order of significance, so that renderables with the same
+     * attachments have the same key, and renderables that only differ by mesh are
+     * adjacent (and can thus be batched together by a {@link GLMultiDrawBatch}).
+     * Distinct attachments may occasionally share a key, which only costs some redundant
+     * binds. This must be kept up-to-date with {@link updateSortKey()} whenever the
+     * attachments change.
+     */
+    long sortKey = 0;
+    /** The {@link RenderQueue} this renderable is in, or {@code null} if none. */
+    RenderQueue queue = null;
+    
     
     
     // --- CONSTRUCTORS ---
@@ -80,6 +194,10 @@ final class GLRenderable extends Closable {
         this.instanceTransforms = new AffineTransformation[numInstances];
         for (int i = 0; i < numInstances; ++i)
             this.instanceTransforms[i] = AffineTransformationImpl.IDENTITY;
+        
+        this.numInstances = numInstances;
+        growInstances(numInstances);
+        subscribeInstances();
     }
     
     /**
@@ -92,6 +210,10 @@ final class GLRenderable extends Closable {
         this.instanceTransforms = new AffineTransformation[transforms.length];
         for (int i = 0; i < transforms.length; ++i)
             this.instanceTransforms[i] = transforms[i].getAsUnmodifiable(true);
+        
+        this.numInstances = transforms.length;
+        growInstances(transforms.length);
+        subscribeInstances();
     }
     
     /**
@@ -104,6 +226,8 @@ final class GLRenderable extends Closable {
         mesh = r.mesh;
         for (int i = 0; i < textures.length; ++i)
             textures[i] = r.textures[i];
+        
+        updateSortKey();
     }
     
     
@@ -113,193 +237,705 @@ final class GLRenderable extends Closable {
     
     
     /**
-     * Updates the transformation matrices for the given instance in the buffer.
-     * Does not delete the current buffer, it only overwrites the current values
-     * in the buffer.
-     * @param transform the transform to write to the buffer
-     * @param instanceID the instance ID to put the transform in
+     * Recomputes the sort key of this renderable from its current attachments, and flags
+     * its render queue for re-sorting. This must be invoked whenever the mesh, textures
+     * or skeleton of this renderable change.
+     */
+    void updateSortKey() {
+        int textureHash = 1;
+        for (GLTexture texture : textures)
+            textureHash = 31 * textureHash + System.identityHashCode(texture);
+        
+        sortKey = ((long)(textureHash & 0xFFFFFF) << 40) |
+                  ((long)(System.identityHashCode(skeleton) & 0xFFFFF) << 20) |
+                  (System.identityHashCode(mesh) & 0xFFFFF);
+        
+        if (queue != null)
+            queue.markDirty();
+    }
+    
+    /**
+     * Gets the number of instances of this renderable.
+     * @return the number of instances
+     */
+    int getNumInstances() {
+        return numInstances;
+    }
+    
+    /**
+     * Replaces the transforms of every instance, changing the number of instances to
+     * the number of transforms. Every instance is removed from the instance index, and
+     * has its model matrix computed the next time this renderable is prepared. Must
+     * only be invoked while no frame is being prepared.
+     * @param transforms the new transforms
+     */
+    void setInstanceTransforms(AffineTransformation[] transforms) {
+        unsubscribeInstances();
+        unindexInstances();
+        
+        Arrays.fill(instanceTransforms, 0, numInstances, null);
+        Arrays.fill(models, 0, numInstances, null);
+        Arrays.fill(boundsDirty, 0, numInstances, false);
+        numBoundsDirty = 0;
+        numInstances = 0;
+        
+        if (transforms.length > instanceTransforms.length)
+            growInstances(transforms.length);
+        
+        System.arraycopy(transforms, 0, instanceTransforms, 0, transforms.length);
+        numInstances = transforms.length;
+        subscribeInstances();
+        
+        for (int i = 0; i < numInstances; ++i)
+            dirtyInstances.mark(i);
+    }
+    
+    /**
+     * Replaces the transform of the given instance.
+     * @param instanceID the instance ID
+     * @param transform the new transform
+     */
+    void setInstanceTransform(int instanceID, AffineTransformation transform) {
+        instanceTransforms[instanceID].unsubscribe(this, instanceID);
+        instanceTransforms[instanceID] = transform;
+        transform.subscribe(this, instanceID);
+        dirtyInstances.mark(instanceID);
+    }
+    
+    /**
+     * Sets the number of instances, by appending instances with the
+     * {@link AffineTransformationImpl#IDENTITY identity} transform, or removing
+     * instances from the end. The other instances are untouched. Must only be invoked
+     * while no frame is being prepared.
+     * @param count the new number of instances; must be at least 1
+     */
+    void setNumInstances(int count) {
+        while (numInstances < count)
+            appendInstance(AffineTransformationImpl.IDENTITY);
+        while (numInstances > count)
+            removeInstance(numInstances - 1);
+    }
+    
+    /**
+     * Appends an instance with the given transform, growing the per-instance arrays if
+     * they are full. The model matrix of the instance is computed, and the instance
+     * indexed, the next time this renderable is prepared. Must only be invoked while no
+     * frame is being prepared.
+     * @param transform the transform of the new instance
+     * @return the ID of the new instance
+     */
+    int appendInstance(AffineTransformation transform) {
+        if (numInstances == instanceTransforms.length)
+            growInstances(2 * numInstances);
+        
+        int instanceID = numInstances++;
+        instanceTransforms[instanceID] = transform;
+        transform.subscribe(this, instanceID);
+        dirtyInstances.mark(instanceID);
+        
+        return instanceID;
+    }
+    
+    /**
+     * Removes the given instance, by moving the last instance into its place; thus,
+     * the last instance takes the ID of the removed instance, and no other instance is
+     * touched. The moved instance is reindexed under its new ID, and has its model
+     * matrix recomputed, the next time this renderable is prepared. Must only be
+     * invoked while no frame is being prepared, and while more than one instance
+     * remains.
+     * @param instanceID the ID of the instance to remove
+     */
+    void removeInstance(int instanceID) {
+        int last = numInstances - 1;
+        
+        instanceTransforms[instanceID].unsubscribe(this, instanceID);
+        unindexInstance(instanceID);
+        
+        if (instanceID != last) {
+            AffineTransformation moved = instanceTransforms[last];
+            moved.unsubscribe(this, last);
+            unindexInstance(last);
+            
+            instanceTransforms[instanceID] = moved;
+            moved.subscribe(this, instanceID);
+            dirtyInstances.mark(instanceID);
+        }
+        
+        instanceTransforms[last] = null;
+        models[last] = null;
+        --numInstances;
+    }
+    
+    /**
+     * Grows the per-instance arrays to the given capacity, copying over every instance.
+     * As the set of dirty instances is replaced, a change marked in the old set by
+     * another thread while growing could be lost; thus, every instance is marked in the
+     * new set instead, and so has its model matrix recomputed. As the capacity grows
+     * geometrically, this costs a constant amortized time per appended instance.
+     * @param capacity the new capacity
+     */
+    private void growInstances(int capacity) {
+        int oldCapacity = models.length;
+        
+        instanceTransforms = Arrays.copyOf(instanceTransforms, capacity);
+        models = Arrays.copyOf(models, capacity);
+        worldBounds = Arrays.copyOf(worldBounds, 6 * capacity);
+        stale = Arrays.copyOf(stale, capacity);
+        visibleInstances = Arrays.copyOf(visibleInstances, capacity);
+        proxies = Arrays.copyOf(proxies, capacity);
+        visibleLoops = Arrays.copyOf(visibleLoops, capacity);
+        boundsDirty = Arrays.copyOf(boundsDirty, capacity);
+        arenaDirty = Arrays.copyOf(arenaDirty, capacity);
+        instanceData = Arrays.copyOf(instanceData, capacity * FLOATS_PER_INSTANCE);
+        Arrays.fill(proxies, oldCapacity, capacity, NO_PROXY);
+        
+        DirtySet dirty = new DirtySet(capacity);
+        for (int i = 0; i < numInstances; ++i)
+            dirty.mark(i);
+        
+        dirtyInstances = dirty;
+    }
+    
+    /**
+     * Marks the given instance as changed. Invoked by the transform of the instance
+     * whenever it changes, from whichever thread changed it.
+     * @param instanceID the instance ID
+     */
+    @Override
+    public void transformationChanged(int instanceID) {
+        dirtyInstances.mark(instanceID);
+    }
+    
+    /**
+     * Subscribes this renderable to the transform of every instance.
+     */
+    private void subscribeInstances() {
+        for (int i = 0; i < numInstances; ++i)
+            instanceTransforms[i].subscribe(this, i);
+    }
+    
+    /**
+     * Unsubscribes this renderable from the transform of every instance. Once this
+     * returns, no transform marks the set of dirty instances any more.
+     */
+    private void unsubscribeInstances() {
+        for (int i = 0; i < numInstances; ++i)
+            instanceTransforms[i].unsubscribe(this, i);
+    }
+    
+    /**
+     * Computes and caches the model matrix of the given instance, and updates the world
+     * bounds of the instance from it. The instance is then flagged as stale, so that its
+     * matrices are recomputed the next time it is visible.
+     * @param instanceID the instance ID
      */
-    private void updateInstanceTransform(AffineTransformation transform, int instanceID) {
-        Matrix model;
+    private void updateInstanceModel(int instanceID) {
+        AffineTransformation transform = instanceTransforms[instanceID];
         
         transform.getLock().lock();
         try {
-            model = transform.getTransformationMatrix(0);
+            models[instanceID] = transform.getTransformationMatrix(0);
         } finally {
             transform.getLock().unlock();
         }
         
-        Matrix projectionViewModel = GraphicsManager.PROJ_VIEW_MATRIX.mul(model);
-        
-        FloatBuffer buf = GraphicsManager.getInstanceMatrixBuffer(1);
-        
-        model.writeToFloatBuffer(buf, true);
-        projectionViewModel.writeToFloatBuffer(buf, true);
-        buf.flip();
+        if (boundsSource != null) {
+            Frustum.transformBounds(boundsSource, 0, models[instanceID], worldBounds, 6 * instanceID);
+            markBoundsDirty(instanceID);
+        }
         
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
-        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.INSTANCE_MODEL_MATRIX_OFFSET + (instanceID * GraphicsManager.INSTANCE_STRIDE), buf);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        stale[instanceID] = true;
+        if (!arenaDirty[instanceID]) {
+            arenaDirty[instanceID] = true;
+            ++numArenaDirty;
+        }
+        arenaDirtyStart = Math.min(arenaDirtyStart, instanceID);
+        arenaDirtyEnd = Math.max(arenaDirtyEnd, instanceID + 1);
     }
     
     /**
-     * Updates the projection-view-model matrix for all instances in the buffer.
-     * Does not delete the current buffer, it only overwrites the current values
-     * in the buffer.
+     * Flags the world bounds of the given instance as changed, so that the instance is
+     * refit in the instance index by {@link indexInstances(boolean)}.
+     * @param instanceID the instance ID
      */
-    private void updateInstancePVMMatrices() {
-        FloatBuffer buf = BufferUtils.createFloatBuffer(16);
-        
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
+    private void markBoundsDirty(int instanceID) {
+        if (!boundsDirty[instanceID]) {
+            boundsDirty[instanceID] = true;
+            ++numBoundsDirty;
+        }
+    }
+    
+    /**
+     * Removes the given instance from the instance index, if it is in it, and clears
+     * its changed world bounds. Must only be invoked while no frame is being prepared.
+     * @param instanceID the instance ID
+     */
+    private void unindexInstance(int instanceID) {
+        if (proxies[instanceID] != NO_PROXY) {
+            GraphicsManager.INSTANCE_INDEX.remove(proxies[instanceID]);
+            proxies[instanceID] = NO_PROXY;
+        }
         
-        for (int i = 0; i < instanceTransforms.length; ++i) {
-            Matrix model;
-
-            instanceTransforms[i].getLock().lock();
-            try {
-                model = instanceTransforms[i].getTransformationMatrix(0);
-            } finally {
-                instanceTransforms[i].getLock().unlock();
+        if (boundsDirty[instanceID]) {
+            boundsDirty[instanceID] = false;
+            --numBoundsDirty;
+        }
+    }
+    
+    /**
+     * Inserts the given instance into the instance index, or refits it if it is already
+     * in the index.
+     * @param instanceID the instance ID
+     */
+    private void indexInstance(int instanceID) {
+        if (proxies[instanceID] == NO_PROXY) {
+            proxies[instanceID] = GraphicsManager.INSTANCE_INDEX.insert(new Instance(this, instanceID), worldBounds, 6 * instanceID);
+            hasProxies = true;
+        } else
+            GraphicsManager.INSTANCE_INDEX.update(proxies[instanceID], worldBounds, 6 * instanceID);
+    }
+    
+    /**
+     * Removes every instance of this renderable from the instance index. The instances
+     * are indexed again the next time this renderable is prepared, if it is not a UI
+     * renderable by then.
+     */
+    void unindexInstances() {
+        for (int i = 0; i < numInstances; ++i) {
+            if (proxies[i] != NO_PROXY) {
+                GraphicsManager.INSTANCE_INDEX.remove(proxies[i]);
+                proxies[i] = NO_PROXY;
             }
-
-            Matrix projectionViewModel = GraphicsManager.PROJ_VIEW_MATRIX.mul(model);
-            
-            projectionViewModel.writeToFloatBuffer(buf, true);
-            buf.flip();
-            GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.INSTANCE_PROJECTION_VIEW_MODEL_MATRIX_OFFSET + (i * GraphicsManager.INSTANCE_STRIDE), buf);
-            buf.clear();
         }
+        hasProxies = false;
         
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        // forces every world bound to be recomputed, and thus indexed, when next prepared
+        boundsSource = null;
+    }
+    
+    /**
+     * Gets the number of instances this renderable was last prepared with.
+     * @return the number of prepared instances
+     */
+    int getNumPreparedInstances() {
+        return numInstances;
     }
     
     /**
-     * Rebuffers the instance buffer. Deletes the old buffer, if one exists.
+     * Prepares the instances of this renderable for a frame. This updates the cached
+     * model matrices and world bounds of any instances whose transforms have changed
+     * since they were last prepared, as marked in {@link dirtyInstances}; the instances
+     * that have not changed are not visited at all. Every world bound is recomputed if
+     * the bounds of the mesh have changed.<p>
+     * 
+     * This is invoked by the prepare stage of the {@link FramePipeline}, possibly
+     * concurrently with the preparation of other renderables; thus, it only touches the
+     * instances of this renderable, and does not touch the instance index.
+     * @param meshBounds the bounds of the mesh, as returned by {@link GLMesh#getBounds()}
+     * when the frame was snapshotted
      */
-    private void rebufferInstanceBuffer() {
-        if (ivbo > 0) {
-            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-            GL15.glDeleteBuffers(ivbo);
+    void prepareInstances(double[] meshBounds) {
+        // instances removed since they were marked are skipped
+        dirtyInstances.drain((i) -> {
+            if (i < numInstances)
+                updateInstanceModel(i);
+        });
+        
+        if (boundsSource != meshBounds) {
+            boundsSource = meshBounds;
+            
+            for (int i = 0; i < numInstances; ++i) {
+                Frustum.transformBounds(meshBounds, 0, models[i], worldBounds, 6 * i);
+                markBoundsDirty(i);
+            }
         }
+    }
+    
+    /**
+     * Refits the instances whose world bounds have changed since they were last
+     * indexed. Invoked by the prepare stage of the {@link FramePipeline} after
+     * {@link prepareInstances(double[])}, while no other thread touches the index.
+     * @param indexed {@code true} if the instances of this renderable are kept in the
+     * index, {@code false} if not (i.e. for UI renderables, or renderables culled on the
+     * GPU); in the latter case, any instances still in the index are removed from it
+     */
+    void indexInstances(boolean indexed) {
+        if (!indexed && hasProxies)
+            unindexInstances();
         
-        FloatBuffer mBuf = GraphicsManager.getInstanceMatrixBuffer(instanceTransforms.length);
+        if (numBoundsDirty == 0)
+            return;
         
-        if (instanceTransforms == null) {
-            Matrix I = Matrix.identity(4);
-            for (int i = 0; i < instanceTransforms.length; ++i) {
-                I.writeToFloatBuffer(mBuf, true);
-                GraphicsManager.PROJ_VIEW_MATRIX.writeToFloatBuffer(mBuf, true);
+        for (int i = 0; i < numInstances; ++i) {
+            if (boundsDirty[i]) {
+                if (indexed)
+                    indexInstance(i);
+                boundsDirty[i] = false;
             }
         }
-        else
-        {
-            for (int i = 0; i < instanceTransforms.length; ++i) {
-                Matrix model;
-                instanceTransforms[i].getLock().lock();
-                try {
-                    model = instanceTransforms[i].getTransformationMatrix(0);
-                } finally {
-                    instanceTransforms[i].getLock().unlock();
-                }
-
-                Matrix projectionViewModel = GraphicsManager.PROJ_VIEW_MATRIX.mul(model);
-
-                model.writeToFloatBuffer(mBuf, true);
-                projectionViewModel.writeToFloatBuffer(mBuf, true);
-            }
+        
+        numBoundsDirty = 0;
+    }
+    
+    /**
+     * Flags the given instance as visible for this loop.
+     * @param instanceID the instance ID
+     */
+    void markVisible(int instanceID) {
+        visibleLoops[instanceID] = GraphicsManager.LOOP_NUMBER;
+    }
+    
+    /**
+     * Determines which instances are visible. Invoked by the prepare stage of the
+     * {@link FramePipeline}, after the instance index has been queried.
+     * @param cull {@code true} if instances not found visible by the instance index
+     * this loop should be culled, {@code false} if every instance is visible
+     * @param compact {@code true} if the instances are drawn in the compact layout
+     * @param projView the projection-view matrix of the frame; if the instances are
+     * drawn in the full layout, and this differs from the matrix they were last computed
+     * with, every instance is stale
+     * @return the number of visible instances
+     */
+    int cullInstances(boolean cull, boolean compact, Matrix projView) {
+        if (!compact && projView != instanceProjView) {
+            Arrays.fill(stale, true);
+            instanceProjView = projView;
         }
-        mBuf.flip();
         
-        ivbo = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, mBuf, GL15.GL_DYNAMIC_DRAW);
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        int numVisible = 0;
+        
+        for (int i = 0; i < numInstances; ++i)
+            if (!cull || visibleLoops[i] == GraphicsManager.LOOP_NUMBER)
+                visibleInstances[numVisible++] = i;
         
-        instanceNumDirty = false;
+        return numVisible;
     }
     
     /**
-     * Updates the instance buffer. This does not destroy the buffer, it only
-     * overwrites the data in it. It also only overwrites data if the data has changed.
+     * Writes the matrices of a range of the visible instances into the given buffer,
+     * such that they are contiguous in it. In the compact layout, the top 3 rows of the
+     * model matrix of each instance are written straight from the cached model matrix;
+     * in the full layout, the projection-view-model matrices of any stale instances are
+     * computed first. Invoked by the prepare stage of the {@link FramePipeline} after
+     * {@link cullInstances(boolean, boolean, Matrix)}, possibly concurrently for
+     * disjoint ranges.
+     * @param first the index of the first visible instance to write, counting only the
+     * visible instances
+     * @param count the number of visible instances to write
+     * @param projView the projection-view matrix of the frame
+     * @param compact {@code true} to write the instances in the compact layout,
+     * {@code false} for the full layout
+     * @param dst the buffer to write to; its position is modified
+     * @param dstOffset the index in {@code dst} to write the first float to
      */
-    private void updateInstanceBuffer() {
-        for (int i = 0; i < instanceTransforms.length; ++i)
-            if (instanceTransforms[i].isDirty())
-                updateInstanceTransform(instanceTransforms[i], i);
+    void writeVisibleInstances(int first, int count, Matrix projView, boolean compact, FloatBuffer dst, int dstOffset) {
+        dst.position(dstOffset);
+        
+        if (compact) {
+            for (int k = first; k < first + count; ++k)
+                writeCompactInstance(models[visibleInstances[k]], dst);
+            
+            return;
+        }
         
-        if (GraphicsManager.getStatus(GraphicsManager.STATUS_MATRICES_CHANGED))
-            updateInstancePVMMatrices();
+        for (int k = first; k < first + count; ++k) {
+            int i = visibleInstances[k], offset = i * FLOATS_PER_INSTANCE;
+            
+            if (stale[i]) {
+                models[i].writeToFloatArray(instanceData, offset, true);
+                projView.mulToFloatArray(models[i], instanceData, offset + (GraphicsManager.INSTANCE_PROJECTION_VIEW_MODEL_MATRIX_OFFSET / Float.BYTES), true);
+                stale[i] = false;
+            }
+            
+            dst.put(instanceData, offset, FLOATS_PER_INSTANCE);
+        }
     }
 
     /**
-     * If the mesh is not closed or null, renders this renderable using an already
-     * bound shader program (the bound program is usually, <i>but not always</i>, the
-     * program held in {@link program}, hence why it isn't used here).
-     * @param program the program to use for the rendering
-     * @return {@code false} if the mesh had invalid parameters and reverted back
-     * to some previous valid parameters, {@code true} otherwise
+     * Writes the top 3 rows of the given model matrix into the given buffer, as an
+     * instance in the compact layout.
+     * @param model the model matrix
+     * @param dst the buffer to write to; its position is modified
      */
-    boolean render(GLShaderProgram program) {
-        if (mesh != null) {
-            // set mesh to null if closed, and return immediately
-            if (mesh.isClosed())
-                mesh = null;
+    private static void writeCompactInstance(Matrix model, FloatBuffer dst) {
+        for (int r = 0; r < 3; ++r)
+            for (int c = 0; c < 4; ++c)
+                dst.put((float)model.getElement(r, c));
+    }
+    
+    /**
+     * Brings the range of this renderable in the
+     * {@link GraphicsManager#INSTANCE_ARENA instance arena} up to date, so that its
+     * instances can be drawn from it. If this renderable has no range yet, or its
+     * instance capacity has grown past it, a new range is allocated for the whole
+     * capacity, and every instance is uploaded to it; otherwise, only the instances
+     * whose model matrices have changed since they were last uploaded are. These are
+     * uploaded as runs of contiguous instances, with a single call for each run, unless
+     * more than {@link ARENA_RANGE_FRACTION} of the range spanning them has changed, or
+     * the runs would cost more to upload than the range, in which case that whole range
+     * is uploaded with one call. Invoked by the graphics thread after this renderable has
+     * been prepared, before any other frame is launched.
+     */
+    void updateArena() {
+        GLInstanceArena arena = GraphicsManager.INSTANCE_ARENA;
+        
+        boolean whole = false;
+        
+        if (arenaCapacity != instanceTransforms.length) {
+            if (arenaOffset >= 0)
+                arena.free(arenaOffset, arenaCapacity);
             
-            else {
-                // check the skeleton, removing it if not valid
-                if (skeleton != null && skeleton.getExpectedNumMeshVertices() != mesh.getNumVertices())
-                    skeleton = null;
+            arenaCapacity = instanceTransforms.length;
+            arenaOffset = arena.allocate(arenaCapacity);
+            arenaDirtyStart = 0;
+            arenaDirtyEnd = numInstances;
+            whole = true;
+        }
+        
+        int end = Math.min(arenaDirtyEnd, numInstances);
+        if (arenaDirtyStart < end) {
+            if (whole || numArenaDirty > ARENA_RANGE_FRACTION * (end - arenaDirtyStart) || !isArenaRunUploadCheaper(end)) {
+                FloatBuffer data = arena.stage(end - arenaDirtyStart);
+                for (int i = arenaDirtyStart; i < end; ++i)
+                    writeCompactInstance(models[i], data);
                 
-                // bind the skeleton (or an empty skeleton)
-                if (skeleton != null) {
-                    skeleton.updateTransforms();
-                    skeleton.bind(program);
-                } else
-                    GLSkeleton.bindEmpty(program);
+                arena.addRun(arenaOffset + arenaDirtyStart, end - arenaDirtyStart);
+                arena.upload(data);
+            } else
+                uploadArenaRuns(arena, end);
+        }
+        
+        if (arenaDirtyStart < arenaDirtyEnd)
+            Arrays.fill(arenaDirty, arenaDirtyStart, Math.min(arenaDirtyEnd, arenaDirty.length), false);
+        
+        numArenaDirty = 0;
+        arenaDirtyStart = Integer.MAX_VALUE;
+        arenaDirtyEnd = 0;
+    }
+    
+    /**
+     * Checks if uploading the runs of changed instances, as
+     * {@link uploadArenaRuns(GLInstanceArena, int)} would, is estimated to cost less than
+     * uploading the whole range spanning them with one call. Each call is estimated to
+     * cost as much as uploading {@link ARENA_CALL_COST} instances.
+     * @param end the instance to stop at, exclusive
+     * @return {@code true} if uploading the runs costs less, {@code false} otherwise
+     */
+    private boolean isArenaRunUploadCheaper(int end) {
+        int rangeCost = ARENA_CALL_COST + end - arenaDirtyStart;
+        int cost = 0;
+        
+        for (int i = arenaDirtyStart; i < end; ++i)
+            if (arenaDirty[i]) {
+                int runEnd = getArenaRunEnd(i, end);
+                cost += ARENA_CALL_COST + runEnd - i;
+                if (cost >= rangeCost)
+                    return false;
                 
-                // update or rebuffer the instance buffer
-                if (instanceNumDirty) rebufferInstanceBuffer();
-                else                  updateInstanceBuffer();
+                i = runEnd - 1;
+            }
+        
+        return true;
+    }
+    
+    /**
+     * Uploads the changed instances of the range of this renderable in the instance
+     * arena, up to the given instance, as runs of contiguous instances. Runs separated by
+     * no more than {@link ARENA_RUN_GAP} unchanged instances are merged, as uploading a
+     * few unchanged instances costs less than another call.
+     * @param arena the instance arena
+     * @param end the instance to stop at, exclusive
+     */
+    private void uploadArenaRuns(GLInstanceArena arena, int end) {
+        // each run holds at most ARENA_RUN_GAP unchanged instances per changed one
+        FloatBuffer data = arena.stage(Math.min(end - arenaDirtyStart, numArenaDirty * (ARENA_RUN_GAP + 1)));
+        
+        for (int i = arenaDirtyStart; i < end; ++i)
+            if (arenaDirty[i]) {
+                int runEnd = getArenaRunEnd(i, end);
+                arena.addRun(arenaOffset + i, runEnd - i);
                 
-                // bind textures, skipping any null or closed textures
-                // if unit 0 would have no texture (or if the texture doesn't
-                // match the program), bind the default texture for that unit
-                for (int i = 0; i < textures.length; ++i) {
-                    if (textures[i] == null ||
-                        textures[i].isClosed() ||
-                        !program.isCompatible(textures[i]))
-                    {
-                        if (i == 0)
-                            textures[i] = program.getStatus(GLShaderProgram.STATUS_MODE) ?
-                                          GLTextureCubemap.DEFAULT :
-                                          GLTexture2D.DEFAULT;
-                        
-                        else
-                            textures[i] = null;
-                    }
+                for (; i < runEnd; ++i)
+                    writeCompactInstance(models[i], data);
+                --i;
+            }
+        
+        arena.upload(data);
+    }
+    
+    /**
+     * Gets the end of the run of changed instances starting at the given instance,
+     * merging in any later changed instance separated from the run by no more than
+     * {@link ARENA_RUN_GAP} unchanged ones.
+     * @param start the first instance of the run, which must have changed
+     * @param end the instance to stop at, exclusive
+     * @return the end of the run, exclusive
+     */
+    private int getArenaRunEnd(int start, int end) {
+        int runEnd = start + 1;
+        
+        for (int j = runEnd; j < end && j - runEnd <= ARENA_RUN_GAP; ++j)
+            if (arenaDirty[j])
+                runEnd = j + 1;
+        
+        return runEnd;
+    }
+    
+    /**
+     * Gets the base instance of the first instance of this renderable in the
+     * {@link GraphicsManager#INSTANCE_ARENA instance arena}. {@link updateArena()} must
+     * have been invoked first.
+     * @return the base instance
+     */
+    int getArenaBaseInstance() {
+        return arenaOffset;
+    }
+    
+    /**
+     * Frees the range of this renderable in the instance arena, if it has one.
+     */
+    private void freeArena() {
+        if (arenaOffset >= 0) {
+            GraphicsManager.INSTANCE_ARENA.free(arenaOffset, arenaCapacity);
+            arenaOffset = -1;
+            arenaCapacity = 0;
+        }
+    }
+    
+    /**
+     * If the mesh is not closed or null, validates this renderable for drawing using an
+     * already bound shader program (the bound program is usually, <i>but not always</i>,
+     * the program held in {@link program}, hence why it isn't used here). This checks
+     * the skeleton and textures for validity, but does not bind anything.
+     * @param program the program to use for the rendering
+     * @return {@code true} if this renderable can be drawn, {@code false} if it has no
+     * mesh
+     */
+    boolean validate(GLShaderProgram program) {
+        if (mesh == null)
+            return false;
+        
+        // set mesh to null if closed, and return immediately
+        if (mesh.isClosed()) {
+            mesh = null;
+            updateSortKey();
+            return false;
+        }
+        
+        boolean attachmentsChanged = false;
 
-                    if (textures[i] != null) textures[i].bind();
-                }
+        // check the skeleton, removing it if not valid
+        if (skeleton != null && skeleton.getExpectedNumMeshVertices() != mesh.getNumVertices()) {
+            skeleton = null;
+            attachmentsChanged = true;
+        }
+        
+        // check textures, removing any null or closed textures
+        // if unit 0 would have no texture (or if the texture doesn't
+        // match the program), use the default texture for that unit
+        for (int i = 0; i < textures.length; ++i) {
+            if (textures[i] == null ||
+                textures[i].isClosed() ||
+                !program.isCompatible(textures[i]))
+            {
+                GLTexture prev = textures[i];
 
-                // perform rendering using the mesh
-                boolean e = mesh.render(ivbo, instanceTransforms.length);
+                if (i == 0)
+                    textures[i] = program.getStatus(GLShaderProgram.STATUS_MODE) ?
+                                  GLTextureCubemap.DEFAULT :
+                                  GLTexture2D.DEFAULT;
 
-                // unbind everything
-                for (GLTexture texture : textures)
-                    if (texture != null) texture.unbind();
+                else
+                    textures[i] = null;
 
-                GLSkeleton.unbind(program);
-                return e;
+                attachmentsChanged |= prev != textures[i];
             }
         }
         
+        if (attachmentsChanged)
+            updateSortKey();
+        
+        return true;
+    }
+    
+    /**
+     * Checks if this renderable can be drawn in the same {@link GLMultiDrawBatch} as the
+     * given renderable. This is the case if neither has a skeleton, and both have the
+     * same textures bound to every unit.
+     * @param other the other renderable
+     * @return {@code true} if the renderables can be batched together, {@code false}
+     * otherwise
+     */
+    boolean isBatchableWith(GLRenderable other) {
+        if (skeleton != null || other.skeleton != null)
+            return false;
+        
+        for (int i = 0; i < textures.length; ++i)
+            if (textures[i] != other.textures[i])
+                return false;
+        
         return true;
     }
+    
+    /**
+     * Binds the skeleton and textures of this renderable, and draws the visible
+     * instances held for it by the given draw list. {@link validate(GLShaderProgram)}
+     * must have returned {@code true} first. The matrices of the visible instances are
+     * read from the {@link GraphicsManager#INSTANCE_RING instance ring}, which the
+     * draw list has already been uploaded to, or from the
+     * {@link GraphicsManager#INSTANCE_ARENA instance arena} if the entry is resident;
+     * if the entry is culled on the GPU, the instances left visible by the
+     * {@link GraphicsManager#INSTANCE_CULLER instance culler} are drawn indirectly
+     * instead. Everything is left bound, and is unbound by the graphics manager once all
+     * renderables are rendered.
+     * @param program the program to use for the rendering
+     * @param drawList the prepared draw list
+     * @param entry the entry of this renderable in {@code drawList}; must have at least
+     * one visible instance
+     * @return {@code false} if the mesh had invalid parameters and reverted back
+     * to some previous valid parameters, {@code true} otherwise
+     */
+    boolean draw(GLShaderProgram program, DrawList drawList, int entry) {
+        // bind the skeleton (or an empty skeleton), if not already bound
+        if (skeleton != null)
+            skeleton.updateTransforms();
+        GraphicsManager.bindSkeleton(program, skeleton);
+        
+        // bind textures; textures already bound to their unit are not bound again
+        for (int i = 0; i < textures.length; ++i)
+            GraphicsManager.bindTexture(i, textures[i]);
+        
+        if (drawList.gpuCulled[entry])
+            return mesh.renderIndirect(GraphicsManager.INSTANCE_CULLER.getVisibleBuffer(), GraphicsManager.INSTANCE_CULLER.getVisibleGeneration(),
+                                       GraphicsManager.INSTANCE_CULLER.getCommandBuffer(),
+                                       GraphicsManager.INSTANCE_CULLER.getCommandOffset(entry));
+        
+        return mesh.render(drawList.getInstanceBuffer(entry), drawList.getInstanceGeneration(entry), drawList.compact[entry],
+                           drawList.getBaseInstance(entry), drawList.visibleCounts[entry]);
+    }
 
     @Override
     protected boolean doClose() {
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-        GL15.glDeleteBuffers(ivbo);
+        unsubscribeInstances();
+        unindexInstances();
+        freeArena();
         return true;
     }
+    
+    /**
+     * A single instance of a renderable, as held by the instance index.
+     */
+    static final class Instance {
+        final GLRenderable renderable;
+        final int instanceID;
+        
+        Instance(GLRenderable renderable, int instanceID) {
+            this.renderable = renderable;
+            this.instanceID = instanceID;
+        }
+        
+        void markVisible() {
+            renderable.markVisible(instanceID);
+        }
+    }
 }
@@ -13,6 +13,7 @@ import net.vob.util.logging.LocaleUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL43;
 
 /**
  * A class containing a reference to source code loaded into the GPU for a single shader
@@ -20,7 +21,8 @@ import org.lwjgl.opengl.GL32;
  * be used to equate duplicate shaders.<p>
  * 
  * Two default shaders exist, and are of the vertex shader and fragment shader types. No
- * default geometry shader exists.
+ * default geometry shader exists. The compute shader used for GPU instance culling is
+ * also a default shader, but is never part of a shader program.
  * 
  * @author Lyn-Park
  */
@@ -35,12 +37,14 @@ final class GLShader extends GLObject {
     static final GLShader DEFAULT_FRAG_UI = new GLShader(GraphicsEngine.DEFAULT_SHADER_UI_ID, GL20.GL_FRAGMENT_SHADER);
     static final GLShader SKYBOX_VERT = new GLShader(GraphicsEngine.SKYBOX_SHADER_ID, GL20.GL_VERTEX_SHADER);
     static final GLShader SKYBOX_FRAG = new GLShader(GraphicsEngine.SKYBOX_SHADER_ID, GL20.GL_FRAGMENT_SHADER);
+    static final GLShader CULL_COMP = new GLShader(GraphicsEngine.CULL_SHADER_ID, GL43.GL_COMPUTE_SHADER);
     
     static Set<GLShader> getDefaults() {
         return Sets.newHashSet(DEFAULT_VERT_2D, DEFAULT_FRAG_2D,
                                DEFAULT_VERT_CUBE, DEFAULT_FRAG_CUBE,
                                DEFAULT_VERT_UI, DEFAULT_FRAG_UI,
-                               SKYBOX_VERT, SKYBOX_FRAG);
+                               SKYBOX_VERT, SKYBOX_FRAG,
+                               CULL_COMP);
     }
     
     final Identity id;
@@ -51,7 +55,8 @@ final class GLShader extends GLObject {
      * Constructs this shader object. Does not perform any initialization functions that
      * must be performed on the graphics thread.
      * @param id the {@link Identity} of this shader
-     * @param type one of {@link TYPE_VERT}, {@link TYPE_GEOM}, {@link TYPE_FRAG}
+     * @param type one of {@link TYPE_VERT}, {@link TYPE_GEOM}, {@link TYPE_FRAG}, or
+     * {@code GL_COMPUTE_SHADER}
      */
     GLShader(Identity id, int type) {
         this.id = id;
@@ -72,6 +77,7 @@ final class GLShader extends GLObject {
             case GL20.GL_VERTEX_SHADER: sType = "vert"; break;
             case GL32.GL_GEOMETRY_SHADER: sType = "geom"; break;
             case GL20.GL_FRAGMENT_SHADER: sType = "frag"; break;
+            case GL43.GL_COMPUTE_SHADER: sType = "comp"; break;
             default: throw new IllegalArgumentException(LocaleUtils.format("GLShader.init.InvalidType"));
         }
         
@@ -79,7 +85,7 @@ final class GLShader extends GLObject {
             if (is == null)
                 throw new IOException(LocaleUtils.format("global.Exception.SourceNotFound", String.format("%s, shader type %s", id.toString(), sType)));
 
-            shd = GL20.glCreateShader(type);
+            shd = GraphicsManager.BACKEND.glCreateShader(type);
             buildShader(is);
         }
     }
@@ -92,12 +98,12 @@ final class GLShader extends GLObject {
             while ((line = reader.readLine()) != null)
                 builder.append(line).append("\n");
             
-            GL20.glShaderSource(shd, builder);
-            GL20.glCompileShader(shd);
+            GraphicsManager.BACKEND.glShaderSource(shd, builder);
+            GraphicsManager.BACKEND.glCompileShader(shd);
             
-            if (GL20.glGetShaderi(shd, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
-                String info = GL20.glGetShaderInfoLog(shd);
-                GL20.glDeleteShader(shd);
+            if (GraphicsManager.BACKEND.glGetShaderi(shd, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
+                String info = GraphicsManager.BACKEND.glGetShaderInfoLog(shd);
+                GraphicsManager.BACKEND.glDeleteShader(shd);
                 throw new IOException(LocaleUtils.format("GLShader.buildShader.CompilationError", info));
             }
         }
@@ -105,7 +111,7 @@ final class GLShader extends GLObject {
 
     @Override
     protected boolean doClose() {
-        GL20.glDeleteShader(shd);
+        GraphicsManager.BACKEND.glDeleteShader(shd);
         
         return true;
     }
@@ -11,7 +11,6 @@ import net.vob.util.math.Matrix;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
 import org.lwjgl.opengl.GL32;
 import org.lwjgl.opengl.GL43;
 
@@ -43,6 +42,7 @@ final class GLShaderProgram extends GLObject {
     static final int STATUS_LINKED = 2;
     static final int STATUS_LINK_FAILED = 4;
     static final int STATUS_READONLY = 8;
+    static final int STATUS_COMPACT_LAYOUT = 16;
     
     private static final FloatBuffer MATRIX_BUFFER = BufferUtils.createFloatBuffer(16);
     
@@ -54,11 +54,11 @@ final class GLShaderProgram extends GLObject {
     
     @Override
     void init() {
-        prog = GL20.glCreateProgram();
+        prog = GraphicsManager.BACKEND.glCreateProgram();
         
-        if (vert != null) GL20.glAttachShader(prog, vert.shd);
-        if (geom != null) GL20.glAttachShader(prog, geom.shd);
-        if (frag != null) GL20.glAttachShader(prog, frag.shd);
+        if (vert != null) GraphicsManager.BACKEND.glAttachShader(prog, vert.shd);
+        if (geom != null) GraphicsManager.BACKEND.glAttachShader(prog, geom.shd);
+        if (frag != null) GraphicsManager.BACKEND.glAttachShader(prog, frag.shd);
     }
     
     private GLShaderProgram(GLShader vert, GLShader geom, GLShader frag, boolean mode) {
@@ -113,6 +113,19 @@ final class GLShaderProgram extends GLObject {
         return getStatus(STATUS_READONLY);
     }
     
+    /**
+     * Checks if this program takes its instances in the compact layout; that is, if its
+     * vertex shader reads the {@code mat3x4} affine model matrix of each instance, and
+     * applies the projection and view matrices from the frame UBO itself. Otherwise, the
+     * program takes the full layout, with the model and projection/view/model matrices
+     * of each instance. A program must not read both. Only valid once linked.
+     * @return {@code true} if this program takes compact instances, {@code false}
+     * otherwise
+     */
+    boolean isCompactLayout() {
+        return getStatus(STATUS_COMPACT_LAYOUT);
+    }
+    
     /**
      * Attaches the given shader to this shader program.
      * @param shader the shader to attach
@@ -133,10 +146,10 @@ final class GLShaderProgram extends GLObject {
                 if (shader.equals(vert))
                     return;
                 else if (vert != null)
-                    GL20.glDetachShader(prog, vert.shd);
+                    GraphicsManager.BACKEND.glDetachShader(prog, vert.shd);
                 
                 vert = shader;
-                GL20.glAttachShader(prog, vert.shd);
+                GraphicsManager.BACKEND.glAttachShader(prog, vert.shd);
                 clearStatus(STATUS_LINKED | STATUS_LINK_FAILED);
                 break;
                     
@@ -144,10 +157,10 @@ final class GLShaderProgram extends GLObject {
                 if (shader.equals(geom))
                     return;
                 else if (geom != null)
-                    GL20.glDetachShader(prog, geom.shd);
+                    GraphicsManager.BACKEND.glDetachShader(prog, geom.shd);
                 
                 geom = shader;
-                GL20.glAttachShader(prog, geom.shd);
+                GraphicsManager.BACKEND.glAttachShader(prog, geom.shd);
                 clearStatus(STATUS_LINKED | STATUS_LINK_FAILED);
                 break;
                 
@@ -155,10 +168,10 @@ final class GLShaderProgram extends GLObject {
                 if (shader.equals(frag))
                     return;
                 else if (frag != null)
-                    GL20.glDetachShader(prog, frag.shd);
+                    GraphicsManager.BACKEND.glDetachShader(prog, frag.shd);
                 
                 frag = shader;
-                GL20.glAttachShader(prog, frag.shd);
+                GraphicsManager.BACKEND.glAttachShader(prog, frag.shd);
                 clearStatus(STATUS_LINKED | STATUS_LINK_FAILED);
                 break;
                 
@@ -177,34 +190,49 @@ final class GLShaderProgram extends GLObject {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLShaderProgram"));
         
-        GL20.glBindAttribLocation(prog, GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX, GraphicsManager.SHADER_ATTRIBUTE_POSITION_NAME);
-        GL20.glBindAttribLocation(prog, GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX, GraphicsManager.SHADER_ATTRIBUTE_UV_NAME);
-        GL20.glBindAttribLocation(prog, GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX, GraphicsManager.SHADER_ATTRIBUTE_NORMAL_NAME);
-        GL20.glBindAttribLocation(prog, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_NAME);
-        GL20.glBindAttribLocation(prog, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_NAME);
+        GraphicsManager.BACKEND.glBindAttribLocation(prog, GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX, GraphicsManager.SHADER_ATTRIBUTE_POSITION_NAME);
+        GraphicsManager.BACKEND.glBindAttribLocation(prog, GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX, GraphicsManager.SHADER_ATTRIBUTE_UV_NAME);
+        GraphicsManager.BACKEND.glBindAttribLocation(prog, GraphicsManager.SHADER_ATTRIBUTE_NORMAL_INDEX, GraphicsManager.SHADER_ATTRIBUTE_NORMAL_NAME);
+        GraphicsManager.BACKEND.glBindAttribLocation(prog, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_NAME);
+        GraphicsManager.BACKEND.glBindAttribLocation(prog, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_NAME);
+        GraphicsManager.BACKEND.glBindAttribLocation(prog, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_INDEX, GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_NAME);
         
-        GL20.glLinkProgram(prog);
-        if (GL20.glGetProgrami(prog, GL20.GL_LINK_STATUS) == GL11.GL_FALSE) {
+        GraphicsManager.BACKEND.glLinkProgram(prog);
+        if (GraphicsManager.BACKEND.glGetProgrami(prog, GL20.GL_LINK_STATUS) == GL11.GL_FALSE) {
             setStatus(STATUS_LINK_FAILED);
-            return LocaleUtils.format("GLShaderProgram.linkAndValidate.LinkingError", GL20.glGetProgramInfoLog(prog));
+            return LocaleUtils.format("GLShaderProgram.linkAndValidate.LinkingError", GraphicsManager.BACKEND.glGetProgramInfoLog(prog));
         }
         
-        GL20.glValidateProgram(prog);
-        if (GL20.glGetProgrami(prog, GL20.GL_VALIDATE_STATUS) == GL11.GL_FALSE) {
+        GraphicsManager.BACKEND.glValidateProgram(prog);
+        if (GraphicsManager.BACKEND.glGetProgrami(prog, GL20.GL_VALIDATE_STATUS) == GL11.GL_FALSE) {
             setStatus(STATUS_LINK_FAILED);
-            return LocaleUtils.format("GLShaderProgram.linkAndValidate.ValidationError", GL20.glGetProgramInfoLog(prog));
+            return LocaleUtils.format("GLShaderProgram.linkAndValidate.ValidationError", GraphicsManager.BACKEND.glGetProgramInfoLog(prog));
         }
         
-        int numUniforms = GL43.glGetProgramInterfacei(prog, GL43.GL_UNIFORM, GL43.GL_ACTIVE_RESOURCES);
-        int numShaderStorageBlocks = GL43.glGetProgramInterfacei(prog, GL43.GL_SHADER_STORAGE_BLOCK, GL43.GL_ACTIVE_RESOURCES);
+        int numUniforms = GraphicsManager.BACKEND.glGetProgramInterfacei(prog, GL43.GL_UNIFORM, GL43.GL_ACTIVE_RESOURCES);
+        int numShaderStorageBlocks = GraphicsManager.BACKEND.glGetProgramInterfacei(prog, GL43.GL_SHADER_STORAGE_BLOCK, GL43.GL_ACTIVE_RESOURCES);
+        int numUniformBlocks = GraphicsManager.BACKEND.glGetProgramInterfacei(prog, GL43.GL_UNIFORM_BLOCK, GL43.GL_ACTIVE_RESOURCES);
+        int numInputs = GraphicsManager.BACKEND.glGetProgramInterfacei(prog, GL43.GL_PROGRAM_INPUT, GL43.GL_ACTIVE_RESOURCES);
         
         for (int i = 0; i < numUniforms; ++i)
-            PROGRAM_RESOURCES.put(GL43.glGetProgramResourceName(prog, GL43.GL_UNIFORM, i), i);
+            PROGRAM_RESOURCES.put(GraphicsManager.BACKEND.glGetProgramResourceName(prog, GL43.GL_UNIFORM, i), i);
         for (int i = 0; i < numShaderStorageBlocks; ++i) {
-            GL43.glShaderStorageBlockBinding(prog, i, i);
-            PROGRAM_RESOURCES.put(GL43.glGetProgramResourceName(prog, GL43.GL_SHADER_STORAGE_BLOCK, i), i);
+            GraphicsManager.BACKEND.glShaderStorageBlockBinding(prog, i, i);
+            PROGRAM_RESOURCES.put(GraphicsManager.BACKEND.glGetProgramResourceName(prog, GL43.GL_SHADER_STORAGE_BLOCK, i), i);
         }
         
+        // The frame UBO is shared by every program, and so is bound to a fixed binding
+        // point rather than by index
+        for (int i = 0; i < numUniformBlocks; ++i)
+            if (GraphicsManager.SHADER_UNIFORM_FRAME_BLOCK_NAME.equals(GraphicsManager.BACKEND.glGetProgramResourceName(prog, GL43.GL_UNIFORM_BLOCK, i)))
+                GraphicsManager.BACKEND.glUniformBlockBinding(prog, i, GraphicsManager.SHADER_UNIFORM_FRAME_BLOCK_BINDING);
+        
+        // The program takes compact instances if it reads the affine model matrix
+        clearStatus(STATUS_COMPACT_LAYOUT);
+        for (int i = 0; i < numInputs; ++i)
+            if (GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_NAME.equals(GraphicsManager.BACKEND.glGetProgramResourceName(prog, GL43.GL_PROGRAM_INPUT, i)))
+                setStatus(STATUS_COMPACT_LAYOUT);
+        
         setStatus(STATUS_LINKED);
         return null;
     }
@@ -216,7 +244,7 @@ final class GLShaderProgram extends GLObject {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLShaderProgram"));
         
-        GL20.glUseProgram(prog);
+        GraphicsManager.BACKEND.glUseProgram(prog);
     }
     
     /**
@@ -226,7 +254,7 @@ final class GLShaderProgram extends GLObject {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLShaderProgram"));
         
-        GL20.glUseProgram(0);
+        GraphicsManager.BACKEND.glUseProgram(0);
     }
     
     /**
@@ -240,7 +268,7 @@ final class GLShaderProgram extends GLObject {
      */
     void uniform3ui(int u, int v, int w, String name) {
         if (PROGRAM_RESOURCES.containsKey(name))
-            GL30.glUniform3ui(PROGRAM_RESOURCES.get(name), u, v, w);
+            GraphicsManager.BACKEND.glUniform3ui(PROGRAM_RESOURCES.get(name), u, v, w);
     }
     
     /**
@@ -254,7 +282,7 @@ final class GLShaderProgram extends GLObject {
         if (PROGRAM_RESOURCES.containsKey(name)) {
             mat.writeToFloatBuffer(MATRIX_BUFFER, false);
             MATRIX_BUFFER.flip();
-            GL20.glUniformMatrix4fv(PROGRAM_RESOURCES.get(name), true, MATRIX_BUFFER);
+            GraphicsManager.BACKEND.glUniformMatrix4fv(PROGRAM_RESOURCES.get(name), true, MATRIX_BUFFER);
             MATRIX_BUFFER.clear();
         }
     }
@@ -269,12 +297,12 @@ final class GLShaderProgram extends GLObject {
      */
     void bindShaderStorage(int ssbo, String name) {
         if (PROGRAM_RESOURCES.containsKey(name))
-            GL30.glBindBufferBase(GL43.GL_SHADER_STORAGE_BUFFER, PROGRAM_RESOURCES.get(name), ssbo);
+            GraphicsManager.BACKEND.glBindBufferBase(GL43.GL_SHADER_STORAGE_BUFFER, PROGRAM_RESOURCES.get(name), ssbo);
     }
     
     @Override
     protected boolean doClose() {
-        GL20.glDeleteProgram(prog);
+        GraphicsManager.BACKEND.glDeleteProgram(prog);
         
         return true;
     }
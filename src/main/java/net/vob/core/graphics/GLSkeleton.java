@@ -4,7 +4,7 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.util.Iterator;
 import java.util.Objects;
-import net.vob.util.ArrayTree;
+import net.vob.util.DirtySet;
 import net.vob.util.Registry;
 import net.vob.util.Tree;
 import net.vob.util.Trees;
@@ -17,7 +17,7 @@ import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL43;
 
-public class GLSkeleton extends GLObject {
+public class GLSkeleton extends GLObject implements AffineTransformation.ChangeListener {
     static final Registry<GLSkeleton> REGISTRY = new Registry<>();
     
     private final Tree<? extends AffineTransformation, ?> skeleton;
@@ -25,6 +25,25 @@ public class GLSkeleton extends GLObject {
     
     private int skeletonSSBO = 0, weightSSBO = 0;
     
+    /** The transform of each bone, in pre-order. */
+    private AffineTransformation[] bones;
+    /** The index of the parent of each bone, or -1 for the root. */
+    private int[] parents;
+    /** The index after the last bone of the subtree rooted at each bone. */
+    private int[] subtreeEnds;
+    /** The model-space matrix of each bone, as last buffered. */
+    private Matrix[] models;
+    /**
+     * The bones whose transforms have changed since they were last buffered. This is
+     * marked by the threads changing the transforms, and drained by
+     * {@link updateTransforms()}, so that only the changed bones are visited.
+     */
+    private DirtySet dirtyBones;
+    /** The buffer the matrices of each range of bones are written to before buffering. */
+    private FloatBuffer boneBuffer;
+    /** The range of bones to be rebuffered by {@link updateTransforms()}. */
+    private int rangeStart, rangeEnd;
+    
     public GLSkeleton(Tree<? extends AffineTransformation, ?> skeleton, Matrix weights) {
         if (skeleton.size() != weights.getNumColumns())
             throw new IllegalArgumentException(LocaleUtils.format("global.Math.IllegalMatrixColumnNumber", skeleton.size(), weights.getNumColumns()));
@@ -53,30 +72,51 @@ public class GLSkeleton extends GLObject {
 
     @Override
     protected boolean doClose() {
+        if (bones != null)
+            for (int i = 0; i < bones.length; ++i)
+                bones[i].unsubscribe(this, i);
+        
         closeSkeletonSSBO();
         return true;
     }
     
     @Override
     void init() {
-        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
-        
-        FloatBuffer mBuf = BufferUtils.createFloatBuffer(skeleton.size() * 16);
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
         
-        Tree<Matrix, ?> baseMatrixTree = new ArrayTree<>(skeleton.map((t) -> t.getTransformationMatrix(0)));
-        Iterator<? extends Tree<Matrix, ?>> bmtIt = baseMatrixTree.preOrderWalk();
+        // Flatten the skeleton in pre-order, so that each subtree is a contiguous range
+        // of bones, and the parent of each bone precedes it
+        int numBones = skeleton.size();
+        bones = new AffineTransformation[numBones];
+        parents = new int[numBones];
+        subtreeEnds = new int[numBones];
+        models = new Matrix[numBones];
+        dirtyBones = new DirtySet(numBones);
+        boneBuffer = BufferUtils.createFloatBuffer(numBones * 16);
         
-        Tree<Matrix, ?> bone = bmtIt.next();
-        bone.getValue().writeToFloatBuffer(mBuf, true);
+        int[] lastAtDepth = new int[numBones];
+        int rootDepth = skeleton.depth();
+        Iterator<? extends Tree<? extends AffineTransformation, ?>> skeletonIt = skeleton.preOrderWalk();
         
-        while (bmtIt.hasNext()) {
-            bone = bmtIt.next();
-            Matrix boneMat = bone.getValue().mul(bone.getParent().getValue());
+        for (int i = 0; skeletonIt.hasNext(); ++i) {
+            Tree<? extends AffineTransformation, ?> bone = skeletonIt.next();
+            int depth = bone.depth() - rootDepth;
             
-            boneMat.writeToFloatBuffer(mBuf, true);
-            bone.setValue(boneMat);
+            bones[i] = bone.getValue();
+            parents[i] = depth == 0 ? -1 : lastAtDepth[depth - 1];
+            subtreeEnds[i] = i + bone.size();
+            lastAtDepth[depth] = i;
+        }
+        
+        // Subscribe before computing the matrices, so no change in between is missed
+        for (int i = 0; i < numBones; ++i)
+            bones[i].subscribe(this, i);
+        
+        for (int i = 0; i < numBones; ++i) {
+            computeModel(i);
+            models[i].writeToFloatBuffer(boneBuffer, true);
         }
-        mBuf.flip();
+        boneBuffer.flip();
         
         ByteBuffer wBuf = BufferUtils.createByteBuffer((2 * Integer.BYTES) + (weights.getElements().length * Float.BYTES));
         wBuf.putInt(weights.getNumRows());
@@ -84,57 +124,93 @@ public class GLSkeleton extends GLObject {
         weights.writeToFloatBuffer(wBuf, false);
         wBuf.flip();
         
-        skeletonSSBO = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, skeletonSSBO);
-        GL15.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, mBuf, GL15.GL_DYNAMIC_DRAW);
+        skeletonSSBO = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, skeletonSSBO);
+        GraphicsManager.BACKEND.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, boneBuffer, GL15.GL_DYNAMIC_DRAW);
         
-        weightSSBO = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, weightSSBO);
-        GL15.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, wBuf, GL15.GL_STATIC_DRAW);
-        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+        weightSSBO = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, weightSSBO);
+        GraphicsManager.BACKEND.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, wBuf, GL15.GL_STATIC_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+    }
+    
+    /**
+     * Marks the given bone as changed. Invoked by the transform of the bone whenever it
+     * changes, from whichever thread changed it.
+     * @param bone the index of the bone, in pre-order
+     */
+    @Override
+    public void transformationChanged(int bone) {
+        dirtyBones.mark(bone);
+    }
+    
+    /**
+     * Computes the model-space matrix of the given bone, from its transform and the
+     * model-space matrix of its parent.
+     * @param bone the index of the bone, in pre-order
+     */
+    private void computeModel(int bone) {
+        Matrix local = bones[bone].getTransformationMatrix(0);
+        models[bone] = parents[bone] < 0 ? local : local.mul(models[parents[bone]]);
     }
     
     /**
-     * Updates the transformation matrices for the skeleton. Does not delete the
-     * current buffer, it only overwrites the current values in the buffer.
+     * Updates the transformation matrices for the skeleton. Only the bones that have
+     * changed since the last update are visited, along with their descendants, as the
+     * model-space matrix of a bone depends on every ancestor; the changed subtrees are
+     * coalesced into contiguous ranges, and each range is buffered with a single call.
+     * Does not delete the current buffer, it only overwrites the current values in the
+     * buffer.
      */
     void updateTransforms() {
-        Iterator<? extends Tree<? extends AffineTransformation, ?>> skeletonIt = skeleton.preOrderWalk();
-        int i = 0;
+        if (dirtyBones.isEmpty())
+            return;
         
-        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, skeletonSSBO);
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, skeletonSSBO);
         
-        while (skeletonIt.hasNext()) {
-            Tree<? extends AffineTransformation, ?> bone = skeletonIt.next();
-            
-            if (bone.getValue().isDirty()) {
-                int j = i;
-                
-                Tree<Matrix, ?> boneTree = bone.map((transform) -> transform.getTransformationMatrix(0));
-                Iterator<? extends Tree<Matrix, ?>> boneIt = boneTree.preOrderWalk();
-                boneIt.next();
-                
-                while (boneIt.hasNext()) {
-                    Tree<Matrix, ?> next = boneIt.next();
-                    next.setValue(next.getValue().mul(next.getParent().getValue()));
-                    
-                    skeletonIt.next();
-                    ++i;
-                }
-                
-                boneIt = boneTree.preOrderWalk();
-                FloatBuffer buf = BufferUtils.createFloatBuffer(bone.size() * 16);
-                while (boneIt.hasNext())
-                    boneIt.next().getValue().writeToFloatBuffer(buf, true);
-                buf.flip();
-                
-                GL15.glBufferSubData(GL43.GL_SHADER_STORAGE_BUFFER, j * 16 * Float.BYTES, buf);
-            }
-            
-            ++i;
+        rangeStart = rangeEnd = 0;
+        dirtyBones.drain(this::addDirtyBone);
+        bufferRange();
+        
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+    }
+    
+    /**
+     * Adds the subtree of the given bone to the range of bones to rebuffer. As bones
+     * are drained in pre-order, a bone within the current range is already covered by
+     * it; otherwise, if the subtree of the bone is adjacent to the range, the range is
+     * extended over it, and if not, the range is buffered and replaced.
+     * @param bone the index of the changed bone, in pre-order
+     */
+    private void addDirtyBone(int bone) {
+        if (bone < rangeEnd)
+            return;
+        
+        if (bone != rangeEnd) {
+            bufferRange();
+            rangeStart = bone;
+        }
+        
+        rangeEnd = subtreeEnds[bone];
+    }
+    
+    /**
+     * Recomputes the model-space matrices of the current range of bones, and buffers
+     * them. The parent of each bone in the range either precedes it in the range, or
+     * lies outside of it and is already up to date.
+     */
+    private void bufferRange() {
+        if (rangeStart == rangeEnd)
+            return;
+        
+        boneBuffer.clear();
+        for (int i = rangeStart; i < rangeEnd; ++i) {
+            computeModel(i);
+            models[i].writeToFloatBuffer(boneBuffer, true);
         }
+        boneBuffer.flip();
         
-        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+        GraphicsManager.BACKEND.glBufferSubData(GL43.GL_SHADER_STORAGE_BUFFER, rangeStart * 16 * Float.BYTES, boneBuffer);
     }
     
     /**
@@ -166,9 +242,9 @@ public class GLSkeleton extends GLObject {
     }
     
     private void closeSkeletonSSBO() {
-        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
-        GL15.glDeleteBuffers(skeletonSSBO);
-        GL15.glDeleteBuffers(weightSSBO);
+        GraphicsManager.BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+        GraphicsManager.BACKEND.glDeleteBuffers(skeletonSSBO);
+        GraphicsManager.BACKEND.glDeleteBuffers(weightSSBO);
     }
     
     @Override
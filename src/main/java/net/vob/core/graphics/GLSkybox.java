@@ -5,14 +5,12 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import net.vob.util.logging.LocaleUtils;
 import net.vob.util.math.Matrix;
+import net.vob.util.math.Quaternion;
 import net.vob.util.math.Vector3;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL15;
-import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
-import org.lwjgl.opengl.GL31;
 
 /**
  * A special class, reserved specifically for skyboxes. This class combines the
@@ -66,9 +64,9 @@ class GLSkybox extends GLObject {
     
     @Override
     void init() throws Exception {
-        vao = GL30.glGenVertexArrays();
+        vao = GraphicsManager.BACKEND.glGenVertexArrays();
         
-        GL30.glBindVertexArray(vao);
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
         
         // Buffer vertices
         ByteBuffer vBuf = BufferUtils.createByteBuffer(8 * GraphicsManager.SEMI_VERTEX_STRIDE);
@@ -83,21 +81,21 @@ class GLSkybox extends GLObject {
         vBuf.flip();
 
         // Generate vertex buffer
-        vbo = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vBuf, GL15.GL_STATIC_DRAW);
+        vbo = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GraphicsManager.BACKEND.glBufferData(GL15.GL_ARRAY_BUFFER, vBuf, GL15.GL_STATIC_DRAW);
 
-        GL20.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX, GraphicsManager.NUM_POSITION_COMPONENTS_PER_VERTEX,
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX, GraphicsManager.NUM_POSITION_COMPONENTS_PER_VERTEX,
                                    GL11.GL_FLOAT, false, GraphicsManager.SEMI_VERTEX_STRIDE, GraphicsManager.VERTEX_POSITION_OFFSET);
-        GL20.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX, GraphicsManager.NUM_UV_COMPONENTS_PER_VERTEX,
+        GraphicsManager.BACKEND.glVertexAttribPointer(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX, GraphicsManager.NUM_UV_COMPONENTS_PER_VERTEX,
                                    GL11.GL_FLOAT, false, GraphicsManager.SEMI_VERTEX_STRIDE, GraphicsManager.VERTEX_UV_OFFSET);
 
         // Buffer instance attibutes, and generate the GL buffer
-        bufferSkyboxMatrices();
+        bufferSkyboxMatrices(GraphicsEngine.PROJ_MATRIX, GraphicsManager.VIEW_TRANSFORM.getRotation());
         
-        ivbo = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, BUFFER, GL15.GL_DYNAMIC_DRAW);
+        ivbo = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
+        GraphicsManager.BACKEND.glBufferData(GL15.GL_ARRAY_BUFFER, BUFFER, GL15.GL_DYNAMIC_DRAW);
         
         GraphicsManager.vertexAttribPointerMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, 4,
                                                   false, GraphicsManager.INSTANCE_STRIDE, GraphicsManager.INSTANCE_MODEL_MATRIX_OFFSET);
@@ -107,7 +105,7 @@ class GLSkybox extends GLObject {
         GraphicsManager.vertexAttribDivisorMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, 1);
         GraphicsManager.vertexAttribDivisorMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX, 1);
         
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         
         // Buffer indices
         IntBuffer iBuf = BufferUtils.createIntBuffer(triangles.length);
@@ -115,58 +113,61 @@ class GLSkybox extends GLObject {
         iBuf.flip();
 
         // Generate index buffer
-        ebo = GL15.glGenBuffers();
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
-        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, iBuf, GL15.GL_STATIC_DRAW);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        ebo = GraphicsManager.BACKEND.glGenBuffers();
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+        GraphicsManager.BACKEND.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, iBuf, GL15.GL_STATIC_DRAW);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
         
-        GL30.glBindVertexArray(0);
+        GraphicsManager.BACKEND.glBindVertexArray(0);
     }
     
-    void render() {
-        GL11.glDisable(GL11.GL_DEPTH_TEST);
-        GL30.glBindVertexArray(vao);
-        
-        if (GraphicsManager.getStatus(GraphicsManager.STATUS_MATRICES_CHANGED)) {
-            bufferSkyboxMatrices();
+    /**
+     * Renders the skybox with the camera of the given draw list.
+     * @param frame the draw list
+     */
+    void render(DrawList frame) {
+        GraphicsManager.BACKEND.glDisable(GL11.GL_DEPTH_TEST);
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
+        
+        if (frame.matricesChanged) {
+            bufferSkyboxMatrices(frame.projMatrix, frame.viewRotation);
             
-            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
-            GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.INSTANCE_MODEL_MATRIX_OFFSET, BUFFER);
-            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+            GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
+            GraphicsManager.BACKEND.glBufferSubData(GL15.GL_ARRAY_BUFFER, GraphicsManager.INSTANCE_MODEL_MATRIX_OFFSET, BUFFER);
+            GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
         }
         
         GLShaderProgram.SKYBOX.bind();
         tex.bind();
         
-        GL20.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
-        GL20.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
+        GraphicsManager.BACKEND.glEnableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
         GraphicsManager.enableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX);
         GraphicsManager.enableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX);
         
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
-        GL31.glDrawElementsInstanced(GL11.GL_TRIANGLES, triangles.length, GL11.GL_UNSIGNED_INT, 0, 1);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+        GraphicsManager.BACKEND.glDrawElementsInstanced(GL11.GL_TRIANGLES, triangles.length, GL11.GL_UNSIGNED_INT, 0, 1);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
         
-        GL20.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
-        GL20.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
+        GraphicsManager.BACKEND.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_POSITION_INDEX);
+        GraphicsManager.BACKEND.glDisableVertexAttribArray(GraphicsManager.SHADER_ATTRIBUTE_UV_INDEX);
         GraphicsManager.disableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX);
         GraphicsManager.disableVertexAttribArrayMatrix(GraphicsManager.SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX);
-        GL30.glBindVertexArray(0);
+        GraphicsManager.BACKEND.glBindVertexArray(0);
         
         tex.unbind();
         GLShaderProgram.SKYBOX.unbind();
-        GL11.glEnable(GL11.GL_DEPTH_TEST);
+        GraphicsManager.BACKEND.glEnable(GL11.GL_DEPTH_TEST);
     }
     
-    private static void bufferSkyboxMatrices() {
+    private static void bufferSkyboxMatrices(Matrix projMatrix, Quaternion viewRotation) {
         BUFFER.clear();
         
         double s = (GraphicsEngine.getZFarDist() + GraphicsEngine.getZNearDist()) / 2d;
         Matrix model = Matrix.getScalingMatrix(new Vector3(s, s, s));
         
-        Matrix pvm = GraphicsEngine.PROJ_MATRIX
-                                    .mul(Matrix.getRotationMatrix(GraphicsManager.VIEW_TRANSFORM.getRotation().conjugate()))
-                                    .mul(model);
+        Matrix pvm = projMatrix.mul(Matrix.getRotationMatrix(viewRotation.conjugate()))
+                               .mul(model);
         
         model.writeToFloatBuffer(BUFFER, true);
         pvm.writeToFloatBuffer(BUFFER, true);
@@ -175,17 +176,17 @@ class GLSkybox extends GLObject {
 
     @Override
     protected boolean doClose() {
-        GL30.glBindVertexArray(vao);
+        GraphicsManager.BACKEND.glBindVertexArray(vao);
         
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GraphicsManager.BACKEND.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
         
-        GL15.glDeleteBuffers(vbo);
-        GL15.glDeleteBuffers(ivbo);
-        GL15.glDeleteBuffers(ebo);
+        GraphicsManager.BACKEND.glDeleteBuffers(vbo);
+        GraphicsManager.BACKEND.glDeleteBuffers(ivbo);
+        GraphicsManager.BACKEND.glDeleteBuffers(ebo);
         
-        GL30.glBindVertexArray(0);
-        GL30.glDeleteVertexArrays(vao);
+        GraphicsManager.BACKEND.glBindVertexArray(0);
+        GraphicsManager.BACKEND.glDeleteVertexArrays(vao);
         
         return true;
     }
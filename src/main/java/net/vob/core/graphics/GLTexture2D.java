@@ -12,8 +12,6 @@ import net.vob.util.logging.LocaleUtils;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL12;
-import org.lwjgl.opengl.GL13;
-import org.lwjgl.opengl.GL30;
 
 /**
  * A class holding a reference to a 2D image loaded into the GPU. Also contains the unit
@@ -102,19 +100,19 @@ final class GLTexture2D extends GLTexture {
         
         buf.flip();
         
-        GL13.glActiveTexture(unit);
-        int texture = GL11.glGenTextures();
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GraphicsManager.BACKEND.glActiveTexture(unit);
+        int texture = GraphicsManager.BACKEND.glGenTextures();
+        GraphicsManager.BACKEND.glBindTexture(GL11.GL_TEXTURE_2D, texture);
         
-        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buf);
+        GraphicsManager.BACKEND.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buf);
         
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        GraphicsManager.BACKEND.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        GraphicsManager.BACKEND.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        GraphicsManager.BACKEND.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
+        GraphicsManager.BACKEND.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
         
-        GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        GraphicsManager.BACKEND.glGenerateMipmap(GL11.GL_TEXTURE_2D);
+        GraphicsManager.BACKEND.glBindTexture(GL11.GL_TEXTURE_2D, 0);
         return texture;
     }
     
@@ -123,8 +121,8 @@ final class GLTexture2D extends GLTexture {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLTexture"));
         
-        GL13.glActiveTexture(unit);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, tex);
+        GraphicsManager.BACKEND.glActiveTexture(unit);
+        GraphicsManager.BACKEND.glBindTexture(GL11.GL_TEXTURE_2D, tex);
     }
     
     @Override
@@ -132,8 +130,8 @@ final class GLTexture2D extends GLTexture {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLTexture"));
         
-        GL13.glActiveTexture(unit);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        GraphicsManager.BACKEND.glActiveTexture(unit);
+        GraphicsManager.BACKEND.glBindTexture(GL11.GL_TEXTURE_2D, 0);
     }
     
     @Override
@@ -156,7 +154,7 @@ final class GLTexture2D extends GLTexture {
     @Override
     protected boolean doClose() {
         unbind();
-        GL11.glDeleteTextures(tex);
+        GraphicsManager.BACKEND.glDeleteTextures(tex);
         
         return true;
     }
@@ -14,7 +14,6 @@ import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL12;
 import org.lwjgl.opengl.GL13;
-import org.lwjgl.opengl.GL30;
 
 /**
  * A class holding a reference to a set of cubemap images loaded into the GPU. Also
@@ -337,24 +336,24 @@ final class GLTextureCubemap extends GLTexture {
         
         buf.flip();
         
-        GL11.glTexImage2D(face, 0, GL11.GL_RGBA8, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buf);
+        GraphicsManager.BACKEND.glTexImage2D(face, 0, GL11.GL_RGBA8, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buf);
     }
     
     private void texGenBegin() {
-        GL13.glActiveTexture(unit);
-        tex = GL11.glGenTextures();
-        GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, tex);
+        GraphicsManager.BACKEND.glActiveTexture(unit);
+        tex = GraphicsManager.BACKEND.glGenTextures();
+        GraphicsManager.BACKEND.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, tex);
     }
     
     private void texGenEnd() {
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL12.GL_TEXTURE_WRAP_R, GL12.GL_CLAMP_TO_EDGE);
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
-        GL11.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        GraphicsManager.BACKEND.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        GraphicsManager.BACKEND.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        GraphicsManager.BACKEND.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL12.GL_TEXTURE_WRAP_R, GL12.GL_CLAMP_TO_EDGE);
+        GraphicsManager.BACKEND.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
+        GraphicsManager.BACKEND.glTexParameteri(GL13.GL_TEXTURE_CUBE_MAP, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
         
-        GL30.glGenerateMipmap(GL13.GL_TEXTURE_CUBE_MAP);
-        GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, 0);
+        GraphicsManager.BACKEND.glGenerateMipmap(GL13.GL_TEXTURE_CUBE_MAP);
+        GraphicsManager.BACKEND.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, 0);
     }
     
     @Override
@@ -362,8 +361,8 @@ final class GLTextureCubemap extends GLTexture {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLTexture"));
         
-        GL13.glActiveTexture(unit);
-        GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, tex);
+        GraphicsManager.BACKEND.glActiveTexture(unit);
+        GraphicsManager.BACKEND.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, tex);
     }
     
     @Override
@@ -371,8 +370,8 @@ final class GLTextureCubemap extends GLTexture {
         if (isClosed())
             throw new IllegalStateException(LocaleUtils.format("global.Exception.Closed", "GLTexture"));
         
-        GL13.glActiveTexture(unit);
-        GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, 0);
+        GraphicsManager.BACKEND.glActiveTexture(unit);
+        GraphicsManager.BACKEND.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, 0);
     }
     
     @Override
@@ -406,7 +405,7 @@ final class GLTextureCubemap extends GLTexture {
     @Override
     public boolean doClose() {
         unbind();
-        GL11.glDeleteTextures(tex);
+        GraphicsManager.BACKEND.glDeleteTextures(tex);
         
         return true;
     }
@@ -1,8 +1,13 @@
 package net.vob.core.graphics;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import net.vob.VoidOfBlue;
@@ -15,6 +20,7 @@ import net.vob.util.math.Vector3;
 import net.vob.util.logging.LocaleUtils;
 import net.vob.util.math.AffineTransformation;
 import net.vob.util.Input;
+import net.vob.util.RollingHistogram;
 import net.vob.util.Tree;
 import net.vob.util.Trees;
 import net.vob.util.math.Maths;
@@ -23,7 +29,6 @@ import org.lwjgl.PointerBuffer;
 import org.lwjgl.glfw.GLFW;
 
 import static org.lwjgl.glfw.GLFW.*;
-import org.lwjgl.opengl.GL11;
 
 /**
  * The static manager class for a single window. This extends to not only handling GLFW and
@@ -115,10 +120,12 @@ import org.lwjgl.opengl.GL11;
  * information regarding the window/viewport itself separately from any information used
  * directly for rendering (as the projection matrix is built entirely on the parameters of
  * the viewport).</li>
- *  <li>The graphics engine, when passed an {@link AffineTransformation} via any messaging
- * function, relies on the dirty flags of these transformations to know when to update the
- * GPU buffers; thus, outside threads should take care when calling one of the
- * transformation matrix methods of these instances, as that will clear the dirty flag.</li>
+ *  <li>The graphics engine, when passed an {@link AffineTransformation} for a renderable
+ * instance or skeleton bone via any messaging function, subscribes to changes to that
+ * transformation, and only updates the GPU buffers of the transformations that have
+ * changed. The view transform is the exception; the engine relies on its dirty flag to
+ * know when to update the view matrix, so outside threads should take care when calling
+ * one of its transformation matrix methods, as that will clear the dirty flag.</li>
  *  <li>Renderable instances share <i>everything</i> except for their origin point
  * transformation; this includes meshes, textures, shaders and skeleton transformations. If
  * any of these are required or expected to be independent of one another, then users should
@@ -150,6 +157,31 @@ public final class GraphicsEngine {
      */
     public static final int VALUE_DONT_CARE = GLFW_DONT_CARE;
     
+    /**
+     * The modes the loop of the graphics thread can be paced in. See
+     * {@link setFramePacing(FramePacing)}.
+     */
+    public static enum FramePacing {
+        /**
+         * Pacing mode in which each loop starts a fixed period after the last, as set by
+         * {@link setTargetFrameRate(double)}. If a loop overruns the period, the next
+         * loop starts immediately; loops that were missed are not made up for.
+         */
+        TARGET_FPS,
+        /**
+         * Pacing mode in which v-sync is enabled, and each loop starts as soon as the
+         * last has presented its frame; thus, the loop runs at the refresh rate of the
+         * monitor. In offscreen mode, no frames are presented, so this is the same as
+         * {@link UNCAPPED}.
+         */
+        VSYNC,
+        /**
+         * Pacing mode in which v-sync is disabled, and each loop starts as soon as the
+         * last has finished.
+         */
+        UNCAPPED
+    }
+    
     /**
      * The minimum window width that an instance of {@link WindowOptions} can have.
      */
@@ -205,6 +237,8 @@ public final class GraphicsEngine {
     public static final Identity DEFAULT_SHADER_UI_ID = new Identity("default_shader_ui").partial("core");
     /** The {@link Identity} corresponding to the skybox shader. */
     public static final Identity SKYBOX_SHADER_ID = new Identity("skybox_shader").partial("core");
+    /** The {@link Identity} corresponding to the instance culling compute shader. */
+    public static final Identity CULL_SHADER_ID = new Identity("cull_shader").partial("core");
     
     /** Status flag for if the graphics engine is currently initialized. */
     public static final int STATUS_INITIALIZED = 1;
@@ -235,7 +269,12 @@ public final class GraphicsEngine {
      * As such, threads wishing to communicate with the {@code GraphicsManager} can use
      * this static {@link ReentrantLock} to achieve thread-safety, by locking it before
      * a series of messages are queued and releasing it once all desired messages have
-     * been submitted. It is up to the callers to use this lock, if needed.
+     * been submitted. It is up to the callers to use this lock, if needed.<p>
+     * 
+     * Note that the message queue itself is lock-free, and neither it nor the graphics
+     * thread ever acquire this lock; individual messages can always be queued safely
+     * without it. This lock only serves to keep a <i>sequence</i> of messages from one
+     * thread from being interleaved with messages from other threads.
      */
     public static final ReentrantLock MESSAGE_LOCK = new ReentrantLock();
     
@@ -284,6 +323,27 @@ public final class GraphicsEngine {
      */
     private static final Vector2 cursorPos = new Vector2();
     
+    /** The message queue depth at which {@link watermarkCallback} is invoked. */
+    private static volatile int watermarkDepth = Integer.MAX_VALUE;
+    /** The callback for the message queue high watermark, or {@code null} if none. */
+    private static volatile IntConsumer watermarkCallback = null;
+    /** Whether the message queue depth is at or above the high watermark. */
+    private static final AtomicBoolean aboveWatermark = new AtomicBoolean(false);
+    /** Synchronizes the starting and stopping of message recordings. */
+    private static final Object RECORDING_SYNC = new Object();
+    
+    /**
+     * Whether the engine was initialized by {@link initHeadless}, in which case there is
+     * no window and no GL context, and all GL calls are made to a
+     * {@link HeadlessGLBackend}.
+     */
+    private static volatile boolean headless = false;
+    /**
+     * Whether the engine was initialized by {@link initOffscreen}, in which case the
+     * window is hidden and frames are rendered into an offscreen framebuffer.
+     */
+    private static volatile boolean offscreen = false;
+    
     /** The variable for containing the current thread that has the GL context. */
     private static Thread CONTEXT = null;
     
@@ -332,7 +392,8 @@ public final class GraphicsEngine {
      * @param fullscreen {@code true} is these options are in fullscreen mode,
      * {@code false} if they are in windowed mode
      * @param graphicsLoopPeriodMS the target length, in milliseconds, between invocations
-     * of the graphical loop in the graphics thread
+     * of the graphical loop in the graphics thread, while it is paced to a target frame
+     * rate (see {@link setFramePacing(FramePacing)})
      * @throws InterruptedException if this thread is interrupted while waiting for the
      * graphics thread to be initialized
      */
@@ -459,7 +520,152 @@ public final class GraphicsEngine {
         if (GraphicsManager.getStatus(GraphicsManager.STATUS_INITIALIZED))
             LOG.log(Level.FINEST, "global.Status.Init.End", "Graphics engine");
     }
+
+    /**
+     * Initializes the graphics engine in headless mode. This behaves like
+     * {@link init}, except that GLFW is never initialized and no window or GL context
+     * is created; instead, every GL call made by the graphics thread goes to a
+     * {@link HeadlessGLBackend}, which has no effect other than gathering statistics
+     * about the calls. These statistics can be queried with {@link getGLCallCount()}
+     * and its sibling methods.<p>
+     *
+     * Headless mode exists to measure the CPU side of the graphics engine, such as
+     * message handling and instance transform updates, on machines without a GPU. The
+     * window functions of this class, such as {@link pollEvents()} and
+     * {@link setCursor(int)}, do nothing in headless mode. Fullscreen mode is not
+     * supported, and the window is considered to be positioned at the origin.
+     *
+     * @param windowWidth the width of the virtual window
+     * @param windowHeight the height of the virtual window
+     * @param windowDepth the depth of the virtual window
+     * @param fov the FOV of the viewport
+     * @param zNearDist the near clipping plane distance
+     * @param zFarDist the far clipping plane distance
+     * @param graphicsLoopPeriodMS the target length, in milliseconds, between invocations
+     * of the graphical loop in the graphics thread, while it is paced to a target frame
+     * rate (see {@link setFramePacing(FramePacing)})
+     * @throws InterruptedException if this thread is interrupted while waiting for the
+     * graphics thread to be initialized
+     */
+    public static void initHeadless(int windowWidth,
+                                    int windowHeight,
+                                    int windowDepth,
+                                    float fov,
+                                    float zNearDist,
+                                    float zFarDist,
+                                    int graphicsLoopPeriodMS) throws InterruptedException
+    {
+        if (!getStatus(STATUS_INITIALIZABLE))
+            return;
+
+        LOG.log(Level.FINEST, "global.Status.Init.Start", "Graphics engine (headless)");
+
+        headless = true;
+        GraphicsManager.BACKEND = new HeadlessGLBackend();
+
+        setStatus(STATUS_INITIALIZABLE, false);
+        setStatus(STATUS_INITIALIZED, true);
+
+        _x = 0;
+        _y = 0;
+        _width = windowWidth;
+        _height = windowHeight;
+        _depth = windowDepth;
+        _fov = fov;
+        _zNearDist = zNearDist;
+        _zFarDist = zFarDist;
+        setStatus(STATUS_FULLSCREEN, false);
+
+        GraphicsManager.init(graphicsLoopPeriodMS);
+        GraphicsManager.INIT_LATCH.await();
+
+        if (GraphicsManager.getStatus(GraphicsManager.STATUS_INITIALIZED))
+            LOG.log(Level.FINEST, "global.Status.Init.End", "Graphics engine (headless)");
+    }
     
+    /**
+     * Initializes the graphics engine in offscreen mode. This behaves like {@link init},
+     * except that the window is never shown, has no input callbacks, and cannot be made
+     * fullscreen; instead, every frame is rendered into an offscreen framebuffer with the
+     * size of the window, which can be read back with {@link requestFrameCapture()}.
+     * Unlike headless mode (see {@link initHeadless}), offscreen mode uses a real GL
+     * context, and so exercises the full GPU path.<p>
+     * 
+     * The window is first created with the native context creation API. If that fails,
+     * such as on a machine without GPU drivers, it is created again with the OSMesa
+     * context creation API, which renders with Mesa's software rasterizer. Note that GLFW
+     * still requires a display connection to initialize; on machines with no display
+     * server, a virtual one such as Xvfb must be provided.
+     * 
+     * @param windowWidth the width of the offscreen framebuffer
+     * @param windowHeight the height of the offscreen framebuffer
+     * @param windowDepth the depth of the window
+     * @param fov the FOV of the viewport
+     * @param zNearDist the near clipping plane distance
+     * @param zFarDist the far clipping plane distance
+     * @param graphicsLoopPeriodMS the target length, in milliseconds, between invocations
+     * of the graphical loop in the graphics thread, while it is paced to a target frame
+     * rate (see {@link setFramePacing(FramePacing)})
+     * @throws InterruptedException if this thread is interrupted while waiting for the
+     * graphics thread to be initialized
+     */
+    public static void initOffscreen(int windowWidth,
+                                     int windowHeight,
+                                     int windowDepth,
+                                     float fov,
+                                     float zNearDist,
+                                     float zFarDist,
+                                     int graphicsLoopPeriodMS) throws InterruptedException
+    {
+        if (!getStatus(STATUS_INITIALIZABLE))
+            return;
+        
+        LOG.log(Level.FINEST, "global.Status.Init.Start", "Graphics engine (offscreen)");
+        
+        glfwSetErrorCallback((error, description) -> LOG.log(Level.FINER, String.format("[0x%X] %s", error, GLFWErrorCallback.getDescription(description))));
+        
+        if (!glfwInit()) {
+            LOG.log(Level.SEVERE, "global.Status.Init.Failed", "GLFW");
+            return;
+        }
+        
+        glfwDefaultWindowHints();
+        glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
+        glfwWindowHint(GLFW_RESIZABLE, GLFW_FALSE);
+        
+        window = glfwCreateWindow(windowWidth, windowHeight, "Void of Blue", 0, 0);
+        if (window == 0) {
+            glfwWindowHint(GLFW_CONTEXT_CREATION_API, GLFW_OSMESA_CONTEXT_API);
+            window = glfwCreateWindow(windowWidth, windowHeight, "Void of Blue", 0, 0);
+        }
+        if (window == 0) {
+            LOG.log(Level.SEVERE, "global.Status.Init.Failed", "Window");
+            return;
+        }
+        
+        cursor = glfwCreateStandardCursor(CURSOR_ARROW);
+        offscreen = true;
+        
+        setStatus(STATUS_INITIALIZABLE, false);
+        setStatus(STATUS_INITIALIZED, true);
+        
+        _x = 0;
+        _y = 0;
+        _width = windowWidth;
+        _height = windowHeight;
+        _depth = windowDepth;
+        _fov = fov;
+        _zNearDist = zNearDist;
+        _zFarDist = zFarDist;
+        setStatus(STATUS_FULLSCREEN, false);
+        
+        GraphicsManager.init(graphicsLoopPeriodMS);
+        GraphicsManager.INIT_LATCH.await();
+        
+        if (GraphicsManager.getStatus(GraphicsManager.STATUS_INITIALIZED))
+            LOG.log(Level.FINEST, "global.Status.Init.End", "Graphics engine (offscreen)");
+    }
+
     /**
      * Closes the graphics engine, terminating the graphics thread and GLFW, and freeing
      * any system resources held by still-active GL objects.<p>
@@ -477,10 +683,12 @@ public final class GraphicsEngine {
         
         GraphicsManager.close();
         
-        glfwDestroyCursor(cursor);
-        glfwDestroyWindow(window);
-        
-        glfwTerminate();
+        if (!headless) {
+            glfwDestroyCursor(cursor);
+            glfwDestroyWindow(window);
+            
+            glfwTerminate();
+        }
         
         setStatus(STATUS_INITIALIZED, false);
         LOG.log(Level.FINE, "global.Status.Close.End", "Graphics engine");
@@ -525,7 +733,7 @@ public final class GraphicsEngine {
     }
     
     static void makeContextCurrent() {
-        glfwMakeContextCurrent(window);
+        GraphicsManager.BACKEND.makeContextCurrent(window);
         CONTEXT = Thread.currentThread();
     }
     
@@ -534,11 +742,12 @@ public final class GraphicsEngine {
     }
     
     static void swapBuffers() {
-        glfwSwapBuffers(window);
+        GraphicsManager.BACKEND.swapBuffers(window);
     }
     
     static void setWindowSize(int windowWidth, int windowHeight) {
-        glfwSetWindowSize(window, windowWidth, windowHeight);
+        if (!headless && !offscreen)
+            glfwSetWindowSize(window, windowWidth, windowHeight);
     }
     
     static long getCurrentMonitor(boolean ignoreFullscreen) {
@@ -586,22 +795,26 @@ public final class GraphicsEngine {
     }
     
     static void doEnableFullscreen() {
+        if (headless || offscreen)
+            return;
+        
         long monitor = getCurrentMonitor(true);
         GLFWVidMode mode = glfwGetVideoMode(monitor);
         glfwSetWindowMonitor(window, monitor, 0, 0, mode.width(), mode.height(), GLFW_DONT_CARE);
     }
     
     static void doDisableFullscreen() {
-        glfwSetWindowMonitor(window, 0, _x, _y, getWindowWidth(), getWindowHeight(), GLFW_DONT_CARE);
+        if (!headless && !offscreen)
+            glfwSetWindowMonitor(window, 0, _x, _y, getWindowWidth(), getWindowHeight(), GLFW_DONT_CARE);
     }
     
     static void doEnableVSync() {
-        glfwSwapInterval(1);
+        GraphicsManager.BACKEND.swapInterval(1);
         setStatus(STATUS_VSYNC, true);
     }
     
     static void doDisableVSync() {
-        glfwSwapInterval(0);
+        GraphicsManager.BACKEND.swapInterval(0);
         setStatus(STATUS_VSYNC, false);
     }
     
@@ -618,7 +831,8 @@ public final class GraphicsEngine {
         if (!getStatus(STATUS_INITIALIZED))
             throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
             
-        glfwPollEvents();
+        if (!headless)
+            glfwPollEvents();
     }
     
     /**
@@ -633,7 +847,8 @@ public final class GraphicsEngine {
         if (!getStatus(STATUS_INITIALIZED))
             throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
             
-        glfwWaitEvents();
+        if (!headless)
+            glfwWaitEvents();
     }
     
     /**
@@ -653,7 +868,8 @@ public final class GraphicsEngine {
         if (Double.isInfinite(timeout) || timeout <= 0)
             throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>", "timeout", timeout, 0));
         
-        glfwWaitEventsTimeout(timeout);
+        if (!headless)
+            glfwWaitEventsTimeout(timeout);
     }
     
     /**
@@ -668,7 +884,8 @@ public final class GraphicsEngine {
         if (!getStatus(STATUS_INITIALIZED))
             throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
         
-        glfwPostEmptyEvent();
+        if (!headless)
+            glfwPostEmptyEvent();
     }
     
     /**
@@ -1048,7 +1265,7 @@ public final class GraphicsEngine {
 
                 int width = _width, height = _height;
 
-                if (getStatus(STATUS_FULLSCREEN)) {
+                if (getStatus(STATUS_FULLSCREEN) && !headless && !offscreen) {
                     int[] monitorWidth = new int[1], monitorHeight = new int[1];
                     GraphicsEngine.getMonitorSize(GraphicsEngine.getCurrentMonitor(getStatus(STATUS_FULLSCREEN_DIRTY)), monitorWidth, monitorHeight);
 
@@ -1074,7 +1291,7 @@ public final class GraphicsEngine {
                     setStatus(STATUS_FULLSCREEN_DIRTY, false);
                 }
 
-                GL11.glViewport(0, 0, width, height);
+                GraphicsManager.BACKEND.glViewport(0, 0, width, height);
                 if (getStatus(STATUS_UPDATE_WINDOW_SIZE))
                     setWindowSize(width, height);
 
@@ -1100,7 +1317,8 @@ public final class GraphicsEngine {
      * the previous Y-coordinate
      */
     public static void setWindowPos(int x, int y) {
-        glfwSetWindowPos(window, x, y);
+        if (!headless)
+            glfwSetWindowPos(window, x, y);
     }
     
     /**
@@ -1121,6 +1339,9 @@ public final class GraphicsEngine {
         if (shape < CURSOR_ARROW || shape > CURSOR_VRESIZE)
             throw new IllegalArgumentException(LocaleUtils.format("GraphicsEngine.InvalidCursorParam", shape));
         
+        if (headless)
+            return;
+        
         glfwDestroyCursor(cursor);
         cursor = glfwCreateStandardCursor(shape);
         glfwSetCursor(window, cursor);
@@ -1145,179 +1366,917 @@ public final class GraphicsEngine {
         return GraphicsManager.MAX_COMBINED_TEXTURE_UNITS;
     }
     
-    private static CompletableFuture<Integer> enqueueMessage(Message message) {
-        if (!getStatus(STATUS_INITIALIZED))
-            throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
+    /**
+     * Gets the current depth of the message queue; that is, the number of messages
+     * waiting to be drained by the graphics thread. As other threads may be enqueueing
+     * messages concurrently, this is only a snapshot, but it can be used as a gauge of
+     * queue pressure in order to shed load before the queue fills up.
+     * 
+     * @return the number of messages in the message queue
+     * @see #getMessageQueueCapacity()
+     */
+    public static int getMessageQueueDepth() {
+        return GraphicsManager.MESSAGE_QUEUE.size();
+    }
+    
+    /**
+     * Gets the capacity of the message queue. Once the queue holds this many messages,
+     * the {@code msg*} methods block until space becomes available, and the
+     * {@code tryMsg*} methods fail.
+     * 
+     * @return the capacity of the message queue
+     */
+    public static int getMessageQueueCapacity() {
+        return GraphicsManager.MESSAGE_QUEUE.capacity();
+    }
+    
+    /**
+     * Sets the high watermark of the message queue. Whenever a message is enqueued and
+     * the queue depth rises from below {@code depth} to at least {@code depth}, the given
+     * callback is invoked with the current depth. The callback is invoked on the
+     * enqueueing thread, and so should be quick and must not enqueue messages itself; it
+     * is not invoked again until the depth has fallen back below the watermark.
+     * 
+     * @param depth the queue depth at which the callback is invoked
+     * @param callback the callback to invoke, or {@code null} to remove the watermark
+     * @throws IllegalArgumentException if {@code depth} is less than 1, or greater than
+     * the capacity of the message queue
+     */
+    public static void setMessageQueueWatermark(int depth, @Nullable IntConsumer callback) {
+        if (depth < 1 || depth > getMessageQueueCapacity())
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.<=x<=", "depth", depth, 1, getMessageQueueCapacity()));
         
-        if (hasCurrentContext()) 
-        {
-            GraphicsManager.handleMessage(message);
-        }
-        else
-        {
-            try {
-                GraphicsManager.MESSAGE_QUEUE.put(message);
-            } catch (InterruptedException e) {
-                LOG.log(Level.WARNING, "GraphicsEngine.enqueueMessage.EnqueueFailed", e);
-                message.future.cancel(false);
-            }
-        }
+        watermarkCallback = callback;
+        watermarkDepth = callback == null ? Integer.MAX_VALUE : depth;
+        aboveWatermark.set(false);
+    }
+    
+    /**
+     * Sets the time budget for handling messages in each frame of the graphics thread.
+     * Messages are split into two cost classes: expensive messages, which decode images,
+     * compile shaders or upload whole meshes, and cheap messages, which are everything
+     * else. Once the budget of a frame has been used up, the next expensive message and
+     * all messages after it are deferred to the next frame, so that a burst of expensive
+     * messages is spread out over several frames. Messages are never reordered, and at
+     * least one expensive message is handled every frame.<p>
+     * 
+     * By default, the budget is unlimited.
+     * 
+     * @param millis the time budget in milliseconds, or 0 for an unlimited budget
+     * @throws IllegalArgumentException if {@code millis} is negative
+     */
+    public static void setMessageTimeBudget(double millis) {
+        if (millis < 0)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>=", "millis", millis, 0));
         
-        return message.future;
+        GraphicsManager.MESSAGE_BUDGET_NANOS = (long)(millis * 1e6);
     }
     
     /**
-     * Enables v-sync. By default, v-sync is disabled.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
-     * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
+     * Gets the time budget for handling messages in each frame of the graphics thread.
+     * @return the time budget in milliseconds, or 0 if the budget is unlimited
      */
-    public static CompletableFuture<Integer> msgEnableVSync() {
-        return enqueueMessage(new Message(Message.Type.ENABLE_VSYNC));
+    public static double getMessageTimeBudget() {
+        return GraphicsManager.MESSAGE_BUDGET_NANOS / 1e6;
     }
     
     /**
-     * Disables v-sync. By default, v-sync is disabled.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * Gets the number of messages that were deferred to the next frame by the message
+     * time budget at the end of the last frame. This is only a snapshot.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
+     * @return the number of deferred messages
      */
-    public static CompletableFuture<Integer> msgDisableVSync() {
-        return enqueueMessage(new Message(Message.Type.DISABLE_VSYNC));
+    public static int getDeferredMessageCount() {
+        return GraphicsManager.DEFERRED_MESSAGES;
     }
     
     /**
-     * Enables debug mode. By default, debug mode is disabled.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
-     * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
+     * Starts recording every message handled by the graphics thread to a binary file at
+     * the given path, replacing any existing file. The recording can later be replayed
+     * with {@link #replayMessageRecording(Path, boolean)}, for instance to benchmark the
+     * graphics engine with a deterministic message stream.<p>
+     * 
+     * Message arguments are recorded as they are when the message is handled; changes
+     * made afterwards to an affine transformation held by the graphics engine are not
+     * messages, and so are not part of the recording. If a message cannot be recorded,
+     * a warning is logged and the recording is stopped.
+     * 
+     * @param path the path of the recording file
+     * @throws IOException if the file could not be opened or written to
+     * @throws IllegalStateException if messages are already being recorded
      */
-    public static CompletableFuture<Integer> msgEnableDebugMode() {
-        return enqueueMessage(new Message(Message.Type.ENABLE_DEBUGGING));
+    public static void startMessageRecording(Path path) throws IOException {
+        synchronized (RECORDING_SYNC) {
+            if (GraphicsManager.RECORDER != null)
+                throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.startMessageRecording.AlreadyRecording"));
+            
+            GraphicsManager.RECORDER = new MessageRecorder(path);
+        }
     }
     
     /**
-     * Disables debug mode. By default, debug mode is disabled.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * Stops recording messages, and closes the recording file. Does nothing if messages
+     * are not being recorded.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
+     * @throws IOException if the recording file could not be closed
      */
-    public static CompletableFuture<Integer> msgDisableDebugMode() {
-        return enqueueMessage(new Message(Message.Type.DISABLE_DEBUGGING));
+    public static void stopMessageRecording() throws IOException {
+        synchronized (RECORDING_SYNC) {
+            MessageRecorder recorder = GraphicsManager.RECORDER;
+            GraphicsManager.RECORDER = null;
+            
+            if (recorder != null)
+                recorder.close();
+        }
     }
     
     /**
-     * Sets the affine transformation of the viewport to an unmodifiable view of the given
-     * transform. Changes to the original affine transformation are visible within the
-     * graphics engine.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
-     * 
-     * @param transform the new transform of the viewport
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
-     * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>{@code transform} is {@code null}</li>
-     * </ul>
+     * Replays a recording made with {@link #startMessageRecording(Path)}, posting each
+     * recorded message to the graphics thread in the order it was recorded. This method
+     * blocks until the whole recording has been posted; note that this does not wait for
+     * the graphics thread to handle the final messages.<p>
+     * 
+     * The messages are posted as they were recorded, so any IDs they refer to are the IDs
+     * of the recording session. The replay is thus only faithful if the graphics engine
+     * is in the same state as it was when the recording was started, typically freshly
+     * initialized.
+     * 
+     * @param path the path of the recording file
+     * @param originalSpeed {@code true} to post each message at the same time relative to
+     * the start of the replay as it was handled relative to the start of the recording,
+     * or {@code false} to post the messages as fast as possible
+     * @return the number of top-level messages replayed
+     * @throws IOException if the recording could not be read, or is malformed
+     * @throws InterruptedException if the thread was interrupted while waiting to post a
+     * message at its original time
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgViewportSetTransform(AffineTransformation transform) {
-        return enqueueMessage(new Message(Message.Type.VIEWPORT_SET_TRANSFORM, transform));
+    public static int replayMessageRecording(Path path, boolean originalSpeed) throws IOException, InterruptedException {
+        int count = 0;
+        
+        try (MessageReplayer replayer = new MessageReplayer(path)) {
+            long start = System.nanoTime();
+            Message message;
+            
+            while ((message = replayer.next()) != null) {
+                if (originalSpeed) {
+                    long wait = replayer.getTimestamp() - (System.nanoTime() - start);
+                    if (wait > 0)
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                
+                postMessage(message);
+                ++count;
+            }
+        }
+        
+        return count;
     }
     
     /**
-     * Enables rendering of the skybox.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
-     * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
+     * Enables message coalescing. When enabled, the graphics thread collapses messages
+     * that are superseded by a later message for the same target within the same frame,
+     * such as repeated {@link #msgRenderableSetInstanceTransform(int, AffineTransformation, int)}
+     * calls for the same instance, before handling them. The futures of collapsed
+     * messages complete with the result of the message that superseded them. By default,
+     * message coalescing is disabled.<p>
+     * 
+     * Only the viewport transform, and the handle-based instance transform and mesh
+     * attribute messages, are coalesced; see {@link #getCoalescedMessageCount()}.
      */
-    public static CompletableFuture<Integer> msgSkyboxEnable() {
-        return enqueueMessage(new Message(Message.Type.SKYBOX_ENABLE));
+    public static void enableMessageCoalescing() {
+        MessageCoalescer.setEnabled(true);
     }
     
     /**
-     * Disables rendering of the skybox.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
-     * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
+     * Disables message coalescing. By default, message coalescing is disabled.
      */
-    public static CompletableFuture<Integer> msgSkyboxDisable() {
-        return enqueueMessage(new Message(Message.Type.SKYBOX_DISABLE));
+    public static void disableMessageCoalescing() {
+        MessageCoalescer.setEnabled(false);
     }
     
     /**
-     * Sets the texture of the skybox to the currently selected texture. The texture is
-     * expected to be a diffuse texture, and a cubemap.<p>
-     * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * Gets the total number of messages that have been collapsed into later messages by
+     * message coalescing, and thus never executed.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
-     * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected texture is {@code null}</li>
-     *  <li>the currently selected texture has a unit other than 0</li>
-     *  <li>the currently selected texture is not a cubemap</li>
-     * </ul>
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
+     * @return the number of coalesced messages
      */
-    public static CompletableFuture<Integer> msgSkyboxSetTexture() {
-        return enqueueMessage(new Message(Message.Type.SKYBOX_SET_TEXTURE));
+    public static long getCoalescedMessageCount() {
+        return MessageCoalescer.getCoalescedCount();
     }
     
     /**
-     * Instantiates and registers a new mesh object. This mesh will contain the positions,
+     * Gets the total number of messages allocated by the pool that posted messages are
+     * taken from. Posted messages are recycled once handled, so at steady state this
+     * value stops increasing; a value that keeps growing indicates that messages are
+     * being posted faster than the graphics thread can handle them.
+     * 
+     * @return the number of pooled messages allocated so far
+     */
+    public static long getMessagePoolAllocations() {
+        return GraphicsManager.MESSAGE_POOL.getAllocations();
+    }
+
+    /**
+     * Gets the number of shader program, VAO, texture and skeleton binds made while
+     * rendering the last frame. Renderables are rendered in an order that groups shared
+     * attachments together, and attachments that are already bound are not bound again;
+     * the sum of this value and {@link getSkippedBindCount()} is the number of binds the
+     * frame would have made without this.
+     *
+     * @return the number of binds in the last frame
+     */
+    public static int getBindCount() {
+        return GraphicsManager.LAST_LOOP_BINDS;
+    }
+
+    /**
+     * Gets the number of binds that were skipped while rendering the last frame, as the
+     * object to bind was already bound. See {@link getBindCount()}.
+     *
+     * @return the number of skipped binds in the last frame
+     */
+    public static int getSkippedBindCount() {
+        return GraphicsManager.LAST_LOOP_BINDS_SKIPPED;
+    }
+
+    /**
+     * Enables multi-draw batching. While enabled, consecutive renderables under the same
+     * shader program that have no skeleton and share the same textures are drawn with a
+     * single indirect multi-draw call, rather than one draw call each. Multi-draw
+     * batching is enabled by default.
+     */
+    public static void enableMultiDraw() {
+        GraphicsManager.MULTI_DRAW = true;
+    }
+
+    /**
+     * Disables multi-draw batching, such that every renderable is drawn with its own
+     * draw call.
+     */
+    public static void disableMultiDraw() {
+        GraphicsManager.MULTI_DRAW = false;
+    }
+
+    /**
+     * Enables pipelined frame preparation. While enabled, the instances of each frame
+     * are prepared on a pool of worker threads while the graphical thread is still
+     * submitting the previous frame; this overlaps the CPU and GL work of consecutive
+     * frames, at the cost of presenting each frame one loop later. Pipelined frame
+     * preparation is enabled by default.
+     */
+    public static void enablePipelining() {
+        GraphicsManager.PIPELINED = true;
+    }
+
+    /**
+     * Disables pipelined frame preparation, such that each frame is prepared and
+     * submitted within the same loop. The instances are still prepared on the pool of
+     * worker threads, but the graphical thread waits for them.
+     */
+    public static void disablePipelining() {
+        GraphicsManager.PIPELINED = false;
+    }
+
+    /**
+     * Sets the number of worker threads that frames are prepared on. The change takes
+     * effect at the start of the next frame. By default, one fewer than the number of
+     * available processors is used, with a minimum of 1.
+     * 
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if {@code threads} is less than 1
+     */
+    public static void setPrepareParallelism(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>=", "threads", threads, 1));
+        
+        GraphicsManager.PREPARE_PARALLELISM = threads;
+    }
+
+    /**
+     * Gets the number of worker threads that frames are prepared on.
+     * @return the number of worker threads
+     */
+    public static int getPrepareParallelism() {
+        return GraphicsManager.PREPARE_PARALLELISM;
+    }
+
+    /**
+     * Gets the time taken by the worker threads to prepare the last frame; this
+     * includes updating the instance matrices and bounds, culling the instances, and
+     * computing and packing the matrices of the visible instances.
+     * @return the preparation time of the last frame, in milliseconds
+     */
+    public static double getFramePrepareTime() {
+        return GraphicsManager.LAST_LOOP_PREPARE_NANOS / 1e6;
+    }
+
+    /**
+     * Sets the mode the loop of the graphics thread is paced in. The change takes
+     * effect at the start of the next loop. Entering {@link FramePacing#VSYNC} enables
+     * v-sync, and leaving it, or entering {@link FramePacing#UNCAPPED}, disables v-sync;
+     * otherwise, v-sync is left as set by {@link msgEnableVSync()} and
+     * {@link msgDisableVSync()}. By default, the loop is paced to a target frame rate.
+     * 
+     * @param pacing the pacing mode
+     * @throws NullPointerException if {@code pacing} is {@code null}
+     */
+    public static void setFramePacing(FramePacing pacing) {
+        if (pacing == null)
+            throw new NullPointerException(LocaleUtils.format("global.Exception.Null", "pacing"));
+        
+        GraphicsManager.PACER.setMode(pacing);
+    }
+
+    /**
+     * Gets the mode the loop of the graphics thread is paced in.
+     * @return the pacing mode
+     */
+    public static FramePacing getFramePacing() {
+        return GraphicsManager.PACER.getMode();
+    }
+
+    /**
+     * Sets the target frame rate of the loop of the graphics thread, while it is paced
+     * in {@link FramePacing#TARGET_FPS}. By default, this is set from the loop period
+     * passed to {@link init}.
+     * 
+     * @param fps the target frame rate, in frames per second
+     * @throws IllegalArgumentException if {@code fps} is not greater than 0
+     */
+    public static void setTargetFrameRate(double fps) {
+        if (!(fps > 0))
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>", "fps", fps, 0));
+        
+        GraphicsManager.PACER.setTargetPeriod(Math.round(1e9d / fps));
+    }
+
+    /**
+     * Gets the target frame rate of the loop of the graphics thread.
+     * @return the target frame rate, in frames per second
+     */
+    public static double getTargetFrameRate() {
+        return 1e9d / GraphicsManager.PACER.getTargetPeriod();
+    }
+
+    /**
+     * Gets the CPU time of the last loop of the graphics thread; this is the time from
+     * the start of the loop until its frame is presented, and so excludes any time
+     * spent sleeping between loops, or blocked on presenting the frame.
+     * @return the CPU time of the last frame, in milliseconds
+     */
+    public static double getCPUFrameTime() {
+        return GraphicsManager.LAST_LOOP_CPU_NANOS / 1e6;
+    }
+
+    /**
+     * Gets the time taken by the GPU to render a recent frame. As the GPU runs behind
+     * the graphics thread, and its timings are read back without waiting on it, this is
+     * the time of a frame a few loops before the last.
+     * @return the GPU time of a recent frame, in milliseconds
+     */
+    public static double getGPUFrameTime() {
+        return GraphicsManager.LAST_LOOP_GPU_NANOS / 1e6;
+    }
+
+    /**
+     * Gets the profile of a recent frame, breaking down its CPU and GPU times into each
+     * of its render passes. As with {@link getGPUFrameTime()}, this is the profile of a
+     * frame a few loops before the last.
+     * @return the profile of a recent frame, or {@code null} if no frame has been
+     * measured yet
+     */
+    public static @Nullable FrameProfile getFrameProfile() {
+        return GraphicsManager.LAST_FRAME_PROFILE;
+    }
+
+    /**
+     * Gets a copy of the rolling histogram of the CPU times of the given pass, in
+     * milliseconds, over the most recent frames measured.
+     * @param pass the name of the pass, as given by {@link FrameProfile#getPassName(int)},
+     * or {@link FrameProfile#FRAME} for the whole frame
+     * @return the histogram, or {@code null} if no frame with the given pass has been
+     * measured yet
+     * @throws NullPointerException if {@code pass} is {@code null}
+     */
+    public static @Nullable RollingHistogram getCPUTimeHistogram(String pass) {
+        return getTimeHistogram(pass, 0);
+    }
+
+    /**
+     * Gets a copy of the rolling histogram of the GPU times of the given pass, in
+     * milliseconds, over the most recent frames measured.
+     * @param pass the name of the pass, as given by {@link FrameProfile#getPassName(int)},
+     * or {@link FrameProfile#FRAME} for the whole frame
+     * @return the histogram, or {@code null} if no frame with the given pass has been
+     * measured yet
+     * @throws NullPointerException if {@code pass} is {@code null}
+     */
+    public static @Nullable RollingHistogram getGPUTimeHistogram(String pass) {
+        return getTimeHistogram(pass, 1);
+    }
+
+    private static @Nullable RollingHistogram getTimeHistogram(String pass, int index) {
+        if (pass == null)
+            throw new NullPointerException(LocaleUtils.format("global.Exception.Null", "pass"));
+
+        RollingHistogram[] histograms = GraphicsManager.FRAME_HISTOGRAMS.get(pass);
+        return histograms == null ? null : histograms[index].copy();
+    }
+
+    /**
+     * Enables frustum culling. While enabled, instances of renderables whose bounds lie
+     * entirely outside of the view frustum are not rendered, nor are their matrices
+     * buffered. UI renderables and renderables with a skeleton are never culled.
+     * Frustum culling is enabled by default.
+     */
+    public static void enableFrustumCulling() {
+        GraphicsManager.FRUSTUM_CULLING = true;
+    }
+
+    /**
+     * Disables frustum culling, such that every instance of every renderable is rendered.
+     */
+    public static void disableFrustumCulling() {
+        GraphicsManager.FRUSTUM_CULLING = false;
+    }
+
+    /**
+     * Enables GPU culling. While enabled, and frustum culling is also enabled, the
+     * instances of renderables drawn with a program taking the compact instance layout
+     * are culled against the view frustum by a compute shader, rather than on the CPU;
+     * their instances are kept resident on the GPU, and only those that have changed
+     * are uploaded again, and the visible ones are drawn with an indirect draw command.
+     * Renderables with a skeleton, and renderables drawn in the full instance layout,
+     * are still culled on the CPU.<p>
+     * 
+     * As the result of GPU culling is never read back, every instance culled on the GPU
+     * is counted by {@link getVisibleInstanceCount()}. GPU culling is disabled by
+     * default, and has no effect if the culling compute shader fails to link.
+     */
+    public static void enableGPUCulling() {
+        GraphicsManager.GPU_CULLING = true;
+    }
+
+    /**
+     * Disables GPU culling, such that every instance is culled on the CPU.
+     */
+    public static void disableGPUCulling() {
+        GraphicsManager.GPU_CULLING = false;
+    }
+
+    /**
+     * Gets the number of renderable instances that were rendered in the last frame.
+     * @return the number of visible instances in the last frame
+     */
+    public static int getVisibleInstanceCount() {
+        return GraphicsManager.LAST_LOOP_INSTANCES_VISIBLE;
+    }
+
+    /**
+     * Gets the number of renderable instances that were culled in the last frame, as
+     * they were outside of the view frustum.
+     * @return the number of culled instances in the last frame
+     */
+    public static int getCulledInstanceCount() {
+        return GraphicsManager.LAST_LOOP_INSTANCES_CULLED;
+    }
+
+    /**
+     * Checks if the graphics engine was initialized in headless mode, by
+     * {@link initHeadless}.
+     * @return {@code true} if the engine is headless, {@code false} otherwise
+     */
+    public static boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Gets the total number of GL calls made by the graphics thread since the engine was
+     * initialized, or since the last call to {@link resetGLStatistics()}. The GL
+     * statistics are only gathered in headless mode; otherwise, this returns 0.
+     *
+     * @return the number of GL calls
+     */
+    public static long getGLCallCount() {
+        HeadlessGLBackend backend = getHeadlessBackend();
+        return backend == null ? 0 : backend.getCalls();
+    }
+
+    /**
+     * Gets the total number of bytes uploaded to GL buffers, textures and uniforms by the
+     * graphics thread. The GL statistics are only gathered in headless mode; otherwise,
+     * this returns 0.
+     *
+     * @return the number of bytes uploaded
+     */
+    public static long getGLBytesUploaded() {
+        HeadlessGLBackend backend = getHeadlessBackend();
+        return backend == null ? 0 : backend.getBytesUploaded();
+    }
+
+    /**
+     * Gets the total number of GL state changes (binds, enables and other state-setting
+     * calls) made by the graphics thread. The GL statistics are only gathered in headless
+     * mode; otherwise, this returns 0.
+     *
+     * @return the number of state changes
+     */
+    public static long getGLStateChangeCount() {
+        HeadlessGLBackend backend = getHeadlessBackend();
+        return backend == null ? 0 : backend.getStateChanges();
+    }
+
+    /**
+     * Gets the number of GL state changes made by the graphics thread that rebound the
+     * program, vertex array, buffer or texture that was already bound, and thus had no
+     * effect. The GL statistics are only gathered in headless mode; otherwise, this
+     * returns 0.
+     *
+     * @return the number of redundant state changes
+     */
+    public static long getGLRedundantStateChangeCount() {
+        HeadlessGLBackend backend = getHeadlessBackend();
+        return backend == null ? 0 : backend.getRedundantStateChanges();
+    }
+
+    /**
+     * Gets the total number of GL draw calls made by the graphics thread. The GL
+     * statistics are only gathered in headless mode; otherwise, this returns 0.
+     *
+     * @return the number of draw calls
+     */
+    public static long getGLDrawCallCount() {
+        HeadlessGLBackend backend = getHeadlessBackend();
+        return backend == null ? 0 : backend.getDrawCalls();
+    }
+
+    /**
+     * Resets all GL statistics to 0. This does nothing if the engine is not headless.
+     */
+    public static void resetGLStatistics() {
+        HeadlessGLBackend backend = getHeadlessBackend();
+        if (backend != null)
+            backend.resetCounters();
+    }
+
+    /**
+     * Checks if the graphics engine was initialized in offscreen mode, by
+     * {@link initOffscreen}.
+     * @return {@code true} if the engine is offscreen, {@code false} otherwise
+     */
+    public static boolean isOffscreen() {
+        return offscreen;
+    }
+    
+    /**
+     * Requests a readback of the next frame rendered in offscreen mode. The returned
+     * future is completed by the graphics thread with the contents of the offscreen
+     * framebuffer once that frame has been fully rendered, and is cancelled if the
+     * graphics thread terminates first. All requests made before the same frame is
+     * rendered are completed with the same image.
+     * 
+     * @return a {@link CompletableFuture} for the image of the next frame, with the
+     * origin in its upper-left corner
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set, or is not in offscreen mode
+     */
+    public static CompletableFuture<BufferedImage> requestFrameCapture() {
+        if (!getStatus(STATUS_INITIALIZED))
+            throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
+        if (!offscreen)
+            throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotOffscreen"));
+        
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        GraphicsManager.CAPTURE_REQUESTS.add(future);
+        return future;
+    }
+    
+    private static @Nullable HeadlessGLBackend getHeadlessBackend() {
+        GLBackend backend = GraphicsManager.BACKEND;
+        return backend instanceof HeadlessGLBackend ? (HeadlessGLBackend)backend : null;
+    }
+
+    private static CompletableFuture<Integer> enqueueMessage(Message message) {
+        if (!getStatus(STATUS_INITIALIZED))
+            throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
+        
+        if (hasCurrentContext()) 
+        {
+            GraphicsManager.handleMessage(message);
+        }
+        else
+        {
+            try {
+                GraphicsManager.MESSAGE_QUEUE.put(message);
+                checkWatermark();
+            } catch (InterruptedException e) {
+                LOG.log(Level.WARNING, "GraphicsEngine.enqueueMessage.EnqueueFailed", e);
+                message.future.cancel(false);
+            }
+        }
+        
+        return message.future;
+    }
+    
+    /**
+     * Attempts to enqueue the given message, giving up if there is no space in the queue
+     * within the given timeout. A timeout of 0 does not wait at all.
+     * 
+     * @return the future of the message, or {@code null} if the message could not be
+     * enqueued
+     */
+    private static @Nullable CompletableFuture<Integer> tryEnqueueMessage(Message message, long timeout, TimeUnit unit) {
+        if (!getStatus(STATUS_INITIALIZED))
+            throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
+        
+        if (hasCurrentContext()) 
+        {
+            GraphicsManager.handleMessage(message);
+            return message.future;
+        }
+        
+        try {
+            boolean enqueued = timeout <= 0 ? GraphicsManager.MESSAGE_QUEUE.offer(message)
+                                            : GraphicsManager.MESSAGE_QUEUE.offer(message, timeout, unit);
+            
+            if (enqueued) {
+                checkWatermark();
+                return message.future;
+            }
+        } catch (InterruptedException e) {
+            LOG.log(Level.WARNING, "GraphicsEngine.enqueueMessage.EnqueueFailed", e);
+            Thread.currentThread().interrupt();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Gets an unmodifiable view of the given transform. Instance transforms are wrapped
+     * here, once, by the posting thread, and are passed to renderables as they are by the
+     * graphics thread. The view of a transform is cached by it, so posting the same
+     * transform again does not allocate.
+     * @param transform the transform, or {@code null}
+     * @return the unmodifiable view, or {@code null} if {@code transform} is {@code null}
+     */
+    static @Nullable AffineTransformation unmodifiable(@Nullable AffineTransformation transform) {
+        return transform == null ? null : transform.getAsUnmodifiable(true);
+    }
+    
+    /**
+     * Copies the given array of transforms, replacing each transform with its
+     * unmodifiable view, as by {@link unmodifiable(AffineTransformation)}.
+     * @param transforms the transforms, or {@code null}
+     * @return the copied array, or {@code null} if {@code transforms} is {@code null}
+     */
+    static @Nullable AffineTransformation[] unmodifiable(@Nullable AffineTransformation[] transforms) {
+        if (transforms == null)
+            return null;
+        
+        AffineTransformation[] views = new AffineTransformation[transforms.length];
+        for (int i = 0; i < transforms.length; ++i)
+            views[i] = unmodifiable(transforms[i]);
+        
+        return views;
+    }
+    
+    private static void checkWatermark() {
+        int depth = GraphicsManager.MESSAGE_QUEUE.size();
+        
+        if (depth < watermarkDepth)
+            aboveWatermark.set(false);
+        else if (aboveWatermark.compareAndSet(false, true)) {
+            IntConsumer callback = watermarkCallback;
+            if (callback != null)
+                callback.accept(depth);
+        }
+    }
+    
+    private static void postMessage(Message message) {
+        if (!getStatus(STATUS_INITIALIZED)) {
+            GraphicsManager.MESSAGE_POOL.release(message);
+            throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
+        }
+        
+        if (hasCurrentContext()) 
+        {
+            GraphicsManager.handleMessage(message);
+        }
+        else
+        {
+            try {
+                GraphicsManager.MESSAGE_QUEUE.put(message);
+                checkWatermark();
+            } catch (InterruptedException e) {
+                LOG.log(Level.WARNING, "GraphicsEngine.enqueueMessage.EnqueueFailed", e);
+                GraphicsManager.MESSAGE_POOL.release(message);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Enables v-sync. By default, v-sync is disabled.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgEnableVSync() {
+        return enqueueMessage(new Message(Message.Type.ENABLE_VSYNC));
+    }
+    
+    /**
+     * Disables v-sync. By default, v-sync is disabled.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgDisableVSync() {
+        return enqueueMessage(new Message(Message.Type.DISABLE_VSYNC));
+    }
+    
+    /**
+     * Enables debug mode. By default, debug mode is disabled.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgEnableDebugMode() {
+        return enqueueMessage(new Message(Message.Type.ENABLE_DEBUGGING));
+    }
+    
+    /**
+     * Disables debug mode. By default, debug mode is disabled.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgDisableDebugMode() {
+        return enqueueMessage(new Message(Message.Type.DISABLE_DEBUGGING));
+    }
+    
+    /**
+     * Sets the affine transformation of the viewport to an unmodifiable view of the given
+     * transform. Changes to the original affine transformation are visible within the
+     * graphics engine.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param transform the new transform of the viewport
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code transform} is {@code null}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgViewportSetTransform(AffineTransformation transform) {
+        return enqueueMessage(new Message(Message.Type.VIEWPORT_SET_TRANSFORM, transform));
+    }
+    
+    /**
+     * Posts a message that sets the affine transformation of the viewport to an
+     * unmodifiable view of the given transform. This is identical to
+     * {@link #msgViewportSetTransform(AffineTransformation)}, except that the message
+     * has no {@link CompletableFuture}; the message is taken from a pool and recycled
+     * once handled, so this method generates no garbage for the message itself. If the
+     * message fails, the failure is only logged.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue.
+     * 
+     * @param transform the new transform of the viewport
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static void postViewportSetTransform(AffineTransformation transform) {
+        postMessage(Message.obtain(Message.Type.VIEWPORT_SET_TRANSFORM).withRef(0, transform));
+    }
+    
+    /**
+     * Enables rendering of the skybox.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgSkyboxEnable() {
+        return enqueueMessage(new Message(Message.Type.SKYBOX_ENABLE));
+    }
+    
+    /**
+     * Disables rendering of the skybox.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgSkyboxDisable() {
+        return enqueueMessage(new Message(Message.Type.SKYBOX_DISABLE));
+    }
+    
+    /**
+     * Sets the texture of the skybox to the currently selected texture. The texture is
+     * expected to be a diffuse texture, and a cubemap.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected texture is {@code null}</li>
+     *  <li>the currently selected texture has a unit other than 0</li>
+     *  <li>the currently selected texture is not a cubemap</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgSkyboxSetTexture() {
+        return enqueueMessage(new Message(Message.Type.SKYBOX_SET_TEXTURE));
+    }
+    
+    /**
+     * Sets the texture of the skybox to the given texture. The texture is expected to be a
+     * diffuse texture, and a cubemap.<p>
+     * 
+     * This message is identical to {@link #msgSkyboxSetTexture()}, except that the texture
+     * is identified by its unique id rather than by the current selection; the selection
+     * state of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param texture the unique id of the texture
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>there is no texture with the id {@code texture}</li>
+     *  <li>the given texture has a unit other than 0</li>
+     *  <li>the given texture is not a cubemap</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgSkyboxSetTexture(int texture) {
+        return enqueueMessage(new Message(Message.Type.SKYBOX_SET_TEXTURE_BY_HANDLE, texture));
+    }
+    
+    /**
+     * Instantiates and registers a new mesh object. This mesh will contain the positions,
      * uv coordinates, normal vectors, and triangle indices for a renderable. The new mesh
      * is also automatically selected, allowing for further processing.<p>
      * 
@@ -1325,1604 +2284,3090 @@ public final class GraphicsEngine {
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param positions the array of positions vectors for the vertices of the mesh
-     * @param uvs the array of uv coordinate vectors for the vertices of the mesh. Must be
-     * of the same length as {@code positions}
-     * @param normals the array of normal vectors for the vertices of the mesh. If this is
-     * {@code null}, then the normals of the mesh will be automatically generated from the
-     * other parameters; otherwise, this must be of the same length as {@code positions}
-     * @param triangles the triangle indices of the mesh. Each triplet of indices defines a
-     * triangle using the indexed vertices, in counter-clockwise order. Must be of length
-     * evenly divisible by 3, and each entry must be greater than or equal to 0 and less than 
-     * {@code positions.length}
+     * @param positions the array of positions vectors for the vertices of the mesh
+     * @param uvs the array of uv coordinate vectors for the vertices of the mesh. Must be
+     * of the same length as {@code positions}
+     * @param normals the array of normal vectors for the vertices of the mesh. If this is
+     * {@code null}, then the normals of the mesh will be automatically generated from the
+     * other parameters; otherwise, this must be of the same length as {@code positions}
+     * @param triangles the triangle indices of the mesh. Each triplet of indices defines a
+     * triangle using the indexed vertices, in counter-clockwise order. Must be of length
+     * evenly divisible by 3, and each entry must be greater than or equal to 0 and less than 
+     * {@code positions.length}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new mesh upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code positions}, {@code uvs} or {@code triangles} is {@code null}</li>
+     *  <li>the set of parameters passed to the new mesh is invalid for any reason</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshNew(Vector3[] positions, Vector3[] uvs, @Nullable Vector3[] normals, int[] triangles) {
+        return enqueueMessage(new Message(Message.Type.MESH_NEW, positions, uvs, normals, triangles));
+    }
+    
+    /**
+     * Instantiates and registers a new mesh object. This mesh will contain the positions,
+     * uv coordinates, normal vectors, and triangle indices for a renderable. Unlike
+     * {@link #msgMeshNew(Vector3[], Vector3[], Vector3[], int[]) msgMeshNew}, the new mesh
+     * is not selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param positions the array of positions vectors for the vertices of the mesh
+     * @param uvs the array of uv coordinate vectors for the vertices of the mesh. Must be
+     * of the same length as {@code positions}
+     * @param normals the array of normal vectors for the vertices of the mesh. If this is
+     * {@code null}, then the normals of the mesh will be automatically generated from the
+     * other parameters; otherwise, this must be of the same length as {@code positions}
+     * @param triangles the triangle indices of the mesh. Each triplet of indices defines a
+     * triangle using the indexed vertices, in counter-clockwise order. Must be of length
+     * evenly divisible by 3, and each entry must be greater than or equal to 0 and less than 
+     * {@code positions.length}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new mesh upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code positions}, {@code uvs} or {@code triangles} is {@code null}</li>
+     *  <li>the set of parameters passed to the new mesh is invalid for any reason</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshCreate(Vector3[] positions, Vector3[] uvs, @Nullable Vector3[] normals, int[] triangles) {
+        return enqueueMessage(new Message(Message.Type.MESH_CREATE, positions, uvs, normals, triangles));
+    }
+    
+    /**
+     * Selects a mesh. This loads the indexed mesh into the state machine of the
+     * {@code GraphicsManager} class to allow for further processing; an invalid index will
+     * instead set the selected mesh to {@code null}. This message does not, on it's
+     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param index the index of the mesh to select
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSelect(int index) {
+        return enqueueMessage(new Message(Message.Type.MESH_SELECT, index));
+    }
+    
+    /**
+     * Selects the default mesh representing a quad. This is a mesh with 4 vertices
+     * bounding and defining a unit square, with the appropriate triangle indices and
+     * normal vectors. The uv coordinates are standard 2D coordinates. The selected
+     * mesh is read-only, and it's origin point lies in the centre of the square.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the quad mesh on success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSelectDefaultQuad() {
+        return enqueueMessage(new Message(Message.Type.MESH_SELECT_QUAD));
+    }
+    
+    /**
+     * Selects the default mesh representing a cube. This is a mesh with 8 vertices
+     * bounding and defining a unit cube, with the appropriate triangle indices and
+     * normal vectors. The uv coordinates are 3D cubemap coordinates. The selected mesh
+     * is read-only, and it's origin point lies in the centre of the cube.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the cube mesh on success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSelectDefaultCube() {
+        return enqueueMessage(new Message(Message.Type.MESH_SELECT_CUBE));
+    }
+    
+    /**
+     * Selects the default mesh representing an inverse cube. This is defined to be an
+     * identical mesh to that returned by {@link #msgMeshSelectDefaultCube()}, including
+     * the read-only and origin point properties, except with the triangle orientations
+     * reversed (so previously forward-facing triangles are now backward-facing, and
+     * vice-versa). The normals are also reversed because of this.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the inverse cube mesh on success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSelectDefaultInvCube() {
+        return enqueueMessage(new Message(Message.Type.MESH_SELECT_INV_CUBE));
+    }
+    
+    /**
+     * Flags the currently selected mesh for rebuffering.<p>
+     * 
+     * Meshes create and handle their own data buffers on the GPU. Whenever an attribute
+     * is changed by these messages, they will automatically update their data buffer with
+     * this new data. However, they can also be flagged via this message so that when they
+     * next update, they instead delete their data buffer and create a new one rather than
+     * update the existing buffer.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected mesh is {@code null}</li>
+     *  <li>the currently selected mesh is read-only</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshRebuffer() {
+        return enqueueMessage(new Message(Message.Type.MESH_REBUFFER));
+    }
+    
+    /**
+     * Flags the given mesh for rebuffering.<p>
+     * 
+     * Meshes create and handle their own data buffers on the GPU. Whenever an attribute
+     * is changed by these messages, they will automatically update their data buffer with
+     * this new data. However, they can also be flagged via this message so that when they
+     * next update, they instead delete their data buffer and create a new one rather than
+     * update the existing buffer.<p>
+     * 
+     * This message is identical to {@link #msgMeshRebuffer()}, except that the mesh is
+     * identified by its unique id rather than by the current selection; the selection state
+     * of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>there is no mesh with the id {@code mesh}</li>
+     *  <li>the given mesh is read-only</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshRebuffer(int mesh) {
+        return enqueueMessage(new Message(Message.Type.MESH_REBUFFER_BY_HANDLE, mesh));
+    }
+    
+    /**
+     * Closes the currently selected mesh. This removes it from the internal registry,
+     * and sets the selected mesh to {@code null}. Note that it is not possible for an
+     * external thread to close one of the default meshes using this message; attempting
+     * to do so will result in the message failing.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected mesh is {@code null}</li>
+     *  <li>the currently selected mesh is one of the default meshes</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshClose() {
+        return enqueueMessage(new Message(Message.Type.MESH_CLOSE));
+    }
+    
+    /**
+     * Closes the given mesh. This removes it from the internal registry, and deselects it
+     * if it is currently selected. Note that it is not possible for an external thread to
+     * close one of the default meshes using this message; attempting to do so will result
+     * in the message failing.<p>
+     * 
+     * This message is identical to {@link #msgMeshClose()}, except that the mesh is
+     * identified by its unique id rather than by the current selection; the selection state
+     * of the {@code GraphicsManager} class is not read, and is only altered if the closed
+     * mesh is currently selected.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>there is no mesh with the id {@code mesh}</li>
+     *  <li>the given mesh is one of the default meshes</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshClose(int mesh) {
+        return enqueueMessage(new Message(Message.Type.MESH_CLOSE_BY_HANDLE, mesh));
+    }
+    
+    /**
+     * Overwrites the attributes of the currently selected mesh. A parameter that is set to
+     * {@code null} will cause the associated mesh attribute to remain unchanged. If the
+     * passed attributes are invalid for any reason, then the mesh will be reverted to its
+     * previous valid attributes, but the message itself will not fail.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param positions the new array of position vectors for the mesh vertices, or
+     * {@code null} to leave the mesh positions unchanged
+     * @param uvs the new array of uv coordinate vectors for the mesh vertices, or
+     * {@code null} to leave the mesh uv coordinates unchanged. Must have the same length as
+     * {@code positions} to be valid
+     * @param normals the new array of normal vector for the mesh vertices, or {@code null}
+     * to leave the mesh normals unchanged. Must have the same length as {@code positions}
+     * to be valid
+     * @param triangles the new array of triangle indices for the mesh, or {@code null} to
+     * leave the mesh triangles unchanged. Must have a length evenly divisible by 3, and each
+     * entry must be greater than or equal to 0 and less than {@code positions.length} to be
+     * valid
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected mesh is {@code null}</li>
+     *  <li>the currently selected mesh is read-only</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSetAttributes(@Nullable Vector3[] positions, @Nullable Vector3[] uvs, @Nullable Vector3[] normals, @Nullable int[] triangles) {
+        return enqueueMessage(new Message(Message.Type.MESH_SET_ATTRIBUTES, positions, uvs, normals, triangles));
+    }
+    
+    /**
+     * Overwrites the attributes of the given mesh. A parameter that is set to {@code null}
+     * will cause the associated mesh attribute to remain unchanged. If the passed
+     * attributes are invalid for any reason, then the mesh will be reverted to its previous
+     * valid attributes, but the message itself will not fail.<p>
+     * 
+     * This message is identical to
+     * {@link #msgMeshSetAttributes(Vector3[], Vector3[], Vector3[], int[])}, except that
+     * the mesh is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param mesh the unique id of the mesh
+     * @param positions the new array of position vectors for the mesh vertices, or
+     * {@code null} to leave the mesh positions unchanged
+     * @param uvs the new array of uv coordinate vectors for the mesh vertices, or
+     * {@code null} to leave the mesh uv coordinates unchanged. Must have the same length as
+     * {@code positions} to be valid
+     * @param normals the new array of normal vector for the mesh vertices, or {@code null}
+     * to leave the mesh normals unchanged. Must have the same length as {@code positions}
+     * to be valid
+     * @param triangles the new array of triangle indices for the mesh, or {@code null} to
+     * leave the mesh triangles unchanged. Must have a length evenly divisible by 3, and each
+     * entry must be greater than or equal to 0 and less than {@code positions.length} to be
+     * valid
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>there is no mesh with the id {@code mesh}</li>
+     *  <li>the given mesh is read-only</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSetAttributes(int mesh, @Nullable Vector3[] positions, @Nullable Vector3[] uvs, @Nullable Vector3[] normals, @Nullable int[] triangles) {
+        return enqueueMessage(new Message(Message.Type.MESH_SET_ATTRIBUTES_BY_HANDLE, mesh, positions, uvs, normals, triangles));
+    }
+    
+    /**
+     * Recalculates the vertex normals of the currently selected mesh. This is performed by
+     * calculating the (non-normalized) face normals of each triangle, and then for each
+     * vertex in turn, summing the appropriate face normals and normalizing; not normalizing
+     * the face normals prior to the summing operation provides a natural weighting to each
+     * normal depending on the triangle sizes. Should the vertex normal become the zero
+     * vector (or approximately close to it) at the end of this process, then it will be
+     * replaced with {@code (1, 0, 0)}.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected mesh is {@code null}</li>
+     *  <li>the currently selected mesh is read-only</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshRecalculateNormals() {
+        return enqueueMessage(new Message(Message.Type.MESH_RECALC_NORMALS));
+    }
+    
+    /**
+     * Recalculates the vertex normals of the given mesh. This is performed by calculating
+     * the (non-normalized) face normals of each triangle, and then for each vertex in turn,
+     * summing the appropriate face normals and normalizing; not normalizing the face
+     * normals prior to the summing operation provides a natural weighting to each normal
+     * depending on the triangle sizes. Should the vertex normal become the zero vector (or
+     * approximately close to it) at the end of this process, then it will be replaced with
+     * {@code (1, 0, 0)}.<p>
+     * 
+     * This message is identical to {@link #msgMeshRecalculateNormals()}, except that the
+     * mesh is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>there is no mesh with the id {@code mesh}</li>
+     *  <li>the given mesh is read-only</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshRecalculateNormals(int mesh) {
+        return enqueueMessage(new Message(Message.Type.MESH_RECALC_NORMALS_BY_HANDLE, mesh));
+    }
+    
+    /**
+     * Sets the currently selected mesh to be read-only. This prevents rebuffering and
+     * any alterations to the mesh attributes.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected mesh is {@code null}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSetReadonly() {
+        return enqueueMessage(new Message(Message.Type.MESH_SET_READONLY));
+    }
+    
+    /**
+     * Sets the given mesh to be read-only. This prevents rebuffering and any alterations to
+     * the mesh attributes.<p>
+     * 
+     * This message is identical to {@link #msgMeshSetReadonly()}, except that the mesh is
+     * identified by its unique id rather than by the current selection; the selection state
+     * of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param mesh the unique id of the mesh
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>there is no mesh with the id {@code mesh}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshSetReadonly(int mesh) {
+        return enqueueMessage(new Message(Message.Type.MESH_SET_READONLY_BY_HANDLE, mesh));
+    }
+    
+    /**
+     * Gets the unique integer id of the currently selected mesh.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the selected mesh upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected mesh is {@code null}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgMeshGetID() {
+        return enqueueMessage(new Message(Message.Type.MESH_GET_ID));
+    }
+    
+    /**
+     * Instantiates and registers a new vertex shader object. This is one of 3 potential
+     * shader stages that a fully linked shader program can have, but it does not act as a
+     * shader on it's own; it must be linked to a shader program to have any effect. The new
+     * shader is also automatically selected, allowing for further processing.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .vert}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new shader upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderNewVertex(Identity id) {
+        return enqueueMessage(new Message(Message.Type.SHADER_NEW_VERT, id));
+    }
+    
+    /**
+     * Instantiates and registers a new vertex shader object. This is one of 3 potential
+     * shader stages that a fully linked shader program can have, but it does not act as a
+     * shader on it's own; it must be linked to a shader program to have any effect. Unlike
+     * {@link #msgShaderNewVertex(Identity) msgShaderNewVertex}, the new shader is not
+     * selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .vert}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new shader upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderCreateVertex(Identity id) {
+        return enqueueMessage(new Message(Message.Type.SHADER_CREATE_VERT, id));
+    }
+    
+    /**
+     * Instantiates and registers a new fragment shader object. This is one of 3 potential
+     * shader stages that a fully linked shader program can have, but it does not act as a
+     * shader on it's own; it must be linked to a shader program to have any effect. The new
+     * shader is also automatically selected, allowing for further processing.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .frag}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new shader upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderNewFragment(Identity id) {
+        return enqueueMessage(new Message(Message.Type.SHADER_NEW_FRAG, id));
+    }
+    
+    /**
+     * Instantiates and registers a new fragment shader object. This is one of 3 potential
+     * shader stages that a fully linked shader program can have, but it does not act as a
+     * shader on it's own; it must be linked to a shader program to have any effect. Unlike
+     * {@link #msgShaderNewFragment(Identity) msgShaderNewFragment}, the new shader is not
+     * selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .frag}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new shader upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderCreateFragment(Identity id) {
+        return enqueueMessage(new Message(Message.Type.SHADER_CREATE_FRAG, id));
+    }
+    
+    /**
+     * Instantiates and registers a new geometry shader object. This is one of 3 potential
+     * shader stages that a fully linked shader program can have, but it does not act as a
+     * shader on it's own; it must be linked to a shader program to have any effect. The new
+     * shader is also automatically selected, allowing for further processing.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .geom}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new shader upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderNewGeometry(Identity id) {
+        return enqueueMessage(new Message(Message.Type.SHADER_NEW_GEOM, id));
+    }
+    
+    /**
+     * Instantiates and registers a new geometry shader object. This is one of 3 potential
+     * shader stages that a fully linked shader program can have, but it does not act as a
+     * shader on it's own; it must be linked to a shader program to have any effect. Unlike
+     * {@link #msgShaderNewGeometry(Identity) msgShaderNewGeometry}, the new shader is not
+     * selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param id the {@link Identity} to get the shader source code from. Note that the
+     * folder path has {@code /shader} appended to it, and the source code file is expected
+     * to have an extension of {@code .geom}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new shader upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderCreateGeometry(Identity id) {
+        return enqueueMessage(new Message(Message.Type.SHADER_CREATE_GEOM, id));
+    }
+    
+    /**
+     * Selects a shader. This loads the indexed shader into the state machine of the
+     * {@code GraphicsManager} class to allow for further processing; an invalid index will
+     * instead set the selected shader to {@code null}. This message does not, on it's
+     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param index the index of the shader to select
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderSelect(int index) {
+        return enqueueMessage(new Message(Message.Type.SHADER_SELECT, index));
+    }
+    
+    /**
+     * Selects the default 2D vertex shader. This is the vertex shader that the default
+     * 2D texture shader program uses.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the default vertex shader on success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderSelectDefaultVert2D() {
+        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_VERT_2D));
+    }
+    
+    /**
+     * Selects the default 2D fragment shader. This is the fragment shader that the default
+     * 2D texture shader program uses.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the default fragment shader on success, or is cancelled if the thread experienced
+     * an {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderSelectDefaultFrag2D() {
+        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_FRAG_2D));
+    }
+    
+    /**
+     * Selects the default cubemap vertex shader. This is the vertex shader that the default
+     * cubemap texture shader program uses.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the default vertex shader on success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderSelectDefaultVertCube() {
+        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_VERT_CUBE));
+    }
+    
+    /**
+     * Selects the default cubemap fragment shader. This is the fragment shader that the
+     * default cubemap texture shader program uses.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the default fragment shader on success, or is cancelled if the thread experienced
+     * an {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderSelectDefaultFragCube() {
+        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_FRAG_CUBE));
+    }
+    
+    /**
+     * Selects the default UI vertex shader. This is the vertex shader that the default UI
+     * shader program uses.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the default vertex shader on success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderSelectDefaultVertUI() {
+        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_VERT_UI));
+    }
+    
+    /**
+     * Selects the default UI fragment shader. This is the fragment shader that the default
+     * UI shader program uses.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the default fragment shader on success, or is cancelled if the thread experienced
+     * an {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderSelectDefaultFragUI() {
+        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_FRAG_UI));
+    }
+    
+    /**
+     * Closes the currently selected shader. This removes it from the internal registry,
+     * and sets the selected shader to {@code null}. Note that it is not possible for an
+     * external thread to close one of the default shaders using this message; attempting
+     * to do so will result in the message failing.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected shader is {@code null}</li>
+     *  <li>the currently selected shader is one of the default shaders</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderClose() {
+        return enqueueMessage(new Message(Message.Type.SHADER_CLOSE));
+    }
+    
+    /**
+     * Closes the given shader. This removes it from the internal registry, and deselects it
+     * if it is currently selected. Note that it is not possible for an external thread to
+     * close one of the default shaders using this message; attempting to do so will result
+     * in the message failing.<p>
+     * 
+     * This message is identical to {@link #msgShaderClose()}, except that the shader is
+     * identified by its unique id rather than by the current selection; the selection state
+     * of the {@code GraphicsManager} class is not read, and is only altered if the closed
+     * shader is currently selected.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param shader the unique id of the shader
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no shader with the id {@code shader}</li>
+     *  <li>the given shader is one of the default shaders</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderClose(int shader) {
+        return enqueueMessage(new Message(Message.Type.SHADER_CLOSE_BY_HANDLE, shader));
+    }
+    
+    /**
+     * Gets the unique integer id of the currently selected shader.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the selected shader upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected shader is {@code null}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderGetID() {
+        return enqueueMessage(new Message(Message.Type.SHADER_GET_ID));
+    }
+    
+    /**
+     * Instantiates and registers a new shader program. This is an empty program into
+     * which a vertex shader, a fragment shader, and an optional geometry shader can be
+     * attached; once these are attached, the new shader program is ready for rendering. The
+     * program also takes a single parameter indicating the type of texture the program is
+     * intended to process; this doesn't constrain the stages that can be attached in any
+     * way, but a mismatch between the stages and the parameter may cause errors upon a
+     * rendering attempt. This parameter is known as the program's <i>mode</i>. The new
+     * shader program is automatically selected, allowing for further processing.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param mode {@code true} if the new shader program is intended to take cubemap
+     * textures, or {@code false} for 2D textures
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new shader upon success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramNew(boolean mode) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_NEW, mode));
+    }
+    
+    /**
+     * Instantiates and registers a new shader program. This is an empty program into which
+     * a vertex shader, a fragment shader, and an optional geometry shader can be attached;
+     * once these are attached, the new shader program is ready for rendering. The program
+     * also takes a single parameter indicating the type of texture the program is intended
+     * to process; this doesn't constrain the stages that can be attached in any way, but a
+     * mismatch between the stages and the parameter may cause errors upon a rendering
+     * attempt. This parameter is known as the program's <i>mode</i>. Unlike
+     * {@link #msgShaderProgramNew(boolean) msgShaderProgramNew}, the new shader program is
+     * not selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param mode {@code true} if the new shader program is intended to take cubemap
+     * textures, or {@code false} for 2D textures
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new mesh upon success, or is cancelled if:
-     * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>{@code positions}, {@code uvs} or {@code triangles} is {@code null}</li>
-     *  <li>the set of parameters passed to the new mesh is invalid for any reason</li>
-     * </ul>
+     * of the new shader upon success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshNew(Vector3[] positions, Vector3[] uvs, @Nullable Vector3[] normals, int[] triangles) {
-        return enqueueMessage(new Message(Message.Type.MESH_NEW, positions, uvs, normals, triangles));
+    public static CompletableFuture<Integer> msgShaderProgramCreate(boolean mode) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_CREATE, mode));
     }
     
     /**
-     * Selects a mesh. This loads the indexed mesh into the state machine of the
-     * {@code GraphicsManager} class to allow for further processing; an invalid index will
-     * instead set the selected mesh to {@code null}. This message does not, on it's
-     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
+     * Selects a shader program. This loads the indexed shader program into the state
+     * machine of the {@code GraphicsManager} class to allow for further processing; an
+     * invalid index will instead set the selected shader program to {@code null}. This
+     * message does not, on it's own, affect the state of the {@code GraphicsManager}
+     * class in any other way.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param index the index of the mesh to select
+     * @param index the index of the shader program to select
      * @return a {@link CompletableFuture} object that completes with a value of 0 on
      * success, or is cancelled if the thread experienced an {@link InterruptedException}
      * while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshSelect(int index) {
-        return enqueueMessage(new Message(Message.Type.MESH_SELECT, index));
+    public static CompletableFuture<Integer> msgShaderProgramSelect(int index) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT, index));
     }
     
     /**
-     * Selects the default mesh representing a quad. This is a mesh with 4 vertices
-     * bounding and defining a unit square, with the appropriate triangle indices and
-     * normal vectors. The uv coordinates are standard 2D coordinates. The selected
-     * mesh is read-only, and it's origin point lies in the centre of the square.<p>
+     * Selects the default 2D shader program. This is the read-only shader that renderables
+     * using 2D textures default to if their assigned shader fails or is closed for any
+     * reason.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the quad mesh on success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * of the default shader program on success, or is cancelled if the thread experienced
+     * an {@link InterruptedException} while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshSelectDefaultQuad() {
-        return enqueueMessage(new Message(Message.Type.MESH_SELECT_QUAD));
+    public static CompletableFuture<Integer> msgShaderProgramSelectDefault2D() {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_2D));
     }
     
     /**
-     * Selects the default mesh representing a cube. This is a mesh with 8 vertices
-     * bounding and defining a unit cube, with the appropriate triangle indices and
-     * normal vectors. The uv coordinates are 3D cubemap coordinates. The selected mesh
-     * is read-only, and it's origin point lies in the centre of the cube.<p>
+     * Selects the default cubemap shader program. This is the read-only shader that
+     * renderables using cubemap textures default to if their assigned shader fails or is
+     * closed for any reason.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the cube mesh on success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * of the default shader program on success, or is cancelled if the thread experienced
+     * an {@link InterruptedException} while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshSelectDefaultCube() {
-        return enqueueMessage(new Message(Message.Type.MESH_SELECT_CUBE));
+    public static CompletableFuture<Integer> msgShaderProgramSelectDefaultCube() {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_CUBE));
     }
     
     /**
-     * Selects the default mesh representing an inverse cube. This is defined to be an
-     * identical mesh to that returned by {@link #msgMeshSelectDefaultCube()}, including
-     * the read-only and origin point properties, except with the triangle orientations
-     * reversed (so previously forward-facing triangles are now backward-facing, and
-     * vice-versa). The normals are also reversed because of this.<p>
+     * Selects the default UI shader program. This is the read-only shader that renderables
+     * assigned to the UI default to. Note that this program has it's mode set to
+     * {@code false} (see {@link msgShaderProgramNew(boolean)} for more information on the
+     * mode of a program).<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the inverse cube mesh on success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * of the default shader program on success, or is cancelled if the thread experienced
+     * an {@link InterruptedException} while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshSelectDefaultInvCube() {
-        return enqueueMessage(new Message(Message.Type.MESH_SELECT_INV_CUBE));
+    public static CompletableFuture<Integer> msgShaderProgramSelectDefaultUI() {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_UI));
     }
     
     /**
-     * Flags the currently selected mesh for rebuffering.<p>
+     * Closes the currently selected shader program. This removes it from the internal
+     * registry, and sets the selected shader program to {@code null}. Any renderables
+     * currently assigned to it will automatically be reassigned to the default shader
+     * program when they are next rendered. Note that it is not possible for an external
+     * thread to close a default shader program using this message; attempting to do
+     * so will result in the message failing.<p>
      * 
-     * Meshes create and handle their own data buffers on the GPU. Whenever an attribute
-     * is changed by these messages, they will automatically update their data buffer with
-     * this new data. However, they can also be flagged via this message so that when they
-     * next update, they instead delete their data buffer and create a new one rather than
-     * update the existing buffer.<p>
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>the currently selected shader program is {@code null}</li>
+     *  <li>the currently selected shader program is one of the default shader programs</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramClose() {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_CLOSE));
+    }
+    
+    /**
+     * Closes the given shader program. This removes it from the internal registry, and
+     * deselects it if it is currently selected. Any renderables currently assigned to it
+     * will automatically be reassigned to the default shader program when they are next
+     * rendered. Note that it is not possible for an external thread to close a default
+     * shader program using this message; attempting to do so will result in the message
+     * failing.<p>
+     * 
+     * This message is identical to {@link #msgShaderProgramClose()}, except that the shader
+     * program is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is not read, and is only altered
+     * if the closed shader program is currently selected.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param program the unique id of the shader program
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>there is no shader program with the id {@code program}</li>
+     *  <li>the given shader program is one of the default shader programs</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramClose(int program) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_CLOSE_BY_HANDLE, program));
+    }
+    
+    /**
+     * Sets the currently selected shader program to be read-only. This prevents any
+     * additional shaders from being attached to the program; care should be taken to
+     * ensure sure the program links and validates correctly before invoking this message,
+     * as it may result in the shader program becoming unusable for the rest of it's
+     * lifetime.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>the currently selected shader program is {@code null}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramSetReadonly() {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SET_READONLY));
+    }
+    
+    /**
+     * Sets the given shader program to be read-only. This prevents any additional shaders
+     * from being attached to the program; care should be taken to ensure sure the program
+     * links and validates correctly before invoking this message, as it may result in the
+     * shader program becoming unusable for the rest of it's lifetime.<p>
+     * 
+     * This message is identical to {@link #msgShaderProgramSetReadonly()}, except that the
+     * shader program is identified by its unique id rather than by the current selection;
+     * the selection state of the {@code GraphicsManager} class is neither read nor
+     * altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param program the unique id of the shader program
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>there is no shader program with the id {@code program}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramSetReadonly(int program) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SET_READONLY_BY_HANDLE, program));
+    }
+    
+    /**
+     * Attaches the currently selected shader to the currently selected shader program.
+     * This sets the shader to be one of the stages of the program; which stage depends
+     * on the type of the shader. Only 1 shader of each type 
+     * ({@code vert}, {@code geom}, {@code frag}) can be attached to the shader
+     * program at any one time; attaching a second shader of the same type will remove
+     * the first shader. Shader programs must have at least a {@code vert} and a
+     * {@code frag} shader attached before they can be linked, validated, and used for
+     * rendering.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>the currently selected shader program is {@code null}</li>
+     *  <li>the currently selected shader program is read-only</li>
+     *  <li>the currently selected shader is {@code null}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramAttachShader() {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_ATTACH));
+    }
+    
+    /**
+     * Attaches the given shader to the given shader program. This sets the shader to be one
+     * of the stages of the program; which stage depends on the type of the shader. Only 1
+     * shader of each type ({@code vert}, {@code geom}, {@code frag}) can be attached to the
+     * shader program at any one time; attaching a second shader of the same type will
+     * remove the first shader. Shader programs must have at least a {@code vert} and a
+     * {@code frag} shader attached before they can be linked, validated, and used for
+     * rendering.<p>
+     * 
+     * This message is identical to {@link #msgShaderProgramAttachShader()}, except that the
+     * shader program and shader are identified by their unique ids rather than by the
+     * current selection; the selection state of the {@code GraphicsManager} class is
+     * neither read nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param program the unique id of the shader program
+     * @param shader the unique id of the shader
      * @return a {@link CompletableFuture} object that completes with a value of 0 on
      * success, or is cancelled if:
      * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>there is no shader program with the id {@code program}</li>
+     *  <li>the given shader program is read-only</li>
+     *  <li>there is no shader with the id {@code shader}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramAttachShader(int program, int shader) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_ATTACH_BY_HANDLE, program, shader));
+    }
+    
+    /**
+     * Gets the unique integer id of the currently selected shader program.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the selected shader program upon success, or is cancelled if:
+     * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
      * in the message queue</li>
-     *  <li>the currently selected mesh is {@code null}</li>
-     *  <li>the currently selected mesh is read-only</li>
+     *  <li>the currently selected shader program is {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshRebuffer() {
-        return enqueueMessage(new Message(Message.Type.MESH_REBUFFER));
+    public static CompletableFuture<Integer> msgShaderProgramGetID() {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_GET_ID));
     }
     
     /**
-     * Closes the currently selected mesh. This removes it from the internal registry,
-     * and sets the selected mesh to {@code null}. Note that it is not possible for an
-     * external thread to close one of the default meshes using this message; attempting
-     * to do so will result in the message failing.<p>
+     * Instantiates and registers a new 2D texture. This is a graphical image loaded onto
+     * the GPU for use in rendering geometry surfaces. Each texture is assigned an integer
+     * 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. The new
+     * texture is automatically selected, allowing for further processing.<p>
+     * 
+     * This message takes an {@link Identity} value, from which the image is sourced.
+     * Therefore, this message is preferred over the 
+     * {@link #msgTexture2DNew(BufferedImage, int) other message} as the {@code Identity}
+     * value can and is used for identifying the texture within the internal registry,
+     * preventing possible duplicates of the same texture. Note that duplicates of the same
+     * texture image can still exist, as long as they are assigned different texture units.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected mesh is {@code null}</li>
-     *  <li>the currently selected mesh is one of the default meshes</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the texture instantiation</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshClose() {
-        return enqueueMessage(new Message(Message.Type.MESH_CLOSE));
+    public static CompletableFuture<Integer> msgTexture2DNew(Identity id, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_ID_NEW_2D, id, unit));
     }
     
     /**
-     * Overwrites the attributes of the currently selected mesh. A parameter that is set to
-     * {@code null} will cause the associated mesh attribute to remain unchanged. If the
-     * passed attributes are invalid for any reason, then the mesh will be reverted to its
-     * previous valid attributes, but the message itself will not fail.<p>
+     * Instantiates and registers a new 2D texture. This is a graphical image loaded onto
+     * the GPU for use in rendering geometry surfaces. Each texture is assigned an integer
+     * 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. Unlike
+     * {@link #msgTexture2DNew(Identity, int) msgTexture2DNew}, the new texture is not
+     * selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p>
+     * 
+     * This message takes an {@link Identity} value, from which the image is sourced.
+     * Therefore, this message is preferred over the 
+     * {@link #msgTexture2DCreate(BufferedImage, int) other message} as the {@code Identity}
+     * value can and is used for identifying the texture within the internal registry,
+     * preventing possible duplicates of the same texture. Note that duplicates of the same
+     * texture image can still exist, as long as they are assigned different texture units.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param positions the new array of position vectors for the mesh vertices, or
-     * {@code null} to leave the mesh positions unchanged
-     * @param uvs the new array of uv coordinate vectors for the mesh vertices, or
-     * {@code null} to leave the mesh uv coordinates unchanged. Must have the same length as
-     * {@code positions} to be valid
-     * @param normals the new array of normal vector for the mesh vertices, or {@code null}
-     * to leave the mesh normals unchanged. Must have the same length as {@code positions}
-     * to be valid
-     * @param triangles the new array of triangle indices for the mesh, or {@code null} to
-     * leave the mesh triangles unchanged. Must have a length evenly divisible by 3, and each
-     * entry must be greater than or equal to 0 and less than {@code positions.length} to be
-     * valid
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected mesh is {@code null}</li>
-     *  <li>the currently selected mesh is read-only</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>the source file could not be located</li>
+     *  <li>an {@link IOException} occurred during the texture instantiation</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshSetAttributes(@Nullable Vector3[] positions, @Nullable Vector3[] uvs, @Nullable Vector3[] normals, @Nullable int[] triangles) {
-        return enqueueMessage(new Message(Message.Type.MESH_SET_ATTRIBUTES, positions, uvs, normals, triangles));
+    public static CompletableFuture<Integer> msgTexture2DCreate(Identity id, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_ID_CREATE_2D, id, unit));
     }
     
     /**
-     * Recalculates the vertex normals of the currently selected mesh. This is performed by
-     * calculating the (non-normalized) face normals of each triangle, and then for each
-     * vertex in turn, summing the appropriate face normals and normalizing; not normalizing
-     * the face normals prior to the summing operation provides a natural weighting to each
-     * normal depending on the triangle sizes. Should the vertex normal become the zero
-     * vector (or approximately close to it) at the end of this process, then it will be
-     * replaced with {@code (1, 0, 0)}.<p>
+     * Instantiates and registers a new 2D texture. This is a graphical image loaded onto
+     * the GPU for use in rendering geometry surfaces. Each texture is assigned an integer
+     * 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. The new
+     * texture is automatically selected, allowing for further processing.<p>
+     * 
+     * This message takes a {@link BufferedImage} value, from which the image is sourced.
+     * Therefore, the {@link #msgTexture2DNew(BufferedImage, int) other message} is
+     * preferred over this message, as the lack of an {@code Identity} means the texture
+     * cannot be equated with other textures in the internal registry. This causes a
+     * potential for duplicate textures being instantiated and used instead of a single,
+     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
+     * thus any references to it can be discarded to free up memory space (if it is not
+     * needed anymore).<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected mesh is {@code null}</li>
-     *  <li>the currently selected mesh is read-only</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>{@code im} is {@code null}</li>
+     *  <li>the given unit is out of range</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshRecalculateNormals() {
-        return enqueueMessage(new Message(Message.Type.MESH_RECALC_NORMALS));
+    public static CompletableFuture<Integer> msgTexture2DNew(BufferedImage im, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_IM_NEW_2D, im, unit));
     }
     
     /**
-     * Sets the currently selected mesh to be read-only. This prevents rebuffering and
-     * any alterations to the mesh attributes.<p>
+     * Instantiates and registers a new 2D texture. This is a graphical image loaded onto
+     * the GPU for use in rendering geometry surfaces. Each texture is assigned an integer
+     * 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. Unlike
+     * {@link #msgTexture2DNew(BufferedImage, int) msgTexture2DNew}, the new texture is not
+     * selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p>
+     * 
+     * This message takes a {@link BufferedImage} value, from which the image is sourced.
+     * Therefore, the {@link #msgTexture2DCreate(BufferedImage, int) other message} is
+     * preferred over this message, as the lack of an {@code Identity} means the texture
+     * cannot be equated with other textures in the internal registry. This causes a
+     * potential for duplicate textures being instantiated and used instead of a single,
+     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
+     * thus any references to it can be discarded to free up memory space (if it is not
+     * needed anymore).<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected mesh is {@code null}</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>{@code im} is {@code null}</li>
+     *  <li>the given unit is out of range</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshSetReadonly() {
-        return enqueueMessage(new Message(Message.Type.MESH_SET_READONLY));
+    public static CompletableFuture<Integer> msgTexture2DCreate(BufferedImage im, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_IM_CREATE_2D, im, unit));
     }
     
     /**
-     * Gets the unique integer id of the currently selected mesh.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. The new
+     * texture is automatically selected, allowing for further processing.<p>
+     * 
+     * This message takes an {@link Identity} value, from which the image is sourced.
+     * Therefore, this message is preferred over the 
+     * {@link #msgTextureCubemapNew(BufferedImage, int) other message} as the {@code Identity}
+     * value can and is used for identifying the texture within the internal registry,
+     * preventing possible duplicates of the same texture. Note that duplicates of the same
+     * texture cubemap can still exist, as long as they are assigned different texture units.<p>
+     * 
+     * The cubemap itself sources each face texture from the image in one of several ways,
+     * depending on the dimensions of the image. These various ways of laying out the faces of
+     * the cubemap are explained in more detail in the javadocs of the cubemap
+     * {@linkplain GLTextureCubemap#GLTextureCubemap(Identity, int) constructor}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the selected mesh upon success, or is cancelled if:
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected mesh is {@code null}</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>{@code id} is {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>the sourced image is of an invalid dimensionality as detailed in the cubemap
+     * {@linkplain GLTextureCubemapGLTextureCubemap(Identity, int) constructor}</li>
+     *  <li>an {@link IOException} occurred during the texture instantiation</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgMeshGetID() {
-        return enqueueMessage(new Message(Message.Type.MESH_GET_ID));
+    public static CompletableFuture<Integer> msgTextureCubemapNew(Identity id, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_ID_NEW_CUBE, id, unit));
     }
     
     /**
-     * Instantiates and registers a new vertex shader object. This is one of 3 potential
-     * shader stages that a fully linked shader program can have, but it does not act as a
-     * shader on it's own; it must be linked to a shader program to have any effect. The new
-     * shader is also automatically selected, allowing for further processing.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple
+     * textures assigned to a renderable; the effects of specific texture units is
+     * shader-dependent. The only guideline for texture units is that the graphics engine
+     * was built with the assumption that unit 0 is reserved for diffuse textures, i.e.
+     * textures that provide the base color image - this is neither required nor enforced,
+     * however. Unlike {@link #msgTextureCubemapNew(Identity, int) msgTextureCubemapNew},
+     * the new texture is not selected, and the selection state of the
+     * {@code GraphicsManager} class is left unchanged; the returned id can be passed to the
+     * handle-based messages instead.<p>
+     * 
+     * This message takes an {@link Identity} value, from which the image is sourced.
+     * Therefore, this message is preferred over the 
+     * {@link #msgTextureCubemapCreate(BufferedImage, int) other message} as the {@code Identity}
+     * value can and is used for identifying the texture within the internal registry,
+     * preventing possible duplicates of the same texture. Note that duplicates of the same
+     * texture cubemap can still exist, as long as they are assigned different texture units.<p>
+     * 
+     * The cubemap itself sources each face texture from the image in one of several ways,
+     * depending on the dimensions of the image. These various ways of laying out the faces of
+     * the cubemap are explained in more detail in the javadocs of the cubemap
+     * {@linkplain GLTextureCubemap#GLTextureCubemap(Identity, int) constructor}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param id the {@link Identity} to get the shader source code from. Note that the
-     * folder path has {@code /shader} appended to it, and the source code file is expected
-     * to have an extension of {@code .vert}
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new shader upon success, or is cancelled if:
+     * @param id the {@link Identity} to get the texture image data from. Note that the
+     * folder path has {@code /texture} appended to it, and the source file is expected
+     * to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
      *  <li>{@code id} is {@code null}</li>
-     *  <li>the source file could not be located</li>
-     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>the sourced image is of an invalid dimensionality as detailed in the cubemap
+     * {@linkplain GLTextureCubemapGLTextureCubemap(Identity, int) constructor}</li>
+     *  <li>an {@link IOException} occurred during the texture instantiation</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderNewVertex(Identity id) {
-        return enqueueMessage(new Message(Message.Type.SHADER_NEW_VERT, id));
+    public static CompletableFuture<Integer> msgTextureCubemapCreate(Identity id, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_ID_CREATE_CUBE, id, unit));
     }
     
     /**
-     * Instantiates and registers a new fragment shader object. This is one of 3 potential
-     * shader stages that a fully linked shader program can have, but it does not act as a
-     * shader on it's own; it must be linked to a shader program to have any effect. The new
-     * shader is also automatically selected, allowing for further processing.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. The new
+     * texture is automatically selected, allowing for further processing.<p>
+     * 
+     * This message takes a {@link BufferedImage} value, from which the image is sourced.
+     * Therefore, the {@link #msgTexture2DNew(BufferedImage, int) other message} is
+     * preferred over this message, as the lack of an {@code Identity} means the texture
+     * cannot be equated with other textures in the internal registry. This causes a
+     * potential for duplicate textures being instantiated and used instead of a single,
+     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
+     * thus any references to it can be discarded to free up memory space (if it is not
+     * needed anymore).<p>
+     * 
+     * The cubemap itself sources each face texture from the image in one of several ways,
+     * depending on the dimensions of the image. These various ways of laying out the faces of
+     * the cubemap are explained in more detail in the javadocs of the cubemap
+     * {@linkplain GLTextureCubemap#GLTextureCubemap(BufferedImage, int) constructor}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param id the {@link Identity} to get the shader source code from. Note that the
-     * folder path has {@code /shader} appended to it, and the source code file is expected
-     * to have an extension of {@code .frag}
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new shader upon success, or is cancelled if:
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>{@code id} is {@code null}</li>
-     *  <li>the source file could not be located</li>
-     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>{@code im} is {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>the given image is of an invalid dimensionality as detailed in the cubemap
+     * {@linkplain GLTextureCubemapGLTextureCubemap(BufferedImage, int) constructor}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderNewFragment(Identity id) {
-        return enqueueMessage(new Message(Message.Type.SHADER_NEW_FRAG, id));
+    public static CompletableFuture<Integer> msgTextureCubemapNew(BufferedImage im, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_IM_NEW_CUBE, im, unit));
     }
     
     /**
-     * Instantiates and registers a new geometry shader object. This is one of 3 potential
-     * shader stages that a fully linked shader program can have, but it does not act as a
-     * shader on it's own; it must be linked to a shader program to have any effect. The new
-     * shader is also automatically selected, allowing for further processing.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple
+     * textures assigned to a renderable; the effects of specific texture units is
+     * shader-dependent. The only guideline for texture units is that the graphics engine
+     * was built with the assumption that unit 0 is reserved for diffuse textures, i.e.
+     * textures that provide the base color image - this is neither required nor enforced,
+     * however. Unlike
+     * {@link #msgTextureCubemapNew(BufferedImage, int) msgTextureCubemapNew}, the new
+     * texture is not selected, and the selection state of the {@code GraphicsManager} class
+     * is left unchanged; the returned id can be passed to the handle-based messages
+     * instead.<p>
+     * 
+     * This message takes a {@link BufferedImage} value, from which the image is sourced.
+     * Therefore, the {@link #msgTexture2DCreate(BufferedImage, int) other message} is
+     * preferred over this message, as the lack of an {@code Identity} means the texture
+     * cannot be equated with other textures in the internal registry. This causes a
+     * potential for duplicate textures being instantiated and used instead of a single,
+     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
+     * thus any references to it can be discarded to free up memory space (if it is not
+     * needed anymore).<p>
+     * 
+     * The cubemap itself sources each face texture from the image in one of several ways,
+     * depending on the dimensions of the image. These various ways of laying out the faces of
+     * the cubemap are explained in more detail in the javadocs of the cubemap
+     * {@linkplain GLTextureCubemap#GLTextureCubemap(BufferedImage, int) constructor}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param id the {@link Identity} to get the shader source code from. Note that the
-     * folder path has {@code /shader} appended to it, and the source code file is expected
-     * to have an extension of {@code .geom}
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new shader upon success, or is cancelled if:
+     * @param im the {@link BufferedImage} to get the texture image data from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>{@code id} is {@code null}</li>
-     *  <li>the source file could not be located</li>
-     *  <li>an {@link IOException} occurred during the shader instantiation</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>{@code im} is {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>the given image is of an invalid dimensionality as detailed in the cubemap
+     * {@linkplain GLTextureCubemapGLTextureCubemap(BufferedImage, int) constructor}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderNewGeometry(Identity id) {
-        return enqueueMessage(new Message(Message.Type.SHADER_NEW_GEOM, id));
+    public static CompletableFuture<Integer> msgTextureCubemapCreate(BufferedImage im, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_IM_CREATE_CUBE, im, unit));
     }
     
     /**
-     * Selects a shader. This loads the indexed shader into the state machine of the
-     * {@code GraphicsManager} class to allow for further processing; an invalid index will
-     * instead set the selected shader to {@code null}. This message does not, on it's
-     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. The new
+     * texture is automatically selected, allowing for further processing.<p>
+     * 
+     * This message takes several {@link Identity} values, from which each face image is
+     * sourced. Therefore, this message is preferred over the 
+     * {@link #msgTextureCubemapNew(BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, int) other message}
+     * as the {@code Identity} values can and are used for identifying the texture within the
+     * internal registry, preventing possible duplicates of the same texture. Note that
+     * duplicates of the same texture cubemap can still exist, as long as they are assigned
+     * different texture units.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param index the index of the shader to select
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
+     * @param pxID the {@link Identity} to get the texture image data for the positive-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nxID the {@link Identity} to get the texture image data for the negative-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pyID the {@link Identity} to get the texture image data for the positive-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nyID the {@link Identity} to get the texture image data for the negative-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pzID the {@link Identity} to get the texture image data for the positive-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nzID the {@link Identity} to get the texture image data for the negative-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>any of the given {@code Identity} parameters are {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>any of the sourced images are non-square</li>
+     *  <li>an {@link IOException} occurred during the texture instantiation</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderSelect(int index) {
-        return enqueueMessage(new Message(Message.Type.SHADER_SELECT, index));
+    public static CompletableFuture<Integer> msgTextureCubemapNew(Identity pxID, Identity nxID, Identity pyID, Identity nyID, Identity pzID, Identity nzID, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_ID6_NEW_CUBE, pxID, nxID, pyID, nyID, pzID, nzID, unit));
     }
     
     /**
-     * Selects the default 2D vertex shader. This is the vertex shader that the default
-     * 2D texture shader program uses.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple
+     * textures assigned to a renderable; the effects of specific texture units is
+     * shader-dependent. The only guideline for texture units is that the graphics engine
+     * was built with the assumption that unit 0 is reserved for diffuse textures, i.e.
+     * textures that provide the base color image - this is neither required nor enforced,
+     * however. Unlike
+     * {@link #msgTextureCubemapNew(Identity, Identity, Identity, Identity, Identity, Identity, int) msgTextureCubemapNew},
+     * the new texture is not selected, and the selection state of the
+     * {@code GraphicsManager} class is left unchanged; the returned id can be passed to the
+     * handle-based messages instead.<p>
+     * 
+     * This message takes several {@link Identity} values, from which each face image is
+     * sourced. Therefore, this message is preferred over the 
+     * {@link #msgTextureCubemapCreate(BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, int) other message}
+     * as the {@code Identity} values can and are used for identifying the texture within the
+     * internal registry, preventing possible duplicates of the same texture. Note that
+     * duplicates of the same texture cubemap can still exist, as long as they are assigned
+     * different texture units.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default vertex shader on success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * @param pxID the {@link Identity} to get the texture image data for the positive-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nxID the {@link Identity} to get the texture image data for the negative-X face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pyID the {@link Identity} to get the texture image data for the positive-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nyID the {@link Identity} to get the texture image data for the negative-Y face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param pzID the {@link Identity} to get the texture image data for the positive-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param nzID the {@link Identity} to get the texture image data for the negative-Z face
+     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
+     * the source file is expected to have an extension of {@code .png}
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>any of the given {@code Identity} parameters are {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>any of the sourced images are non-square</li>
+     *  <li>an {@link IOException} occurred during the texture instantiation</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderSelectDefaultVert2D() {
-        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_VERT_2D));
+    public static CompletableFuture<Integer> msgTextureCubemapCreate(Identity pxID, Identity nxID, Identity pyID, Identity nyID, Identity pzID, Identity nzID, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_ID6_CREATE_CUBE, pxID, nxID, pyID, nyID, pzID, nzID, unit));
     }
     
     /**
-     * Selects the default 2D fragment shader. This is the fragment shader that the default
-     * 2D texture shader program uses.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple textures
+     * assigned to a renderable; the effects of specific texture units is shader-dependent.
+     * The only guideline for texture units is that the graphics engine was built with the
+     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
+     * the base color image - this is neither required nor enforced, however. The new
+     * texture is automatically selected, allowing for further processing.<p>
+     * 
+     * This message takes several {@link BufferedImage} values, from which each face image is
+     * sourced. Therefore, the
+     * {@link #msgTextureCubemapNew(Identity, Identity, Identity, Identity, Identity, Identity, int) other message}
+     * is preferred over this message, as the lack of an {@code Identity} means the texture
+     * cannot be equated with other textures in the internal registry. This causes a
+     * potential for duplicate textures being instantiated and used instead of a single,
+     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
+     * thus any references to it can be discarded to free up memory space (if it is not
+     * needed anymore).<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default fragment shader on success, or is cancelled if the thread experienced
-     * an {@link InterruptedException} while waiting for space in the message queue
+     * @param pxIm the {@link BufferedImage} to get the image data for the positive-X face
+     * of the cubemap from
+     * @param nxIm the {@link BufferedImage} to get the image data for the negative-X face
+     * of the cubemap from
+     * @param pyIm the {@link BufferedImage} to get the image data for the positive-Y face
+     * of the cubemap from
+     * @param nyIm the {@link BufferedImage} to get the image data for the negative-Y face
+     * of the cubemap from
+     * @param pzIm the {@link BufferedImage} to get the image data for the positive-Z face
+     * of the cubemap from
+     * @param nzIm the {@link BufferedImage} to get the image data for the negative-Z face
+     * of the cubemap from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>any of the given {@code BufferedImage} parameters are {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>any of the given images are non-square</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderSelectDefaultFrag2D() {
-        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_FRAG_2D));
+    public static CompletableFuture<Integer> msgTextureCubemapNew(BufferedImage pxIm, BufferedImage nxIm, BufferedImage pyIm, BufferedImage nyIm, BufferedImage pzIm, BufferedImage nzIm, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_IM6_NEW_CUBE, pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit));
     }
     
     /**
-     * Selects the default cubemap vertex shader. This is the vertex shader that the default
-     * cubemap texture shader program uses.<p>
+     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
+     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
+     * integer 'unit' value, which shaders can use to differentiate between multiple
+     * textures assigned to a renderable; the effects of specific texture units is
+     * shader-dependent. The only guideline for texture units is that the graphics engine
+     * was built with the assumption that unit 0 is reserved for diffuse textures, i.e.
+     * textures that provide the base color image - this is neither required nor enforced,
+     * however. Unlike
+     * {@link #msgTextureCubemapNew(BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, int) msgTextureCubemapNew},
+     * the new texture is not selected, and the selection state of the
+     * {@code GraphicsManager} class is left unchanged; the returned id can be passed to the
+     * handle-based messages instead.<p>
+     * 
+     * This message takes several {@link BufferedImage} values, from which each face image is
+     * sourced. Therefore, the
+     * {@link #msgTextureCubemapCreate(Identity, Identity, Identity, Identity, Identity, Identity, int) other message}
+     * is preferred over this message, as the lack of an {@code Identity} means the texture
+     * cannot be equated with other textures in the internal registry. This causes a
+     * potential for duplicate textures being instantiated and used instead of a single,
+     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
+     * thus any references to it can be discarded to free up memory space (if it is not
+     * needed anymore).<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default vertex shader on success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * @param pxIm the {@link BufferedImage} to get the image data for the positive-X face
+     * of the cubemap from
+     * @param nxIm the {@link BufferedImage} to get the image data for the negative-X face
+     * of the cubemap from
+     * @param pyIm the {@link BufferedImage} to get the image data for the positive-Y face
+     * of the cubemap from
+     * @param nyIm the {@link BufferedImage} to get the image data for the negative-Y face
+     * of the cubemap from
+     * @param pzIm the {@link BufferedImage} to get the image data for the positive-Z face
+     * of the cubemap from
+     * @param nzIm the {@link BufferedImage} to get the image data for the negative-Z face
+     * of the cubemap from
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value of
+     * the new texture upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>any of the given {@code BufferedImage} parameters are {@code null}</li>
+     *  <li>the given unit is out of range</li>
+     *  <li>any of the given images are non-square</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderSelectDefaultVertCube() {
-        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_VERT_CUBE));
+    public static CompletableFuture<Integer> msgTextureCubemapCreate(BufferedImage pxIm, BufferedImage nxIm, BufferedImage pyIm, BufferedImage nyIm, BufferedImage pzIm, BufferedImage nzIm, int unit) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_IM6_CREATE_CUBE, pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit));
     }
     
     /**
-     * Selects the default cubemap fragment shader. This is the fragment shader that the
-     * default cubemap texture shader program uses.<p>
+     * Selects a texture. This loads the indexed texture into the state machine of the
+     * {@code GraphicsManager} class to allow for further processing; an invalid index will
+     * instead set the selected texture to {@code null}. This message does not, on it's
+     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default fragment shader on success, or is cancelled if the thread experienced
-     * an {@link InterruptedException} while waiting for space in the message queue
+     * @param index the index of the texture to select
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
+     * success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderSelectDefaultFragCube() {
-        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_FRAG_CUBE));
+    public static CompletableFuture<Integer> msgTextureSelect(int index) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_SELECT, index));
     }
     
     /**
-     * Selects the default UI vertex shader. This is the vertex shader that the default UI
-     * shader program uses.<p>
+     * Selects the default 2D texture. This is the texture that 2D renderables use by default
+     * for texture unit 0.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default vertex shader on success, or is cancelled if the thread experienced an
+     * of the default texture on success, or is cancelled if the thread experienced an
      * {@link InterruptedException} while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderSelectDefaultVertUI() {
-        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_VERT_UI));
+    public static CompletableFuture<Integer> msgTextureSelectDefault2D() {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_SELECT_DEFAULT_2D));
     }
     
     /**
-     * Selects the default UI fragment shader. This is the fragment shader that the default
-     * UI shader program uses.<p>
+     * Selects the default cubemap texture. This is the texture that cubemap renderables use
+     * by default for texture unit 0.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default fragment shader on success, or is cancelled if the thread experienced
-     * an {@link InterruptedException} while waiting for space in the message queue
+     * of the default texture on success, or is cancelled if the thread experienced an
+     * {@link InterruptedException} while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderSelectDefaultFragUI() {
-        return enqueueMessage(new Message(Message.Type.SHADER_SELECT_DEFAULT_FRAG_UI));
+    public static CompletableFuture<Integer> msgTextureSelectDefaultCubemap() {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_SELECT_DEFAULT_CUBE));
     }
     
     /**
-     * Closes the currently selected shader. This removes it from the internal registry,
-     * and sets the selected shader to {@code null}. Note that it is not possible for an
-     * external thread to close one of the default shaders using this message; attempting
-     * to do so will result in the message failing.<p>
+     * Closes the currently selected texture. This removes it from the internal registry,
+     * and sets the selected texture to {@code null}. Note that it is not possible for
+     * an external thread to close a default texture using this message; attempting to 
+     * do so will result in the message failing.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
      * success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while
-     * waiting for space in the message queue</li>
-     *  <li>the currently selected shader is {@code null}</li>
-     *  <li>the currently selected shader is one of the default shaders</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>the currently selected texture is {@code null}</li>
+     *  <li>the currently selected texture is one of the default textures</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderClose() {
-        return enqueueMessage(new Message(Message.Type.SHADER_CLOSE));
+    public static CompletableFuture<Integer> msgTextureClose() {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_CLOSE));
     }
     
     /**
-     * Gets the unique integer id of the currently selected shader.<p>
+     * Closes the given texture. This removes it from the internal registry, and deselects
+     * it if it is currently selected. Note that it is not possible for an external thread
+     * to close a default texture using this message; attempting to do so will result in the
+     * message failing.<p>
+     * 
+     * This message is identical to {@link #msgTextureClose()}, except that the texture is
+     * identified by its unique id rather than by the current selection; the selection state
+     * of the {@code GraphicsManager} class is not read, and is only altered if the closed
+     * texture is currently selected.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the selected shader upon success, or is cancelled if:
+     * @param texture the unique id of the texture
+     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
+     * success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected shader is {@code null}</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>there is no texture with the id {@code texture}</li>
+     *  <li>the given texture is one of the default textures</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderGetID() {
-        return enqueueMessage(new Message(Message.Type.SHADER_GET_ID));
+    public static CompletableFuture<Integer> msgTextureClose(int texture) {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_CLOSE_BY_HANDLE, texture));
     }
     
     /**
-     * Instantiates and registers a new shader program. This is an empty program into
-     * which a vertex shader, a fragment shader, and an optional geometry shader can be
-     * attached; once these are attached, the new shader program is ready for rendering. The
-     * program also takes a single parameter indicating the type of texture the program is
-     * intended to process; this doesn't constrain the stages that can be attached in any
-     * way, but a mismatch between the stages and the parameter may cause errors upon a
-     * rendering attempt. This parameter is known as the program's <i>mode</i>. The new
-     * shader program is automatically selected, allowing for further processing.<p>
+     * Gets the unique integer id of the currently selected texture.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param mode {@code true} if the new shader program is intended to take cubemap
-     * textures, or {@code false} for 2D textures
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new shader upon success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * of the selected texture upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected texture is {@code null}</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramNew(boolean mode) {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_NEW, mode));
+    public static CompletableFuture<Integer> msgTextureGetID() {
+        return enqueueMessage(new Message(Message.Type.TEXTURE_GET_ID));
     }
     
     /**
-     * Selects a shader program. This loads the indexed shader program into the state
-     * machine of the {@code GraphicsManager} class to allow for further processing; an
-     * invalid index will instead set the selected shader program to {@code null}. This
-     * message does not, on it's own, affect the state of the {@code GraphicsManager}
-     * class in any other way.<p>
+     * Instantiates and registers a new skeleton from the given parameters. This is defined
+     * to be a tree of {@link AffineTransformation} instances representing the 'bones' of
+     * the skeleton. These bones dictate how each vertex in a mesh should be transformed
+     * relative to the parent bone. Each vertex in the mesh is also assigned a series of
+     * 'weights' via the given matrix, which are used to create a weighted map between
+     * vertices and bones (e.g. a vertex on a joint may be under equal influence from both
+     * bones of the joint, and thus would have each corresponding weight set to 0.5). The
+     * weights are normalized so that each row sums to 1 prior to rendering. The new
+     * skeleton is automatically selected, allowing for further processing.<p><p>
      * 
-     * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
-     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * This method thus allows meshes and renderables to be used for animation purposes.
+     * However, the exact method of combining the skeleton, weights and vertices together
+     * is left up to the renderable's current shader to perform. For reference, the
+     * graphics engine combines each skeleton transformation with it's parent <i>prior</i>
+     * to uploading to the GPU, and the weights are uploaded in row-major order.<p>
      * 
-     * @param index the index of the shader program to select
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
-     * @throws IllegalStateException if the manager has not been initialized, i.e. the
-     * {@link STATUS_INITIALIZED} status flag is not set
-     */
-    public static CompletableFuture<Integer> msgShaderProgramSelect(int index) {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT, index));
-    }
-    
-    /**
-     * Selects the default 2D shader program. This is the read-only shader that renderables
-     * using 2D textures default to if their assigned shader fails or is closed for any
-     * reason.<p>
+     * The skeleton will be automatically removed from any renderable it is attached to
+     * during a rendering cycle if the weight matrix is determined to be of invalid size for
+     * the renderable's mesh (the weight matrix must have an equal number of rows as the
+     * number of vertices in the mesh). In addition, the tree is set to be unmodifiable via
+     * {@link Trees#unmodifiableTree(Tree)} and the matrix is copied, so the weights and
+     * the structure of the skeleton cannot be altered (note however that the
+     * {@code AffineTransformation} instances within the skeleton can still be altered by
+     * outside threads).<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param skeleton the tree of affine transformation bones to use as the new skeleton
+     * @param weights the vertex-bone weights of the new skeleton. Each row of the weights
+     * corresponds to a vertex within the renderable's mesh, and each column of weights
+     * corresponds to a bone within the skeleton, where the bones are ordered using a
+     * {@linkplain Tree#preOrderWalk() pre-order walk}
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default shader program on success, or is cancelled if the thread experienced
-     * an {@link InterruptedException} while waiting for space in the message queue
+     * of the new skeleton upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>{@code skeleton} is {@code null}</li>
+     *  <li>{@code weights} is {@code null}</li>
+     *  <li>{@code weights} is an empty matrix (i.e. it has either 0 rows or 0 columns)</li>
+     *  <li>The number of columns in {@code weights} does not match the size of
+     * {@code skeleton}</li>
+     *  <li>Any row in {@code weights} sums to 0</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramSelectDefault2D() {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_2D));
+    public static CompletableFuture<Integer> msgSkeletonNew(Tree<? extends AffineTransformation, ?> skeleton, Matrix weights) {
+        return enqueueMessage(new Message(Message.Type.SKELETON_NEW, skeleton, weights));
     }
     
     /**
-     * Selects the default cubemap shader program. This is the read-only shader that
-     * renderables using cubemap textures default to if their assigned shader fails or is
-     * closed for any reason.<p>
+     * Instantiates and registers a new skeleton from the given parameters. This is defined
+     * to be a tree of {@link AffineTransformation} instances representing the 'bones' of
+     * the skeleton. These bones dictate how each vertex in a mesh should be transformed
+     * relative to the parent bone. Each vertex in the mesh is also assigned a series of
+     * 'weights' via the given matrix, which are used to create a weighted map between
+     * vertices and bones (e.g. a vertex on a joint may be under equal influence from both
+     * bones of the joint, and thus would have each corresponding weight set to 0.5). The
+     * weights are normalized so that each row sums to 1 prior to rendering. Unlike
+     * {@link #msgSkeletonNew(Tree, Matrix) msgSkeletonNew}, the new skeleton is not
+     * selected, and the selection state of the {@code GraphicsManager} class is left
+     * unchanged; the returned id can be passed to the handle-based messages instead.<p><p>
+     * 
+     * This method thus allows meshes and renderables to be used for animation purposes.
+     * However, the exact method of combining the skeleton, weights and vertices together
+     * is left up to the renderable's current shader to perform. For reference, the
+     * graphics engine combines each skeleton transformation with it's parent <i>prior</i>
+     * to uploading to the GPU, and the weights are uploaded in row-major order.<p>
+     * 
+     * The skeleton will be automatically removed from any renderable it is attached to
+     * during a rendering cycle if the weight matrix is determined to be of invalid size for
+     * the renderable's mesh (the weight matrix must have an equal number of rows as the
+     * number of vertices in the mesh). In addition, the tree is set to be unmodifiable via
+     * {@link Trees#unmodifiableTree(Tree)} and the matrix is copied, so the weights and
+     * the structure of the skeleton cannot be altered (note however that the
+     * {@code AffineTransformation} instances within the skeleton can still be altered by
+     * outside threads).<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param skeleton the tree of affine transformation bones to use as the new skeleton
+     * @param weights the vertex-bone weights of the new skeleton. Each row of the weights
+     * corresponds to a vertex within the renderable's mesh, and each column of weights
+     * corresponds to a bone within the skeleton, where the bones are ordered using a
+     * {@linkplain Tree#preOrderWalk() pre-order walk}
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default shader program on success, or is cancelled if the thread experienced
-     * an {@link InterruptedException} while waiting for space in the message queue
+     * of the new skeleton upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>{@code skeleton} is {@code null}</li>
+     *  <li>{@code weights} is {@code null}</li>
+     *  <li>{@code weights} is an empty matrix (i.e. it has either 0 rows or 0 columns)</li>
+     *  <li>The number of columns in {@code weights} does not match the size of
+     * {@code skeleton}</li>
+     *  <li>Any row in {@code weights} sums to 0</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramSelectDefaultCube() {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_CUBE));
+    public static CompletableFuture<Integer> msgSkeletonCreate(Tree<? extends AffineTransformation, ?> skeleton, Matrix weights) {
+        return enqueueMessage(new Message(Message.Type.SKELETON_CREATE, skeleton, weights));
     }
     
     /**
-     * Selects the default UI shader program. This is the read-only shader that renderables
-     * assigned to the UI default to. Note that this program has it's mode set to
-     * {@code false} (see {@link msgShaderProgramNew(boolean)} for more information on the
-     * mode of a program).<p>
+     * Selects a skeleton. This loads the indexed skeleton into the state machine of the
+     * {@code GraphicsManager} class to allow for further processing; an invalid index will
+     * instead set the selected skeleton to {@code null}. This message does not, on it's
+     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default shader program on success, or is cancelled if the thread experienced
-     * an {@link InterruptedException} while waiting for space in the message queue
+     * @param index the index of the skeleton to select
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramSelectDefaultUI() {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SELECT_DEFAULT_UI));
+    public static CompletableFuture<Integer> msgSkeletonSelect(int index) {
+        return enqueueMessage(new Message(Message.Type.SKELETON_SELECT, index));
     }
     
     /**
-     * Closes the currently selected shader program. This removes it from the internal
-     * registry, and sets the selected shader program to {@code null}. Any renderables
-     * currently assigned to it will automatically be reassigned to the default shader
-     * program when they are next rendered. Note that it is not possible for an external
-     * thread to close a default shader program using this message; attempting to do
-     * so will result in the message failing.<p>
+     * Closes the currently selected skeleton. This removes it from the internal registry,
+     * and sets the selected skeleton to {@code null}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>the currently selected shader program is {@code null}</li>
-     *  <li>the currently selected shader program is one of the default shader programs</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected skeleton is {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramClose() {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_CLOSE));
+    public static CompletableFuture<Integer> msgSkeletonClose() {
+        return enqueueMessage(new Message(Message.Type.SKELETON_CLOSE));
     }
     
     /**
-     * Sets the currently selected shader program to be read-only. This prevents any
-     * additional shaders from being attached to the program; care should be taken to
-     * ensure sure the program links and validates correctly before invoking this message,
-     * as it may result in the shader program becoming unusable for the rest of it's
-     * lifetime.<p>
+     * Closes the given skeleton. This removes it from the internal registry, and deselects
+     * it if it is currently selected.<p>
+     * 
+     * This message is identical to {@link #msgSkeletonClose()}, except that the skeleton is
+     * identified by its unique id rather than by the current selection; the selection state
+     * of the {@code GraphicsManager} class is not read, and is only altered if the closed
+     * skeleton is currently selected.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
-     * success, or is cancelled if:
+     * @param skeleton the unique id of the skeleton
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>the currently selected shader program is {@code null}</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no skeleton with the id {@code skeleton}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramSetReadonly() {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_SET_READONLY));
+    public static CompletableFuture<Integer> msgSkeletonClose(int skeleton) {
+        return enqueueMessage(new Message(Message.Type.SKELETON_CLOSE_BY_HANDLE, skeleton));
     }
     
     /**
-     * Attaches the currently selected shader to the currently selected shader program.
-     * This sets the shader to be one of the stages of the program; which stage depends
-     * on the type of the shader. Only 1 shader of each type 
-     * ({@code vert}, {@code geom}, {@code frag}) can be attached to the shader
-     * program at any one time; attaching a second shader of the same type will remove
-     * the first shader. Shader programs must have at least a {@code vert} and a
-     * {@code frag} shader attached before they can be linked, validated, and used for
-     * rendering.<p>
+     * Gets the unique integer id of the currently selected skeleton.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on
-     * success, or is cancelled if:
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the selected skeleton upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>the currently selected shader program is {@code null}</li>
-     *  <li>the currently selected shader program is read-only</li>
-     *  <li>the currently selected shader is {@code null}</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>the currently selected skeleton is {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramAttachShader() {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_ATTACH));
+    public static CompletableFuture<Integer> msgSkeletonGetID() {
+        return enqueueMessage(new Message(Message.Type.SKELETON_GET_ID));
     }
     
     /**
-     * Gets the unique integer id of the currently selected shader program.<p>
+     * Instantiates and registers a new renderable. This is a container class that the
+     * rendering loop uses to actually perform the rendering, and contains a mesh and
+     * an array of textures. The new renderable can then be assigned to a shader program.
+     * Note that the mesh is initially {@code null}, and one must be attached first before
+     * any rendering will occur. The new renderable is automatically selected, allowing for
+     * further processing.<p>
+     * 
+     * Renderables contain 1 or more <i>instances</i>. An instance acts as a way of rendering
+     * the renderable multiple times in a single rendering call, with each instance having
+     * their own affine transformation. This can greatly speed up graphical processing when
+     * attempting to render large numbers of a simple mesh; for instance, blades of grass. See
+     * <a href="https://learnopengl.com/Advanced-OpenGL/Instancing">the documentation on instancing</a>
+     * for more information.<p>
+     * 
+     * Internally, the instances are represented as an affine transformation array, with a
+     * single affine transformation per instance; thus, this array defines both the number
+     * and transforms of all instances. This message instantiates the new renderable with
+     * this internal array having length {@code numInstances}; each element of this array is
+     * set to {@link net.vob.util.math.AffineTransformationImpl#IDENTITY IDENTITY}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param numInstances the affine transformations for each renderable instance
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the selected shader program upon success, or is cancelled if:
+     * of the new renderable upon success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
      * in the message queue</li>
-     *  <li>the currently selected shader program is {@code null}</li>
+     *  <li>{@code numInstances} is less than 1</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgShaderProgramGetID() {
-        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_GET_ID));
+    public static CompletableFuture<Integer> msgRenderableNew(int numInstances) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_NEW, numInstances));
     }
     
     /**
-     * Instantiates and registers a new 2D texture. This is a graphical image loaded onto
-     * the GPU for use in rendering geometry surfaces. Each texture is assigned an integer
-     * 'unit' value, which shaders can use to differentiate between multiple textures
-     * assigned to a renderable; the effects of specific texture units is shader-dependent.
-     * The only guideline for texture units is that the graphics engine was built with the
-     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
-     * the base color image - this is neither required nor enforced, however. The new
-     * texture is automatically selected, allowing for further processing.<p>
+     * Instantiates and registers a new renderable. This is a container class that the
+     * rendering loop uses to actually perform the rendering, and contains a mesh and an
+     * array of textures. The new renderable can then be assigned to a shader program. Note
+     * that the mesh is initially {@code null}, and one must be attached first before any
+     * rendering will occur. Unlike {@link #msgRenderableNew(int) msgRenderableNew}, the new
+     * renderable is not selected, and the selection state of the {@code GraphicsManager}
+     * class is left unchanged; the returned id can be passed to the handle-based messages
+     * instead.<p>
      * 
-     * This message takes an {@link Identity} value, from which the image is sourced.
-     * Therefore, this message is preferred over the 
-     * {@link #msgTexture2DNew(BufferedImage, int) other message} as the {@code Identity}
-     * value can and is used for identifying the texture within the internal registry,
-     * preventing possible duplicates of the same texture. Note that duplicates of the same
-     * texture image can still exist, as long as they are assigned different texture units.<p>
+     * Renderables contain 1 or more <i>instances</i>. An instance acts as a way of rendering
+     * the renderable multiple times in a single rendering call, with each instance having
+     * their own affine transformation. This can greatly speed up graphical processing when
+     * attempting to render large numbers of a simple mesh; for instance, blades of grass. See
+     * <a href="https://learnopengl.com/Advanced-OpenGL/Instancing">the documentation on instancing</a>
+     * for more information.<p>
+     * 
+     * Internally, the instances are represented as an affine transformation array, with a
+     * single affine transformation per instance; thus, this array defines both the number
+     * and transforms of all instances. This message instantiates the new renderable with
+     * this internal array having length {@code numInstances}; each element of this array is
+     * set to {@link net.vob.util.math.AffineTransformationImpl#IDENTITY IDENTITY}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param id the {@link Identity} to get the texture image data from. Note that the
-     * folder path has {@code /texture} appended to it, and the source file is expected
-     * to have an extension of {@code .png}
-     * @param unit the texture unit this texture is assigned to. Must be greater than or
-     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
-     * @return a {@link CompletableFuture} object that completes with the unique id value of
-     * the new texture upon success, or is cancelled if:
+     * @param numInstances the affine transformations for each renderable instance
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new renderable upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>{@code id} is {@code null}</li>
-     *  <li>the given unit is out of range</li>
-     *  <li>the source file could not be located</li>
-     *  <li>an {@link IOException} occurred during the texture instantiation</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code numInstances} is less than 1</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTexture2DNew(Identity id, int unit) {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_ID_NEW_2D, id, unit));
+    public static CompletableFuture<Integer> msgRenderableCreate(int numInstances) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_CREATE, numInstances));
     }
     
     /**
-     * Instantiates and registers a new 2D texture. This is a graphical image loaded onto
-     * the GPU for use in rendering geometry surfaces. Each texture is assigned an integer
-     * 'unit' value, which shaders can use to differentiate between multiple textures
-     * assigned to a renderable; the effects of specific texture units is shader-dependent.
-     * The only guideline for texture units is that the graphics engine was built with the
-     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
-     * the base color image - this is neither required nor enforced, however. The new
-     * texture is automatically selected, allowing for further processing.<p>
+     * Instantiates and registers a new renderable. This is a container class that the
+     * rendering loop uses to actually perform the rendering, and contains a mesh and
+     * an array of textures. The new renderable can then be assigned to a shader program.
+     * Note that the mesh is initially {@code null}, and one must be attached first before
+     * any rendering will occur. The new renderable is automatically selected, allowing for
+     * further processing.<p>
      * 
-     * This message takes a {@link BufferedImage} value, from which the image is sourced.
-     * Therefore, the {@link #msgTexture2DNew(BufferedImage, int) other message} is
-     * preferred over this message, as the lack of an {@code Identity} means the texture
-     * cannot be equated with other textures in the internal registry. This causes a
-     * potential for duplicate textures being instantiated and used instead of a single,
-     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
-     * thus any references to it can be discarded to free up memory space (if it is not
-     * needed anymore).<p>
+     * Renderables contain 1 or more <i>instances</i>. An instance acts as a way of rendering
+     * the renderable multiple times in a single rendering call, with each instance having
+     * their own affine transformation. This can greatly speed up graphical processing when
+     * attempting to render large numbers of a simple mesh; for instance, blades of grass. See
+     * <a href="https://learnopengl.com/Advanced-OpenGL/Instancing">the documentation on instancing</a>
+     * for more information.<p>
+     * 
+     * Internally, the instances are represented as an affine transformation array, with a
+     * single affine transformation per instance; thus, this array defines both the number
+     * and transforms of all instances. This message instantiates the new renderable with
+     * this internal array having length {@code transforms.length}; each element of this
+     * array is an unmodifiable view of the corresponding element in {@code transforms}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param im the {@link BufferedImage} to get the texture image data from
-     * @param unit the texture unit this texture is assigned to. Must be greater than or
-     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
-     * @return a {@link CompletableFuture} object that completes with the unique id value of
-     * the new texture upon success, or is cancelled if:
+     * @param transforms the affine transformations for each renderable instance
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new renderable upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>{@code im} is {@code null}</li>
-     *  <li>the given unit is out of range</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code transforms} is empty or {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTexture2DNew(BufferedImage im, int unit) {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_IM_NEW_2D, im, unit));
+    public static CompletableFuture<Integer> msgRenderableNew(AffineTransformation[] transforms) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_NEW_TRANSFORMS, (Object)transforms));
     }
     
     /**
-     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
-     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
-     * integer 'unit' value, which shaders can use to differentiate between multiple textures
-     * assigned to a renderable; the effects of specific texture units is shader-dependent.
-     * The only guideline for texture units is that the graphics engine was built with the
-     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
-     * the base color image - this is neither required nor enforced, however. The new
-     * texture is automatically selected, allowing for further processing.<p>
+     * Instantiates and registers a new renderable. This is a container class that the
+     * rendering loop uses to actually perform the rendering, and contains a mesh and an
+     * array of textures. The new renderable can then be assigned to a shader program. Note
+     * that the mesh is initially {@code null}, and one must be attached first before any
+     * rendering will occur. Unlike
+     * {@link #msgRenderableNew(AffineTransformation[]) msgRenderableNew}, the new
+     * renderable is not selected, and the selection state of the {@code GraphicsManager}
+     * class is left unchanged; the returned id can be passed to the handle-based messages
+     * instead.<p>
      * 
-     * This message takes an {@link Identity} value, from which the image is sourced.
-     * Therefore, this message is preferred over the 
-     * {@link #msgTextureCubemapNew(BufferedImage, int) other message} as the {@code Identity}
-     * value can and is used for identifying the texture within the internal registry,
-     * preventing possible duplicates of the same texture. Note that duplicates of the same
-     * texture cubemap can still exist, as long as they are assigned different texture units.<p>
+     * Renderables contain 1 or more <i>instances</i>. An instance acts as a way of rendering
+     * the renderable multiple times in a single rendering call, with each instance having
+     * their own affine transformation. This can greatly speed up graphical processing when
+     * attempting to render large numbers of a simple mesh; for instance, blades of grass. See
+     * <a href="https://learnopengl.com/Advanced-OpenGL/Instancing">the documentation on instancing</a>
+     * for more information.<p>
      * 
-     * The cubemap itself sources each face texture from the image in one of several ways,
-     * depending on the dimensions of the image. These various ways of laying out the faces of
-     * the cubemap are explained in more detail in the javadocs of the cubemap
-     * {@linkplain GLTextureCubemap#GLTextureCubemap(Identity, int) constructor}.<p>
+     * Internally, the instances are represented as an affine transformation array, with a
+     * single affine transformation per instance; thus, this array defines both the number
+     * and transforms of all instances. This message instantiates the new renderable with
+     * this internal array having length {@code transforms.length}; each element of this
+     * array is an unmodifiable view of the corresponding element in {@code transforms}.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param id the {@link Identity} to get the texture image data from. Note that the
-     * folder path has {@code /texture} appended to it, and the source file is expected
-     * to have an extension of {@code .png}
-     * @param unit the texture unit this texture is assigned to. Must be greater than or
-     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
-     * @return a {@link CompletableFuture} object that completes with the unique id value of
-     * the new texture upon success, or is cancelled if:
+     * @param transforms the affine transformations for each renderable instance
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new renderable upon success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>{@code id} is {@code null}</li>
-     *  <li>the given unit is out of range</li>
-     *  <li>the sourced image is of an invalid dimensionality as detailed in the cubemap
-     * {@linkplain GLTextureCubemapGLTextureCubemap(Identity, int) constructor}</li>
-     *  <li>an {@link IOException} occurred during the texture instantiation</li>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
+     * in the message queue</li>
+     *  <li>{@code transforms} is empty or {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureCubemapNew(Identity id, int unit) {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_ID_NEW_CUBE, id, unit));
+    public static CompletableFuture<Integer> msgRenderableCreate(AffineTransformation[] transforms) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_CREATE_TRANSFORMS, (Object)transforms));
     }
     
     /**
-     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
-     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
-     * integer 'unit' value, which shaders can use to differentiate between multiple textures
-     * assigned to a renderable; the effects of specific texture units is shader-dependent.
-     * The only guideline for texture units is that the graphics engine was built with the
-     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
-     * the base color image - this is neither required nor enforced, however. The new
-     * texture is automatically selected, allowing for further processing.<p>
-     * 
-     * This message takes a {@link BufferedImage} value, from which the image is sourced.
-     * Therefore, the {@link #msgTexture2DNew(BufferedImage, int) other message} is
-     * preferred over this message, as the lack of an {@code Identity} means the texture
-     * cannot be equated with other textures in the internal registry. This causes a
-     * potential for duplicate textures being instantiated and used instead of a single,
-     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
-     * thus any references to it can be discarded to free up memory space (if it is not
-     * needed anymore).<p>
-     * 
-     * The cubemap itself sources each face texture from the image in one of several ways,
-     * depending on the dimensions of the image. These various ways of laying out the faces of
-     * the cubemap are explained in more detail in the javadocs of the cubemap
-     * {@linkplain GLTextureCubemap#GLTextureCubemap(BufferedImage, int) constructor}.<p>
+     * Selects a renderable. This loads the indexed renderable into the state machine of
+     * the {@code GraphicsManager} class to allow for further processing; an invalid index will
+     * instead set the selected renderable to {@code null}. This message does not, on it's
+     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param im the {@link BufferedImage} to get the texture image data from
-     * @param unit the texture unit this texture is assigned to. Must be greater than or
-     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
-     * @return a {@link CompletableFuture} object that completes with the unique id value of
-     * the new texture upon success, or is cancelled if:
-     * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>{@code im} is {@code null}</li>
-     *  <li>the given unit is out of range</li>
-     *  <li>the given image is of an invalid dimensionality as detailed in the cubemap
-     * {@linkplain GLTextureCubemapGLTextureCubemap(BufferedImage, int) constructor}</li>
-     * </ul>
+     * @param index the index of the renderable to select
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if the thread experienced an {@link InterruptedException}
+     * while waiting for space in the message queue
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureCubemapNew(BufferedImage im, int unit) {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_IM_NEW_CUBE, im, unit));
+    public static CompletableFuture<Integer> msgRenderableSelect(int index) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SELECT, index));
     }
     
     /**
-     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
-     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
-     * integer 'unit' value, which shaders can use to differentiate between multiple textures
-     * assigned to a renderable; the effects of specific texture units is shader-dependent.
-     * The only guideline for texture units is that the graphics engine was built with the
-     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
-     * the base color image - this is neither required nor enforced, however. The new
-     * texture is automatically selected, allowing for further processing.<p>
+     * Posts a message that selects a renderable. This is identical to
+     * {@link #msgRenderableSelect(int)}, except that the message has no
+     * {@link CompletableFuture}; the message is taken from a pool and recycled once
+     * handled, so this method generates no garbage.<p>
      * 
-     * This message takes several {@link Identity} values, from which each face image is
-     * sourced. Therefore, this message is preferred over the 
-     * {@link #msgTextureCubemapNew(BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, BufferedImage, int) other message}
-     * as the {@code Identity} values can and are used for identifying the texture within the
-     * internal registry, preventing possible duplicates of the same texture. Note that
-     * duplicates of the same texture cubemap can still exist, as long as they are assigned
-     * different texture units.<p>
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue.
+     * 
+     * @param index the index of the renderable to select
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static void postRenderableSelect(int index) {
+        postMessage(Message.obtain(Message.Type.RENDERABLE_SELECT).withInt(0, index));
+    }
+    
+    /**
+     * Closes the currently selected renderable. This removes it from the internal 
+     * registry, and sets the selected renderable to {@code null}. This message also
+     * removes it's reference in the rendering map, thereby ensuring it will not be
+     * rendered and that it will be flagged for garbage collection (as no further 
+     * references will exist at that point). Be aware that the internal objects (mesh,
+     * textures, etc.) will <b><i>not</i></b> be closed by this message.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param pxID the {@link Identity} to get the texture image data for the positive-X face
-     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
-     * the source file is expected to have an extension of {@code .png}
-     * @param nxID the {@link Identity} to get the texture image data for the negative-X face
-     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
-     * the source file is expected to have an extension of {@code .png}
-     * @param pyID the {@link Identity} to get the texture image data for the positive-Y face
-     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
-     * the source file is expected to have an extension of {@code .png}
-     * @param nyID the {@link Identity} to get the texture image data for the negative-Y face
-     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
-     * the source file is expected to have an extension of {@code .png}
-     * @param pzID the {@link Identity} to get the texture image data for the positive-Z face
-     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
-     * the source file is expected to have an extension of {@code .png}
-     * @param nzID the {@link Identity} to get the texture image data for the negative-Z face
-     * of the cubemap from. Note that the folder path has {@code /texture} appended to it, and 
-     * the source file is expected to have an extension of {@code .png}
-     * @param unit the texture unit this texture is assigned to. Must be greater than or
-     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
-     * @return a {@link CompletableFuture} object that completes with the unique id value of
-     * the new texture upon success, or is cancelled if:
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>any of the given {@code Identity} parameters are {@code null}</li>
-     *  <li>the given unit is out of range</li>
-     *  <li>any of the sourced images are non-square</li>
-     *  <li>an {@link IOException} occurred during the texture instantiation</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected renderable is {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureCubemapNew(Identity pxID, Identity nxID, Identity pyID, Identity nyID, Identity pzID, Identity nzID, int unit) {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_ID6_NEW_CUBE, pxID, nxID, pyID, nyID, pzID, nzID, unit));
+    public static CompletableFuture<Integer> msgRenderableClose() {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_CLOSE));
     }
     
     /**
-     * Instantiates and registers a new cubemap texture. This is a graphical image loaded
-     * onto the GPU for use in rendering geometry surfaces. Each texture is assigned an
-     * integer 'unit' value, which shaders can use to differentiate between multiple textures
-     * assigned to a renderable; the effects of specific texture units is shader-dependent.
-     * The only guideline for texture units is that the graphics engine was built with the
-     * assumption that unit 0 is reserved for diffuse textures, i.e. textures that provide
-     * the base color image - this is neither required nor enforced, however. The new
-     * texture is automatically selected, allowing for further processing.<p>
-     * 
-     * This message takes several {@link BufferedImage} values, from which each face image is
-     * sourced. Therefore, the
-     * {@link #msgTextureCubemapNew(Identity, Identity, Identity, Identity, Identity, Identity, int) other message}
-     * is preferred over this message, as the lack of an {@code Identity} means the texture
-     * cannot be equated with other textures in the internal registry. This causes a
-     * potential for duplicate textures being instantiated and used instead of a single,
-     * shared texture. The {@code BufferedImage} is not stored in the graphics manager,
-     * thus any references to it can be discarded to free up memory space (if it is not
-     * needed anymore).<p>
+     * Closes the given renderable. This removes it from the internal registry, and
+     * deselects it if it is currently selected. This message also removes it's reference in
+     * the rendering map, thereby ensuring it will not be rendered and that it will be
+     * flagged for garbage collection (as no further references will exist at that point).
+     * Be aware that the internal objects (mesh, textures, etc.) will <b><i>not</i></b> be
+     * closed by this message.<p>
+     * 
+     * This message is identical to {@link #msgRenderableClose()}, except that the
+     * renderable is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is not read, and is only altered
+     * if the closed renderable is currently selected.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param pxIm the {@link BufferedImage} to get the image data for the positive-X face
-     * of the cubemap from
-     * @param nxIm the {@link BufferedImage} to get the image data for the negative-X face
-     * of the cubemap from
-     * @param pyIm the {@link BufferedImage} to get the image data for the positive-Y face
-     * of the cubemap from
-     * @param nyIm the {@link BufferedImage} to get the image data for the negative-Y face
-     * of the cubemap from
-     * @param pzIm the {@link BufferedImage} to get the image data for the positive-Z face
-     * of the cubemap from
-     * @param nzIm the {@link BufferedImage} to get the image data for the negative-Z face
-     * of the cubemap from
-     * @param unit the texture unit this texture is assigned to. Must be greater than or
-     * equal to 0 and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
-     * @return a {@link CompletableFuture} object that completes with the unique id value of
-     * the new texture upon success, or is cancelled if:
+     * @param renderable the unique id of the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>any of the given {@code BufferedImage} parameters are {@code null}</li>
-     *  <li>the given unit is out of range</li>
-     *  <li>any of the given images are non-square</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureCubemapNew(BufferedImage pxIm, BufferedImage nxIm, BufferedImage pyIm, BufferedImage nyIm, BufferedImage pzIm, BufferedImage nzIm, int unit) {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_IM6_NEW_CUBE, pxIm, nxIm, pyIm, nyIm, pzIm, nzIm, unit));
+    public static CompletableFuture<Integer> msgRenderableClose(int renderable) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_CLOSE_BY_HANDLE, renderable));
     }
     
     /**
-     * Selects a texture. This loads the indexed texture into the state machine of the
-     * {@code GraphicsManager} class to allow for further processing; an invalid index will
-     * instead set the selected texture to {@code null}. This message does not, on it's
-     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
+     * Attaches the currently selected mesh to the currently selected renderable. The
+     * renderable will use this mesh for rendering purposes up until it is replaced by
+     * another invocation of this message, or the mesh is closed. This will replace any
+     * previously attached mesh.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param index the index of the texture to select
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
-     * success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>the currently selected mesh is {@code null}</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureSelect(int index) {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_SELECT, index));
+    public static CompletableFuture<Integer> msgRenderableAttachMesh() {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_MESH));
     }
     
     /**
-     * Selects the default 2D texture. This is the texture that 2D renderables use by default
-     * for texture unit 0.<p>
+     * Attaches the given mesh to the given renderable. The renderable will use this mesh
+     * for rendering purposes up until it is replaced by another invocation of this message,
+     * or the mesh is closed. This will replace any previously attached mesh.<p>
+     * 
+     * This message is identical to {@link #msgRenderableAttachMesh()}, except that the
+     * renderable and mesh are identified by their unique ids rather than by the current
+     * selection; the selection state of the {@code GraphicsManager} class is neither read
+     * nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default texture on success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * @param renderable the unique id of the renderable
+     * @param mesh the unique id of the mesh
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>there is no mesh with the id {@code mesh}</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureSelectDefault2D() {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_SELECT_DEFAULT_2D));
+    public static CompletableFuture<Integer> msgRenderableAttachMesh(int renderable, int mesh) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_MESH_BY_HANDLE, renderable, mesh));
     }
     
     /**
-     * Selects the default cubemap texture. This is the texture that cubemap renderables use
-     * by default for texture unit 0.<p>
+     * Attaches the currently selected texture to the currently selected renderable. The
+     * renderable will use this texture for rendering purposes up until it is replaced by
+     * another invocation of this message, the texture is closed, or the texture is
+     * manually detached by one of the appropriate messages. This will replace any 
+     * previously attached texture that is using the same texture unit.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the default texture on success, or is cancelled if the thread experienced an
-     * {@link InterruptedException} while waiting for space in the message queue
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>the currently selected texture is {@code null}</li>
+     *  <li>the program of the currently selected renderable does not allow the currently
+     * selected texture to be attached</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureSelectDefaultCubemap() {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_SELECT_DEFAULT_CUBE));
+    public static CompletableFuture<Integer> msgRenderableAttachTexture() {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_TEXTURE));
     }
     
     /**
-     * Closes the currently selected texture. This removes it from the internal registry,
-     * and sets the selected texture to {@code null}. Note that it is not possible for
-     * an external thread to close a default texture using this message; attempting to 
-     * do so will result in the message failing.<p>
+     * Attaches the given texture to the given renderable. The renderable will use this
+     * texture for rendering purposes up until it is replaced by another invocation of this
+     * message, the texture is closed, or the texture is manually detached by one of the
+     * appropriate messages. This will replace any previously attached texture that is using
+     * the same texture unit.<p>
+     * 
+     * This message is identical to {@link #msgRenderableAttachTexture()}, except that the
+     * renderable and texture are identified by their unique ids rather than by the current
+     * selection; the selection state of the {@code GraphicsManager} class is neither read
+     * nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0 on 
-     * success, or is cancelled if:
+     * @param renderable the unique id of the renderable
+     * @param texture the unique id of the texture
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for
-     * space in the message queue</li>
-     *  <li>the currently selected texture is {@code null}</li>
-     *  <li>the currently selected texture is one of the default textures</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>there is no texture with the id {@code texture}</li>
+     *  <li>the program of the given renderable does not allow the given texture to be
+     * attached</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureClose() {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_CLOSE));
+    public static CompletableFuture<Integer> msgRenderableAttachTexture(int renderable, int texture) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_TEXTURE_BY_HANDLE, renderable, texture));
     }
     
     /**
-     * Gets the unique integer id of the currently selected texture.<p>
+     * Attempts to detach the currently selected texture from the currently selected
+     * renderable. The message will fail if the selected texture is not attached to the
+     * selected renderable.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the selected texture upon success, or is cancelled if:
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected renderable is {@code null}</li>
      *  <li>the currently selected texture is {@code null}</li>
+     *  <li>the currently selected texture is not attached to the currently selected
+     * renderable at the time when this message is handled</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgTextureGetID() {
-        return enqueueMessage(new Message(Message.Type.TEXTURE_GET_ID));
+    public static CompletableFuture<Integer> msgRenderableDetachTexture() {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_TEXTURE));
     }
     
     /**
-     * Instantiates and registers a new skeleton from the given parameters. This is defined
-     * to be a tree of {@link AffineTransformation} instances representing the 'bones' of
-     * the skeleton. These bones dictate how each vertex in a mesh should be transformed
-     * relative to the parent bone. Each vertex in the mesh is also assigned a series of
-     * 'weights' via the given matrix, which are used to create a weighted map between
-     * vertices and bones (e.g. a vertex on a joint may be under equal influence from both
-     * bones of the joint, and thus would have each corresponding weight set to 0.5). The
-     * weights are normalized so that each row sums to 1 prior to rendering. The new
-     * skeleton is automatically selected, allowing for further processing.<p><p>
-     * 
-     * This method thus allows meshes and renderables to be used for animation purposes.
-     * However, the exact method of combining the skeleton, weights and vertices together
-     * is left up to the renderable's current shader to perform. For reference, the
-     * graphics engine combines each skeleton transformation with it's parent <i>prior</i>
-     * to uploading to the GPU, and the weights are uploaded in row-major order.<p>
-     * 
-     * The skeleton will be automatically removed from any renderable it is attached to
-     * during a rendering cycle if the weight matrix is determined to be of invalid size for
-     * the renderable's mesh (the weight matrix must have an equal number of rows as the
-     * number of vertices in the mesh). In addition, the tree is set to be unmodifiable via
-     * {@link Trees#unmodifiableTree(Tree)} and the matrix is copied, so the weights and
-     * the structure of the skeleton cannot be altered (note however that the
-     * {@code AffineTransformation} instances within the skeleton can still be altered by
-     * outside threads).<p>
+     * Detaches the texture at the given texture unit from the currently selected
+     * renderable. This message does not use the currently selected texture; it will
+     * simply detach any texture it finds at the given unit in the renderable.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param skeleton the tree of affine transformation bones to use as the new skeleton
-     * @param weights the vertex-bone weights of the new skeleton. Each row of the weights
-     * corresponds to a vertex within the renderable's mesh, and each column of weights
-     * corresponds to a bone within the skeleton, where the bones are ordered using a
-     * {@linkplain Tree#preOrderWalk() pre-order walk}
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new skeleton upon success, or is cancelled if:
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than or equal to {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>{@code skeleton} is {@code null}</li>
-     *  <li>{@code weights} is {@code null}</li>
-     *  <li>{@code weights} is an empty matrix (i.e. it has either 0 rows or 0 columns)</li>
-     *  <li>The number of columns in {@code weights} does not match the size of
-     * {@code skeleton}</li>
-     *  <li>Any row in {@code weights} sums to 0</li>
+     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>the given unit is out of range</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgSkeletonNew(Tree<? extends AffineTransformation, ?> skeleton, Matrix weights) {
-        return enqueueMessage(new Message(Message.Type.SKELETON_NEW, skeleton, weights));
+    public static CompletableFuture<Integer> msgRenderableDetachTexture(int unit) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_TEXTURE_UNIT, unit));
     }
     
     /**
-     * Selects a skeleton. This loads the indexed skeleton into the state machine of the
-     * {@code GraphicsManager} class to allow for further processing; an invalid index will
-     * instead set the selected skeleton to {@code null}. This message does not, on it's
-     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
+     * Detaches the texture at the given texture unit from the given renderable. This
+     * message will simply detach any texture it finds at the given unit in the
+     * renderable.<p>
+     * 
+     * This message is identical to {@link #msgRenderableDetachTexture(int)}, except that
+     * the renderable is identified by its unique id rather than by the current selection;
+     * the selection state of the {@code GraphicsManager} class is neither read nor
+     * altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param index the index of the skeleton to select
+     * @param renderable the unique id of the renderable
+     * @param unit the texture unit this texture is assigned to. Must be greater than or
+     * equal to 0 and less than or equal to {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
      * @return a {@link CompletableFuture} object that completes with a value of 0
-     * on success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>the given unit is out of range</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgSkeletonSelect(int index) {
-        return enqueueMessage(new Message(Message.Type.SKELETON_SELECT, index));
+    public static CompletableFuture<Integer> msgRenderableDetachTexture(int renderable, int unit) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_TEXTURE_UNIT_BY_HANDLE, renderable, unit));
     }
     
     /**
-     * Closes the currently selected skeleton. This removes it from the internal registry,
-     * and sets the selected skeleton to {@code null}.<p>
+     * Sets the number of instances in the currently selected renderable. This
+     * discards/creates instances by discarding affine transformations at the end of an 
+     * internal transform array, or by padding the end of the array with
+     * {@link net.vob.util.math.AffineTransformationImpl#IDENTITY IDENTITY}. The
+     * remaining instances are left untouched.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
+     * wait for space in the message queue. In addition, the returned 
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param numInstances the new number of instances for the renderable
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>the currently selected skeleton is {@code null}</li>
+     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>{@code numInstances} is less than 1</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgSkeletonClose() {
-        return enqueueMessage(new Message(Message.Type.SKELETON_CLOSE));
+    public static CompletableFuture<Integer> msgRenderableSetInstanceTransforms(int numInstances) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCES, numInstances));
     }
     
     /**
-     * Gets the unique integer id of the currently selected skeleton.<p>
+     * Sets the number of instances in the given renderable. This discards/creates instances
+     * by discarding affine transformations at the end of an internal transform array, or by
+     * padding the end of the array with
+     * {@link net.vob.util.math.AffineTransformationImpl#IDENTITY IDENTITY}. The remaining
+     * instances are left untouched.<p>
+     * 
+     * This message is identical to {@link #msgRenderableSetInstanceTransforms(int)}, except
+     * that the renderable is identified by its unique id rather than by the current
+     * selection; the selection state of the {@code GraphicsManager} class is neither read
+     * nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
+     * wait for space in the message queue. In addition, the returned 
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the selected skeleton upon success, or is cancelled if:
+     * @param renderable the unique id of the renderable
+     * @param numInstances the new number of instances for the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>the currently selected skeleton is {@code null}</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>{@code numInstances} is less than 1</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgSkeletonGetID() {
-        return enqueueMessage(new Message(Message.Type.SKELETON_GET_ID));
+    public static CompletableFuture<Integer> msgRenderableSetInstanceTransforms(int renderable, int numInstances) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCES_BY_HANDLE, renderable, numInstances));
     }
     
     /**
-     * Instantiates and registers a new renderable. This is a container class that the
-     * rendering loop uses to actually perform the rendering, and contains a mesh and
-     * an array of textures. The new renderable can then be assigned to a shader program.
-     * Note that the mesh is initially {@code null}, and one must be attached first before
-     * any rendering will occur. The new renderable is automatically selected, allowing for
-     * further processing.<p>
-     * 
-     * Renderables contain 1 or more <i>instances</i>. An instance acts as a way of rendering
-     * the renderable multiple times in a single rendering call, with each instance having
-     * their own affine transformation. This can greatly speed up graphical processing when
-     * attempting to render large numbers of a simple mesh; for instance, blades of grass. See
-     * <a href="https://learnopengl.com/Advanced-OpenGL/Instancing">the documentation on instancing</a>
-     * for more information.<p>
-     * 
-     * Internally, the instances are represented as an affine transformation array, with a
-     * single affine transformation per instance; thus, this array defines both the number
-     * and transforms of all instances. This message instantiates the new renderable with
-     * this internal array having length {@code numInstances}; each element of this array is
-     * set to {@link net.vob.util.math.AffineTransformationImpl#IDENTITY IDENTITY}.<p>
+     * Sets the number of instances in the currently selected renderable. This
+     * discards/creates instances by discarding the internal instance transformation array,
+     * and then setting it to an array of unmodifiable instances of the given
+     * transformations.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
+     * wait for space in the message queue. In addition, the returned 
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param numInstances the affine transformations for each renderable instance
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new renderable upon success, or is cancelled if:
+     * @param transforms the new number of instances for the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
-     *  <li>{@code numInstances} is less than 1</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>{@code transforms} is empty or {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableNew(int numInstances) {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_NEW, numInstances));
+    public static CompletableFuture<Integer> msgRenderableSetInstanceTransforms(AffineTransformation... transforms) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS, (Object)unmodifiable(transforms)));
     }
     
     /**
-     * Instantiates and registers a new renderable. This is a container class that the
-     * rendering loop uses to actually perform the rendering, and contains a mesh and
-     * an array of textures. The new renderable can then be assigned to a shader program.
-     * Note that the mesh is initially {@code null}, and one must be attached first before
-     * any rendering will occur. The new renderable is automatically selected, allowing for
-     * further processing.<p>
-     * 
-     * Renderables contain 1 or more <i>instances</i>. An instance acts as a way of rendering
-     * the renderable multiple times in a single rendering call, with each instance having
-     * their own affine transformation. This can greatly speed up graphical processing when
-     * attempting to render large numbers of a simple mesh; for instance, blades of grass. See
-     * <a href="https://learnopengl.com/Advanced-OpenGL/Instancing">the documentation on instancing</a>
-     * for more information.<p>
+     * Sets the number of instances in the given renderable. This discards/creates instances
+     * by discarding the internal instance transformation array, and then setting it to an
+     * array of unmodifiable instances of the given transformations.<p>
      * 
-     * Internally, the instances are represented as an affine transformation array, with a
-     * single affine transformation per instance; thus, this array defines both the number
-     * and transforms of all instances. This message instantiates the new renderable with
-     * this internal array having length {@code transforms.length}; each element of this
-     * array is an unmodifiable view of the corresponding element in {@code transforms}.<p>
+     * This message is identical to
+     * {@link #msgRenderableSetInstanceTransforms(AffineTransformation...)}, except that the
+     * renderable is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is neither read nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned
+     * wait for space in the message queue. In addition, the returned 
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param transforms the affine transformations for each renderable instance
-     * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the new renderable upon success, or is cancelled if:
+     * @param renderable the unique id of the renderable
+     * @param transforms the new number of instances for the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
      * <ul>
-     *  <li>the thread experienced an {@link InterruptedException} while waiting for space 
-     * in the message queue</li>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
      *  <li>{@code transforms} is empty or {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableNew(AffineTransformation[] transforms) {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_NEW_TRANSFORMS, (Object)transforms));
+    public static CompletableFuture<Integer> msgRenderableSetInstanceTransforms(int renderable, AffineTransformation... transforms) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS_BY_HANDLE, renderable, unmodifiable(transforms)));
     }
     
     /**
-     * Selects a renderable. This loads the indexed renderable into the state machine of
-     * the {@code GraphicsManager} class to allow for further processing; an invalid index will
-     * instead set the selected renderable to {@code null}. This message does not, on it's
-     * own, affect the state of the {@code GraphicsManager} class in any other way.<p>
+     * Sets the affine transformation of an instance of the currently selected renderable
+     * to an unmodifiable view of the given transform. Changes to the original affine
+     * transformation are visible within the graphics engine.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param index the index of the renderable to select
+     * @param transform the new affine transformation of the renderable
+     * @param instance the index of the instance
      * @return a {@link CompletableFuture} object that completes with a value of 0
-     * on success, or is cancelled if the thread experienced an {@link InterruptedException}
-     * while waiting for space in the message queue
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>{@code transform} is {@code null}</li>
+     *  <li>{@code instance} is less then 0, or greater than or equal to the number of
+     * instances the currently selected renderable has</li>
+     * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableSelect(int index) {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_SELECT, index));
+    public static CompletableFuture<Integer> msgRenderableSetInstanceTransform(AffineTransformation transform, int instance) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM, unmodifiable(transform), instance));
     }
     
     /**
-     * Closes the currently selected renderable. This removes it from the internal 
-     * registry, and sets the selected renderable to {@code null}. This message also
-     * removes it's reference in the rendering map, thereby ensuring it will not be
-     * rendered and that it will be flagged for garbage collection (as no further 
-     * references will exist at that point). Be aware that the internal objects (mesh,
-     * textures, etc.) will <b><i>not</i></b> be closed by this message.<p>
+     * Posts a message that sets the affine transformation of an instance of the
+     * currently selected renderable to an unmodifiable view of the given transform. This
+     * is identical to {@link #msgRenderableSetInstanceTransform(AffineTransformation, int)},
+     * except that the message has no {@link CompletableFuture}; the message is taken
+     * from a pool and recycled once handled, so this method generates no garbage for the
+     * message itself. If the message fails, the failure is only logged.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue.
+     * 
+     * @param transform the new affine transformation of the renderable
+     * @param instance the index of the instance
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static void postRenderableSetInstanceTransform(AffineTransformation transform, int instance) {
+        postMessage(Message.obtain(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM).withRef(0, unmodifiable(transform)).withInt(1, instance));
+    }
+    
+    /**
+     * Sets the affine transformation of an instance of the given renderable to an
+     * unmodifiable view of the given transform. Changes to the original affine
+     * transformation are visible within the graphics engine.<p>
+     * 
+     * This message is identical to
+     * {@link #msgRenderableSetInstanceTransform(AffineTransformation, int)}, except that
+     * the renderable is identified by its unique id rather than by the current selection;
+     * the selection state of the {@code GraphicsManager} class is neither read nor
+     * altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param renderable the unique id of the renderable
+     * @param transform the new affine transformation of the renderable
+     * @param instance the index of the instance
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>{@code transform} is {@code null}</li>
+     *  <li>{@code instance} is less then 0, or greater than or equal to the number of
+     * instances the given renderable has</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableClose() {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_CLOSE));
+    public static CompletableFuture<Integer> msgRenderableSetInstanceTransform(int renderable, AffineTransformation transform, int instance) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE, renderable, unmodifiable(transform), instance));
     }
     
     /**
-     * Attaches the currently selected mesh to the currently selected renderable. The
-     * renderable will use this mesh for rendering purposes up until it is replaced by
-     * another invocation of this message, or the mesh is closed. This will replace any
-     * previously attached mesh.<p>
+     * Posts a message that sets the affine transformation of an instance of the given
+     * renderable to an unmodifiable view of the given transform. This is identical to
+     * {@link #msgRenderableSetInstanceTransform(int, AffineTransformation, int)}, except
+     * that the message has no {@link CompletableFuture}; the message is taken from a
+     * pool and recycled once handled, so this method generates no garbage for the
+     * message itself. If the message fails, the failure is only logged.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param transform the new affine transformation of the renderable
+     * @param instance the index of the instance
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static void postRenderableSetInstanceTransform(int renderable, AffineTransformation transform, int instance) {
+        postMessage(Message.obtain(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE).withInt(0, renderable).withRef(1, unmodifiable(transform)).withInt(2, instance));
+    }
+    
+    /**
+     * Attempts to post a message that sets the affine transformation of an instance of
+     * the given renderable to an unmodifiable view of the given transform. This is
+     * identical to {@link #postRenderableSetInstanceTransform(int, AffineTransformation, int)},
+     * except that it never waits for space in the message queue; if the queue is full,
+     * the message is dropped instead. This is intended for cosmetic updates that can be
+     * safely skipped under load.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param transform the new affine transformation of the renderable
+     * @param instance the index of the instance
+     * @return {@code true} if the message was posted, {@code false} if it was dropped
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static boolean tryPostRenderableSetInstanceTransform(int renderable, AffineTransformation transform, int instance) {
+        if (!getStatus(STATUS_INITIALIZED))
+            throw new IllegalStateException(LocaleUtils.format("GraphicsEngine.NotInitialized"));
+        
+        Message message = Message.obtain(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE).withInt(0, renderable).withRef(1, unmodifiable(transform)).withInt(2, instance);
+        
+        if (hasCurrentContext()) {
+            GraphicsManager.handleMessage(message);
+            return true;
+        }
+        
+        if (GraphicsManager.MESSAGE_QUEUE.offer(message)) {
+            checkWatermark();
+            return true;
+        }
+        
+        GraphicsManager.MESSAGE_POOL.release(message);
+        return false;
+    }
+    
+    /**
+     * Appends a new instance to the currently selected renderable, with an unmodifiable
+     * view of the given transform. Changes to the original affine transformation are
+     * visible within the graphics engine. The other instances are left untouched; the
+     * internal transform array has spare capacity, which grows geometrically as instances
+     * are added, so appending an instance takes constant amortized time.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0
-     * on success, or is cancelled if:
+     * @param transform the affine transformation of the new instance
+     * @return a {@link CompletableFuture} object that completes with the index of the
+     * new instance on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
      *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>the currently selected mesh is {@code null}</li>
+     *  <li>{@code transform} is {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableAttachMesh() {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_MESH));
+    public static CompletableFuture<Integer> msgRenderableAddInstance(AffineTransformation transform) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ADD_INSTANCE, unmodifiable(transform)));
     }
     
     /**
-     * Attaches the currently selected texture to the currently selected renderable. The
-     * renderable will use this texture for rendering purposes up until it is replaced by
-     * another invocation of this message, the texture is closed, or the texture is
-     * manually detached by one of the appropriate messages. This will replace any 
-     * previously attached texture that is using the same texture unit.<p>
+     * Appends a new instance to the given renderable, with an unmodifiable view of the
+     * given transform. Changes to the original affine transformation are visible within
+     * the graphics engine.<p>
+     * 
+     * This message is identical to
+     * {@link #msgRenderableAddInstance(AffineTransformation)}, except that the renderable
+     * is identified by its unique id rather than by the current selection; the selection
+     * state of the {@code GraphicsManager} class is neither read nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0
-     * on success, or is cancelled if:
+     * @param renderable the unique id of the renderable
+     * @param transform the affine transformation of the new instance
+     * @return a {@link CompletableFuture} object that completes with the index of the
+     * new instance on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>the currently selected texture is {@code null}</li>
-     *  <li>the program of the currently selected renderable does not allow the currently
-     * selected texture to be attached</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>{@code transform} is {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableAttachTexture() {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_TEXTURE));
+    public static CompletableFuture<Integer> msgRenderableAddInstance(int renderable, AffineTransformation transform) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ADD_INSTANCE_BY_HANDLE, renderable, unmodifiable(transform)));
     }
-    
-    /**
-     * Attempts to detach the currently selected texture from the currently selected
-     * renderable. The message will fail if the selected texture is not attached to the
-     * selected renderable.<p>
+    
+    /**
+     * Removes an instance from the currently selected renderable. The last instance is
+     * moved into the place of the removed instance, and so takes its index; no other
+     * instance is touched.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param instance the index of the instance
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
      *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>the currently selected texture is {@code null}</li>
-     *  <li>the currently selected texture is not attached to the currently selected
-     * renderable at the time when this message is handled</li>
+     *  <li>{@code instance} is less then 0, or greater than or equal to the number of
+     * instances the currently selected renderable has</li>
+     *  <li>the currently selected renderable has only 1 instance</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableDetachTexture() {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_TEXTURE));
+    public static CompletableFuture<Integer> msgRenderableRemoveInstance(int instance) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_REMOVE_INSTANCE, instance));
     }
     
     /**
-     * Detaches the texture at the given texture unit from the currently selected
-     * renderable. This message does not use the currently selected texture; it will
-     * simply detach any texture it finds at the given unit in the renderable.<p>
+     * Removes an instance from the given renderable. The last instance is moved into the
+     * place of the removed instance, and so takes its index; no other instance is
+     * touched.<p>
+     * 
+     * This message is identical to {@link #msgRenderableRemoveInstance(int)}, except that
+     * the renderable is identified by its unique id rather than by the current selection;
+     * the selection state of the {@code GraphicsManager} class is neither read nor
+     * altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param unit the texture unit this texture is assigned to. Must be greater than or
-     * equal to 0 and less than or equal to {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @param renderable the unique id of the renderable
+     * @param instance the index of the instance
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>the given unit is out of range</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>{@code instance} is less then 0, or greater than or equal to the number of
+     * instances the given renderable has</li>
+     *  <li>the given renderable has only 1 instance</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableDetachTexture(int unit) {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_TEXTURE_UNIT, unit));
+    public static CompletableFuture<Integer> msgRenderableRemoveInstance(int renderable, int instance) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_REMOVE_INSTANCE_BY_HANDLE, renderable, instance));
     }
     
     /**
-     * Sets the number of instances in the currently selected renderable. This
-     * discards/creates instances by discarding affine transformations at the end of an 
-     * internal transform array, or by padding the end of the array with
-     * {@link net.vob.util.math.AffineTransformationImpl#IDENTITY IDENTITY}.<p>
+     * Attaches the currently selected skeleton to the currently selected renderable.
+     * Removes the previous skeleton, if any.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned 
+     * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param numInstances the new number of instances for the renderable
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
      *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>{@code numInstances} is less than 1</li>
+     *  <li>the currently selected skeleton is {@code null}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableSetInstanceTransforms(int numInstances) {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCES, numInstances));
+    public static CompletableFuture<Integer> msgRenderableAttachSkeleton() {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_SKELETON));
     }
     
     /**
-     * Sets the number of instances in the currently selected renderable. This
-     * discards/creates instances by discarding the internal instance transformation array,
-     * and then setting it to an array of unmodifiable instances of the given
-     * transformations.<p>
+     * Attaches the given skeleton to the given renderable. Removes the previous skeleton,
+     * if any.<p>
+     * 
+     * This message is identical to {@link #msgRenderableAttachSkeleton()}, except that the
+     * renderable and skeleton are identified by their unique ids rather than by the current
+     * selection; the selection state of the {@code GraphicsManager} class is neither read
+     * nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
-     * wait for space in the message queue. In addition, the returned 
+     * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param transforms the new number of instances for the renderable
+     * @param renderable the unique id of the renderable
+     * @param skeleton the unique id of the skeleton
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>{@code transforms} is empty or {@code null}</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>there is no skeleton with the id {@code skeleton}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableSetInstanceTransforms(AffineTransformation... transforms) {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS, (Object)transforms));
+    public static CompletableFuture<Integer> msgRenderableAttachSkeleton(int renderable, int skeleton) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_SKELETON_BY_HANDLE, renderable, skeleton));
     }
     
     /**
-     * Sets the affine transformation of an instance of the currently selected renderable
-     * to an unmodifiable view of the given transform. Changes to the original affine
-     * transformation are visible within the graphics engine.<p>
+     * Removes the current skeleton (if any) from the currently selected renderable.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @param transform the new affine transformation of the renderable
-     * @param instance the index of the instance
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
      *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>{@code transform} is {@code null}</li>
-     *  <li>{@code instance} is less then 0, or greater than or equal to the number of
-     * instances the currently selected renderable has</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableSetInstanceTransform(AffineTransformation transform, int instance) {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM, transform.getAsUnmodifiable(true), instance));
+    public static CompletableFuture<Integer> msgRenderableDetachSkeleton() {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_SKELETON));
     }
     
     /**
-     * Attaches the currently selected skeleton to the currently selected renderable.
-     * Removes the previous skeleton, if any.<p>
+     * Removes the current skeleton (if any) from the given renderable.<p>
+     * 
+     * This message is identical to {@link #msgRenderableDetachSkeleton()}, except that the
+     * renderable is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is neither read nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param renderable the unique id of the renderable
      * @return a {@link CompletableFuture} object that completes with a value of 0
      * on success, or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>the currently selected renderable is {@code null}</li>
-     *  <li>the currently selected skeleton is {@code null}</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableAttachSkeleton() {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_ATTACH_SKELETON));
+    public static CompletableFuture<Integer> msgRenderableDetachSkeleton(int renderable) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_SKELETON_BY_HANDLE, renderable));
     }
     
     /**
-     * Removes the current skeleton (if any) from the currently selected renderable.<p>
+     * Selects the current mesh of the currently selected renderable.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
-     * @return a {@link CompletableFuture} object that completes with a value of 0
-     * on success, or is cancelled if:
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the selected mesh upon success (or completes with -1 if the selected mesh is
+     * {@code null}), or is cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
@@ -2931,30 +5376,33 @@ public final class GraphicsEngine {
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableDetachSkeleton() {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_DETACH_SKELETON));
+    public static CompletableFuture<Integer> msgRenderableSelectMesh() {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_SELECT_MESH));
     }
     
     /**
-     * Selects the current mesh of the currently selected renderable.<p>
+     * Gets the unique integer id of the current mesh of the given renderable. Unlike
+     * {@link msgRenderableSelectMesh()}, the mesh is not selected, and the selection state
+     * of the {@code GraphicsManager} class is neither read nor altered.<p>
      * 
      * Note that this method communicates with the graphics thread, so it may have to
      * wait for space in the message queue. In addition, the returned
      * {@link CompletableFuture} should not be completed outside of the graphics thread.
      * 
+     * @param renderable the unique id of the renderable
      * @return a {@link CompletableFuture} object that completes with the unique id value
-     * of the selected mesh upon success (or completes with -1 if the selected mesh is
-     * {@code null}), or is cancelled if:
+     * of the mesh upon success (or completes with -1 if the renderable has no mesh), or is
+     * cancelled if:
      * <ul>
      *  <li>the thread experienced an {@link InterruptedException} while
      * waiting for space in the message queue</li>
-     *  <li>the currently selected renderable is {@code null}</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
      * </ul>
      * @throws IllegalStateException if the manager has not been initialized, i.e. the
      * {@link STATUS_INITIALIZED} status flag is not set
      */
-    public static CompletableFuture<Integer> msgRenderableSelectMesh() {
-        return enqueueMessage(new Message(Message.Type.RENDERABLE_SELECT_MESH));
+    public static CompletableFuture<Integer> msgRenderableGetMesh(int renderable) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_GET_MESH_BY_HANDLE, renderable));
     }
     
     /**
@@ -2982,6 +5430,34 @@ public final class GraphicsEngine {
         return enqueueMessage(new Message(Message.Type.RENDERABLE_SELECT_TEXTURE, unit));
     }
     
+    /**
+     * Gets the unique integer id of one of the current textures of the given renderable.
+     * Unlike {@link msgRenderableSelectTexture(int)}, the texture is not selected, and the
+     * selection state of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param renderable the unique id of the renderable
+     * @param unit the texture unit being queried. Must be greater than or equal to 0
+     * and less than {@link GraphicsManager#MAX_COMBINED_TEXTURE_UNITS}
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the texture upon success (or completes with -1 if the renderable has no texture
+     * in the given unit), or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while waiting for
+     * space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>the given unit is out of range</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgRenderableGetTexture(int renderable, int unit) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_GET_TEXTURE_BY_HANDLE, renderable, unit));
+    }
+    
     /**
      * Selects the shader program that the currently selected renderable is assigned to.<p>
      * 
@@ -3010,6 +5486,33 @@ public final class GraphicsEngine {
         return enqueueMessage(new Message(Message.Type.RENDERABLE_SELECT_SHADER_PROGRAM));
     }
     
+    /**
+     * Gets the unique integer id of the shader program that the given renderable is
+     * assigned to. Unlike {@link msgRenderableSelectShaderProgram()}, the shader program is
+     * not selected, and the selection state of the {@code GraphicsManager} class is neither
+     * read nor altered. The same caveat regarding renderables assigned to the UI applies
+     * to this message.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the shader program upon success (or -1 if the renderable is not assigned to a
+     * shader program), or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgRenderableGetShaderProgram(int renderable) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_GET_SHADER_PROGRAM_BY_HANDLE, renderable));
+    }
+    
     /**
      * Copies the currently selected renderable.<p>
      * 
@@ -3045,6 +5548,45 @@ public final class GraphicsEngine {
         return enqueueMessage(new Message(Message.Type.RENDERABLE_COPY));
     }
     
+    /**
+     * Copies the given renderable.<p>
+     * 
+     * This instantiates a new renderable to which the mesh reference is copied from the
+     * given renderable's mesh reference, and similarly for the texture references. The new
+     * renderable is also assigned to the same shader program as the old renderable, but is
+     * not selected. The only things that are not copied are the instance affine
+     * transformations of the renderable, as the caller of this message will likely wish to
+     * set the instance number and transforms themselves.<p>
+     * 
+     * Users must be careful when invoking this message on renderables assigned to the UI
+     * via {@link msgUIAssignRenderable()}, as a renderable that is part of the UI will
+     * <i>not</i> copy the UI shader program to the new instance. In other words,
+     * renderables within the UI system will be treated by this message as if they are not
+     * currently assigned to any shader program at all.<p>
+     * 
+     * This message is identical to {@link #msgRenderableCopy()}, except that the renderable
+     * is identified by its unique id rather than by the current selection; the selection
+     * state of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return a {@link CompletableFuture} object that completes with the unique id value
+     * of the new renderable upon success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgRenderableCopy(int renderable) {
+        return enqueueMessage(new Message(Message.Type.RENDERABLE_COPY_BY_HANDLE, renderable));
+    }
+    
     /**
      * Gets the unique integer id of the currently selected renderable.<p>
      * 
@@ -3097,6 +5639,44 @@ public final class GraphicsEngine {
         return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_ASSIGN_RENDERABLE));
     }
     
+    /**
+     * Assigns the given renderable to the given shader program. This puts the renderable
+     * into an internal rendering map, through which all rendering operations are done, with
+     * the shader program as the key. Due to the use of sets as the map values, multiple
+     * renderables can be assigned to a shader program.<p>
+     * 
+     * This method automatically unassigns the renderable from it's previous shader
+     * program, if any. Any textures that are not of a compatible type with the new shader
+     * program will be automatically detached from the renderable upon rendering.
+     * Furthermore, this message automatically unassigns the renderable from the UI system
+     * if needed.<p>
+     * 
+     * This message is identical to {@link #msgShaderProgramAssignRenderable()}, except that
+     * the shader program and renderable are identified by their unique ids rather than by
+     * the current selection; the selection state of the {@code GraphicsManager} class is
+     * neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param program the unique id of the shader program
+     * @param renderable the unique id of the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     *  <li>there is no shader program with the id {@code program}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramAssignRenderable(int program, int renderable) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_ASSIGN_RENDERABLE_BY_HANDLE, program, renderable));
+    }
+    
     /**
      * Unassigns the currently selected renderable from it's current assigned shader
      * program, if it has one. This does not unassign the renderable from the UI system;
@@ -3120,6 +5700,35 @@ public final class GraphicsEngine {
         return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_UNASSIGN_RENDERABLE));
     }
     
+    /**
+     * Unassigns the given renderable from it's current assigned shader program, if it has
+     * one. This does not unassign the renderable from the UI system; use
+     * {@link msgUIUnassignRenderable()} for that.<p>
+     * 
+     * This message is identical to {@link #msgShaderProgramUnassignRenderable()}, except
+     * that the renderable is identified by its unique id rather than by the current
+     * selection; the selection state of the {@code GraphicsManager} class is neither read
+     * nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgShaderProgramUnassignRenderable(int renderable) {
+        return enqueueMessage(new Message(Message.Type.SHADER_PROGRAM_UNASSIGN_RENDERABLE_BY_HANDLE, renderable));
+    }
+    
     /**
      * Enables rendering of the UI.<p>
      * 
@@ -3188,6 +5797,44 @@ public final class GraphicsEngine {
         return enqueueMessage(new Message(Message.Type.UI_ASSIGN_RENDERABLE));
     }
     
+    /**
+     * Assigns the given renderable to the UI system of the graphics engine. This puts the
+     * renderable into an internal set, which will be rendered towards the end of the
+     * rendering cycle using the default UI shader. The depth bit buffer is cleared directly
+     * prior to the rendering of the UI, so any renderable assigned to the UI is always
+     * drawn over the top of the scene; for this reason, usage of this message is preferred
+     * over using {@link msgShaderProgramAssignRenderable()} with the default UI shader.<p>
+     * 
+     * This method automatically unassigns the renderable from it's previous shader program,
+     * if any. Any textures that are not of a compatible type with the UI shader program
+     * will be automatically detached from the renderable upon rendering. Furthermore, the
+     * renderable will not indicate that it is assigned to a shader program (as if it is not
+     * assigned at all); therefore, usage of messages such as {@link msgRenderableCopy()} or
+     * {@link msgRenderableSelectShaderProgram()} should be made with caution.<p>
+     * 
+     * This message is identical to {@link #msgUIAssignRenderable()}, except that the
+     * renderable is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgUIAssignRenderable(int renderable) {
+        return enqueueMessage(new Message(Message.Type.UI_ASSIGN_RENDERABLE_BY_HANDLE, renderable));
+    }
+    
     /**
      * Unassigns the currently selected renderable from the UI system, if it is currently
      * assigned to the UI.<p>
@@ -3209,4 +5856,98 @@ public final class GraphicsEngine {
     public static CompletableFuture<Integer> msgUIUnassignRenderable() {
         return enqueueMessage(new Message(Message.Type.UI_UNASSIGN_RENDERABLE));
     }
+    
+    /**
+     * Unassigns the given renderable from the UI system, if it is currently assigned to the
+     * UI.<p>
+     * 
+     * This message is identical to {@link #msgUIUnassignRenderable()}, except that the
+     * renderable is identified by its unique id rather than by the current selection; the
+     * selection state of the {@code GraphicsManager} class is neither read nor altered.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param renderable the unique id of the renderable
+     * @return a {@link CompletableFuture} object that completes with a value of 0
+     * on success, or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>there is no renderable with the id {@code renderable}</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgUIUnassignRenderable(int renderable) {
+        return enqueueMessage(new Message(Message.Type.UI_UNASSIGN_RENDERABLE_BY_HANDLE, renderable));
+    }
+    
+    /**
+     * Submits the commands recorded in the given {@link CommandBatch}. The batch is
+     * submitted as a single message, and its commands are replayed in order by the
+     * graphics thread in a single pass, without any other messages between them; the
+     * caller does not need to hold {@link MESSAGE_LOCK} to guarantee this.<p>
+     * 
+     * A snapshot of the batch is taken upon submission, so the batch may be cleared or
+     * recorded into further afterwards without affecting the submitted commands.<p>
+     * 
+     * Note that this method communicates with the graphics thread, so it may have to
+     * wait for space in the message queue. In addition, the returned
+     * {@link CompletableFuture} should not be completed outside of the graphics thread.
+     * 
+     * @param batch the batch of commands to submit
+     * @return a {@link CompletableFuture} object that completes with the result of the
+     * command marked with {@link CommandBatch#markResult()} on success (or 0 if no
+     * command was marked), or is cancelled if:
+     * <ul>
+     *  <li>the thread experienced an {@link InterruptedException} while
+     * waiting for space in the message queue</li>
+     *  <li>any of the commands in the batch failed; commands after the failed command
+     * are not replayed</li>
+     * </ul>
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static CompletableFuture<Integer> msgBatch(CommandBatch batch) {
+        return enqueueMessage(batch.toMessage());
+    }
+    
+    /**
+     * Attempts to submit the commands recorded in the given {@link CommandBatch}. This is
+     * identical to {@link #msgBatch(CommandBatch)}, except that it never waits for space
+     * in the message queue; if the queue is full, the batch is not submitted and
+     * {@code null} is returned instead. As a batch can record any {@code msg*} command,
+     * this can be used as the non-blocking form of any of them, so that a caller can
+     * drop or defer updates under load rather than stall.
+     * 
+     * @param batch the batch of commands to submit
+     * @return a {@link CompletableFuture} object as for {@link #msgBatch(CommandBatch)},
+     * or {@code null} if the message queue was full
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static @Nullable CompletableFuture<Integer> tryMsgBatch(CommandBatch batch) {
+        return tryEnqueueMessage(batch.toMessage(), 0, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Attempts to submit the commands recorded in the given {@link CommandBatch}, waiting
+     * up to the given time for space in the message queue. This is identical to
+     * {@link #msgBatch(CommandBatch)}, except that if the timeout elapses (or the thread
+     * is interrupted) before space becomes available, the batch is not submitted and
+     * {@code null} is returned instead.
+     * 
+     * @param batch the batch of commands to submit
+     * @param timeout the maximum time to wait for space in the message queue
+     * @param unit the unit of {@code timeout}
+     * @return a {@link CompletableFuture} object as for {@link #msgBatch(CommandBatch)},
+     * or {@code null} if the batch could not be submitted in time
+     * @throws IllegalStateException if the manager has not been initialized, i.e. the
+     * {@link STATUS_INITIALIZED} status flag is not set
+     */
+    public static @Nullable CompletableFuture<Integer> tryMsgBatch(CommandBatch batch, long timeout, TimeUnit unit) {
+        return tryEnqueueMessage(batch.toMessage(), timeout, unit);
+    }
 }
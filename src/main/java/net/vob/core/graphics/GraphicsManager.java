@@ -1,6 +1,6 @@
 package net.vob.core.graphics;
 
-import com.google.common.collect.Sets;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.FloatBuffer;
 import java.time.Duration;
@@ -10,9 +10,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -20,20 +22,22 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import net.vob.VoidOfBlue;
+import net.vob.util.RollingHistogram;
 import net.vob.util.logging.Level;
 import net.vob.util.logging.LocaleUtils;
 import net.vob.util.math.AffineTransformation;
 import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.BoundingVolumeHierarchy;
+import net.vob.util.math.Frustum;
 import net.vob.util.math.Matrix;
 import org.lwjgl.BufferUtils;
-import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
 import org.lwjgl.opengl.GL32;
-import org.lwjgl.opengl.GL33;
 import org.lwjgl.opengl.GL43;
 import org.lwjgl.opengl.GLDebugMessageCallback;
 
@@ -53,6 +57,8 @@ final class GraphicsManager {
     
     /** The static, global SSBO containing 4 bytes, with all set to 0. */
     static int SHADER_STORAGE_BUFFER_OBJECT_ZERO;
+    /** The static, global UBO containing the camera matrices of the frame being rendered. */
+    static int FRAME_UNIFORM_BUFFER_OBJECT;
     
     /** The index for the position attribute of vertices as stored in an array buffer object. */
     static final int SHADER_ATTRIBUTE_POSITION_INDEX = 0;
@@ -64,6 +70,8 @@ final class GraphicsManager {
     static final int SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX = 8;
     /** The index for the projection/view/model matrix attribute of instances as stored in an array buffer object. */
     static final int SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX = 12;
+    /** The index for the affine model matrix attribute of compact instances as stored in an array buffer object. */
+    static final int SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_INDEX = 8;
     
     /** The string variable name shaders must use for referencing the position attribute of vertices. */
     static final String SHADER_ATTRIBUTE_POSITION_NAME = "in_Position";
@@ -75,6 +83,8 @@ final class GraphicsManager {
     static final String SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_NAME = "instance_ModelMatrix";
     /** The string variable name shaders must use for referencing the projection/view/model matrix attribute of instances. */
     static final String SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_NAME = "instance_ProjectionViewModelMatrix";
+    /** The string variable name shaders must use for referencing the affine model matrix attribute of compact instances. */
+    static final String SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_NAME = "instance_AffineModelMatrix";
     
     /** The string variable name shaders must use for referencing the window size vector uniform variable. */
     static final String SHADER_UNIFORM_WINDOW_SIZE_NAME = "windowSize";
@@ -86,6 +96,10 @@ final class GraphicsManager {
     static final String SHADER_UNIFORM_SKELETON_WEIGHTS_NAME = "weightSSBO";
     /** The string name shaders must use for referencing the SSBO struct containing the affine transformations of skeletons. */
     static final String SHADER_UNIFORM_SKELETON_TRANSFORMS_NAME = "skeletonSSBO";
+    /** The string name shaders must use for referencing the UBO struct containing the camera matrices of the frame. */
+    static final String SHADER_UNIFORM_FRAME_BLOCK_NAME = "frameUBO";
+    /** The uniform buffer binding point that the UBO containing the camera matrices of the frame is bound to. */
+    static final int SHADER_UNIFORM_FRAME_BLOCK_BINDING = 0;
     
     /** The minor version number of the OpenGL API supported in the current execution environment. */
     static int MINOR_GL_VERSION_NUMBER;
@@ -133,6 +147,18 @@ final class GraphicsManager {
     static final int INSTANCE_PROJECTION_VIEW_MODEL_MATRIX_OFFSET = INSTANCE_MODEL_MATRIX_OFFSET + (16 * Float.BYTES);
     /** The total stride of a mesh instance, in bytes. */
     static final int INSTANCE_STRIDE = INSTANCE_PROJECTION_VIEW_MODEL_MATRIX_OFFSET + (16 * Float.BYTES);
+    /** The offset of the affine model matrix attribute of a compact mesh instance, in bytes. */
+    static final int COMPACT_INSTANCE_AFFINE_MODEL_MATRIX_OFFSET = 0;
+    /** The total stride of a compact mesh instance, in bytes. */
+    static final int COMPACT_INSTANCE_STRIDE = COMPACT_INSTANCE_AFFINE_MODEL_MATRIX_OFFSET + (12 * Float.BYTES);
+    /** The number of floating-point values in the frame UBO. */
+    static final int FRAME_BLOCK_SIZE = 3 * 16;
+    /** The number of most recent frames held by each frame time histogram. */
+    static final int FRAME_HISTOGRAM_WINDOW = 240;
+    /** The number of buckets of each frame time histogram. */
+    static final int FRAME_HISTOGRAM_BUCKETS = 50;
+    /** The width of each bucket of each frame time histogram, in milliseconds. */
+    static final double FRAME_HISTOGRAM_BUCKET_WIDTH = 0.5;
     
     /** Status flag for if the graphical thread has completed initialization. */
     static final int STATUS_INITIALIZED = 1;
@@ -150,15 +176,65 @@ final class GraphicsManager {
      */
     private static final ScheduledExecutorService THREAD = Executors.newSingleThreadScheduledExecutor((r) -> new Thread(r, "Graphics"));
     /**
-     * The {@link Future} for the graphical loop. This can be cancelled when it is time for
-     * the loop to be terminated.
+     * The {@link Future} for the next invocation of the graphical loop. Each invocation
+     * schedules the next, with the delay given by {@link PACER}; this can be cancelled
+     * when it is time for the loop to be terminated.
      */
-    private static Future<?> LOOP_FUTURE;
+    private static volatile Future<?> LOOP_FUTURE;
+    /** Whether the graphical loop has been terminated, and should not be scheduled again. */
+    private static volatile boolean LOOP_CLOSED = false;
+    /** The {@link FramePacer} that decides when each invocation of the graphical loop starts. */
+    static final FramePacer PACER = new FramePacer(TimeUnit.MILLISECONDS.toNanos(16));
     /**
-     * The {@link BlockingQueue} messaging queue for the graphical thread. This is used for
-     * inter-thread communication using {@link Message} instances.
+     * The {@link GLBackend} that all GL calls are made through. This is the
+     * {@link LWJGLBackend} by default, and is only replaced before the graphical thread
+     * is started, by {@link GraphicsEngine#initHeadless}.
      */
-    static final BlockingQueue<Message> MESSAGE_QUEUE = new LinkedBlockingQueue<>(100);
+    static GLBackend BACKEND = new LWJGLBackend();
+    /**
+     * The {@link GLFramebuffer} that frames are rendered into when the engine is in
+     * offscreen mode, or {@code null} if frames are rendered to the window.
+     */
+    private static GLFramebuffer OFFSCREEN_TARGET = null;
+    /**
+     * The pending requests for a readback of the next frame rendered in offscreen mode.
+     */
+    static final Queue<CompletableFuture<BufferedImage>> CAPTURE_REQUESTS = new ConcurrentLinkedQueue<>();
+    /**
+     * The {@link MessageRingBuffer} messaging queue for the graphical thread. This is used
+     * for inter-thread communication using {@link Message} instances. Producers insert
+     * into this queue without any global lock, and the graphical thread is the single
+     * consumer.
+     */
+    static final MessageRingBuffer MESSAGE_QUEUE = new MessageRingBuffer(128);
+    /**
+     * The {@link MessagePool} of posted messages. Messages are released back into this
+     * pool after being handled by the graphical thread. Each posting thread may have a
+     * full queue of messages in flight, along with a full queue just drained by the
+     * graphical thread, so each free list retains several queues' worth of messages.
+     */
+    static final MessagePool MESSAGE_POOL = new MessagePool(512);
+    /**
+     * The list that messages are drained into from the messaging queue. This is reused
+     * every loop, to avoid allocating a new list for each frame; messages deferred by
+     * the message time budget remain at the front of the list for the next loop.
+     */
+    private static final List<Message> DRAINED_MESSAGES = new ArrayList<>(128);
+    /**
+     * The time budget for handling messages in a single loop, in nanoseconds, or 0 if
+     * the budget is unlimited.
+     */
+    static volatile long MESSAGE_BUDGET_NANOS = 0;
+    /**
+     * The number of messages deferred to the next loop by the message time budget at the
+     * end of the last loop.
+     */
+    static volatile int DEFERRED_MESSAGES = 0;
+    /**
+     * The {@link MessageRecorder} that every handled message is recorded to, or
+     * {@code null} if messages are not being recorded.
+     */
+    static volatile MessageRecorder RECORDER = null;
     
     /**
      * The {@link AffineTransformation} corresponding to the camera position in world space.
@@ -167,6 +243,46 @@ final class GraphicsManager {
     static Matrix VIEW_MATRIX = Matrix.identity(4);
     static Matrix PROJ_VIEW_MATRIX = Matrix.identity(4);
     
+    /**
+     * The {@link Frustum} extracted from {@link PROJ_VIEW_MATRIX}, which renderable
+     * instances are culled against.
+     */
+    static final Frustum FRUSTUM = new Frustum();
+    /** Whether instances outside of the view frustum are culled. */
+    static volatile boolean FRUSTUM_CULLING = true;
+    /**
+     * Whether the instances of renderables drawn in the compact layout are culled on the
+     * GPU by {@link INSTANCE_CULLER}, rather than on the CPU. Only has an effect if
+     * {@link FRUSTUM_CULLING} is also set.
+     */
+    static volatile boolean GPU_CULLING = false;
+    
+    /**
+     * The spatial index over the world-space bounds of every instance of every
+     * renderable in the rendering map. The bounds of each instance are enlarged by
+     * {@link INSTANCE_INDEX_MARGIN}, so that small movements do not restructure the index.
+     */
+    static final double INSTANCE_INDEX_MARGIN = 0.1;
+    static final BoundingVolumeHierarchy<GLRenderable.Instance> INSTANCE_INDEX = new BoundingVolumeHierarchy<>(INSTANCE_INDEX_MARGIN);
+    /**
+     * The number of the current loop, starting from 1. This is used to tag objects as
+     * being processed in a specific loop without having to clear the tags every loop.
+     */
+    static int LOOP_NUMBER = 0;
+    
+    /**
+     * The number of worker threads of {@link PIPELINE}. By default, one processor is
+     * left out of the pool, as the graphical thread submits frames concurrently with it.
+     */
+    static volatile int PREPARE_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    /** The {@link FramePipeline} that frames are prepared in. */
+    private static final FramePipeline PIPELINE = new FramePipeline(PREPARE_PARALLELISM);
+    /**
+     * Whether the preparation of each frame overlaps the submission of the previous
+     * frame. If not, each frame is prepared and submitted within the same loop.
+     */
+    static volatile boolean PIPELINED = true;
+    
     /**
      * The {@link CountDownLatch} used to make the {@link GraphicsEngine} await the
      * initialization of the graphics thread before continuing.
@@ -174,18 +290,76 @@ final class GraphicsManager {
     static final CountDownLatch INIT_LATCH = new CountDownLatch(1);
     
     /**
-     * The core rendering map. This maps shader programs to a set of renderables, and is
-     * where all render operations originate. If for any reason a mapping between a shader
-     * program and a renderable becomes invalid, then the mapping will be removed
+     * The core rendering map. This maps shader programs to a {@link RenderQueue} of
+     * renderables, and is where all render operations originate. If for any reason a
+     * mapping between a shader program and a renderable becomes invalid, then the mapping
+     * will be removed
      */
-    private static final Map<GLShaderProgram, Set<GLRenderable>> RENDERING_MAP = new HashMap<>();
+    private static final Map<GLShaderProgram, RenderQueue> RENDERING_MAP = new HashMap<>();
     private static byte STATUS = 0;
     static double DELTA_TIME = 0;
     private static Instant LOOP_TIMER;
     
-    static final Set<GLRenderable> UI_RENDERABLES = new HashSet<>();
+    static final RenderQueue UI_RENDERABLES = new RenderQueue();
+    
+    /**
+     * The batch that runs of batchable renderables are collected into, and drawn with a
+     * single multi-draw call.
+     */
+    private static GLMultiDrawBatch MULTI_DRAW_BATCH;
+    /** The ring buffer that the instances of every renderable are streamed through. */
+    static GLInstanceRing INSTANCE_RING;
+    /** The arena holding the instances of renderables that stay resident on the GPU. */
+    static GLInstanceArena INSTANCE_ARENA;
+    /** The culler of the instances of renderables that are culled on the GPU. */
+    static GLInstanceCuller INSTANCE_CULLER;
+    /** The last generation handed out by {@link nextInstanceBufferGeneration()}. */
+    private static int INSTANCE_BUFFER_GENERATION = 0;
+    /** The timer measuring the GPU time of each frame. */
+    private static GLFrameTimer FRAME_TIMER;
+    /** The buffer the camera matrices are written to before being buffered into the frame UBO. */
+    private static final FloatBuffer FRAME_BLOCK_BUFFER = BufferUtils.createFloatBuffer(FRAME_BLOCK_SIZE);
+    /** Whether batchable renderables are drawn with multi-draw calls. */
+    static volatile boolean MULTI_DRAW = true;
     static GLSkybox SKYBOX;
     
+    /** The mesh whose VAO is currently bound while rendering, or {@code null}. */
+    private static GLMesh BOUND_MESH = null;
+    /** The textures currently bound to each texture unit while rendering. */
+    private static GLTexture[] BOUND_TEXTURES;
+    /** The skeleton currently bound while rendering, or {@code null} for the empty skeleton. */
+    private static GLSkeleton BOUND_SKELETON = null;
+    /** Whether the VAO of {@link MULTI_DRAW_BATCH} is currently bound while rendering. */
+    private static boolean BATCH_BOUND = false;
+    /** Whether any skeleton (including the empty skeleton) is currently bound while rendering. */
+    private static boolean SKELETON_BOUND = false;
+    /** The number of program, VAO, texture and skeleton binds made so far this loop. */
+    private static int BINDS = 0;
+    /** The number of binds skipped so far this loop, as the object was already bound. */
+    private static int BINDS_SKIPPED = 0;
+    /** The number of binds made during the last loop. */
+    static volatile int LAST_LOOP_BINDS = 0;
+    /** The number of binds skipped during the last loop. */
+    static volatile int LAST_LOOP_BINDS_SKIPPED = 0;
+    /** The number of instances rendered during the last loop. */
+    static volatile int LAST_LOOP_INSTANCES_VISIBLE = 0;
+    /** The number of instances culled during the last loop. */
+    static volatile int LAST_LOOP_INSTANCES_CULLED = 0;
+    /** The time taken to prepare the frame submitted during the last loop, in nanoseconds. */
+    static volatile long LAST_LOOP_PREPARE_NANOS = 0;
+    /** The CPU time of the last loop, up to presenting its frame, in nanoseconds. */
+    static volatile long LAST_LOOP_CPU_NANOS = 0;
+    /** The GPU time of the most recent frame measured, in nanoseconds. */
+    static volatile long LAST_LOOP_GPU_NANOS = 0;
+    /** The profile of the most recent frame measured, or {@code null}. */
+    static volatile FrameProfile LAST_FRAME_PROFILE = null;
+    /**
+     * The rolling histograms of the CPU and GPU times of each pass, and of the whole
+     * frame under {@link FrameProfile#FRAME}, over the most recent frames measured.
+     * Each value holds the CPU histogram, followed by the GPU histogram.
+     */
+    static final Map<String, RollingHistogram[]> FRAME_HISTOGRAMS = new ConcurrentHashMap<>();
+    
     static GLRenderable SELECTED_RENDERABLE = null;
     static GLMesh SELECTED_MESH = null;
     static GLShader SELECTED_SHADER = null;
@@ -198,12 +372,14 @@ final class GraphicsManager {
     /**
      * Initializes the manager. This means initializing the graphical thread, and scheduling
      * the main rendering loop.
-     * @param loopPeriod the minimum amount of time between invocations of the graphical loop,
-     * in milliseconds
+     * @param loopPeriod the target amount of time between invocations of the graphical loop,
+     * in milliseconds, while the loop is paced to a target frame rate
      */
     static void init(long loopPeriod) {
+        PACER.setTargetPeriod(TimeUnit.MILLISECONDS.toNanos(loopPeriod));
+        
         THREAD.schedule(GraphicsManager::threadInitCallback, 0, TimeUnit.MILLISECONDS);
-        LOOP_FUTURE = THREAD.scheduleAtFixedRate(GraphicsManager::threadLoopCallback, 0, loopPeriod, TimeUnit.MILLISECONDS);
+        scheduleLoop(0);
     }
     
     /**
@@ -211,10 +387,29 @@ final class GraphicsManager {
      * any finishing operations.
      */
     static void close() {
-        LOOP_FUTURE.cancel(false);
+        LOOP_CLOSED = true;
+        
+        Future<?> future = LOOP_FUTURE;
+        if (future != null)
+            future.cancel(false);
+        
         THREAD.schedule(GraphicsManager::threadFinishCallback, 0, TimeUnit.MILLISECONDS);
     }
     
+    /**
+     * Schedules the next invocation of the graphical loop, unless the loop has been
+     * terminated. If the loop is terminated concurrently, either this method or
+     * {@link close()} sees the other, and the invocation is cancelled.
+     * @param delay the delay to schedule the invocation with, in nanoseconds
+     */
+    private static void scheduleLoop(long delay) {
+        Future<?> future = THREAD.schedule(GraphicsManager::threadLoopCallback, delay, TimeUnit.NANOSECONDS);
+        LOOP_FUTURE = future;
+        
+        if (LOOP_CLOSED)
+            future.cancel(false);
+    }
+    
     /**
      * Applies a render mapping between the given program and the given renderable. This
      * places the given renderable within {@link RENDERING_MAP} using the program as the
@@ -228,10 +423,9 @@ final class GraphicsManager {
      */
     static void applyRenderingMap(GLShaderProgram program, GLRenderable renderable) {
         if (program != null) {
-            if (RENDERING_MAP.containsKey(program))
-                RENDERING_MAP.get(program).add(renderable);
-            else
-                RENDERING_MAP.put(program, Sets.newHashSet(renderable));
+            if (!RENDERING_MAP.containsKey(program))
+                RENDERING_MAP.put(program, new RenderQueue());
+            RENDERING_MAP.get(program).add(renderable);
         }
         
         renderable.program = program;
@@ -246,16 +440,16 @@ final class GraphicsManager {
      * {@link RENDERING_MAP} already.
      * 
      * @param program the {@link GLShaderProgram} to use as the new key
-     * @param renderable the set of {@link GLRenderable} instances to use as the new
-     * values
+     * @param renderable the {@link RenderQueue} of {@link GLRenderable} instances to use
+     * as the new values
      */
-    static void applyRenderingMap(GLShaderProgram program, Set<GLRenderable> renderables) {
+    static void applyRenderingMap(GLShaderProgram program, RenderQueue renderables) {
+        renderables.forEach((renderable) -> renderable.program = program);
+        
         if (RENDERING_MAP.containsKey(program))
             RENDERING_MAP.get(program).addAll(renderables);
         else
             RENDERING_MAP.put(program, renderables);
-        
-        renderables.forEach((renderable) -> renderable.program = program);
     }
     
     /**
@@ -276,6 +470,90 @@ final class GraphicsManager {
         }
     }
     
+    /**
+     * Binds the VAO of the given mesh, unless it is already bound.
+     * @param mesh the mesh to bind
+     */
+    static void bindMesh(GLMesh mesh) {
+        if (BOUND_MESH == mesh) {
+            ++BINDS_SKIPPED;
+            return;
+        }
+        
+        mesh.bind();
+        BOUND_MESH = mesh;
+        BATCH_BOUND = false;
+        ++BINDS;
+    }
+    
+    /**
+     * Binds the VAO of the given multi-draw batch, unless it is already bound. Any mesh
+     * bound through {@link bindMesh(GLMesh)} is no longer bound afterwards.
+     * 
+     * @param batch the batch to bind
+     */
+    static void bindBatch(GLMultiDrawBatch batch) {
+        if (BATCH_BOUND) {
+            ++BINDS_SKIPPED;
+            return;
+        }
+        
+        batch.bind();
+        BOUND_MESH = null;
+        BATCH_BOUND = true;
+        ++BINDS;
+    }
+    
+    /**
+     * Binds the given texture to the given texture unit, unless it is already bound
+     * there. If the texture is {@code null}, the texture currently bound to the unit is
+     * unbound instead.
+     * 
+     * @param unit the texture unit, starting from 0
+     * @param texture the texture to bind, or {@code null}
+     */
+    static void bindTexture(int unit, GLTexture texture) {
+        GLTexture bound = BOUND_TEXTURES[unit];
+        
+        if (bound == texture) {
+            if (texture != null)
+                ++BINDS_SKIPPED;
+            return;
+        }
+        
+        // Textures of a different type use a different binding target, so the previous
+        // texture must be unbound explicitly
+        if (bound != null && (texture == null || bound.getClass() != texture.getClass()))
+            bound.unbind();
+        if (texture != null) {
+            texture.bind();
+            ++BINDS;
+        }
+        
+        BOUND_TEXTURES[unit] = texture;
+    }
+    
+    /**
+     * Binds the given skeleton to the given program, unless it is already bound. If the
+     * skeleton is {@code null}, the empty skeleton is bound instead.
+     * 
+     * @param program the currently bound program
+     * @param skeleton the skeleton to bind, or {@code null}
+     */
+    static void bindSkeleton(GLShaderProgram program, GLSkeleton skeleton) {
+        if (SKELETON_BOUND && BOUND_SKELETON == skeleton) {
+            ++BINDS_SKIPPED;
+            return;
+        }
+        
+        if (skeleton != null) skeleton.bind(program);
+        else                  GLSkeleton.bindEmpty(program);
+        
+        BOUND_SKELETON = skeleton;
+        SKELETON_BOUND = true;
+        ++BINDS;
+    }
+    
     static void setStatus(int code) {
         STATUS |= code;
     }
@@ -289,44 +567,186 @@ final class GraphicsManager {
     }
     
     static void handleMessage(Message message) {
+        MessageRecorder recorder = RECORDER;
+        
+        if (recorder != null) {
+            try {
+                recorder.record(message);
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "GraphicsManager.handleMessage.RecordFailed", e);
+                RECORDER = null;
+                
+                try {
+                    recorder.close();
+                } catch (IOException e2) {
+                    e.addSuppressed(e2);
+                }
+            }
+        }
+        
         try {
             message.handle();
         } catch (Throwable t) {
             LOG.log(Level.FINER, "GraphicsManager.threadLoopCallback.MessageException", t);
-            message.future.cancel(false);
+            message.complete(null);
+        } finally {
+            MESSAGE_POOL.release(message);
         }
     }
     
+    /**
+     * Handles the drained messages, in order. Cheap messages are always handled;
+     * however, once the message time budget for this loop has been used up, handling
+     * stops at the next expensive message, and it and every message after it are
+     * deferred to the next loop. Messages are never reordered, as later messages may
+     * depend on the selection state left by earlier ones. At least one expensive message
+     * is handled per loop, so that a single message over the budget cannot stall the
+     * queue.
+     * 
+     * @param messages the drained messages; on return, this holds only the deferred
+     * messages, in order
+     */
+    static void handleDrainedMessages(List<Message> messages) {
+        if (MessageCoalescer.isEnabled())
+            MessageCoalescer.coalesce(messages);
+        
+        long budget = MESSAGE_BUDGET_NANOS;
+        long deadline = System.nanoTime() + budget;
+        boolean handledExpensive = false;
+        
+        int size = messages.size();
+        int i = 0;
+        
+        for (; i < size; ++i) {
+            Message message = messages.get(i);
+            if (message == null)
+                continue;
+            
+            if (message.isExpensive()) {
+                if (budget > 0 && handledExpensive && System.nanoTime() - deadline >= 0)
+                    break;
+                
+                handledExpensive = true;
+            }
+            
+            handleMessage(message);
+        }
+        
+        // Shift the deferred messages to the front of the list, dropping the slots of
+        // any messages collapsed by the coalescer
+        int deferred = 0;
+        
+        for (; i < size; ++i) {
+            Message message = messages.get(i);
+            if (message != null)
+                messages.set(deferred++, message);
+        }
+        for (int j = size - 1; j >= deferred; --j)
+            messages.remove(j);
+        
+        DEFERRED_MESSAGES = deferred;
+    }
+    
+    /**
+     * Gets a new generation for an instance buffer that has just been allocated. The
+     * GL may hand out the name of a deleted buffer again, so VAOs record the generation
+     * of the instance buffer they point at alongside its name; generations are shared by
+     * every instance buffer, and so are never repeated, even across buffers.
+     * @return the generation
+     */
+    static int nextInstanceBufferGeneration() {
+        return ++INSTANCE_BUFFER_GENERATION;
+    }
+    
     static FloatBuffer getInstanceMatrixBuffer(int size) {
         return BufferUtils.createFloatBuffer(32 * size);
     }
     
+    /**
+     * Gets the stride of a mesh instance in the given layout.
+     * @param compact {@code true} for the compact layout, holding only the affine model
+     * matrix, or {@code false} for the full layout, holding the model and
+     * projection/view/model matrices
+     * @return the stride, in bytes
+     */
+    static int getInstanceStride(boolean compact) {
+        return compact ? COMPACT_INSTANCE_STRIDE : INSTANCE_STRIDE;
+    }
+    
+    /**
+     * Points the instance attributes of the currently bound VAO at the given instance
+     * buffer, in the given layout. The instances of the compact layout are the top 3
+     * rows of the model matrix, bound as a {@code mat3x4} attribute; the bottom row of
+     * an affine matrix is always {@code (0, 0, 0, 1)}.
+     * @param ivbo the instance vertex buffer object
+     * @param compact {@code true} for the compact layout, {@code false} for the full
+     * layout
+     */
+    static void pointInstanceAttributes(int ivbo, boolean compact) {
+        BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, ivbo);
+        
+        if (compact) {
+            for (int i = 0; i < 3; ++i) {
+                BACKEND.glVertexAttribPointer(SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_INDEX + i, 4, GL11.GL_FLOAT, false,
+                                              COMPACT_INSTANCE_STRIDE, COMPACT_INSTANCE_AFFINE_MODEL_MATRIX_OFFSET + (4 * i * Float.BYTES));
+                BACKEND.glVertexAttribDivisor(SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_INDEX + i, 1);
+            }
+        } else {
+            vertexAttribPointerMatrix(SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, 4, false, INSTANCE_STRIDE, INSTANCE_MODEL_MATRIX_OFFSET);
+            vertexAttribPointerMatrix(SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX, 4, false, INSTANCE_STRIDE, INSTANCE_PROJECTION_VIEW_MODEL_MATRIX_OFFSET);
+            vertexAttribDivisorMatrix(SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX, 1);
+            vertexAttribDivisorMatrix(SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX, 1);
+        }
+        
+        BACKEND.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+    
+    static void enableInstanceAttributes(boolean compact) {
+        if (compact) {
+            for (int i = 0; i < 3; ++i)
+                BACKEND.glEnableVertexAttribArray(SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_INDEX + i);
+        } else {
+            enableVertexAttribArrayMatrix(SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX);
+            enableVertexAttribArrayMatrix(SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX);
+        }
+    }
+    
+    static void disableInstanceAttributes(boolean compact) {
+        if (compact) {
+            for (int i = 0; i < 3; ++i)
+                BACKEND.glDisableVertexAttribArray(SHADER_INSTANCE_ATTRIBUTE_AFFINE_MODEL_MATRIX_INDEX + i);
+        } else {
+            disableVertexAttribArrayMatrix(SHADER_INSTANCE_ATTRIBUTE_MODEL_MATRIX_INDEX);
+            disableVertexAttribArrayMatrix(SHADER_INSTANCE_ATTRIBUTE_PROJECTION_VIEW_MODEL_MATRIX_INDEX);
+        }
+    }
+    
     static void vertexAttribPointerMatrix(int baseindex, int rowsize, boolean normalized, int stride, int baseoffset) {
-        GL20.glVertexAttribPointer(baseindex, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset);
-        GL20.glVertexAttribPointer(baseindex+1, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset + (rowsize * Float.BYTES));
-        GL20.glVertexAttribPointer(baseindex+2, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset + (2 * rowsize * Float.BYTES));
-        GL20.glVertexAttribPointer(baseindex+3, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset + (3 * rowsize * Float.BYTES));
+        BACKEND.glVertexAttribPointer(baseindex, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset);
+        BACKEND.glVertexAttribPointer(baseindex+1, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset + (rowsize * Float.BYTES));
+        BACKEND.glVertexAttribPointer(baseindex+2, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset + (2 * rowsize * Float.BYTES));
+        BACKEND.glVertexAttribPointer(baseindex+3, rowsize, GL11.GL_FLOAT, normalized, stride, baseoffset + (3 * rowsize * Float.BYTES));
     }
     
     static void vertexAttribDivisorMatrix(int baseindex, int divisor) {
-        GL33.glVertexAttribDivisor(baseindex, divisor);
-        GL33.glVertexAttribDivisor(baseindex+1, divisor);
-        GL33.glVertexAttribDivisor(baseindex+2, divisor);
-        GL33.glVertexAttribDivisor(baseindex+3, divisor);
+        BACKEND.glVertexAttribDivisor(baseindex, divisor);
+        BACKEND.glVertexAttribDivisor(baseindex+1, divisor);
+        BACKEND.glVertexAttribDivisor(baseindex+2, divisor);
+        BACKEND.glVertexAttribDivisor(baseindex+3, divisor);
     }
     
     static void enableVertexAttribArrayMatrix(int baseindex) {
-        GL20.glEnableVertexAttribArray(baseindex);
-        GL20.glEnableVertexAttribArray(baseindex+1);
-        GL20.glEnableVertexAttribArray(baseindex+2);
-        GL20.glEnableVertexAttribArray(baseindex+3);
+        BACKEND.glEnableVertexAttribArray(baseindex);
+        BACKEND.glEnableVertexAttribArray(baseindex+1);
+        BACKEND.glEnableVertexAttribArray(baseindex+2);
+        BACKEND.glEnableVertexAttribArray(baseindex+3);
     }
     
     static void disableVertexAttribArrayMatrix(int baseindex) {
-        GL20.glDisableVertexAttribArray(baseindex);
-        GL20.glDisableVertexAttribArray(baseindex+1);
-        GL20.glDisableVertexAttribArray(baseindex+2);
-        GL20.glDisableVertexAttribArray(baseindex+3);
+        BACKEND.glDisableVertexAttribArray(baseindex);
+        BACKEND.glDisableVertexAttribArray(baseindex+1);
+        BACKEND.glDisableVertexAttribArray(baseindex+2);
+        BACKEND.glDisableVertexAttribArray(baseindex+3);
     }
     
     // --- PRIVATE FUNCTIONS ---
@@ -337,9 +757,9 @@ final class GraphicsManager {
             // Log and initiate the GL context and capabilities
             LOG.log(Level.FINEST, "global.Status.Init.Start", "Graphics thread");
             GraphicsEngine.makeContextCurrent();
-            GL.createCapabilities();
+            BACKEND.createCapabilities();
             
-            GL43.glDebugMessageCallback((source, type, id, severity, length, message, userParam) -> {
+            BACKEND.glDebugMessageCallback((source, type, id, severity, length, message, userParam) -> {
                 String m = String.format("%s (%d)", GLDebugMessageCallback.getMessage(length, message), id);
                 
                 switch (type) {
@@ -349,16 +769,17 @@ final class GraphicsManager {
             }, 0);
 
             // Initialize the GL constants
-            MINOR_GL_VERSION_NUMBER = GL11.glGetInteger(GL30.GL_MINOR_VERSION);
-            MAJOR_GL_VERSION_NUMBER = GL11.glGetInteger(GL30.GL_MAJOR_VERSION);
-            MAX_COMBINED_TEXTURE_UNITS = GL11.glGetInteger(GL20.GL_MAX_COMBINED_TEXTURE_IMAGE_UNITS);
-            MAX_VERTEX_TEXTURE_UNITS = GL11.glGetInteger(GL20.GL_MAX_VERTEX_TEXTURE_IMAGE_UNITS);
-            MAX_GEOMETRY_TEXTURE_UNITS = GL11.glGetInteger(GL32.GL_MAX_GEOMETRY_TEXTURE_IMAGE_UNITS);
-            MAX_FRAGMENT_TEXTURE_UNITS = GL11.glGetInteger(GL20.GL_MAX_TEXTURE_IMAGE_UNITS);
-            MAX_TEXTURE_SIZE = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
-            MAX_ARRAY_TEXTURE_LAYERS = GL11.glGetInteger(GL30.GL_MAX_ARRAY_TEXTURE_LAYERS);
+            MINOR_GL_VERSION_NUMBER = BACKEND.glGetInteger(GL30.GL_MINOR_VERSION);
+            MAJOR_GL_VERSION_NUMBER = BACKEND.glGetInteger(GL30.GL_MAJOR_VERSION);
+            MAX_COMBINED_TEXTURE_UNITS = BACKEND.glGetInteger(GL20.GL_MAX_COMBINED_TEXTURE_IMAGE_UNITS);
+            MAX_VERTEX_TEXTURE_UNITS = BACKEND.glGetInteger(GL20.GL_MAX_VERTEX_TEXTURE_IMAGE_UNITS);
+            MAX_GEOMETRY_TEXTURE_UNITS = BACKEND.glGetInteger(GL32.GL_MAX_GEOMETRY_TEXTURE_IMAGE_UNITS);
+            MAX_FRAGMENT_TEXTURE_UNITS = BACKEND.glGetInteger(GL20.GL_MAX_TEXTURE_IMAGE_UNITS);
+            MAX_TEXTURE_SIZE = BACKEND.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
+            MAX_ARRAY_TEXTURE_LAYERS = BACKEND.glGetInteger(GL30.GL_MAX_ARRAY_TEXTURE_LAYERS);
             MAX_TEXTURE_MIPMAP_LEVELS = (int)Math.floor(Math.log(MAX_TEXTURE_SIZE) / Math.log(2));
-            MAX_VERTEX_ATTRIBS = GL11.glGetInteger(GL20.GL_MAX_VERTEX_ATTRIBS);
+            MAX_VERTEX_ATTRIBS = BACKEND.glGetInteger(GL20.GL_MAX_VERTEX_ATTRIBS);
+            BOUND_TEXTURES = new GLTexture[MAX_COMBINED_TEXTURE_UNITS];
 
             // Post the constants to the logger
             LOG.log(Level.FINE, "GraphicsManager.threadInitCallback.OpenGLVersion", new Object[] { MAJOR_GL_VERSION_NUMBER, MINOR_GL_VERSION_NUMBER });
@@ -405,13 +826,13 @@ final class GraphicsManager {
             }
         
             // Enable the GL options and functions
-            GL11.glEnable(GL11.GL_BLEND);
-            GL11.glEnable(GL11.GL_CULL_FACE);
-            GL11.glEnable(GL11.GL_DEPTH_TEST);
-            GL11.glEnable(GL13.GL_TEXTURE_CUBE_MAP);
+            BACKEND.glEnable(GL11.GL_BLEND);
+            BACKEND.glEnable(GL11.GL_CULL_FACE);
+            BACKEND.glEnable(GL11.GL_DEPTH_TEST);
+            BACKEND.glEnable(GL13.GL_TEXTURE_CUBE_MAP);
 
-            GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-            GL11.glClearColor(0.0f, 0.3f, 0.6f, 1.0f);
+            BACKEND.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+            BACKEND.glClearColor(0.0f, 0.3f, 0.6f, 1.0f);
             GraphicsEngine.msgDisableVSync();
             GraphicsEngine.msgDisableDebugMode();
 
@@ -420,10 +841,48 @@ final class GraphicsManager {
             SKYBOX.init();
             
             // Initialize the SSBO containing a single 0 int value
-            SHADER_STORAGE_BUFFER_OBJECT_ZERO = GL15.glGenBuffers();
-            GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, SHADER_STORAGE_BUFFER_OBJECT_ZERO);
-            GL15.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, new int[]{ 0 }, GL15.GL_STATIC_DRAW);
-            GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+            SHADER_STORAGE_BUFFER_OBJECT_ZERO = BACKEND.glGenBuffers();
+            BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, SHADER_STORAGE_BUFFER_OBJECT_ZERO);
+            BACKEND.glBufferData(GL43.GL_SHADER_STORAGE_BUFFER, new int[]{ 0 }, GL15.GL_STATIC_DRAW);
+            BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+            
+            // Initialize the frame UBO; it stays bound to its binding point for the
+            // lifetime of the graphics thread
+            FRAME_UNIFORM_BUFFER_OBJECT = BACKEND.glGenBuffers();
+            BACKEND.glBindBuffer(GL31.GL_UNIFORM_BUFFER, FRAME_UNIFORM_BUFFER_OBJECT);
+            BACKEND.glBufferData(GL31.GL_UNIFORM_BUFFER, (long)FRAME_BLOCK_SIZE * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+            BACKEND.glBindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+            BACKEND.glBindBufferBase(GL31.GL_UNIFORM_BUFFER, SHADER_UNIFORM_FRAME_BLOCK_BINDING, FRAME_UNIFORM_BUFFER_OBJECT);
+            
+            // Initialize the multi-draw batch
+            MULTI_DRAW_BATCH = new GLMultiDrawBatch();
+            MULTI_DRAW_BATCH.init();
+            
+            // Initialize the instance ring
+            INSTANCE_RING = new GLInstanceRing();
+            INSTANCE_RING.init();
+            
+            // Initialize the instance arena
+            INSTANCE_ARENA = new GLInstanceArena();
+            INSTANCE_ARENA.init();
+            
+            // Initialize the instance culler
+            INSTANCE_CULLER = new GLInstanceCuller();
+            INSTANCE_CULLER.init();
+            
+            // Initialize the frame timer, discarding the profiles of any previous run
+            FRAME_TIMER = new GLFrameTimer();
+            FRAME_TIMER.init();
+            LAST_FRAME_PROFILE = null;
+            FRAME_HISTOGRAMS.clear();
+            
+            // Initialize the offscreen framebuffer, if necessary; it stays bound for the
+            // lifetime of the graphics thread
+            if (GraphicsEngine.isOffscreen()) {
+                OFFSCREEN_TARGET = new GLFramebuffer(GraphicsEngine.getWindowWidth(), GraphicsEngine.getWindowHeight());
+                OFFSCREEN_TARGET.init();
+                OFFSCREEN_TARGET.bind();
+            }
             
             setStatus(STATUS_INITIALIZED);
             LOOP_TIMER = Instant.now();
@@ -441,100 +900,330 @@ final class GraphicsManager {
     
     @SuppressWarnings("UseSpecificCatch")
     private static void threadLoopCallback() {
+        PACER.beginLoop();
+        
         try {
             DELTA_TIME = Duration.between(LOOP_TIMER, Instant.now()).toNanos() / 1e9d;
             LOOP_TIMER = Instant.now();
             
-            // Listen for and handle messages on the message queue
-            List<Message> messages = new ArrayList<>();
+            // Wait for the frame launched during the last loop to finish preparing;
+            // from here until the next frame is launched, the scene may be modified
+            DrawList frame = PIPELINE.await();
+            updateInstanceArena(frame);
+            PIPELINE.setParallelism(PREPARE_PARALLELISM);
             
-            if (GraphicsEngine.MESSAGE_LOCK.tryLock(0, TimeUnit.SECONDS)) {
-                try {
-                    if (!MESSAGE_QUEUE.isEmpty()) 
-                        MESSAGE_QUEUE.drainTo(messages);
-                } finally {
-                    GraphicsEngine.MESSAGE_LOCK.unlock();
-                }
-            }
+            // Listen for and handle messages on the message queue, including any
+            // messages deferred from previous loops
+            if (!MESSAGE_QUEUE.isEmpty())
+                MESSAGE_QUEUE.drainTo(DRAINED_MESSAGES);
+            
+            if (!DRAINED_MESSAGES.isEmpty())
+                handleDrainedMessages(DRAINED_MESSAGES);
             
-            messages.forEach((message) -> handleMessage(message));
+            // Apply any change of the pacing mode; this may change the swap interval,
+            // and so is done after any v-sync messages are handled
+            PACER.applyMode();
             
             // If the view transform or projection settings are dirty, reset the
             // view and projection matrices
             if (VIEW_TRANSFORM.isDirty() || GraphicsEngine.isProjectionDirty()) {
                 GraphicsEngine.flushProjectionMatrix();
+                if (OFFSCREEN_TARGET != null)
+                    OFFSCREEN_TARGET.resize(GraphicsEngine.getWindowWidth(), GraphicsEngine.getWindowHeight());
+                
                 VIEW_MATRIX = VIEW_TRANSFORM.getTransformationMatrix(AffineTransformation.FLAG_IGNORE_SCALING |
                                                                      AffineTransformation.FLAG_INVERT_TRANSLATION |
                                                                      AffineTransformation.FLAG_INVERT_ROTATION |
                                                                      AffineTransformation.FLAG_INVERT_TRANSFORM_ORDER);
 
                 PROJ_VIEW_MATRIX = GraphicsEngine.PROJ_MATRIX.mul(VIEW_MATRIX);
+                FRUSTUM.update(PROJ_VIEW_MATRIX);
                 setStatus(STATUS_MATRICES_CHANGED);
             }
             
-            // Clear the color and depth bits
-            GL11.glClear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
-            
-            // Render the skybox, if necessary
-            if (getStatus(STATUS_DO_SKYBOX_RENDER))
-                SKYBOX.render();
+            // Snapshot the next frame, and launch its preparation; if the frame awaited
+            // above is discarded in favour of the next, its change of matrices is
+            // carried over to the next
+            boolean pipelined = PIPELINED;
             
-            // Render the objects; if any shader programs fail for any reason, store
-            // references to them for later
-            Set<GLShaderProgram> failedProgs = new HashSet<>();
+            ++LOOP_NUMBER;
+            DrawList next = snapshotFrame();
+            if (!pipelined && frame != null)
+                next.matricesChanged |= frame.matricesChanged;
             
-            RENDERING_MAP.forEach((program, renderables) -> {
-                // Check if the program is failed or closed
-                if (program.isClosed() || program.getStatus(GLShaderProgram.STATUS_LINK_FAILED)) {
-                    failedProgs.add(program);
-                    return;
-                }
-                
-                // If the program isn't linked yet, attempt to link it
-                if (!program.getStatus(GLShaderProgram.STATUS_LINKED)) {
-                    String errorMessage = program.linkAndValidate();
-                    if (errorMessage != null)
-                        LOG.log(Level.WARNING, errorMessage);
-                }
-                
-                // If the program is now linked, render with it
-                // Otherwise, it has failed to link
-                if (program.getStatus(GLShaderProgram.STATUS_LINKED))
-                    doRenderWithProgram(program, renderables);
-                else
-                    failedProgs.add(program);
-            });
-            
-            // For failed programs, remove the renderables from it in the rendering
-            // map and add those renderables to the appropriate default program
-            failedProgs.forEach((prog) -> {
-                if (prog.getStatus(GLShaderProgram.STATUS_MODE))
-                    GraphicsManager.applyRenderingMap(GLShaderProgram.DEFAULT_CUBE, RENDERING_MAP.remove(prog));
-                else
-                    GraphicsManager.applyRenderingMap(GLShaderProgram.DEFAULT_2D, RENDERING_MAP.remove(prog));
-            });
+            PIPELINE.launch(next);
+            clearStatus(STATUS_MATRICES_CHANGED);
             
-            // Render the UI, if necessary (note that this doesn't disable depth testing,
-            // but merely clears the depth bits)
-            if (getStatus(STATUS_DO_UI_RENDER)) {
-                GL11.glClear(GL11.GL_DEPTH_BUFFER_BIT);
-                doRenderWithProgram(GLShaderProgram.DEFAULT_UI, UI_RENDERABLES);
+            // Submit the frame prepared during the last loop, or if not pipelined, the
+            // frame just launched; the first frame after enabling pipelining is skipped
+            if (!pipelined) {
+                frame = PIPELINE.await();
+                updateInstanceArena(frame);
             }
             
-            // Swap the buffers
-            GraphicsEngine.swapBuffers();
-            clearStatus(STATUS_MATRICES_CHANGED);
+            if (frame != null)
+                submitFrame(frame);
             
         } catch (Throwable t) {
             LOG.log(Level.SEVERE, "GraphicsManager.threadLoopCallback.UnhandledException", t);
             close();
         }
+        
+        // Schedule the next loop, as paced by the pacer
+        long delay = PACER.endLoop();
+        LAST_LOOP_CPU_NANOS = PACER.getCPUNanos();
+        
+        scheduleLoop(delay);
+    }
+    
+    /**
+     * Snapshots the scene into the next draw list of the pipeline. Every program in the
+     * rendering map forms a pass, with its renderables in sorted order, followed by the
+     * UI pass if the UI is to be rendered; renderables without a mesh are left out.
+     * 
+     * @return the snapshotted draw list
+     */
+    private static DrawList snapshotFrame() {
+        DrawList frame = PIPELINE.acquire();
+        
+        frame.projMatrix = new Matrix(GraphicsEngine.PROJ_MATRIX);
+        frame.viewMatrix = VIEW_MATRIX;
+        frame.projViewMatrix = PROJ_VIEW_MATRIX;
+        frame.viewRotation = VIEW_TRANSFORM.getRotation();
+        frame.matricesChanged = getStatus(STATUS_MATRICES_CHANGED);
+        frame.cull = FRUSTUM_CULLING;
+        frame.gpuCull = GPU_CULLING && INSTANCE_CULLER.isAvailable();
+        FRUSTUM.writeToFloatArray(frame.frustumPlanes, 0);
+        
+        // Renderables with a skeleton are never culled, as the skeleton may move
+        // vertices outside of the mesh bounds
+        // Programs are linked here, rather than when submitted, as the instances of each
+        // pass are prepared in the instance layout of its program
+        RENDERING_MAP.forEach((program, renderables) -> {
+            if (!program.isClosed() && !program.getStatus(GLShaderProgram.STATUS_LINK_FAILED))
+                linkProgram(program);
+            
+            frame.beginPass(program, false);
+            renderables.forEachSorted((renderable) -> {
+                if (renderable.mesh != null && !renderable.mesh.isClosed())
+                    frame.add(renderable, frame.cull && renderable.skeleton == null, true);
+            });
+        });
+        
+        if (getStatus(STATUS_DO_UI_RENDER)) {
+            frame.beginPass(GLShaderProgram.DEFAULT_UI, true);
+            UI_RENDERABLES.forEachSorted((renderable) -> {
+                if (renderable.mesh != null && !renderable.mesh.isClosed())
+                    frame.add(renderable, false, false);
+            });
+        }
+        
+        return frame;
+    }
+    
+    /**
+     * Links the given program, if it is not linked yet, logging any errors.
+     * 
+     * @param program the program
+     * @return {@code true} if the program is linked, {@code false} if it has failed to
+     * link
+     */
+    private static boolean linkProgram(GLShaderProgram program) {
+        if (!program.getStatus(GLShaderProgram.STATUS_LINKED)) {
+            String errorMessage = program.linkAndValidate();
+            if (errorMessage != null)
+                LOG.log(Level.WARNING, errorMessage);
+        }
+        
+        return program.getStatus(GLShaderProgram.STATUS_LINKED);
+    }
+    
+    /**
+     * Buffers the camera matrices of the given draw list into the frame UBO. Each
+     * matrix is a {@code mat4} in column-major order, as laid out by the {@code std140}
+     * rules, in the order: projection, view, projection/view.
+     * 
+     * @param frame the draw list
+     */
+    private static void bufferFrameBlock(DrawList frame) {
+        frame.projMatrix.writeToFloatBuffer(FRAME_BLOCK_BUFFER, true);
+        frame.viewMatrix.writeToFloatBuffer(FRAME_BLOCK_BUFFER, true);
+        frame.projViewMatrix.writeToFloatBuffer(FRAME_BLOCK_BUFFER, true);
+        FRAME_BLOCK_BUFFER.flip();
+        
+        BACKEND.glBindBuffer(GL31.GL_UNIFORM_BUFFER, FRAME_UNIFORM_BUFFER_OBJECT);
+        BACKEND.glBufferSubData(GL31.GL_UNIFORM_BUFFER, 0, FRAME_BLOCK_BUFFER);
+        BACKEND.glBindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+        
+        FRAME_BLOCK_BUFFER.clear();
+    }
+    
+    /**
+     * Publishes the given frame profile, and adds its times to the rolling histograms
+     * of its passes.
+     * 
+     * @param profile the frame profile
+     */
+    private static void publishFrameProfile(FrameProfile profile) {
+        LAST_FRAME_PROFILE = profile;
+        LAST_LOOP_GPU_NANOS = (long)(profile.getGPUTime() * 1e6);
+        
+        addToHistograms(FrameProfile.FRAME, profile.getCPUTime(), profile.getGPUTime());
+        for (int pass = 0; pass < profile.getNumPasses(); ++pass)
+            addToHistograms(profile.getPassName(pass), profile.getPassCPUTime(pass), profile.getPassGPUTime(pass));
+    }
+    
+    private static void addToHistograms(String name, double cpuTime, double gpuTime) {
+        RollingHistogram[] histograms = FRAME_HISTOGRAMS.computeIfAbsent(name, (n) -> new RollingHistogram[] {
+            new RollingHistogram(FRAME_HISTOGRAM_WINDOW, FRAME_HISTOGRAM_BUCKETS, FRAME_HISTOGRAM_BUCKET_WIDTH),
+            new RollingHistogram(FRAME_HISTOGRAM_WINDOW, FRAME_HISTOGRAM_BUCKETS, FRAME_HISTOGRAM_BUCKET_WIDTH)
+        });
+        
+        histograms[0].add(cpuTime);
+        histograms[1].add(gpuTime);
+    }
+    
+    /**
+     * Uploads the changed instances of every resident renderable in the given prepared
+     * draw list to the instance arena. This must be invoked as soon as the draw list is
+     * awaited, as the instances uploaded are those of the draw list only until the
+     * scene is modified, or the next frame is launched.
+     * @param frame the draw list, or {@code null} if none
+     */
+    private static void updateInstanceArena(DrawList frame) {
+        if (frame == null)
+            return;
+        
+        for (int i = 0; i < frame.size; ++i)
+            if (frame.resident[i] && !frame.renderables[i].isClosed())
+                frame.renderables[i].updateArena();
+    }
+    
+    /**
+     * Submits the given prepared draw list, rendering the frame and presenting it.
+     * 
+     * @param frame the draw list
+     */
+    private static void submitFrame(DrawList frame) {
+        FrameProfile profile = FRAME_TIMER.beginFrame();
+        if (profile != null)
+            publishFrameProfile(profile);
+        
+        // Clear the color and depth bits
+        BACKEND.glClear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
+        
+        BINDS = 0;
+        BINDS_SKIPPED = 0;
+        
+        // Move on to the next region of the instance ring, waiting until the GPU is
+        // done with it, then upload the instances of the whole frame into it at once
+        INSTANCE_RING.beginFrame();
+        INSTANCE_RING.upload(frame.instanceData, frame.instanceFloats);
+        
+        // Cull the instances of the renderables culled on the GPU, building their
+        // draw commands before anything is drawn
+        if (frame.gpuCull) {
+            FRAME_TIMER.beginPass(FrameProfile.CULL);
+            INSTANCE_CULLER.cull(frame);
+            FRAME_TIMER.endPass();
+        }
+        
+        // Rebuffer the frame UBO, if the camera has changed
+        if (frame.matricesChanged)
+            bufferFrameBlock(frame);
+        
+        // Render the skybox, if necessary
+        if (getStatus(STATUS_DO_SKYBOX_RENDER)) {
+            FRAME_TIMER.beginPass(FrameProfile.SKYBOX);
+            SKYBOX.render(frame);
+            FRAME_TIMER.endPass();
+        }
+        
+        // Render the objects; if any shader programs fail for any reason, store
+        // references to them for later
+        Set<GLShaderProgram> failedProgs = new HashSet<>();
+        int numProgramPasses = frame.hasUIPass ? frame.numPasses - 1 : frame.numPasses;
+        
+        for (int pass = 0; pass < numProgramPasses; ++pass) {
+            GLShaderProgram program = frame.passPrograms[pass];
+            
+            // Check if the program is failed or closed
+            if (program.isClosed() || program.getStatus(GLShaderProgram.STATUS_LINK_FAILED)) {
+                failedProgs.add(program);
+                continue;
+            }
+
+            // If the program isn't linked yet (i.e. its shaders have been replaced
+            // since the frame was snapshotted), attempt to link it
+            if (!linkProgram(program)) {
+                failedProgs.add(program);
+                continue;
+            }
+            
+            // If the instance layout of the program has changed along with its shaders,
+            // the instances of the pass are in the wrong layout, so the pass is skipped
+            if (program.isCompactLayout() == frame.passCompact[pass]) {
+                Integer id = GLShaderProgram.REGISTRY.get(program);
+                FRAME_TIMER.beginPass(FrameProfile.getProgramPassName(id == null ? -1 : id));
+                doRenderWithProgram(program, frame, pass);
+                FRAME_TIMER.endPass();
+            }
+        }
+        
+        // For failed programs, remove the renderables from it in the rendering
+        // map and add those renderables to the appropriate default program; the
+        // program may have already been removed since the frame was snapshotted
+        failedProgs.forEach((prog) -> {
+            RenderQueue renderables = RENDERING_MAP.remove(prog);
+            if (renderables == null)
+                return;
+            
+            if (prog.getStatus(GLShaderProgram.STATUS_MODE))
+                GraphicsManager.applyRenderingMap(GLShaderProgram.DEFAULT_CUBE, renderables);
+            else
+                GraphicsManager.applyRenderingMap(GLShaderProgram.DEFAULT_2D, renderables);
+        });
+        
+        // Render the UI, if necessary (note that this doesn't disable depth testing,
+        // but merely clears the depth bits)
+        if (frame.hasUIPass) {
+            FRAME_TIMER.beginPass(FrameProfile.UI);
+            BACKEND.glClear(GL11.GL_DEPTH_BUFFER_BIT);
+            doRenderWithProgram(GLShaderProgram.DEFAULT_UI, frame, frame.numPasses - 1);
+            FRAME_TIMER.endPass();
+        }
+        
+        INSTANCE_RING.endFrame();
+        FRAME_TIMER.endFrame();
+        BACKEND.glUseProgram(0);
+        LAST_LOOP_BINDS = BINDS;
+        LAST_LOOP_BINDS_SKIPPED = BINDS_SKIPPED;
+        LAST_LOOP_INSTANCES_VISIBLE = frame.instancesVisible;
+        LAST_LOOP_INSTANCES_CULLED = frame.instancesCulled;
+        LAST_LOOP_PREPARE_NANOS = frame.prepareNanos;
+        
+        // Swap the buffers, or in offscreen mode, read back the frame if it has been
+        // requested
+        PACER.beginPresent();
+        
+        if (OFFSCREEN_TARGET == null)
+            GraphicsEngine.swapBuffers();
+        else if (!CAPTURE_REQUESTS.isEmpty()) {
+            BufferedImage image = OFFSCREEN_TARGET.readPixels();
+            CompletableFuture<BufferedImage> request;
+
+            while ((request = CAPTURE_REQUESTS.poll()) != null)
+                request.complete(image);
+        }
     }
     
     private static void threadFinishCallback() {
         LOG.log(Level.FINEST, "global.Status.Close.Start", "Graphics thread");
         
         try {
+            // Wait for any frame being prepared before closing what it reads
+            PIPELINE.close();
+            
             GLMesh.REGISTRY.forEach(GLObject::close);
             GLShader.REGISTRY.forEach(GLObject::close);
             GLShaderProgram.REGISTRY.forEach(GLObject::close);
@@ -548,9 +1237,26 @@ final class GraphicsManager {
             GLSkeleton.REGISTRY.clear();
 
             SKYBOX.close();
+            MULTI_DRAW_BATCH.close();
+            INSTANCE_RING.close();
+            INSTANCE_ARENA.close();
+            INSTANCE_CULLER.close();
+            FRAME_TIMER.close();
+            
+            if (OFFSCREEN_TARGET != null) {
+                OFFSCREEN_TARGET.close();
+                OFFSCREEN_TARGET = null;
+            }
+            
+            CompletableFuture<BufferedImage> request;
+            while ((request = CAPTURE_REQUESTS.poll()) != null)
+                request.cancel(false);
             
-            GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
-            GL15.glDeleteBuffers(SHADER_STORAGE_BUFFER_OBJECT_ZERO);
+            BACKEND.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+            BACKEND.glDeleteBuffers(SHADER_STORAGE_BUFFER_OBJECT_ZERO);
+            
+            BACKEND.glBindBufferBase(GL31.GL_UNIFORM_BUFFER, SHADER_UNIFORM_FRAME_BLOCK_BINDING, 0);
+            BACKEND.glDeleteBuffers(FRAME_UNIFORM_BUFFER_OBJECT);
             
             clearStatus(STATUS_INITIALIZED);
             
@@ -561,27 +1267,96 @@ final class GraphicsManager {
         LOG.log(Level.FINEST, "global.Status.Close.End", "Graphics thread");
     }
     
-    private static void doRenderWithProgram(GLShaderProgram program, Set<GLRenderable> renderables) {
+    private static void doRenderWithProgram(GLShaderProgram program, DrawList frame, int pass) {
         program.bind();
+        ++BINDS;
         
         // 'Global' uniform values, these do not change over the course of the use
         // of this program
-        if (getStatus(STATUS_MATRICES_CHANGED)) {
+        if (frame.matricesChanged) {
             program.uniform3ui(GraphicsEngine.getWindowWidth(),
                                GraphicsEngine.getWindowHeight(),
                                GraphicsEngine.getWindowDepth(),
                                SHADER_UNIFORM_WINDOW_SIZE_NAME);
 
-            program.uniformMatrix4(GraphicsEngine.PROJ_MATRIX, SHADER_UNIFORM_PROJECTION_MATRIX_NAME);
-            program.uniformMatrix4(VIEW_MATRIX, SHADER_UNIFORM_VIEW_MATRIX_NAME);
+            program.uniformMatrix4(frame.projMatrix, SHADER_UNIFORM_PROJECTION_MATRIX_NAME);
+            program.uniformMatrix4(frame.viewMatrix, SHADER_UNIFORM_VIEW_MATRIX_NAME);
         }
         
-        // Do the rendering passes for each renderable
-        renderables.forEach((renderable) -> {
-            if (!renderable.render(program))
-                LOG.log(Level.FINER, "GraphicsManager.doRenderWithProgram.MeshInvalidParams");
-        });
+        // Do the rendering passes for each renderable with visible instances, in
+        // sorted order so that renderables sharing attachments are rendered
+        // consecutively; renderables closed since the frame was snapshotted are
+        // skipped. If multi-draw is enabled, runs of batchable renderables are
+        // collected into the batch, which is drawn whenever the next renderable
+        // cannot join it; renderables culled on the GPU are drawn on their own, as each
+        // is drawn with its own indirect draw command
+        int start = frame.getPassStart(pass), end = frame.passEnds[pass];
+        
+        for (int i = start; i < end; ++i) {
+            GLRenderable renderable = frame.renderables[i];
+            if (frame.visibleCounts[i] == 0 || renderable.isClosed() || !renderable.validate(program))
+                continue;
+            
+            if (MULTI_DRAW && !frame.gpuCulled[i]) {
+                if (MULTI_DRAW_BATCH.size() > 0 && (!MULTI_DRAW_BATCH.get(0).isBatchableWith(renderable) ||
+                                                    frame.resident[MULTI_DRAW_BATCH.getEntry(0)] != frame.resident[i]))
+                    drawBatch(program);
+
+                MULTI_DRAW_BATCH.add(frame, i);
+                
+            } else {
+                if (MULTI_DRAW_BATCH.size() > 0)
+                    drawBatch(program);
+                
+                if (!renderable.draw(program, frame, i))
+                    LOG.log(Level.FINER, "GraphicsManager.doRenderWithProgram.MeshInvalidParams");
+            }
+        }
+        
+        if (MULTI_DRAW_BATCH.size() > 0)
+            drawBatch(program);
+        
+        // Unbind everything the renderables left bound; the program itself is left
+        // bound until all programs are rendered, as the next program replaces it anyway
+        unbindRenderState(program);
+    }
+    
+    /**
+     * Draws and clears the multi-draw batch. A batch of a single renderable is drawn
+     * directly instead, as there is nothing to gain from copying its instances.
+     * @param program the program to use for the rendering
+     */
+    private static void drawBatch(GLShaderProgram program) {
+        boolean noError;
+        
+        if (MULTI_DRAW_BATCH.size() == 1) {
+            noError = MULTI_DRAW_BATCH.get(0).draw(program, MULTI_DRAW_BATCH.getDrawList(), MULTI_DRAW_BATCH.getEntry(0));
+            MULTI_DRAW_BATCH.clear();
+        } else
+            noError = MULTI_DRAW_BATCH.draw(program);
         
-        program.unbind();
+        if (!noError)
+            LOG.log(Level.FINER, "GraphicsManager.doRenderWithProgram.MeshInvalidParams");
+    }
+    
+    private static void unbindRenderState(GLShaderProgram program) {
+        if (BOUND_MESH != null || BATCH_BOUND) {
+            BACKEND.glBindVertexArray(0);
+            BOUND_MESH = null;
+            BATCH_BOUND = false;
+        }
+        
+        for (int i = 0; i < BOUND_TEXTURES.length; ++i) {
+            if (BOUND_TEXTURES[i] != null) {
+                BOUND_TEXTURES[i].unbind();
+                BOUND_TEXTURES[i] = null;
+            }
+        }
+        
+        if (SKELETON_BOUND) {
+            GLSkeleton.unbind(program);
+            BOUND_SKELETON = null;
+            SKELETON_BOUND = false;
+        }
     }
 }
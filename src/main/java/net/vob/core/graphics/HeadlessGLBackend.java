@@ -0,0 +1,592 @@
+package net.vob.core.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GLDebugMessageCallbackI;
+
+/**
+ * A {@link GLBackend} that requires no GL context. No GL call has any effect; instead,
+ * each call is counted, along with the number of bytes uploaded to buffers and textures,
+ * the number of state changes, and the number of draw calls. This allows the CPU side
+ * of the graphics engine to run a full frame loop, and be measured, on a machine with no
+ * GPU.<p>
+ *
+ * Object creation functions return unique, increasing names; status queries report
+ * success; timer queries are always available, and report a time of 0;
+ * {@code glGetInteger} reports the limits of a typical OpenGL 4.3 context; and program
+ * introspection reports no active uniforms, blocks or inputs (thus, every program takes
+ * instances in the full layout).<p>
+ *
+ * State changes are binds, enables and other state-setting calls. Those that set the
+ * same program, vertex array, buffer or texture that is already bound are additionally
+ * counted as redundant. The counters are written to by the graphics thread only, so
+ * reading them from any other thread only gives a snapshot.
+ *
+ * @author Lyn-Park
+ */
+final class HeadlessGLBackend implements GLBackend {
+    private int nextName = 1;
+
+    private volatile long calls = 0;
+    private volatile long bytesUploaded = 0;
+    private volatile long stateChanges = 0;
+    private volatile long redundantStateChanges = 0;
+    private volatile long drawCalls = 0;
+
+    private int boundProgram = 0, boundVertexArray = 0, activeTexture = GL13.GL_TEXTURE0;
+    private final Map<Integer, Integer> boundBuffers = new HashMap<>();
+    private final Map<Long, Integer> boundTextures = new HashMap<>();
+
+    long getCalls() {
+        return calls;
+    }
+
+    long getBytesUploaded() {
+        return bytesUploaded;
+    }
+
+    long getStateChanges() {
+        return stateChanges;
+    }
+
+    long getRedundantStateChanges() {
+        return redundantStateChanges;
+    }
+
+    long getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * Resets all counters to 0. This does not affect the tracked binding state.
+     */
+    void resetCounters() {
+        calls = 0;
+        bytesUploaded = 0;
+        stateChanges = 0;
+        redundantStateChanges = 0;
+        drawCalls = 0;
+    }
+
+    private void call() {
+        ++calls;
+    }
+
+    private void upload(long bytes) {
+        ++calls;
+        bytesUploaded += bytes;
+    }
+
+    private void stateChange(boolean redundant) {
+        ++calls;
+        ++stateChanges;
+        if (redundant)
+            ++redundantStateChanges;
+    }
+
+    private int genName() {
+        ++calls;
+        return nextName++;
+    }
+
+    // --- CONTEXT ---
+
+    @Override
+    public void makeContextCurrent(long window) {}
+
+    @Override
+    public void createCapabilities() {}
+
+    @Override
+    public boolean isBufferStorageSupported() {
+        return true;
+    }
+
+    @Override
+    public void swapBuffers(long window) {}
+
+    @Override
+    public void swapInterval(int interval) {}
+
+    @Override
+    public void glDebugMessageCallback(GLDebugMessageCallbackI callback, long userParam) {
+        call();
+    }
+
+    // --- STATE ---
+
+    @Override
+    public void glEnable(int cap) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glDisable(int cap) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glBlendFunc(int sfactor, int dfactor) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glClearColor(float red, float green, float blue, float alpha) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glClear(int mask) {
+        call();
+    }
+
+    @Override
+    public void glViewport(int x, int y, int width, int height) {
+        stateChange(false);
+    }
+
+    @Override
+    public int glGetInteger(int pname) {
+        call();
+
+        switch (pname) {
+            case GL30.GL_MAJOR_VERSION:                  return 4;
+            case GL30.GL_MINOR_VERSION:                  return 3;
+            case GL20.GL_MAX_COMBINED_TEXTURE_IMAGE_UNITS: return 32;
+            case GL20.GL_MAX_VERTEX_TEXTURE_IMAGE_UNITS: return 16;
+            case GL32.GL_MAX_GEOMETRY_TEXTURE_IMAGE_UNITS: return 16;
+            case GL20.GL_MAX_TEXTURE_IMAGE_UNITS:        return 16;
+            case GL11.GL_MAX_TEXTURE_SIZE:               return 16384;
+            case GL30.GL_MAX_ARRAY_TEXTURE_LAYERS:       return 2048;
+            case GL20.GL_MAX_VERTEX_ATTRIBS:             return 16;
+            default:                                     return 0;
+        }
+    }
+
+    // --- BUFFERS ---
+
+    @Override
+    public int glGenBuffers() {
+        return genName();
+    }
+
+    @Override
+    public void glDeleteBuffers(int buffer) {
+        call();
+        boundBuffers.values().remove(buffer);
+    }
+
+    @Override
+    public void glBindBuffer(int target, int buffer) {
+        Integer prev = boundBuffers.put(target, buffer);
+        stateChange(prev != null && prev == buffer);
+    }
+
+    @Override
+    public void glBindBufferBase(int target, int index, int buffer) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glBufferData(int target, ByteBuffer data, int usage) {
+        upload(data.remaining());
+    }
+
+    @Override
+    public void glBufferData(int target, IntBuffer data, int usage) {
+        upload((long)data.remaining() * Integer.BYTES);
+    }
+
+    @Override
+    public void glBufferData(int target, FloatBuffer data, int usage) {
+        upload((long)data.remaining() * Float.BYTES);
+    }
+
+    @Override
+    public void glBufferData(int target, int[] data, int usage) {
+        upload((long)data.length * Integer.BYTES);
+    }
+
+    @Override
+    public void glBufferData(int target, long size, int usage) {
+        call();
+    }
+
+    @Override
+    public void glBufferSubData(int target, long offset, ByteBuffer data) {
+        upload(data.remaining());
+    }
+
+    @Override
+    public void glBufferSubData(int target, long offset, FloatBuffer data) {
+        upload((long)data.remaining() * Float.BYTES);
+    }
+
+    @Override
+    public void glCopyBufferSubData(int readTarget, int writeTarget, long readOffset, long writeOffset, long size) {
+        call();
+    }
+
+    @Override
+    public void glBufferStorage(int target, long size, int flags) {
+        call();
+    }
+
+    @Override
+    public ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+        call();
+        return BufferUtils.createByteBuffer((int)length);
+    }
+
+    @Override
+    public boolean glUnmapBuffer(int target) {
+        call();
+        return true;
+    }
+
+    // --- SYNC OBJECTS ---
+
+    @Override
+    public long glFenceSync(int condition, int flags) {
+        call();
+        return genName();
+    }
+
+    @Override
+    public int glClientWaitSync(long sync, int flags, long timeout) {
+        call();
+        return GL32.GL_ALREADY_SIGNALED;
+    }
+
+    @Override
+    public void glDeleteSync(long sync) {
+        call();
+    }
+
+    // --- QUERIES ---
+
+    @Override
+    public int glGenQueries() {
+        call();
+        return genName();
+    }
+
+    @Override
+    public void glDeleteQueries(int id) {
+        call();
+    }
+
+    @Override
+    public void glQueryCounter(int id, int target) {
+        call();
+    }
+
+    @Override
+    public int glGetQueryObjecti(int id, int pname) {
+        call();
+        return GL11.GL_TRUE;
+    }
+
+    @Override
+    public long glGetQueryObjectui64(int id, int pname) {
+        call();
+        return 0;
+    }
+
+    // --- VERTEX ARRAYS ---
+
+    @Override
+    public int glGenVertexArrays() {
+        return genName();
+    }
+
+    @Override
+    public void glDeleteVertexArrays(int array) {
+        call();
+        if (boundVertexArray == array)
+            boundVertexArray = 0;
+    }
+
+    @Override
+    public void glBindVertexArray(int array) {
+        stateChange(boundVertexArray == array);
+        boundVertexArray = array;
+    }
+
+    @Override
+    public void glEnableVertexAttribArray(int index) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glDisableVertexAttribArray(int index) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glVertexAttribDivisor(int index, int divisor) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glDrawElementsInstanced(int mode, int count, int type, long indices, int primcount) {
+        call();
+        ++drawCalls;
+    }
+
+    @Override
+    public void glDrawElementsInstancedBaseInstance(int mode, int count, int type, long indices, int primcount, int baseinstance) {
+        call();
+        ++drawCalls;
+    }
+
+    @Override
+    public void glMultiDrawElementsIndirect(int mode, int type, long indirect, int drawcount, int stride) {
+        call();
+        ++drawCalls;
+    }
+
+    @Override
+    public void glDrawElementsIndirect(int mode, int type, long indirect) {
+        call();
+        ++drawCalls;
+    }
+
+    // --- TEXTURES ---
+
+    @Override
+    public int glGenTextures() {
+        return genName();
+    }
+
+    @Override
+    public void glDeleteTextures(int texture) {
+        call();
+        boundTextures.values().remove(texture);
+    }
+
+    @Override
+    public void glActiveTexture(int texture) {
+        stateChange(activeTexture == texture);
+        activeTexture = texture;
+    }
+
+    @Override
+    public void glBindTexture(int target, int texture) {
+        Integer prev = boundTextures.put(((long)activeTexture << 32) | (target & 0xFFFFFFFFL), texture);
+        stateChange(prev != null && prev == texture);
+    }
+
+    @Override
+    public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+        upload(pixels == null ? 0 : pixels.remaining());
+    }
+
+    @Override
+    public void glTexParameteri(int target, int pname, int param) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glGenerateMipmap(int target) {
+        call();
+    }
+
+    // --- FRAMEBUFFERS ---
+
+    @Override
+    public int glGenFramebuffers() {
+        return genName();
+    }
+
+    @Override
+    public void glDeleteFramebuffers(int framebuffer) {
+        call();
+    }
+
+    @Override
+    public void glBindFramebuffer(int target, int framebuffer) {
+        stateChange(false);
+    }
+
+    @Override
+    public int glCheckFramebufferStatus(int target) {
+        call();
+        return GL30.GL_FRAMEBUFFER_COMPLETE;
+    }
+
+    @Override
+    public int glGenRenderbuffers() {
+        return genName();
+    }
+
+    @Override
+    public void glDeleteRenderbuffers(int renderbuffer) {
+        call();
+    }
+
+    @Override
+    public void glBindRenderbuffer(int target, int renderbuffer) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+        call();
+    }
+
+    @Override
+    public void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+        stateChange(false);
+    }
+
+    @Override
+    public void glReadPixels(int x, int y, int width, int height, int format, int type, ByteBuffer pixels) {
+        call();
+    }
+
+    // --- SHADERS ---
+
+    @Override
+    public int glCreateShader(int type) {
+        return genName();
+    }
+
+    @Override
+    public void glDeleteShader(int shader) {
+        call();
+    }
+
+    @Override
+    public void glShaderSource(int shader, CharSequence string) {
+        call();
+    }
+
+    @Override
+    public void glCompileShader(int shader) {
+        call();
+    }
+
+    @Override
+    public int glGetShaderi(int shader, int pname) {
+        call();
+        return GL11.GL_TRUE;
+    }
+
+    @Override
+    public String glGetShaderInfoLog(int shader) {
+        call();
+        return "";
+    }
+
+    @Override
+    public int glCreateProgram() {
+        return genName();
+    }
+
+    @Override
+    public void glDeleteProgram(int program) {
+        call();
+        if (boundProgram == program)
+            boundProgram = 0;
+    }
+
+    @Override
+    public void glAttachShader(int program, int shader) {
+        call();
+    }
+
+    @Override
+    public void glDetachShader(int program, int shader) {
+        call();
+    }
+
+    @Override
+    public void glBindAttribLocation(int program, int index, CharSequence name) {
+        call();
+    }
+
+    @Override
+    public void glLinkProgram(int program) {
+        call();
+    }
+
+    @Override
+    public void glValidateProgram(int program) {
+        call();
+    }
+
+    @Override
+    public int glGetProgrami(int program, int pname) {
+        call();
+        return GL11.GL_TRUE;
+    }
+
+    @Override
+    public String glGetProgramInfoLog(int program) {
+        call();
+        return "";
+    }
+
+    @Override
+    public int glGetProgramInterfacei(int program, int programInterface, int pname) {
+        call();
+        return 0;
+    }
+
+    @Override
+    public String glGetProgramResourceName(int program, int programInterface, int index) {
+        call();
+        return "";
+    }
+
+    @Override
+    public void glShaderStorageBlockBinding(int program, int storageBlockIndex, int storageBlockBinding) {
+        call();
+    }
+
+    @Override
+    public void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding) {
+        call();
+    }
+
+    @Override
+    public void glUseProgram(int program) {
+        stateChange(boundProgram == program);
+        boundProgram = program;
+    }
+
+    @Override
+    public void glUniform3ui(int location, int v0, int v1, int v2) {
+        upload(3 * Integer.BYTES);
+    }
+
+    @Override
+    public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        upload((long)value.remaining() * Float.BYTES);
+    }
+
+    @Override
+    public void glDispatchCompute(int numGroupsX, int numGroupsY, int numGroupsZ) {
+        call();
+    }
+
+    @Override
+    public void glMemoryBarrier(int barriers) {
+        call();
+    }
+}
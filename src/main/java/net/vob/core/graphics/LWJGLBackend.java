@@ -0,0 +1,475 @@
+package net.vob.core.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GL40;
+import org.lwjgl.opengl.GL42;
+import org.lwjgl.opengl.GL43;
+import org.lwjgl.opengl.GL44;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.opengl.GLDebugMessageCallbackI;
+
+import static org.lwjgl.glfw.GLFW.glfwMakeContextCurrent;
+import static org.lwjgl.glfw.GLFW.glfwSwapBuffers;
+import static org.lwjgl.glfw.GLFW.glfwSwapInterval;
+
+/**
+ * The default {@link GLBackend}, which forwards every call directly to the
+ * corresponding LWJGL static function.
+ * 
+ * @author Lyn-Park
+ */
+final class LWJGLBackend implements GLBackend {
+    @Override
+    public void makeContextCurrent(long window) {
+        glfwMakeContextCurrent(window);
+    }
+    
+    @Override
+    public void createCapabilities() {
+        GL.createCapabilities();
+    }
+    
+    @Override
+    public boolean isBufferStorageSupported() {
+        GLCapabilities caps = GL.getCapabilities();
+        return caps.OpenGL44 || caps.GL_ARB_buffer_storage;
+    }
+    
+    @Override
+    public void swapBuffers(long window) {
+        glfwSwapBuffers(window);
+    }
+    
+    @Override
+    public void swapInterval(int interval) {
+        glfwSwapInterval(interval);
+    }
+    
+    @Override
+    public void glDebugMessageCallback(GLDebugMessageCallbackI callback, long userParam) {
+        GL43.glDebugMessageCallback(callback, userParam);
+    }
+    
+    @Override
+    public void glEnable(int cap) {
+        GL11.glEnable(cap);
+    }
+    
+    @Override
+    public void glDisable(int cap) {
+        GL11.glDisable(cap);
+    }
+    
+    @Override
+    public void glBlendFunc(int sfactor, int dfactor) {
+        GL11.glBlendFunc(sfactor, dfactor);
+    }
+    
+    @Override
+    public void glClearColor(float red, float green, float blue, float alpha) {
+        GL11.glClearColor(red, green, blue, alpha);
+    }
+    
+    @Override
+    public void glClear(int mask) {
+        GL11.glClear(mask);
+    }
+    
+    @Override
+    public void glViewport(int x, int y, int width, int height) {
+        GL11.glViewport(x, y, width, height);
+    }
+    
+    @Override
+    public int glGetInteger(int pname) {
+        return GL11.glGetInteger(pname);
+    }
+    
+    @Override
+    public int glGenBuffers() {
+        return GL15.glGenBuffers();
+    }
+    
+    @Override
+    public void glDeleteBuffers(int buffer) {
+        GL15.glDeleteBuffers(buffer);
+    }
+    
+    @Override
+    public void glBindBuffer(int target, int buffer) {
+        GL15.glBindBuffer(target, buffer);
+    }
+    
+    @Override
+    public void glBindBufferBase(int target, int index, int buffer) {
+        GL30.glBindBufferBase(target, index, buffer);
+    }
+    
+    @Override
+    public void glBufferData(int target, ByteBuffer data, int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+    
+    @Override
+    public void glBufferData(int target, IntBuffer data, int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+    
+    @Override
+    public void glBufferData(int target, FloatBuffer data, int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+    
+    @Override
+    public void glBufferData(int target, int[] data, int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+    
+    @Override
+    public void glBufferData(int target, long size, int usage) {
+        GL15.glBufferData(target, size, usage);
+    }
+    
+    @Override
+    public void glBufferSubData(int target, long offset, ByteBuffer data) {
+        GL15.glBufferSubData(target, offset, data);
+    }
+    
+    @Override
+    public void glBufferSubData(int target, long offset, FloatBuffer data) {
+        GL15.glBufferSubData(target, offset, data);
+    }
+    
+    @Override
+    public void glCopyBufferSubData(int readTarget, int writeTarget, long readOffset, long writeOffset, long size) {
+        GL31.glCopyBufferSubData(readTarget, writeTarget, readOffset, writeOffset, size);
+    }
+    
+    @Override
+    public void glBufferStorage(int target, long size, int flags) {
+        GL44.glBufferStorage(target, size, flags);
+    }
+    
+    @Override
+    public ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+        return GL30.glMapBufferRange(target, offset, length, access);
+    }
+    
+    @Override
+    public boolean glUnmapBuffer(int target) {
+        return GL15.glUnmapBuffer(target);
+    }
+    
+    // --- SYNC OBJECTS ---
+    
+    @Override
+    public long glFenceSync(int condition, int flags) {
+        return GL32.glFenceSync(condition, flags);
+    }
+    
+    @Override
+    public int glClientWaitSync(long sync, int flags, long timeout) {
+        return GL32.glClientWaitSync(sync, flags, timeout);
+    }
+    
+    @Override
+    public void glDeleteSync(long sync) {
+        GL32.glDeleteSync(sync);
+    }
+    
+    @Override
+    public int glGenQueries() {
+        return GL15.glGenQueries();
+    }
+    
+    @Override
+    public void glDeleteQueries(int id) {
+        GL15.glDeleteQueries(id);
+    }
+    
+    @Override
+    public void glQueryCounter(int id, int target) {
+        GL33.glQueryCounter(id, target);
+    }
+    
+    @Override
+    public int glGetQueryObjecti(int id, int pname) {
+        return GL15.glGetQueryObjecti(id, pname);
+    }
+    
+    @Override
+    public long glGetQueryObjectui64(int id, int pname) {
+        return GL33.glGetQueryObjectui64(id, pname);
+    }
+    
+    @Override
+    public int glGenVertexArrays() {
+        return GL30.glGenVertexArrays();
+    }
+    
+    @Override
+    public void glDeleteVertexArrays(int array) {
+        GL30.glDeleteVertexArrays(array);
+    }
+    
+    @Override
+    public void glBindVertexArray(int array) {
+        GL30.glBindVertexArray(array);
+    }
+    
+    @Override
+    public void glEnableVertexAttribArray(int index) {
+        GL20.glEnableVertexAttribArray(index);
+    }
+    
+    @Override
+    public void glDisableVertexAttribArray(int index) {
+        GL20.glDisableVertexAttribArray(index);
+    }
+    
+    @Override
+    public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+        GL20.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+    }
+    
+    @Override
+    public void glVertexAttribDivisor(int index, int divisor) {
+        GL33.glVertexAttribDivisor(index, divisor);
+    }
+    
+    @Override
+    public void glDrawElementsInstanced(int mode, int count, int type, long indices, int primcount) {
+        GL31.glDrawElementsInstanced(mode, count, type, indices, primcount);
+    }
+    
+    @Override
+    public void glDrawElementsInstancedBaseInstance(int mode, int count, int type, long indices, int primcount, int baseinstance) {
+        GL42.glDrawElementsInstancedBaseInstance(mode, count, type, indices, primcount, baseinstance);
+    }
+    
+    @Override
+    public void glMultiDrawElementsIndirect(int mode, int type, long indirect, int drawcount, int stride) {
+        GL43.glMultiDrawElementsIndirect(mode, type, indirect, drawcount, stride);
+    }
+    
+    @Override
+    public void glDrawElementsIndirect(int mode, int type, long indirect) {
+        GL40.glDrawElementsIndirect(mode, type, indirect);
+    }
+    
+    @Override
+    public int glGenTextures() {
+        return GL11.glGenTextures();
+    }
+    
+    @Override
+    public void glDeleteTextures(int texture) {
+        GL11.glDeleteTextures(texture);
+    }
+    
+    @Override
+    public void glActiveTexture(int texture) {
+        GL13.glActiveTexture(texture);
+    }
+    
+    @Override
+    public void glBindTexture(int target, int texture) {
+        GL11.glBindTexture(target, texture);
+    }
+    
+    @Override
+    public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+        GL11.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+    }
+    
+    @Override
+    public void glTexParameteri(int target, int pname, int param) {
+        GL11.glTexParameteri(target, pname, param);
+    }
+    
+    @Override
+    public void glGenerateMipmap(int target) {
+        GL30.glGenerateMipmap(target);
+    }
+    
+    @Override
+    public int glGenFramebuffers() {
+        return GL30.glGenFramebuffers();
+    }
+    
+    @Override
+    public void glDeleteFramebuffers(int framebuffer) {
+        GL30.glDeleteFramebuffers(framebuffer);
+    }
+    
+    @Override
+    public void glBindFramebuffer(int target, int framebuffer) {
+        GL30.glBindFramebuffer(target, framebuffer);
+    }
+    
+    @Override
+    public int glCheckFramebufferStatus(int target) {
+        return GL30.glCheckFramebufferStatus(target);
+    }
+    
+    @Override
+    public int glGenRenderbuffers() {
+        return GL30.glGenRenderbuffers();
+    }
+    
+    @Override
+    public void glDeleteRenderbuffers(int renderbuffer) {
+        GL30.glDeleteRenderbuffers(renderbuffer);
+    }
+    
+    @Override
+    public void glBindRenderbuffer(int target, int renderbuffer) {
+        GL30.glBindRenderbuffer(target, renderbuffer);
+    }
+    
+    @Override
+    public void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+        GL30.glRenderbufferStorage(target, internalformat, width, height);
+    }
+    
+    @Override
+    public void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+        GL30.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+    }
+    
+    @Override
+    public void glReadPixels(int x, int y, int width, int height, int format, int type, ByteBuffer pixels) {
+        GL11.glReadPixels(x, y, width, height, format, type, pixels);
+    }
+    
+    @Override
+    public int glCreateShader(int type) {
+        return GL20.glCreateShader(type);
+    }
+    
+    @Override
+    public void glDeleteShader(int shader) {
+        GL20.glDeleteShader(shader);
+    }
+    
+    @Override
+    public void glShaderSource(int shader, CharSequence string) {
+        GL20.glShaderSource(shader, string);
+    }
+    
+    @Override
+    public void glCompileShader(int shader) {
+        GL20.glCompileShader(shader);
+    }
+    
+    @Override
+    public int glGetShaderi(int shader, int pname) {
+        return GL20.glGetShaderi(shader, pname);
+    }
+    
+    @Override
+    public String glGetShaderInfoLog(int shader) {
+        return GL20.glGetShaderInfoLog(shader);
+    }
+    
+    @Override
+    public int glCreateProgram() {
+        return GL20.glCreateProgram();
+    }
+    
+    @Override
+    public void glDeleteProgram(int program) {
+        GL20.glDeleteProgram(program);
+    }
+    
+    @Override
+    public void glAttachShader(int program, int shader) {
+        GL20.glAttachShader(program, shader);
+    }
+    
+    @Override
+    public void glDetachShader(int program, int shader) {
+        GL20.glDetachShader(program, shader);
+    }
+    
+    @Override
+    public void glBindAttribLocation(int program, int index, CharSequence name) {
+        GL20.glBindAttribLocation(program, index, name);
+    }
+    
+    @Override
+    public void glLinkProgram(int program) {
+        GL20.glLinkProgram(program);
+    }
+    
+    @Override
+    public void glValidateProgram(int program) {
+        GL20.glValidateProgram(program);
+    }
+    
+    @Override
+    public int glGetProgrami(int program, int pname) {
+        return GL20.glGetProgrami(program, pname);
+    }
+    
+    @Override
+    public String glGetProgramInfoLog(int program) {
+        return GL20.glGetProgramInfoLog(program);
+    }
+    
+    @Override
+    public int glGetProgramInterfacei(int program, int programInterface, int pname) {
+        return GL43.glGetProgramInterfacei(program, programInterface, pname);
+    }
+    
+    @Override
+    public String glGetProgramResourceName(int program, int programInterface, int index) {
+        return GL43.glGetProgramResourceName(program, programInterface, index);
+    }
+    
+    @Override
+    public void glShaderStorageBlockBinding(int program, int storageBlockIndex, int storageBlockBinding) {
+        GL43.glShaderStorageBlockBinding(program, storageBlockIndex, storageBlockBinding);
+    }
+    
+    @Override
+    public void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding) {
+        GL31.glUniformBlockBinding(program, uniformBlockIndex, uniformBlockBinding);
+    }
+    
+    @Override
+    public void glUseProgram(int program) {
+        GL20.glUseProgram(program);
+    }
+    
+    @Override
+    public void glUniform3ui(int location, int v0, int v1, int v2) {
+        GL30.glUniform3ui(location, v0, v1, v2);
+    }
+    
+    @Override
+    public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        GL20.glUniformMatrix4fv(location, transpose, value);
+    }
+    
+    @Override
+    public void glDispatchCompute(int numGroupsX, int numGroupsY, int numGroupsZ) {
+        GL43.glDispatchCompute(numGroupsX, numGroupsY, numGroupsZ);
+    }
+    
+    @Override
+    public void glMemoryBarrier(int barriers) {
+        GL42.glMemoryBarrier(barriers);
+    }
+}
@@ -1,15 +1,20 @@
 package net.vob.core.graphics;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import net.vob.VoidOfBlue;
 import net.vob.util.Identity;
 import net.vob.util.Tree;
 import net.vob.util.Trees;
+import net.vob.util.logging.Level;
+import net.vob.util.logging.LocaleUtils;
 import net.vob.util.math.AffineTransformation;
-import net.vob.util.math.AffineTransformationImpl;
 import net.vob.util.math.Matrix;
 import net.vob.util.math.Vector3;
-import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL32;
@@ -17,22 +22,245 @@ import org.lwjgl.opengl.GL43;
 
 /**
  * Messaging class. This class is used for communicating with the graphics thread, and
- * also contains a {@link Future} object for two-way communication.
+ * also contains a {@link Future} object for two-way communication.<p>
+ * 
+ * Messages recorded into a {@link CommandBatch} are <i>unbound</i>; they have no future
+ * of their own, and are instead executed as part of the single {@link Type#BATCH}
+ * message the batch is submitted as.<p>
+ * 
+ * Most operations exist in two forms: one that operates on the currently selected GL
+ * objects (e.g. {@link Type#RENDERABLE_ATTACH_MESH}), and one that instead takes the IDs
+ * of the GL objects it operates on as arguments (e.g.
+ * {@link Type#RENDERABLE_ATTACH_MESH_BY_HANDLE}). Both forms share the same underlying
+ * operation; the handle form neither reads nor alters the selection state, except that
+ * closing a GL object by handle will also deselect it if it is currently selected.<p>
+ * 
+ * Arguments are stored in fixed positional slots rather than as a boxed array; integer
+ * and boolean arguments occupy the primitive slot of their position, and all other
+ * arguments occupy the reference slot. Messages that do not need a result can instead be
+ * <i>posted</i>: a posted message is obtained from the {@link MessagePool}, has no
+ * future, and is recycled once handled, so that posting it generates no garbage.
  * 
  * @author Lyn-Park
  */
 final class Message {
-    private final Type type;
-    private final Object[] args;
-    final CompletableFuture<Integer> future = new CompletableFuture<>();
+    private static final Logger LOG = VoidOfBlue.getLogger(Message.class);
+    
+    /** The maximum number of arguments a single message can carry. */
+    static final int MAX_ARGS = 7;
+    
+    /**
+     * The message types in the expensive cost class. These are the messages that decode
+     * images, compile shaders or upload whole buffers, and are the messages that can be
+     * deferred to a later frame once the message time budget of the current frame has
+     * been used up. All other message types are cheap.
+     */
+    private static final Set<Type> EXPENSIVE_TYPES = EnumSet.of(
+            Type.MESH_NEW, Type.MESH_CREATE,
+            Type.SHADER_NEW_VERT, Type.SHADER_NEW_FRAG, Type.SHADER_NEW_GEOM,
+            Type.SHADER_CREATE_VERT, Type.SHADER_CREATE_FRAG, Type.SHADER_CREATE_GEOM,
+            Type.TEXTURE_ID_NEW_2D, Type.TEXTURE_IM_NEW_2D, Type.TEXTURE_ID_NEW_CUBE,
+            Type.TEXTURE_ID6_NEW_CUBE, Type.TEXTURE_IM_NEW_CUBE, Type.TEXTURE_IM6_NEW_CUBE,
+            Type.TEXTURE_ID_CREATE_2D, Type.TEXTURE_IM_CREATE_2D, Type.TEXTURE_ID_CREATE_CUBE,
+            Type.TEXTURE_ID6_CREATE_CUBE, Type.TEXTURE_IM_CREATE_CUBE, Type.TEXTURE_IM6_CREATE_CUBE,
+            Type.SKELETON_NEW, Type.SKELETON_CREATE,
+            Type.BATCH);
+    
+    private Type type;
+    private final Object[] refs = new Object[MAX_ARGS];
+    private final int[] ints = new int[MAX_ARGS];
+    CompletableFuture<Integer> future;
+    private final boolean pooled;
+    /** The free list this message is returned to, if pooled. */
+    MessagePool.FreeList poolOwner = null;
+    /** The next message in the free list or returned stack this message is on, if any. */
+    Message poolNext = null;
+    
+    /** The first message that was coalesced into this message, if any. */
+    private Message coalesced = null;
+    /** The next message in the coalesced chain this message is part of, if any. */
+    private Message coalescedNext = null;
     
     Message(Type type, Object... args) {
+        this(new CompletableFuture<>(), type, args);
+    }
+    
+    private Message(CompletableFuture<Integer> future, Type type, Object[] args) {
+        this(false);
+        this.future = future;
         this.type = type;
-        this.args = args;
+        
+        if (args.length > MAX_ARGS)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x<=", "args.length", args.length, MAX_ARGS));
+        
+        for (int i = 0; i < args.length; ++i) {
+            if (args[i] instanceof Integer)
+                ints[i] = (Integer)args[i];
+            else if (args[i] instanceof Boolean)
+                ints[i] = (Boolean)args[i] ? 1 : 0;
+            else
+                refs[i] = args[i];
+        }
     }
     
-    @SuppressWarnings("element-type-mismatch")
+    private Message(boolean pooled) {
+        this.pooled = pooled;
+    }
+    
+    /**
+     * Constructs a new unbound message, which has no future. Unbound messages cannot be
+     * handled directly, and must be executed as part of a batch.
+     */
+    static Message unbound(Type type, Object... args) {
+        return new Message(null, type, args);
+    }
+    
+    /**
+     * Obtains a posted message from the {@link MessagePool}. Posted messages have no
+     * future; their arguments are set with {@link withRef(int, Object)},
+     * {@link withInt(int, int)} and {@link withBoolean(int, boolean)}, and they are
+     * returned to the pool by the graphics thread once they have been handled. A posted
+     * message must not be accessed by the posting thread after it has been enqueued.
+     */
+    static Message obtain(Type type) {
+        Message message = GraphicsManager.MESSAGE_POOL.acquire();
+        message.type = type;
+        return message;
+    }
+    
+    /**
+     * Constructs a new message for the {@link MessagePool}. This is only called by the
+     * pool itself, when it has no free messages left.
+     */
+    static Message newPooled() {
+        return new Message(true);
+    }
+    
+    Message withRef(int index, Object value) {
+        refs[index] = value;
+        return this;
+    }
+    
+    Message withInt(int index, int value) {
+        ints[index] = value;
+        return this;
+    }
+    
+    Message withBoolean(int index, boolean value) {
+        ints[index] = value ? 1 : 0;
+        return this;
+    }
+    
+    /**
+     * @return {@code true} if this message was obtained from the {@link MessagePool},
+     * {@code false} otherwise
+     */
+    boolean isPooled() {
+        return pooled;
+    }
+    
+    /**
+     * Clears the type and arguments of this message, so that it does not keep any
+     * arguments reachable while it sits in the pool, and so that any primitive slot the
+     * next user of the message does not set reads as zero.
+     */
+    void reset() {
+        type = null;
+        future = null;
+        coalesced = null;
+        coalescedNext = null;
+        
+        for (int i = 0; i < MAX_ARGS; ++i) {
+            refs[i] = null;
+            ints[i] = 0;
+        }
+    }
+    
+    Type getType() {
+        return type;
+    }
+    
+    /**
+     * @return {@code true} if this message is in the expensive cost class, {@code false}
+     * if it is cheap
+     */
+    boolean isExpensive() {
+        return EXPENSIVE_TYPES.contains(type);
+    }
+    
+    Object getRef(int index) {
+        return refs[index];
+    }
+    
+    int getInt(int index) {
+        return ints[index];
+    }
+    
+    /**
+     * Coalesces the given earlier message into this message. The earlier message, along
+     * with any messages that were previously coalesced into it, will not be executed;
+     * instead, they are completed with the result of this message once it has been
+     * handled.
+     * 
+     * @param earlier the superseded message
+     */
+    void coalesce(Message earlier) {
+        Message c = earlier.coalesced;
+        earlier.coalesced = null;
+        
+        earlier.coalescedNext = coalesced;
+        coalesced = earlier;
+        
+        while (c != null) {
+            Message next = c.coalescedNext;
+            c.coalescedNext = coalesced;
+            coalesced = c;
+            c = next;
+        }
+    }
+    
+    /**
+     * Handles this message, completing the future with the result or cancelling it if
+     * the message failed. Posted messages have no future, and so a failed posted message
+     * is only logged.
+     */
     void handle() throws Throwable {
+        complete(execute());
+    }
+    
+    /**
+     * Completes the future of this message, and of all messages coalesced into this
+     * message, with the given result. The coalesced messages are released back into the
+     * {@link MessagePool}, if they were pooled.
+     * 
+     * @param o the result of the message, or {@code null} if the message failed
+     */
+    void complete(Integer o) {
+        if (future == null) {
+            if (o == null)
+                LOG.log(Level.FINER, "Message.handle.PostedMessageFailed", type);
+        }
+        else if (o == null) future.cancel(false);
+        else                future.complete(o);
+        
+        Message c = coalesced;
+        coalesced = null;
+        
+        while (c != null) {
+            Message next = c.coalescedNext;
+            c.coalescedNext = null;
+            c.complete(o);
+            GraphicsManager.MESSAGE_POOL.release(c);
+            c = next;
+        }
+    }
+    
+    /**
+     * Executes the operation of this message.
+     * @return the result of the operation, or {@code null} if the operation failed
+     */
+    @SuppressWarnings("element-type-mismatch")
+    Integer execute() throws Throwable {
         AffineTransformation AFFINE_TRANSFORMATION;
         AffineTransformation[] AFFINE_TRANSFORMATION_ARR;
         Tree<? extends AffineTransformation, ?> AFFINE_TRANSFORMATION_TREE;
@@ -43,6 +271,7 @@ final class Message {
         int INT;
         int[] INT_ARR;
         boolean BOOLEAN;
+        GLRenderable RENDERABLE;
         
         
         Integer o = 0;
@@ -57,15 +286,15 @@ final class Message {
                 break;
                 
             case ENABLE_DEBUGGING:
-                GL11.glEnable(GL43.GL_DEBUG_OUTPUT);
+                GraphicsManager.BACKEND.glEnable(GL43.GL_DEBUG_OUTPUT);
                 break;
                 
             case DISABLE_DEBUGGING:
-                GL11.glDisable(GL43.GL_DEBUG_OUTPUT);
+                GraphicsManager.BACKEND.glDisable(GL43.GL_DEBUG_OUTPUT);
                 break;
                 
             case VIEWPORT_SET_TRANSFORM:
-                AFFINE_TRANSFORMATION = (AffineTransformation)args[0];
+                AFFINE_TRANSFORMATION = (AffineTransformation)refs[0];
                 
                 if (AFFINE_TRANSFORMATION == null)
                     o = null;
@@ -82,17 +311,19 @@ final class Message {
                 break;
                 
             case SKYBOX_SET_TEXTURE:
-                if (GraphicsManager.SELECTED_TEXTURE == null || GraphicsManager.SELECTED_TEXTURE.unit != GL13.GL_TEXTURE0 || !(GraphicsManager.SELECTED_TEXTURE instanceof GLTextureCubemap))
-                    o = null;
-                else
-                    GraphicsManager.SKYBOX.tex = (GLTextureCubemap)GraphicsManager.SELECTED_TEXTURE;
+                o = skyboxSetTexture(GraphicsManager.SELECTED_TEXTURE);
+                break;
+                
+            case SKYBOX_SET_TEXTURE_BY_HANDLE:
+                o = skyboxSetTexture(GLTexture.REGISTRY.get(ints[0]));
                 break;
                 
             case MESH_NEW:
-                VECTOR3_ARR_0 = (Vector3[])args[0];
-                VECTOR3_ARR_1 = (Vector3[])args[1];
-                VECTOR3_ARR_2 = (Vector3[])args[2];
-                INT_ARR = (int[])args[3];
+            case MESH_CREATE:
+                VECTOR3_ARR_0 = (Vector3[])refs[0];
+                VECTOR3_ARR_1 = (Vector3[])refs[1];
+                VECTOR3_ARR_2 = (Vector3[])refs[2];
+                INT_ARR = (int[])refs[3];
                 
                 if (VECTOR3_ARR_0 == null || VECTOR3_ARR_1 == null || INT_ARR == null)
                     o = null;
@@ -102,12 +333,13 @@ final class Message {
                         mesh.init();
 
                     o = GLMesh.REGISTRY.register(mesh);
-                    GraphicsManager.SELECTED_MESH = mesh;
+                    if (type == Type.MESH_NEW)
+                        GraphicsManager.SELECTED_MESH = mesh;
                 }
                 break;
 
             case MESH_SELECT:
-                INT = (int)args[0];
+                INT = ints[0];
                 
                 GraphicsManager.SELECTED_MESH = GLMesh.REGISTRY.get(INT);
                 break;
@@ -128,49 +360,43 @@ final class Message {
                 break;
 
             case MESH_REBUFFER:
-                if (GraphicsManager.SELECTED_MESH == null || GraphicsManager.SELECTED_MESH.isReadonly())
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_MESH.setRebuffer();
+                o = meshRebuffer(GraphicsManager.SELECTED_MESH);
+                break;
+                
+            case MESH_REBUFFER_BY_HANDLE:
+                o = meshRebuffer(GLMesh.REGISTRY.get(ints[0]));
                 break;
                 
             case MESH_CLOSE:
-                if (GraphicsManager.SELECTED_MESH == null || GLMesh.getDefaults().contains(GraphicsManager.SELECTED_MESH))
-                    o = null;
-                else {
-                    GLMesh.REGISTRY.deregister(GraphicsManager.SELECTED_MESH);
-                    GraphicsManager.SELECTED_MESH = null;
-                }
+                o = meshClose(GraphicsManager.SELECTED_MESH);
+                break;
+                
+            case MESH_CLOSE_BY_HANDLE:
+                o = meshClose(GLMesh.REGISTRY.get(ints[0]));
                 break;
 
             case MESH_SET_ATTRIBUTES:
-                VECTOR3_ARR_0 = (Vector3[])args[0];
-                VECTOR3_ARR_1 = (Vector3[])args[1];
-                VECTOR3_ARR_2 = (Vector3[])args[2];
-                INT_ARR = (int[])args[3];
+                o = meshSetAttributes(GraphicsManager.SELECTED_MESH, (Vector3[])refs[0], (Vector3[])refs[1], (Vector3[])refs[2], (int[])refs[3]);
+                break;
                 
-                if (GraphicsManager.SELECTED_MESH == null || GraphicsManager.SELECTED_MESH.isReadonly())
-                    o = null;
-                else {
-                    if (VECTOR3_ARR_0 != null) GraphicsManager.SELECTED_MESH.setPositions(VECTOR3_ARR_0);
-                    if (VECTOR3_ARR_1 != null) GraphicsManager.SELECTED_MESH.setUVs(VECTOR3_ARR_1);
-                    if (VECTOR3_ARR_2 != null) GraphicsManager.SELECTED_MESH.setNormals(VECTOR3_ARR_2);
-                    if (INT_ARR != null) GraphicsManager.SELECTED_MESH.setTriangles(INT_ARR);
-                }
+            case MESH_SET_ATTRIBUTES_BY_HANDLE:
+                o = meshSetAttributes(GLMesh.REGISTRY.get(ints[0]), (Vector3[])refs[1], (Vector3[])refs[2], (Vector3[])refs[3], (int[])refs[4]);
                 break;
                 
             case MESH_RECALC_NORMALS:
-                if (GraphicsManager.SELECTED_MESH == null || GraphicsManager.SELECTED_MESH.isReadonly())
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_MESH.recalculateNormals();
+                o = meshRecalculateNormals(GraphicsManager.SELECTED_MESH);
+                break;
+                
+            case MESH_RECALC_NORMALS_BY_HANDLE:
+                o = meshRecalculateNormals(GLMesh.REGISTRY.get(ints[0]));
                 break;
                 
             case MESH_SET_READONLY:
-                if (GraphicsManager.SELECTED_MESH == null)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_MESH.setAsReadonly();
+                o = meshSetReadonly(GraphicsManager.SELECTED_MESH);
+                break;
+                
+            case MESH_SET_READONLY_BY_HANDLE:
+                o = meshSetReadonly(GLMesh.REGISTRY.get(ints[0]));
                 break;
                 
             case MESH_GET_ID:
@@ -181,52 +407,22 @@ final class Message {
                 break;
                 
             case SHADER_NEW_VERT:
-                IDENTITY_0 = (Identity)args[0];
-                
-                if (IDENTITY_0 == null)
-                    o = null;
-                else {
-                    GLShader vShader = new GLShader(IDENTITY_0, GL20.GL_VERTEX_SHADER);
-                    if (!GLShader.REGISTRY.isRegistered(vShader))
-                        vShader.init();
-
-                    o = GLShader.REGISTRY.register(vShader);
-                    GraphicsManager.SELECTED_SHADER = vShader;
-                }
+            case SHADER_CREATE_VERT:
+                o = shaderNew((Identity)refs[0], GL20.GL_VERTEX_SHADER, type == Type.SHADER_NEW_VERT);
                 break;
                 
             case SHADER_NEW_FRAG:
-                IDENTITY_0 = (Identity)args[0];
-                
-                if (IDENTITY_0 == null)
-                    o = null;
-                else {
-                    GLShader fShader = new GLShader(IDENTITY_0, GL20.GL_FRAGMENT_SHADER);
-                    if (!GLShader.REGISTRY.isRegistered(fShader))
-                        fShader.init();
-
-                    o = GLShader.REGISTRY.register(fShader);
-                    GraphicsManager.SELECTED_SHADER = fShader;
-                }
+            case SHADER_CREATE_FRAG:
+                o = shaderNew((Identity)refs[0], GL20.GL_FRAGMENT_SHADER, type == Type.SHADER_NEW_FRAG);
                 break;
                 
             case SHADER_NEW_GEOM:
-                IDENTITY_0 = (Identity)args[0];
-                
-                if (IDENTITY_0 == null)
-                    o = null;
-                else {
-                    GLShader gShader = new GLShader(IDENTITY_0, GL32.GL_GEOMETRY_SHADER);
-                    if (!GLShader.REGISTRY.isRegistered(gShader))
-                        gShader.init();
-
-                    o = GLShader.REGISTRY.register(gShader);
-                    GraphicsManager.SELECTED_SHADER = gShader;
-                }
+            case SHADER_CREATE_GEOM:
+                o = shaderNew((Identity)refs[0], GL32.GL_GEOMETRY_SHADER, type == Type.SHADER_NEW_GEOM);
                 break;
                 
             case SHADER_SELECT:
-                INT = (int)args[0];
+                INT = ints[0];
                 GraphicsManager.SELECTED_SHADER = GLShader.REGISTRY.get(INT);
                 break;
                 
@@ -261,13 +457,11 @@ final class Message {
                 break;
                 
             case SHADER_CLOSE:
-                if (GraphicsManager.SELECTED_SHADER == null || GLShader.getDefaults().contains(GraphicsManager.SELECTED_SHADER))
-                    o = null;
-                else {
-                    GLShader.REGISTRY.deregister(GraphicsManager.SELECTED_SHADER);
-                    GraphicsManager.SELECTED_SHADER.close();
-                    GraphicsManager.SELECTED_SHADER = null;
-                }
+                o = shaderClose(GraphicsManager.SELECTED_SHADER);
+                break;
+                
+            case SHADER_CLOSE_BY_HANDLE:
+                o = shaderClose(GLShader.REGISTRY.get(ints[0]));
                 break;
                 
             case SHADER_GET_ID:
@@ -278,18 +472,20 @@ final class Message {
                 break;
                 
             case SHADER_PROGRAM_NEW:
-                BOOLEAN = (boolean)args[0];
+            case SHADER_PROGRAM_CREATE:
+                BOOLEAN = (ints[0] != 0);
                 
                 GLShaderProgram prog = new GLShaderProgram(BOOLEAN);
                 if (!GLShaderProgram.REGISTRY.isRegistered(prog))
                     prog.init();
                 
                 o = GLShaderProgram.REGISTRY.register(prog);
-                GraphicsManager.SELECTED_PROGRAM = prog;
+                if (type == Type.SHADER_PROGRAM_NEW)
+                    GraphicsManager.SELECTED_PROGRAM = prog;
                 break;
                 
             case SHADER_PROGRAM_SELECT:
-                INT = (int)args[0];
+                INT = ints[0];
                 
                 GraphicsManager.SELECTED_PROGRAM = GLShaderProgram.REGISTRY.get(INT);
                 break;
@@ -310,27 +506,27 @@ final class Message {
                 break;
                 
             case SHADER_PROGRAM_CLOSE:
-                if (GraphicsManager.SELECTED_PROGRAM == null || GLShaderProgram.getDefaults().contains(GraphicsManager.SELECTED_PROGRAM))
-                    o = null;
-                else {
-                    GLShaderProgram.REGISTRY.deregister(GraphicsManager.SELECTED_PROGRAM);
-                    GraphicsManager.SELECTED_PROGRAM.close();
-                    GraphicsManager.SELECTED_PROGRAM = null;
-                }
+                o = shaderProgramClose(GraphicsManager.SELECTED_PROGRAM);
+                break;
+                
+            case SHADER_PROGRAM_CLOSE_BY_HANDLE:
+                o = shaderProgramClose(GLShaderProgram.REGISTRY.get(ints[0]));
                 break;
                 
             case SHADER_PROGRAM_SET_READONLY:
-                if (GraphicsManager.SELECTED_PROGRAM == null)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_PROGRAM.setAsReadonly();
+                o = shaderProgramSetReadonly(GraphicsManager.SELECTED_PROGRAM);
+                break;
+                
+            case SHADER_PROGRAM_SET_READONLY_BY_HANDLE:
+                o = shaderProgramSetReadonly(GLShaderProgram.REGISTRY.get(ints[0]));
                 break;
                 
             case SHADER_PROGRAM_ATTACH:
-                if (GraphicsManager.SELECTED_PROGRAM == null || GraphicsManager.SELECTED_PROGRAM.isReadonly() || GraphicsManager.SELECTED_SHADER == null)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_PROGRAM.attachShader(GraphicsManager.SELECTED_SHADER);
+                o = shaderProgramAttach(GraphicsManager.SELECTED_PROGRAM, GraphicsManager.SELECTED_SHADER);
+                break;
+                
+            case SHADER_PROGRAM_ATTACH_BY_HANDLE:
+                o = shaderProgramAttach(GLShaderProgram.REGISTRY.get(ints[0]), GLShader.REGISTRY.get(ints[1]));
                 break;
                 
             case SHADER_PROGRAM_GET_ID:
@@ -341,83 +537,95 @@ final class Message {
                 break;
                 
             case TEXTURE_ID_NEW_2D:
-                IDENTITY_0 = (Identity)args[0];
-                INT = (int)args[1];
+            case TEXTURE_ID_CREATE_2D:
+                IDENTITY_0 = (Identity)refs[0];
+                INT = ints[1];
                 
                 GLTexture2D texID2D = new GLTexture2D(IDENTITY_0, INT);
                 if (!GLTexture.REGISTRY.isRegistered(texID2D))
                     texID2D.init();
                 
                 o = GLTexture.REGISTRY.register(texID2D);
-                GraphicsManager.SELECTED_TEXTURE = texID2D;
+                if (type == Type.TEXTURE_ID_NEW_2D)
+                    GraphicsManager.SELECTED_TEXTURE = texID2D;
                 break;
                 
             case TEXTURE_IM_NEW_2D:
-                BUFFERED_IMAGE_0 = (BufferedImage)args[0];
-                INT = (int)args[1];
+            case TEXTURE_IM_CREATE_2D:
+                BUFFERED_IMAGE_0 = (BufferedImage)refs[0];
+                INT = ints[1];
                 
                 GLTexture2D texIm2D = new GLTexture2D(BUFFERED_IMAGE_0, INT);
                 o = GLTexture.REGISTRY.register(texIm2D);
-                GraphicsManager.SELECTED_TEXTURE = texIm2D;
+                if (type == Type.TEXTURE_IM_NEW_2D)
+                    GraphicsManager.SELECTED_TEXTURE = texIm2D;
                 break;
             
             case TEXTURE_ID_NEW_CUBE:
-                IDENTITY_0 = (Identity)args[0];
-                INT = (int)args[1];
+            case TEXTURE_ID_CREATE_CUBE:
+                IDENTITY_0 = (Identity)refs[0];
+                INT = ints[1];
                 
                 GLTextureCubemap texIDCube = new GLTextureCubemap(IDENTITY_0, INT);
                 if (!GLTexture.REGISTRY.isRegistered(texIDCube))
                     texIDCube.init();
                 
                 o = GLTexture.REGISTRY.register(texIDCube);
-                GraphicsManager.SELECTED_TEXTURE = texIDCube;
+                if (type == Type.TEXTURE_ID_NEW_CUBE)
+                    GraphicsManager.SELECTED_TEXTURE = texIDCube;
                 break;
             
             case TEXTURE_ID6_NEW_CUBE:
-                IDENTITY_0 = (Identity)args[0];
-                IDENTITY_1 = (Identity)args[1];
-                IDENTITY_2 = (Identity)args[2];
-                IDENTITY_3 = (Identity)args[3];
-                IDENTITY_4 = (Identity)args[4];
-                IDENTITY_5 = (Identity)args[5];
-                INT = (int)args[6];
+            case TEXTURE_ID6_CREATE_CUBE:
+                IDENTITY_0 = (Identity)refs[0];
+                IDENTITY_1 = (Identity)refs[1];
+                IDENTITY_2 = (Identity)refs[2];
+                IDENTITY_3 = (Identity)refs[3];
+                IDENTITY_4 = (Identity)refs[4];
+                IDENTITY_5 = (Identity)refs[5];
+                INT = ints[6];
                 
                 GLTextureCubemap texID6Cube = new GLTextureCubemap(IDENTITY_0, IDENTITY_1, IDENTITY_2, IDENTITY_3, IDENTITY_4, IDENTITY_5, INT);
                 if (!GLTexture.REGISTRY.isRegistered(texID6Cube))
                     texID6Cube.init();
                 
                 o = GLTexture.REGISTRY.register(texID6Cube);
-                GraphicsManager.SELECTED_TEXTURE = texID6Cube;
+                if (type == Type.TEXTURE_ID6_NEW_CUBE)
+                    GraphicsManager.SELECTED_TEXTURE = texID6Cube;
                 break;
             
             case TEXTURE_IM_NEW_CUBE:
-                BUFFERED_IMAGE_0 = (BufferedImage)args[0];
-                INT = (int)args[1];
+            case TEXTURE_IM_CREATE_CUBE:
+                BUFFERED_IMAGE_0 = (BufferedImage)refs[0];
+                INT = ints[1];
                 
                 GLTextureCubemap texImCube = new GLTextureCubemap(BUFFERED_IMAGE_0, INT);
                 o = GLTexture.REGISTRY.register(texImCube);
-                GraphicsManager.SELECTED_TEXTURE = texImCube;
+                if (type == Type.TEXTURE_IM_NEW_CUBE)
+                    GraphicsManager.SELECTED_TEXTURE = texImCube;
                 break;
                 
             case TEXTURE_IM6_NEW_CUBE:
-                BUFFERED_IMAGE_0 = (BufferedImage)args[0];
-                BUFFERED_IMAGE_1 = (BufferedImage)args[1];
-                BUFFERED_IMAGE_2 = (BufferedImage)args[2];
-                BUFFERED_IMAGE_3 = (BufferedImage)args[3];
-                BUFFERED_IMAGE_4 = (BufferedImage)args[4];
-                BUFFERED_IMAGE_5 = (BufferedImage)args[5];
-                INT = (int)args[6];
+            case TEXTURE_IM6_CREATE_CUBE:
+                BUFFERED_IMAGE_0 = (BufferedImage)refs[0];
+                BUFFERED_IMAGE_1 = (BufferedImage)refs[1];
+                BUFFERED_IMAGE_2 = (BufferedImage)refs[2];
+                BUFFERED_IMAGE_3 = (BufferedImage)refs[3];
+                BUFFERED_IMAGE_4 = (BufferedImage)refs[4];
+                BUFFERED_IMAGE_5 = (BufferedImage)refs[5];
+                INT = ints[6];
                 
                 GLTextureCubemap texIm6Cube = new GLTextureCubemap(BUFFERED_IMAGE_0, BUFFERED_IMAGE_1, BUFFERED_IMAGE_2, BUFFERED_IMAGE_3, BUFFERED_IMAGE_4, BUFFERED_IMAGE_5, INT);
                 if (!GLTexture.REGISTRY.isRegistered(texIm6Cube))
                     texIm6Cube.init();
                 
                 o = GLTexture.REGISTRY.register(texIm6Cube);
-                GraphicsManager.SELECTED_TEXTURE = texIm6Cube;
+                if (type == Type.TEXTURE_IM6_NEW_CUBE)
+                    GraphicsManager.SELECTED_TEXTURE = texIm6Cube;
                 break;
                 
             case TEXTURE_SELECT:
-                INT = (int)args[0];
+                INT = ints[0];
                 
                 GraphicsManager.SELECTED_TEXTURE = GLTexture.REGISTRY.get(INT);
                 break;
@@ -433,13 +641,11 @@ final class Message {
                 break;
             
             case TEXTURE_CLOSE:
-                if (GraphicsManager.SELECTED_TEXTURE == null || GLTexture2D.getDefaults().contains(GraphicsManager.SELECTED_TEXTURE) || GLTextureCubemap.getDefaults().contains(GraphicsManager.SELECTED_TEXTURE))
-                    o = null;
-                else {
-                    GLTexture.REGISTRY.deregister(GraphicsManager.SELECTED_TEXTURE);
-                    GraphicsManager.SELECTED_TEXTURE.close();
-                    GraphicsManager.SELECTED_TEXTURE = null;
-                }
+                o = textureClose(GraphicsManager.SELECTED_TEXTURE);
+                break;
+            
+            case TEXTURE_CLOSE_BY_HANDLE:
+                o = textureClose(GLTexture.REGISTRY.get(ints[0]));
                 break;
             
             case TEXTURE_GET_ID:
@@ -450,8 +656,9 @@ final class Message {
                 break;
                 
             case SKELETON_NEW:
-                AFFINE_TRANSFORMATION_TREE = (Tree<? extends AffineTransformation, ?>)args[0];
-                MATRIX = (Matrix)args[1];
+            case SKELETON_CREATE:
+                AFFINE_TRANSFORMATION_TREE = (Tree<? extends AffineTransformation, ?>)refs[0];
+                MATRIX = (Matrix)refs[1];
                 
                 if (AFFINE_TRANSFORMATION_TREE == null || MATRIX == null || MATRIX.getNumRows() == 0 || MATRIX.getNumColumns() == 0)
                     o = null;
@@ -461,24 +668,23 @@ final class Message {
                         skeleton.init();
 
                     o = GLSkeleton.REGISTRY.register(skeleton);
-                    GraphicsManager.SELECTED_SKELETON = skeleton;
+                    if (type == Type.SKELETON_NEW)
+                        GraphicsManager.SELECTED_SKELETON = skeleton;
                 }
                 break;
                 
             case SKELETON_SELECT:
-                INT = (int)args[0];
+                INT = ints[0];
                 
                 GraphicsManager.SELECTED_SKELETON = GLSkeleton.REGISTRY.get(INT);
                 break;
                 
             case SKELETON_CLOSE:
-                if (GraphicsManager.SELECTED_SKELETON == null)
-                    o = null;
-                else {
-                    GLSkeleton.REGISTRY.deregister(GraphicsManager.SELECTED_SKELETON);
-                    GraphicsManager.SELECTED_SKELETON.close();
-                    GraphicsManager.SELECTED_SKELETON = null;
-                }
+                o = skeletonClose(GraphicsManager.SELECTED_SKELETON);
+                break;
+                
+            case SKELETON_CLOSE_BY_HANDLE:
+                o = skeletonClose(GLSkeleton.REGISTRY.get(ints[0]));
                 break;
                 
             case SKELETON_GET_ID:
@@ -489,58 +695,60 @@ final class Message {
                 break;
 
             case RENDERABLE_NEW:
-                INT = (int)args[0];
+            case RENDERABLE_CREATE:
+                INT = ints[0];
                 
                 if (INT < 1)
                     o = null;
                 else {
                     GLRenderable renderable = new GLRenderable(INT);
                     o = GLRenderable.REGISTRY.register(renderable);
-                    GraphicsManager.SELECTED_RENDERABLE = renderable;
+                    if (type == Type.RENDERABLE_NEW || type == Type.RENDERABLE_NEW_TRANSFORMS)
+                        GraphicsManager.SELECTED_RENDERABLE = renderable;
                 }
                 break;
                 
             case RENDERABLE_NEW_TRANSFORMS:
-                AFFINE_TRANSFORMATION_ARR = (AffineTransformation[])args[0];
+            case RENDERABLE_CREATE_TRANSFORMS:
+                AFFINE_TRANSFORMATION_ARR = (AffineTransformation[])refs[0];
                 
                 if (AFFINE_TRANSFORMATION_ARR == null || AFFINE_TRANSFORMATION_ARR.length == 0)
                     o = null;
                 else {
                     GLRenderable renderable = new GLRenderable(AFFINE_TRANSFORMATION_ARR);
                     o = GLRenderable.REGISTRY.register(renderable);
-                    GraphicsManager.SELECTED_RENDERABLE = renderable;
+                    if (type == Type.RENDERABLE_NEW || type == Type.RENDERABLE_NEW_TRANSFORMS)
+                        GraphicsManager.SELECTED_RENDERABLE = renderable;
                 }
                 break;
 
             case RENDERABLE_SELECT:
-                INT = (int)args[0];
+                INT = ints[0];
                 GraphicsManager.SELECTED_RENDERABLE = GLRenderable.REGISTRY.get(INT);
                 break;
 
             case RENDERABLE_CLOSE:
-                if (GraphicsManager.SELECTED_RENDERABLE == null)
-                    o = null;
-                else {
-                    GLRenderable.REGISTRY.deregister(GraphicsManager.SELECTED_RENDERABLE);
-                    GraphicsManager.removeRenderingMap(GraphicsManager.SELECTED_RENDERABLE);
-                    GraphicsManager.SELECTED_RENDERABLE = null;
-                }
+                o = renderableClose(GraphicsManager.SELECTED_RENDERABLE);
+                break;
+                
+            case RENDERABLE_CLOSE_BY_HANDLE:
+                o = renderableClose(GLRenderable.REGISTRY.get(ints[0]));
                 break;
 
             case RENDERABLE_ATTACH_MESH:
-                if (GraphicsManager.SELECTED_RENDERABLE == null || GraphicsManager.SELECTED_MESH == null)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_RENDERABLE.mesh = GraphicsManager.SELECTED_MESH;
+                o = renderableAttachMesh(GraphicsManager.SELECTED_RENDERABLE, GraphicsManager.SELECTED_MESH);
+                break;
+                
+            case RENDERABLE_ATTACH_MESH_BY_HANDLE:
+                o = renderableAttachMesh(GLRenderable.REGISTRY.get(ints[0]), GLMesh.REGISTRY.get(ints[1]));
                 break;
                 
             case RENDERABLE_ATTACH_TEXTURE:
-                if (GraphicsManager.SELECTED_RENDERABLE == null || GraphicsManager.SELECTED_TEXTURE == null || (GraphicsManager.SELECTED_RENDERABLE.program != null && !GraphicsManager.SELECTED_RENDERABLE.program.isCompatible(GraphicsManager.SELECTED_TEXTURE)))
-                    o = null;
-                else {
-                    int index = GraphicsManager.SELECTED_TEXTURE.unit - GL13.GL_TEXTURE0;
-                    GraphicsManager.SELECTED_RENDERABLE.textures[index] = GraphicsManager.SELECTED_TEXTURE;
-                }
+                o = renderableAttachTexture(GraphicsManager.SELECTED_RENDERABLE, GraphicsManager.SELECTED_TEXTURE);
+                break;
+                
+            case RENDERABLE_ATTACH_TEXTURE_BY_HANDLE:
+                o = renderableAttachTexture(GLRenderable.REGISTRY.get(ints[0]), GLTexture.REGISTRY.get(ints[1]));
                 break;
                 
             case RENDERABLE_DETACH_TEXTURE:
@@ -548,80 +756,76 @@ final class Message {
                     o = null;
                 else {
                     int index = GraphicsManager.SELECTED_TEXTURE.unit - GL13.GL_TEXTURE0;
-                    if (GraphicsManager.SELECTED_RENDERABLE.textures[index] == GraphicsManager.SELECTED_TEXTURE)
+                    if (GraphicsManager.SELECTED_RENDERABLE.textures[index] == GraphicsManager.SELECTED_TEXTURE) {
                         GraphicsManager.SELECTED_RENDERABLE.textures[index] = null;
-                    else
+                        GraphicsManager.SELECTED_RENDERABLE.updateSortKey();
+                    } else
                         o = null;
                 }
                 break;
                 
             case RENDERABLE_DETACH_TEXTURE_UNIT:
-                INT = (int)args[0];
-                if (GraphicsManager.SELECTED_RENDERABLE == null || INT < 0 || INT > GraphicsManager.MAX_COMBINED_TEXTURE_UNITS)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_RENDERABLE.textures[INT] = null;
+                o = renderableDetachTextureUnit(GraphicsManager.SELECTED_RENDERABLE, ints[0]);
+                break;
+                
+            case RENDERABLE_DETACH_TEXTURE_UNIT_BY_HANDLE:
+                o = renderableDetachTextureUnit(GLRenderable.REGISTRY.get(ints[0]), ints[1]);
                 break;
                 
             case RENDERABLE_ATTACH_SKELETON:
-                if (GraphicsManager.SELECTED_RENDERABLE == null || GraphicsManager.SELECTED_SKELETON == null)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_RENDERABLE.skeleton = GraphicsManager.SELECTED_SKELETON;
+                o = renderableAttachSkeleton(GraphicsManager.SELECTED_RENDERABLE, GraphicsManager.SELECTED_SKELETON);
+                break;
+                
+            case RENDERABLE_ATTACH_SKELETON_BY_HANDLE:
+                o = renderableAttachSkeleton(GLRenderable.REGISTRY.get(ints[0]), GLSkeleton.REGISTRY.get(ints[1]));
                 break;
                 
             case RENDERABLE_DETACH_SKELETON:
-                if (GraphicsManager.SELECTED_RENDERABLE == null)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_RENDERABLE.skeleton = null;
+                o = renderableDetachSkeleton(GraphicsManager.SELECTED_RENDERABLE);
+                break;
+                
+            case RENDERABLE_DETACH_SKELETON_BY_HANDLE:
+                o = renderableDetachSkeleton(GLRenderable.REGISTRY.get(ints[0]));
                 break;
                 
             case RENDERABLE_SET_INSTANCES:
-                INT = (int)args[0];
+                o = renderableSetInstances(GraphicsManager.SELECTED_RENDERABLE, ints[0]);
+                break;
                 
-                if (GraphicsManager.SELECTED_RENDERABLE == null || INT < 1)
-                    o = null;
-                else {
-                    if (INT == GraphicsManager.SELECTED_RENDERABLE.instanceTransforms.length)
-                        break;
-                    
-                    AffineTransformation[] newTransforms = new AffineTransformation[INT];
-                    
-                    int copied = Math.min(GraphicsManager.SELECTED_RENDERABLE.instanceTransforms.length, newTransforms.length);
-                    System.arraycopy(GraphicsManager.SELECTED_RENDERABLE.instanceTransforms, 0, newTransforms, 0, copied);
-                    for (int i = copied; i < newTransforms.length; ++i)
-                        newTransforms[i] = AffineTransformationImpl.IDENTITY;
-                    
-                    GraphicsManager.SELECTED_RENDERABLE.instanceTransforms = newTransforms;
-                    GraphicsManager.SELECTED_RENDERABLE.instanceNumDirty = true;
-                }
+            case RENDERABLE_SET_INSTANCES_BY_HANDLE:
+                o = renderableSetInstances(GLRenderable.REGISTRY.get(ints[0]), ints[1]);
                 break;
                 
             case RENDERABLE_SET_INSTANCE_TRANSFORMS:
-                AFFINE_TRANSFORMATION_ARR = (AffineTransformation[])args[0];
+                o = renderableSetInstanceTransforms(GraphicsManager.SELECTED_RENDERABLE, (AffineTransformation[])refs[0]);
+                break;
                 
-                if (GraphicsManager.SELECTED_RENDERABLE == null || AFFINE_TRANSFORMATION_ARR == null || AFFINE_TRANSFORMATION_ARR.length == 0)
-                    o = null;
-                else {
-                    AffineTransformation[] newTransforms = new AffineTransformation[AFFINE_TRANSFORMATION_ARR.length];
-                    
-                    for (int i = 0; i < AFFINE_TRANSFORMATION_ARR.length; ++i)
-                        newTransforms[i] = AFFINE_TRANSFORMATION_ARR[i].getAsUnmodifiable(true);
-                    
-                    GraphicsManager.SELECTED_RENDERABLE.instanceTransforms = newTransforms;
-                    GraphicsManager.SELECTED_RENDERABLE.instanceNumDirty = true;
-                }
+            case RENDERABLE_SET_INSTANCE_TRANSFORMS_BY_HANDLE:
+                o = renderableSetInstanceTransforms(GLRenderable.REGISTRY.get(ints[0]), (AffineTransformation[])refs[1]);
                 break;
                 
             case RENDERABLE_SET_INSTANCE_TRANSFORM:
-                AFFINE_TRANSFORMATION = (AffineTransformation)args[0];
-                INT = (int)args[1];
+                o = renderableSetInstanceTransform(GraphicsManager.SELECTED_RENDERABLE, (AffineTransformation)refs[0], ints[1]);
+                break;
                 
-                if (GraphicsManager.SELECTED_RENDERABLE == null || AFFINE_TRANSFORMATION == null || INT < 0 || INT >= GraphicsManager.SELECTED_RENDERABLE.instanceTransforms.length)
-                    o = null;
-                else
-                    GraphicsManager.SELECTED_RENDERABLE.instanceTransforms[INT] = AFFINE_TRANSFORMATION.getAsUnmodifiable(true);
+            case RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE:
+                o = renderableSetInstanceTransform(GLRenderable.REGISTRY.get(ints[0]), (AffineTransformation)refs[1], ints[2]);
+                break;
+                
+            case RENDERABLE_ADD_INSTANCE:
+                o = renderableAddInstance(GraphicsManager.SELECTED_RENDERABLE, (AffineTransformation)refs[0]);
+                break;
+                
+            case RENDERABLE_ADD_INSTANCE_BY_HANDLE:
+                o = renderableAddInstance(GLRenderable.REGISTRY.get(ints[0]), (AffineTransformation)refs[1]);
+                break;
+                
+            case RENDERABLE_REMOVE_INSTANCE:
+                o = renderableRemoveInstance(GraphicsManager.SELECTED_RENDERABLE, ints[0]);
+                break;
+                
+            case RENDERABLE_REMOVE_INSTANCE_BY_HANDLE:
+                o = renderableRemoveInstance(GLRenderable.REGISTRY.get(ints[0]), ints[1]);
                 break;
                 
             case RENDERABLE_SELECT_MESH:
@@ -633,8 +837,17 @@ final class Message {
                 }
                 break;
                 
+            case RENDERABLE_GET_MESH_BY_HANDLE:
+                RENDERABLE = GLRenderable.REGISTRY.get(ints[0]);
+                
+                if (RENDERABLE == null)
+                    o = null;
+                else
+                    o = GLMesh.REGISTRY.getOrDefault(RENDERABLE.mesh, -1);
+                break;
+                
             case RENDERABLE_SELECT_TEXTURE:
-                INT = (int)args[0];
+                INT = ints[0];
                 
                 if (GraphicsManager.SELECTED_RENDERABLE == null)
                     o = null;
@@ -644,6 +857,16 @@ final class Message {
                 }
                 break;
                 
+            case RENDERABLE_GET_TEXTURE_BY_HANDLE:
+                RENDERABLE = GLRenderable.REGISTRY.get(ints[0]);
+                INT = ints[1];
+                
+                if (RENDERABLE == null || INT < 0 || INT >= RENDERABLE.textures.length)
+                    o = null;
+                else
+                    o = GLTexture.REGISTRY.getOrDefault(RENDERABLE.textures[INT], -1);
+                break;
+                
             case RENDERABLE_SELECT_SHADER_PROGRAM:
                 if (GraphicsManager.SELECTED_RENDERABLE == null)
                     o = null;
@@ -653,14 +876,27 @@ final class Message {
                 }
                 break;
                 
+            case RENDERABLE_GET_SHADER_PROGRAM_BY_HANDLE:
+                RENDERABLE = GLRenderable.REGISTRY.get(ints[0]);
+                
+                if (RENDERABLE == null)
+                    o = null;
+                else
+                    o = GLShaderProgram.REGISTRY.getOrDefault(RENDERABLE.program, -1);
+                break;
+                
             case RENDERABLE_COPY:
-                if (GraphicsManager.SELECTED_RENDERABLE == null)
+            case RENDERABLE_COPY_BY_HANDLE:
+                RENDERABLE = type == Type.RENDERABLE_COPY ? GraphicsManager.SELECTED_RENDERABLE : GLRenderable.REGISTRY.get(ints[0]);
+                
+                if (RENDERABLE == null)
                     o = null;
                 else {
-                    GLRenderable r = new GLRenderable(GraphicsManager.SELECTED_RENDERABLE);
-                    GraphicsManager.applyRenderingMap(GraphicsManager.SELECTED_RENDERABLE.program, r);
+                    GLRenderable r = new GLRenderable(RENDERABLE);
+                    GraphicsManager.applyRenderingMap(RENDERABLE.program, r);
                     o = GLRenderable.REGISTRY.register(r);
-                    GraphicsManager.SELECTED_RENDERABLE = r;
+                    if (type == Type.RENDERABLE_COPY)
+                        GraphicsManager.SELECTED_RENDERABLE = r;
                 }
                 break;
                 
@@ -672,20 +908,19 @@ final class Message {
                 break;
                 
             case SHADER_PROGRAM_ASSIGN_RENDERABLE:
-                if (GraphicsManager.SELECTED_PROGRAM == null || GraphicsManager.SELECTED_RENDERABLE == null)
-                    o = null;
-                else {
-                    GraphicsManager.removeRenderingMap(GraphicsManager.SELECTED_RENDERABLE);
-                    GraphicsManager.UI_RENDERABLES.remove(GraphicsManager.SELECTED_RENDERABLE);
-                    GraphicsManager.applyRenderingMap(GraphicsManager.SELECTED_PROGRAM, GraphicsManager.SELECTED_RENDERABLE);
-                }
+                o = shaderProgramAssignRenderable(GraphicsManager.SELECTED_PROGRAM, GraphicsManager.SELECTED_RENDERABLE);
+                break;
+                
+            case SHADER_PROGRAM_ASSIGN_RENDERABLE_BY_HANDLE:
+                o = shaderProgramAssignRenderable(GLShaderProgram.REGISTRY.get(ints[0]), GLRenderable.REGISTRY.get(ints[1]));
                 break;
                 
             case SHADER_PROGRAM_UNASSIGN_RENDERABLE:
-                if (GraphicsManager.SELECTED_RENDERABLE == null)
-                    o = null;
-                else
-                    GraphicsManager.removeRenderingMap(GraphicsManager.SELECTED_RENDERABLE);
+                o = shaderProgramUnassignRenderable(GraphicsManager.SELECTED_RENDERABLE);
+                break;
+                
+            case SHADER_PROGRAM_UNASSIGN_RENDERABLE_BY_HANDLE:
+                o = shaderProgramUnassignRenderable(GLRenderable.REGISTRY.get(ints[0]));
                 break;
                 
             case UI_ENABLE:
@@ -697,69 +932,380 @@ final class Message {
                 break;
                 
             case UI_ASSIGN_RENDERABLE:
-                if (GraphicsManager.SELECTED_RENDERABLE == null)
-                    o = null;
-                else {
-                    GraphicsManager.removeRenderingMap(GraphicsManager.SELECTED_RENDERABLE);
-                    GraphicsManager.UI_RENDERABLES.add(GraphicsManager.SELECTED_RENDERABLE);
-                }
+                o = uiAssignRenderable(GraphicsManager.SELECTED_RENDERABLE);
+                break;
+                
+            case UI_ASSIGN_RENDERABLE_BY_HANDLE:
+                o = uiAssignRenderable(GLRenderable.REGISTRY.get(ints[0]));
                 break;
                 
             case UI_UNASSIGN_RENDERABLE:
-                if (GraphicsManager.SELECTED_RENDERABLE == null)
-                    o = null;
-                else
-                    GraphicsManager.UI_RENDERABLES.remove(GraphicsManager.SELECTED_RENDERABLE);
+                o = uiUnassignRenderable(GraphicsManager.SELECTED_RENDERABLE);
+                break;
+                
+            case UI_UNASSIGN_RENDERABLE_BY_HANDLE:
+                o = uiUnassignRenderable(GLRenderable.REGISTRY.get(ints[0]));
+                break;
+                
+            case BATCH:
+                Message[] entries = (Message[])refs[0];
+                INT = ints[1];
+                
+                for (int i = 0; i < entries.length; ++i) {
+                    Integer r = entries[i].execute();
+                    
+                    if (r == null) {
+                        o = null;
+                        break;
+                    }
+                    
+                    if (i == INT)
+                        o = r;
+                }
                 break;
         }
 
-        if (o == null) future.cancel(false);
-        else           future.complete(o);
+        return o;
+    }
+    
+    
+    
+    // --- OPERATIONS ---
+    
+    
+    
+    private static Integer skyboxSetTexture(GLTexture texture) {
+        if (texture == null || texture.unit != GL13.GL_TEXTURE0 || !(texture instanceof GLTextureCubemap))
+            return null;
+
+        GraphicsManager.SKYBOX.tex = (GLTextureCubemap)texture;
+        return 0;
+    }
+
+    private static Integer meshRebuffer(GLMesh mesh) {
+        if (mesh == null || mesh.isReadonly())
+            return null;
+
+        mesh.setRebuffer();
+        return 0;
+    }
+
+    private static Integer meshClose(GLMesh mesh) {
+        if (mesh == null || GLMesh.getDefaults().contains(mesh))
+            return null;
+
+        GLMesh.REGISTRY.deregister(mesh);
+        if (GraphicsManager.SELECTED_MESH == mesh)
+            GraphicsManager.SELECTED_MESH = null;
+        return 0;
+    }
+
+    private static Integer meshSetAttributes(GLMesh mesh, Vector3[] positions, Vector3[] uvs, Vector3[] normals, int[] triangles) {
+        if (mesh == null || mesh.isReadonly())
+            return null;
+
+        if (positions != null) mesh.setPositions(positions);
+        if (uvs != null) mesh.setUVs(uvs);
+        if (normals != null) mesh.setNormals(normals);
+        if (triangles != null) mesh.setTriangles(triangles);
+        return 0;
+    }
+
+    private static Integer meshRecalculateNormals(GLMesh mesh) {
+        if (mesh == null || mesh.isReadonly())
+            return null;
+
+        mesh.recalculateNormals();
+        return 0;
+    }
+
+    private static Integer meshSetReadonly(GLMesh mesh) {
+        if (mesh == null)
+            return null;
+
+        mesh.setAsReadonly();
+        return 0;
+    }
+
+    private static Integer shaderNew(Identity id, int shaderType, boolean select) throws IOException {
+        if (id == null)
+            return null;
+
+        GLShader shader = new GLShader(id, shaderType);
+        if (!GLShader.REGISTRY.isRegistered(shader))
+            shader.init();
+
+        int o = GLShader.REGISTRY.register(shader);
+        if (select)
+            GraphicsManager.SELECTED_SHADER = shader;
+        return o;
+    }
+
+    private static Integer shaderClose(GLShader shader) {
+        if (shader == null || GLShader.getDefaults().contains(shader))
+            return null;
+
+        GLShader.REGISTRY.deregister(shader);
+        shader.close();
+        if (GraphicsManager.SELECTED_SHADER == shader)
+            GraphicsManager.SELECTED_SHADER = null;
+        return 0;
+    }
+
+    private static Integer shaderProgramClose(GLShaderProgram program) {
+        if (program == null || GLShaderProgram.getDefaults().contains(program))
+            return null;
+
+        GLShaderProgram.REGISTRY.deregister(program);
+        program.close();
+        if (GraphicsManager.SELECTED_PROGRAM == program)
+            GraphicsManager.SELECTED_PROGRAM = null;
+        return 0;
+    }
+
+    private static Integer shaderProgramSetReadonly(GLShaderProgram program) {
+        if (program == null)
+            return null;
+
+        program.setAsReadonly();
+        return 0;
+    }
+
+    private static Integer shaderProgramAttach(GLShaderProgram program, GLShader shader) {
+        if (program == null || program.isReadonly() || shader == null)
+            return null;
+
+        program.attachShader(shader);
+        return 0;
+    }
+
+    private static Integer textureClose(GLTexture texture) {
+        if (texture == null || GLTexture2D.getDefaults().contains(texture) || GLTextureCubemap.getDefaults().contains(texture))
+            return null;
+
+        GLTexture.REGISTRY.deregister(texture);
+        texture.close();
+        if (GraphicsManager.SELECTED_TEXTURE == texture)
+            GraphicsManager.SELECTED_TEXTURE = null;
+        return 0;
+    }
+
+    private static Integer skeletonClose(GLSkeleton skeleton) {
+        if (skeleton == null)
+            return null;
+
+        GLSkeleton.REGISTRY.deregister(skeleton);
+        skeleton.close();
+        if (GraphicsManager.SELECTED_SKELETON == skeleton)
+            GraphicsManager.SELECTED_SKELETON = null;
+        return 0;
+    }
+
+    private static Integer renderableClose(GLRenderable renderable) {
+        if (renderable == null)
+            return null;
+
+        GLRenderable.REGISTRY.deregister(renderable);
+        GraphicsManager.removeRenderingMap(renderable);
+        if (GraphicsManager.SELECTED_RENDERABLE == renderable)
+            GraphicsManager.SELECTED_RENDERABLE = null;
+        return 0;
+    }
+
+    private static Integer renderableAttachMesh(GLRenderable renderable, GLMesh mesh) {
+        if (renderable == null || mesh == null)
+            return null;
+
+        renderable.mesh = mesh;
+        renderable.updateSortKey();
+        return 0;
+    }
+
+    private static Integer renderableAttachTexture(GLRenderable renderable, GLTexture texture) {
+        if (renderable == null || texture == null || (renderable.program != null && !renderable.program.isCompatible(texture)))
+            return null;
+
+        renderable.textures[texture.unit - GL13.GL_TEXTURE0] = texture;
+        renderable.updateSortKey();
+        return 0;
+    }
+
+    private static Integer renderableDetachTextureUnit(GLRenderable renderable, int unit) {
+        if (renderable == null || unit < 0 || unit > GraphicsManager.MAX_COMBINED_TEXTURE_UNITS)
+            return null;
+
+        renderable.textures[unit] = null;
+        renderable.updateSortKey();
+        return 0;
+    }
+
+    private static Integer renderableAttachSkeleton(GLRenderable renderable, GLSkeleton skeleton) {
+        if (renderable == null || skeleton == null)
+            return null;
+
+        renderable.skeleton = skeleton;
+        renderable.updateSortKey();
+        return 0;
+    }
+
+    private static Integer renderableDetachSkeleton(GLRenderable renderable) {
+        if (renderable == null)
+            return null;
+
+        renderable.skeleton = null;
+        renderable.updateSortKey();
+        return 0;
+    }
+
+    private static Integer renderableSetInstances(GLRenderable renderable, int numInstances) {
+        if (renderable == null || numInstances < 1)
+            return null;
+
+        renderable.setNumInstances(numInstances);
+        return 0;
+    }
+
+    private static Integer renderableSetInstanceTransforms(GLRenderable renderable, AffineTransformation[] transforms) {
+        if (renderable == null || transforms == null || transforms.length == 0)
+            return null;
+
+        // the transforms have already been copied and wrapped by the posting thread
+        for (AffineTransformation transform : transforms)
+            if (transform == null)
+                return null;
+
+        renderable.setInstanceTransforms(transforms);
+        return 0;
+    }
+
+    private static Integer renderableSetInstanceTransform(GLRenderable renderable, AffineTransformation transform, int instance) {
+        if (renderable == null || transform == null || instance < 0 || instance >= renderable.getNumInstances())
+            return null;
+
+        renderable.setInstanceTransform(instance, transform);
+        return 0;
+    }
+
+    private static Integer renderableAddInstance(GLRenderable renderable, AffineTransformation transform) {
+        if (renderable == null || transform == null)
+            return null;
+
+        return renderable.appendInstance(transform);
+    }
+
+    private static Integer renderableRemoveInstance(GLRenderable renderable, int instance) {
+        if (renderable == null || instance < 0 || instance >= renderable.getNumInstances() || renderable.getNumInstances() == 1)
+            return null;
+
+        renderable.removeInstance(instance);
+        return 0;
+    }
+
+    private static Integer shaderProgramAssignRenderable(GLShaderProgram program, GLRenderable renderable) {
+        if (program == null || renderable == null)
+            return null;
+
+        GraphicsManager.removeRenderingMap(renderable);
+        GraphicsManager.UI_RENDERABLES.remove(renderable);
+        GraphicsManager.applyRenderingMap(program, renderable);
+        return 0;
+    }
+
+    private static Integer shaderProgramUnassignRenderable(GLRenderable renderable) {
+        if (renderable == null)
+            return null;
+
+        GraphicsManager.removeRenderingMap(renderable);
+        return 0;
+    }
+
+    private static Integer uiAssignRenderable(GLRenderable renderable) {
+        if (renderable == null)
+            return null;
+
+        GraphicsManager.removeRenderingMap(renderable);
+        GraphicsManager.UI_RENDERABLES.add(renderable);
+        return 0;
+    }
+
+    private static Integer uiUnassignRenderable(GLRenderable renderable) {
+        if (renderable == null)
+            return null;
+
+        GraphicsManager.UI_RENDERABLES.remove(renderable);
+        return 0;
     }
     
     static enum Type {
         ENABLE_VSYNC, DISABLE_VSYNC, ENABLE_DEBUGGING,
         DISABLE_DEBUGGING, VIEWPORT_SET_TRANSFORM, SKYBOX_ENABLE,
-        SKYBOX_DISABLE, SKYBOX_SET_TEXTURE,
+        SKYBOX_DISABLE, SKYBOX_SET_TEXTURE, SKYBOX_SET_TEXTURE_BY_HANDLE,
         
-        MESH_NEW, MESH_SELECT, MESH_SELECT_QUAD, MESH_SELECT_CUBE,
-        MESH_SELECT_INV_CUBE, MESH_REBUFFER, MESH_CLOSE,
-        MESH_SET_ATTRIBUTES, MESH_RECALC_NORMALS, MESH_SET_READONLY,
-        MESH_GET_ID,
+        MESH_NEW, MESH_CREATE, MESH_SELECT, MESH_SELECT_QUAD,
+        MESH_SELECT_CUBE, MESH_SELECT_INV_CUBE, MESH_REBUFFER,
+        MESH_REBUFFER_BY_HANDLE, MESH_CLOSE, MESH_CLOSE_BY_HANDLE,
+        MESH_SET_ATTRIBUTES, MESH_SET_ATTRIBUTES_BY_HANDLE,
+        MESH_RECALC_NORMALS, MESH_RECALC_NORMALS_BY_HANDLE,
+        MESH_SET_READONLY, MESH_SET_READONLY_BY_HANDLE, MESH_GET_ID,
         
         SHADER_NEW_VERT, SHADER_NEW_FRAG, SHADER_NEW_GEOM,
+        SHADER_CREATE_VERT, SHADER_CREATE_FRAG, SHADER_CREATE_GEOM,
         SHADER_SELECT, SHADER_SELECT_DEFAULT_VERT_2D,
         SHADER_SELECT_DEFAULT_FRAG_2D, SHADER_SELECT_DEFAULT_VERT_CUBE,
         SHADER_SELECT_DEFAULT_FRAG_CUBE, SHADER_SELECT_DEFAULT_VERT_UI,
-        SHADER_SELECT_DEFAULT_FRAG_UI, SHADER_CLOSE, SHADER_GET_ID,
+        SHADER_SELECT_DEFAULT_FRAG_UI, SHADER_CLOSE,
+        SHADER_CLOSE_BY_HANDLE, SHADER_GET_ID,
         
-        SHADER_PROGRAM_NEW, SHADER_PROGRAM_SELECT, 
+        SHADER_PROGRAM_NEW, SHADER_PROGRAM_CREATE, SHADER_PROGRAM_SELECT, 
         SHADER_PROGRAM_SELECT_DEFAULT_2D,
         SHADER_PROGRAM_SELECT_DEFAULT_CUBE,
         SHADER_PROGRAM_SELECT_DEFAULT_UI, SHADER_PROGRAM_CLOSE,
-        SHADER_PROGRAM_SET_READONLY, SHADER_PROGRAM_ATTACH,
-        SHADER_PROGRAM_GET_ID,
+        SHADER_PROGRAM_CLOSE_BY_HANDLE, SHADER_PROGRAM_SET_READONLY,
+        SHADER_PROGRAM_SET_READONLY_BY_HANDLE, SHADER_PROGRAM_ATTACH,
+        SHADER_PROGRAM_ATTACH_BY_HANDLE, SHADER_PROGRAM_GET_ID,
         
         TEXTURE_ID_NEW_2D, TEXTURE_IM_NEW_2D, TEXTURE_ID_NEW_CUBE,
         TEXTURE_ID6_NEW_CUBE, TEXTURE_IM_NEW_CUBE, TEXTURE_IM6_NEW_CUBE,
-        TEXTURE_SELECT, TEXTURE_SELECT_DEFAULT_2D, 
-        TEXTURE_SELECT_DEFAULT_CUBE, TEXTURE_CLOSE, TEXTURE_GET_ID,
+        TEXTURE_ID_CREATE_2D, TEXTURE_IM_CREATE_2D, TEXTURE_ID_CREATE_CUBE,
+        TEXTURE_ID6_CREATE_CUBE, TEXTURE_IM_CREATE_CUBE,
+        TEXTURE_IM6_CREATE_CUBE, TEXTURE_SELECT, TEXTURE_SELECT_DEFAULT_2D, 
+        TEXTURE_SELECT_DEFAULT_CUBE, TEXTURE_CLOSE, TEXTURE_CLOSE_BY_HANDLE,
+        TEXTURE_GET_ID,
         
-        SKELETON_NEW, SKELETON_SELECT, SKELETON_CLOSE, SKELETON_GET_ID,
+        SKELETON_NEW, SKELETON_CREATE, SKELETON_SELECT, SKELETON_CLOSE,
+        SKELETON_CLOSE_BY_HANDLE, SKELETON_GET_ID,
         
-        RENDERABLE_NEW, RENDERABLE_NEW_TRANSFORMS, RENDERABLE_SELECT,
-        RENDERABLE_CLOSE, RENDERABLE_ATTACH_MESH,
-        RENDERABLE_ATTACH_TEXTURE, RENDERABLE_DETACH_TEXTURE,
-        RENDERABLE_DETACH_TEXTURE_UNIT, RENDERABLE_ATTACH_SKELETON,
-        RENDERABLE_DETACH_SKELETON, RENDERABLE_SET_INSTANCES,
-        RENDERABLE_SET_INSTANCE_TRANSFORMS, RENDERABLE_SET_INSTANCE_TRANSFORM,
-        RENDERABLE_SELECT_MESH, RENDERABLE_SELECT_TEXTURE,
-        RENDERABLE_SELECT_SHADER_PROGRAM, RENDERABLE_COPY, RENDERABLE_GET_ID,
+        RENDERABLE_NEW, RENDERABLE_NEW_TRANSFORMS, RENDERABLE_CREATE,
+        RENDERABLE_CREATE_TRANSFORMS, RENDERABLE_SELECT, RENDERABLE_CLOSE,
+        RENDERABLE_CLOSE_BY_HANDLE, RENDERABLE_ATTACH_MESH,
+        RENDERABLE_ATTACH_MESH_BY_HANDLE, RENDERABLE_ATTACH_TEXTURE,
+        RENDERABLE_ATTACH_TEXTURE_BY_HANDLE, RENDERABLE_DETACH_TEXTURE,
+        RENDERABLE_DETACH_TEXTURE_UNIT,
+        RENDERABLE_DETACH_TEXTURE_UNIT_BY_HANDLE, RENDERABLE_ATTACH_SKELETON,
+        RENDERABLE_ATTACH_SKELETON_BY_HANDLE, RENDERABLE_DETACH_SKELETON,
+        RENDERABLE_DETACH_SKELETON_BY_HANDLE, RENDERABLE_SET_INSTANCES,
+        RENDERABLE_SET_INSTANCES_BY_HANDLE,
+        RENDERABLE_SET_INSTANCE_TRANSFORMS,
+        RENDERABLE_SET_INSTANCE_TRANSFORMS_BY_HANDLE,
+        RENDERABLE_SET_INSTANCE_TRANSFORM,
+        RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE,
+        RENDERABLE_ADD_INSTANCE, RENDERABLE_ADD_INSTANCE_BY_HANDLE,
+        RENDERABLE_REMOVE_INSTANCE, RENDERABLE_REMOVE_INSTANCE_BY_HANDLE,
+        RENDERABLE_SELECT_MESH,
+        RENDERABLE_GET_MESH_BY_HANDLE, RENDERABLE_SELECT_TEXTURE,
+        RENDERABLE_GET_TEXTURE_BY_HANDLE, RENDERABLE_SELECT_SHADER_PROGRAM,
+        RENDERABLE_GET_SHADER_PROGRAM_BY_HANDLE, RENDERABLE_COPY,
+        RENDERABLE_COPY_BY_HANDLE, RENDERABLE_GET_ID,
         
         SHADER_PROGRAM_ASSIGN_RENDERABLE,
+        SHADER_PROGRAM_ASSIGN_RENDERABLE_BY_HANDLE,
         SHADER_PROGRAM_UNASSIGN_RENDERABLE,
+        SHADER_PROGRAM_UNASSIGN_RENDERABLE_BY_HANDLE,
         
         UI_ENABLE, UI_DISABLE, UI_ASSIGN_RENDERABLE,
-        UI_UNASSIGN_RENDERABLE
+        UI_ASSIGN_RENDERABLE_BY_HANDLE, UI_UNASSIGN_RENDERABLE,
+        UI_UNASSIGN_RENDERABLE_BY_HANDLE,
+        
+        BATCH
     }
 }
@@ -0,0 +1,155 @@
+package net.vob.core.graphics;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Optional stage between draining the message queue and handling the drained messages,
+ * which collapses messages that are superseded by a later message for the same target
+ * within the same drain. The following message types are coalesced:
+ * <ul>
+ *  <li>{@link Message.Type#VIEWPORT_SET_TRANSFORM}, which is superseded by any later
+ * message of the same type</li>
+ *  <li>{@link Message.Type#RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE}, which is
+ * superseded by a later message of the same type for the same renderable and
+ * instance</li>
+ *  <li>{@link Message.Type#MESH_SET_ATTRIBUTES_BY_HANDLE}, which is superseded by a later
+ * message of the same type for the same mesh that sets at least the same
+ * attributes</li>
+ * </ul>
+ * The selection-based forms of these messages are never coalesced, as their target
+ * depends on the selection state at the time they are handled.<p>
+ *
+ * Coalescing never looks past a <i>barrier</i> message; that is, a message which could
+ * observe the intermediate state of a target, or change whether a later message for the
+ * same target succeeds (such as closing, copying or resizing GL objects, or a batch). A
+ * collapsed message is not executed; its future is completed with the result of the
+ * message that superseded it.<p>
+ *
+ * This class is only accessed by the graphics thread.
+ *
+ * @author Lyn-Park
+ */
+final class MessageCoalescer {
+    private MessageCoalescer() {}
+
+    private static final Set<Message.Type> BARRIERS = EnumSet.of(
+            Message.Type.MESH_NEW, Message.Type.MESH_CREATE,
+            Message.Type.MESH_CLOSE, Message.Type.MESH_CLOSE_BY_HANDLE,
+            Message.Type.MESH_RECALC_NORMALS, Message.Type.MESH_RECALC_NORMALS_BY_HANDLE,
+            Message.Type.MESH_SET_READONLY, Message.Type.MESH_SET_READONLY_BY_HANDLE,
+
+            Message.Type.RENDERABLE_NEW, Message.Type.RENDERABLE_NEW_TRANSFORMS,
+            Message.Type.RENDERABLE_CREATE, Message.Type.RENDERABLE_CREATE_TRANSFORMS,
+            Message.Type.RENDERABLE_CLOSE, Message.Type.RENDERABLE_CLOSE_BY_HANDLE,
+            Message.Type.RENDERABLE_SET_INSTANCES, Message.Type.RENDERABLE_SET_INSTANCES_BY_HANDLE,
+            Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS,
+            Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS_BY_HANDLE,
+            Message.Type.RENDERABLE_ADD_INSTANCE, Message.Type.RENDERABLE_ADD_INSTANCE_BY_HANDLE,
+            Message.Type.RENDERABLE_REMOVE_INSTANCE, Message.Type.RENDERABLE_REMOVE_INSTANCE_BY_HANDLE,
+            Message.Type.RENDERABLE_COPY, Message.Type.RENDERABLE_COPY_BY_HANDLE,
+
+            Message.Type.BATCH);
+
+    private static volatile boolean enabled = false;
+    private static volatile long coalescedCount = 0;
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * @return the total number of messages that have been collapsed into later messages
+     */
+    static long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Coalesces the given drained messages in place. Collapsed messages are replaced with
+     * {@code null} in the list, and are completed once the message that superseded them
+     * has been handled.
+     *
+     * @param messages the drained messages, in the order they are to be handled
+     */
+    static void coalesce(List<Message> messages) {
+        long count = 0;
+
+        for (int i = 1; i < messages.size(); ++i) {
+            Message later = messages.get(i);
+
+            if (later == null || !isCoalescible(later.getType()))
+                continue;
+
+            for (int j = i - 1; j >= 0; --j) {
+                Message earlier = messages.get(j);
+
+                if (earlier == null)
+                    continue;
+                if (BARRIERS.contains(earlier.getType()))
+                    break;
+                if (!isSameTarget(earlier, later))
+                    continue;
+
+                if (isSuperseded(earlier, later)) {
+                    later.coalesce(earlier);
+                    messages.set(j, null);
+                    ++count;
+                }
+
+                break;
+            }
+        }
+
+        if (count > 0)
+            coalescedCount += count;
+    }
+
+    private static boolean isCoalescible(Message.Type type) {
+        switch (type) {
+            case VIEWPORT_SET_TRANSFORM:
+            case RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE:
+            case MESH_SET_ATTRIBUTES_BY_HANDLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSameTarget(Message earlier, Message later) {
+        if (earlier.getType() != later.getType())
+            return false;
+
+        switch (later.getType()) {
+            case VIEWPORT_SET_TRANSFORM:
+                return true;
+            case RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE:
+                return earlier.getInt(0) == later.getInt(0) && earlier.getInt(2) == later.getInt(2);
+            case MESH_SET_ATTRIBUTES_BY_HANDLE:
+                return earlier.getInt(0) == later.getInt(0);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSuperseded(Message earlier, Message later) {
+        switch (later.getType()) {
+            case VIEWPORT_SET_TRANSFORM:
+                return later.getRef(0) != null;
+            case RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE:
+                return later.getRef(1) != null;
+            case MESH_SET_ATTRIBUTES_BY_HANDLE:
+                for (int k = 1; k <= 4; ++k)
+                    if (earlier.getRef(k) != null && later.getRef(k) == null)
+                        return false;
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package net.vob.core.graphics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import net.vob.util.logging.LocaleUtils;
+
+/**
+ * Bounded free-list of posted {@link Message} instances. Producing threads acquire
+ * messages from the pool, and the graphics thread releases them back once they have been
+ * handled; thus, at steady state, posting messages allocates nothing.<p>
+ *
+ * The pool takes no locks. Each producing thread has its own free list, which only it
+ * acquires from, and every message remembers the free list it was acquired from. As the
+ * graphics thread releases messages while their producer may be acquiring, released
+ * messages are not put straight back onto the free list; instead, they are pushed onto a
+ * lock-free stack of returned messages belonging to that free list, and the producer
+ * takes the whole stack at once whenever its free list runs dry. Only the producer ever
+ * takes from the stack, and it always takes every message on it, so the stack cannot
+ * suffer from the ABA problem. The messages are linked through themselves, so neither
+ * acquiring nor releasing allocates.<p>
+ *
+ * If the free list of the acquiring thread is empty, and no messages have been returned
+ * to it, a new message is allocated instead; if a free list already holds as many
+ * messages as the capacity of the pool when a message is returned to it, the message is
+ * simply dropped. The number of allocations is recorded, so that the steady state of the
+ * pool can be observed through {@link GraphicsEngine#getMessagePoolAllocations()}.
+ *
+ * @author Lyn-Park
+ */
+final class MessagePool {
+    private final int capacity;
+    private final ThreadLocal<FreeList> freeLists = ThreadLocal.withInitial(FreeList::new);
+    private final LongAdder allocations = new LongAdder();
+
+    /**
+     * Constructs a new, empty pool.
+     *
+     * @param capacity the maximum number of free messages the pool retains for each
+     * producing thread
+     * @throws IllegalArgumentException if {@code capacity} is less than 1
+     */
+    MessagePool(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>=", "capacity", capacity, 1));
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Acquires a free message from the free list of the current thread, allocating a new
+     * one if it is empty.
+     * @return a reset, pooled message
+     */
+    Message acquire() {
+        FreeList list = freeLists.get();
+
+        if (list.head == null && list.numReturned.get() > 0)
+            list.takeReturned();
+
+        Message message = list.head;
+        if (message == null) {
+            allocations.increment();
+            message = Message.newPooled();
+            message.poolOwner = list;
+            return message;
+        }
+
+        list.head = message.poolNext;
+        list.size = list.size - 1;
+        message.poolNext = null;
+        return message;
+    }
+
+    /**
+     * Resets the given message and returns it to the free list it was acquired from.
+     * This may be invoked from any thread. Messages that were not acquired from a pool
+     * are ignored.
+     *
+     * @param message the message to release
+     */
+    void release(Message message) {
+        if (!message.isPooled())
+            return;
+
+        message.reset();
+
+        FreeList list = message.poolOwner;
+        if (list.numReturned.incrementAndGet() + list.size > capacity) {
+            list.numReturned.decrementAndGet();
+            return;
+        }
+
+        Message head;
+        do {
+            head = list.returned.get();
+            message.poolNext = head;
+        } while (!list.returned.compareAndSet(head, message));
+    }
+
+    /**
+     * @return the total number of messages this pool has allocated
+     */
+    long getAllocations() {
+        return allocations.sum();
+    }
+
+    /**
+     * The free list of a single producing thread.
+     */
+    static final class FreeList {
+        /** The first free message; only accessed by the owning thread. */
+        private Message head = null;
+        /** The number of messages on the free list; only written by the owning thread. */
+        private volatile int size = 0;
+        /** The stack of messages returned to this free list since it was last taken. */
+        private final AtomicReference<Message> returned = new AtomicReference<>();
+        /** The number of messages on, or being pushed onto, {@link returned}. */
+        private final AtomicInteger numReturned = new AtomicInteger();
+
+        /**
+         * Moves every returned message onto the free list. Only invoked by the owning
+         * thread, while the free list is empty.
+         */
+        private void takeReturned() {
+            Message message = returned.getAndSet(null);
+            int n = 0;
+
+            for (Message m = message; m != null; m = m.poolNext)
+                ++n;
+
+            head = message;
+            size = n;
+            numReturned.addAndGet(-n);
+        }
+    }
+}
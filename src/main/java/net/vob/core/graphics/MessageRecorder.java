@@ -0,0 +1,225 @@
+package net.vob.core.graphics;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import net.vob.util.Identity;
+import net.vob.util.Tree;
+import net.vob.util.logging.LocaleUtils;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.Matrix;
+import net.vob.util.math.Quaternion;
+import net.vob.util.math.Vector3;
+
+/**
+ * Records the stream of messages handled by the graphics thread to a compact binary
+ * file, which can later be fed back to the graphics engine by a {@link MessageReplayer}.<p>
+ *
+ * The file begins with the {@link MAGIC} number and the format {@link VERSION}. Each
+ * message is then recorded as the time it was handled (in nanoseconds since the start of
+ * the recording), the ordinal of its {@link Message.Type}, a bit mask of its non-zero
+ * primitive slots followed by their values, and a bit mask of its non-null reference
+ * slots followed by their tagged values. Images are written in full the first time they
+ * are recorded, and as a back-reference after that.<p>
+ *
+ * Note that the arguments of a message are recorded as they are at the time the message
+ * is handled; in particular, affine transformations are recorded as a snapshot, and so
+ * any changes made to them afterwards without a message are not part of the recording.
+ * Identities are recorded by their superid and id only, so the extra folders of a
+ * partial identity are not preserved.
+ *
+ * @author Lyn-Park
+ */
+final class MessageRecorder implements Closeable {
+    /** The magic number at the start of every recording. */
+    static final int MAGIC = 0x564F4252;
+    /** The version of the recording format. */
+    static final short VERSION = 1;
+
+    static final byte TAG_VECTOR3_ARRAY = 1;
+    static final byte TAG_INT_ARRAY = 2;
+    static final byte TAG_TRANSFORM = 3;
+    static final byte TAG_TRANSFORM_ARRAY = 4;
+    static final byte TAG_IDENTITY = 5;
+    static final byte TAG_IMAGE = 6;
+    static final byte TAG_IMAGE_REFERENCE = 7;
+    static final byte TAG_TRANSFORM_TREE = 8;
+    static final byte TAG_MATRIX = 9;
+    static final byte TAG_MESSAGE_ARRAY = 10;
+
+    private final DataOutputStream out;
+    private final long startTime;
+    private final Map<BufferedImage, Integer> images = new IdentityHashMap<>();
+    private boolean closed = false;
+
+    /**
+     * Constructs a new recorder, creating or truncating the file at the given path.
+     *
+     * @param path the path of the recording file
+     * @throws IOException if the file could not be opened or written to
+     */
+    MessageRecorder(Path path) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        this.startTime = System.nanoTime();
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    /**
+     * Records the given message. This is invoked by the graphics thread just before the
+     * message is handled.
+     *
+     * @param message the message to record
+     * @throws IOException if the message could not be written, or has an argument of a
+     * type that cannot be recorded
+     */
+    synchronized void record(Message message) throws IOException {
+        if (closed)
+            return;
+
+        out.writeLong(System.nanoTime() - startTime);
+        writeMessage(message);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        out.close();
+    }
+
+    private void writeMessage(Message message) throws IOException {
+        out.writeShort(message.getType().ordinal());
+
+        int intMask = 0, refMask = 0;
+        for (int i = 0; i < Message.MAX_ARGS; ++i) {
+            if (message.getInt(i) != 0)    intMask |= 1 << i;
+            if (message.getRef(i) != null) refMask |= 1 << i;
+        }
+
+        out.writeByte(intMask);
+        for (int i = 0; i < Message.MAX_ARGS; ++i)
+            if ((intMask & (1 << i)) != 0)
+                out.writeInt(message.getInt(i));
+
+        out.writeByte(refMask);
+        for (int i = 0; i < Message.MAX_ARGS; ++i)
+            if ((refMask & (1 << i)) != 0)
+                writeRef(message.getRef(i));
+    }
+
+    private void writeRef(Object ref) throws IOException {
+        if (ref instanceof Vector3[]) {
+            Vector3[] vecs = (Vector3[])ref;
+
+            out.writeByte(TAG_VECTOR3_ARRAY);
+            out.writeInt(vecs.length);
+            for (Vector3 vec : vecs)
+                writeVector3(vec);
+
+        } else if (ref instanceof int[]) {
+            int[] ints = (int[])ref;
+
+            out.writeByte(TAG_INT_ARRAY);
+            out.writeInt(ints.length);
+            for (int i : ints)
+                out.writeInt(i);
+
+        } else if (ref instanceof AffineTransformation) {
+            out.writeByte(TAG_TRANSFORM);
+            writeTransform((AffineTransformation)ref);
+
+        } else if (ref instanceof AffineTransformation[]) {
+            AffineTransformation[] transforms = (AffineTransformation[])ref;
+
+            out.writeByte(TAG_TRANSFORM_ARRAY);
+            out.writeInt(transforms.length);
+            for (AffineTransformation transform : transforms)
+                writeTransform(transform);
+
+        } else if (ref instanceof Identity) {
+            out.writeByte(TAG_IDENTITY);
+            out.writeUTF(ref.toString());
+
+        } else if (ref instanceof BufferedImage) {
+            writeImage((BufferedImage)ref);
+
+        } else if (ref instanceof Tree) {
+            out.writeByte(TAG_TRANSFORM_TREE);
+            writeTree((Tree<?, ?>)ref);
+
+        } else if (ref instanceof Matrix) {
+            Matrix matrix = (Matrix)ref;
+
+            out.writeByte(TAG_MATRIX);
+            out.writeInt(matrix.getNumRows());
+            out.writeInt(matrix.getNumColumns());
+            for (double d : matrix.getElements())
+                out.writeDouble(d);
+
+        } else if (ref instanceof Message[]) {
+            Message[] messages = (Message[])ref;
+
+            out.writeByte(TAG_MESSAGE_ARRAY);
+            out.writeInt(messages.length);
+            for (Message message : messages)
+                writeMessage(message);
+
+        } else
+            throw new IOException(LocaleUtils.format("MessageRecorder.UnsupportedArgument", ref.getClass().getName()));
+    }
+
+    private void writeVector3(Vector3 vec) throws IOException {
+        out.writeDouble(vec.getX());
+        out.writeDouble(vec.getY());
+        out.writeDouble(vec.getZ());
+    }
+
+    private void writeTransform(AffineTransformation transform) throws IOException {
+        Quaternion rotation = transform.getRotation();
+
+        writeVector3(transform.getTranslation());
+        out.writeDouble(rotation.getW());
+        out.writeDouble(rotation.getX());
+        out.writeDouble(rotation.getY());
+        out.writeDouble(rotation.getZ());
+        writeVector3(transform.getScale());
+    }
+
+    private void writeImage(BufferedImage image) throws IOException {
+        Integer index = images.get(image);
+
+        if (index != null) {
+            out.writeByte(TAG_IMAGE_REFERENCE);
+            out.writeInt(index);
+            return;
+        }
+
+        images.put(image, images.size());
+
+        int width = image.getWidth(), height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        out.writeByte(TAG_IMAGE);
+        out.writeInt(width);
+        out.writeInt(height);
+        for (int pixel : pixels)
+            out.writeInt(pixel);
+    }
+
+    private void writeTree(Tree<?, ?> tree) throws IOException {
+        writeTransform((AffineTransformation)tree.getValue());
+        out.writeInt(tree.degree());
+
+        Iterator<?> children = tree.childLikeWalk();
+        while (children.hasNext())
+            writeTree((Tree<?, ?>)children.next());
+    }
+}
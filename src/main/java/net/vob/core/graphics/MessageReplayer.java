@@ -0,0 +1,196 @@
+package net.vob.core.graphics;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.vob.util.ArrayTree;
+import net.vob.util.Identity;
+import net.vob.util.logging.LocaleUtils;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Matrix;
+import net.vob.util.math.Quaternion;
+import net.vob.util.math.Vector3;
+
+/**
+ * Reads back a recording written by a {@link MessageRecorder}, reconstructing each
+ * recorded message as a posted {@link Message}. The replay itself is driven by
+ * {@link GraphicsEngine#replayMessageRecording(Path, boolean)}.
+ *
+ * @author Lyn-Park
+ */
+final class MessageReplayer implements Closeable {
+    private static final Message.Type[] TYPES = Message.Type.values();
+
+    private final DataInputStream in;
+    private final List<BufferedImage> images = new ArrayList<>();
+    private long timestamp = 0;
+
+    /**
+     * Constructs a new replayer, opening the recording at the given path.
+     *
+     * @param path the path of the recording file
+     * @throws IOException if the file could not be opened or read, or is not a
+     * recording of a supported version
+     */
+    MessageReplayer(Path path) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+
+        try {
+            if (in.readInt() != MessageRecorder.MAGIC || in.readShort() != MessageRecorder.VERSION)
+                throw new IOException(LocaleUtils.format("MessageReplayer.InvalidFormat", path));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next message of the recording.
+     *
+     * @return the next message, as a posted message, or {@code null} if the end of the
+     * recording has been reached
+     * @throws IOException if the recording could not be read or is malformed
+     */
+    @Nullable Message next() throws IOException {
+        try {
+            timestamp = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        return readMessage(true);
+    }
+
+    /**
+     * @return the time the last message returned by {@link next()} was originally
+     * handled, in nanoseconds since the start of the recording
+     */
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Message readMessage(boolean posted) throws IOException {
+        int ordinal = in.readUnsignedShort();
+        if (ordinal >= TYPES.length)
+            throw new IOException(LocaleUtils.format("MessageReplayer.UnknownType", ordinal));
+
+        Message message = posted ? Message.obtain(TYPES[ordinal]) : Message.unbound(TYPES[ordinal]);
+
+        int intMask = in.readUnsignedByte();
+        for (int i = 0; i < Message.MAX_ARGS; ++i)
+            if ((intMask & (1 << i)) != 0)
+                message.withInt(i, in.readInt());
+
+        int refMask = in.readUnsignedByte();
+        for (int i = 0; i < Message.MAX_ARGS; ++i)
+            if ((refMask & (1 << i)) != 0)
+                message.withRef(i, readRef());
+
+        return message;
+    }
+
+    private Object readRef() throws IOException {
+        byte tag = in.readByte();
+
+        switch (tag) {
+            case MessageRecorder.TAG_VECTOR3_ARRAY:
+                Vector3[] vecs = new Vector3[in.readInt()];
+                for (int i = 0; i < vecs.length; ++i)
+                    vecs[i] = readVector3();
+                return vecs;
+
+            case MessageRecorder.TAG_INT_ARRAY:
+                int[] ints = new int[in.readInt()];
+                for (int i = 0; i < ints.length; ++i)
+                    ints[i] = in.readInt();
+                return ints;
+
+            case MessageRecorder.TAG_TRANSFORM:
+                return readTransform();
+
+            case MessageRecorder.TAG_TRANSFORM_ARRAY:
+                AffineTransformation[] transforms = new AffineTransformation[in.readInt()];
+                for (int i = 0; i < transforms.length; ++i)
+                    transforms[i] = readTransform();
+                return transforms;
+
+            case MessageRecorder.TAG_IDENTITY:
+                return new Identity(in.readUTF());
+
+            case MessageRecorder.TAG_IMAGE:
+                int width = in.readInt(), height = in.readInt();
+                int[] pixels = new int[width * height];
+                for (int i = 0; i < pixels.length; ++i)
+                    pixels[i] = in.readInt();
+
+                BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                image.setRGB(0, 0, width, height, pixels, 0, width);
+                images.add(image);
+                return image;
+
+            case MessageRecorder.TAG_IMAGE_REFERENCE:
+                int index = in.readInt();
+                if (index < 0 || index >= images.size())
+                    throw new IOException(LocaleUtils.format("MessageReplayer.UnknownImage", index));
+                return images.get(index);
+
+            case MessageRecorder.TAG_TRANSFORM_TREE:
+                return readTree();
+
+            case MessageRecorder.TAG_MATRIX:
+                int rows = in.readInt(), columns = in.readInt();
+                Matrix matrix = new Matrix(rows, columns);
+                for (int r = 0; r < rows; ++r)
+                    for (int c = 0; c < columns; ++c)
+                        matrix.setElement(r, c, in.readDouble());
+                return matrix;
+
+            case MessageRecorder.TAG_MESSAGE_ARRAY:
+                Message[] messages = new Message[in.readInt()];
+                for (int i = 0; i < messages.length; ++i)
+                    messages[i] = readMessage(false);
+                return messages;
+
+            default:
+                throw new IOException(LocaleUtils.format("MessageReplayer.UnknownTag", tag));
+        }
+    }
+
+    private Vector3 readVector3() throws IOException {
+        return new Vector3(in.readDouble(), in.readDouble(), in.readDouble());
+    }
+
+    private AffineTransformation readTransform() throws IOException {
+        Vector3 translation = readVector3();
+        Quaternion rotation = new Quaternion(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+        Vector3 scale = readVector3();
+
+        return new AffineTransformationImpl().setTranslation(translation)
+                                             .setRotation(rotation)
+                                             .setScale(scale);
+    }
+
+    private ArrayTree<AffineTransformation> readTree() throws IOException {
+        ArrayTree<AffineTransformation> tree = new ArrayTree<>(readTransform());
+        int degree = in.readInt();
+
+        for (int i = 0; i < degree; ++i)
+            tree.add(readTree());
+
+        return tree;
+    }
+}
@@ -0,0 +1,252 @@
+package net.vob.core.graphics;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import net.vob.util.logging.LocaleUtils;
+
+/**
+ * Bounded, lock-free, multi-producer/single-consumer ring buffer of {@link Message}
+ * instances. This is the message queue between any number of producing threads and the
+ * graphics thread.<p>
+ *
+ * The buffer consists of a fixed array of preallocated slots, and is driven by two
+ * sequence counters: the <i>claim</i> sequence, which producers advance atomically to
+ * reserve one or more contiguous slots, and the <i>consumed</i> sequence, which only the
+ * consumer advances once it has drained the slots. Each slot additionally records the
+ * sequence number it was last <i>published</i> under; a producer writes its message into
+ * the claimed slot, then publishes the slot by storing the claimed sequence number into
+ * it. The consumer drains slots in sequence order, and stops at the first slot that has
+ * not yet been published.<p>
+ *
+ * As a result, each producer's messages are guaranteed to keep the order they were
+ * submitted in, without any global lock. Messages that must be handled together are
+ * submitted as a single {@link CommandBatch} message instead.<p>
+ *
+ * If the buffer is full, producers wait (first spinning, then parking) until the
+ * consumer has freed enough slots; alternatively, {@link offer(Message)} and
+ * {@link offer(Message, long, TimeUnit)} give up immediately or after a timeout.
+ *
+ * @author Lyn-Park
+ */
+final class MessageRingBuffer {
+    /** The number of times a waiting producer yields before it starts parking. */
+    private static final int SPIN_TRIES = 64;
+    /** The time a waiting producer parks for between checks, in nanoseconds. */
+    private static final long PARK_NANOS = 50_000;
+
+    private final Message[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+
+    /** The next sequence number available for claiming. */
+    private final AtomicLong claimSequence = new AtomicLong(0);
+    /** The next sequence number to be consumed; only written to by the consumer. */
+    private volatile long consumedSequence = 0;
+
+    /**
+     * Constructs a new ring buffer. The capacity is rounded up to the nearest power of
+     * 2.
+     *
+     * @param capacity the minimum number of slots in the buffer
+     * @throws IllegalArgumentException if {@code capacity} is less than 1, or greater
+     * than 2<sup>30</sup>
+     */
+    MessageRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30))
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.<=x<=", "capacity", capacity, 1, 1 << 30));
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+
+        this.slots = new Message[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; ++i)
+            this.published.set(i, -1);
+    }
+
+    /**
+     * Gets the total number of slots in this buffer.
+     * @return the capacity of this buffer
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Gets the number of slots that are currently claimed but not yet consumed. As
+     * producers may be claiming concurrently, this is only a snapshot.
+     * @return the number of occupied slots
+     */
+    int size() {
+        return (int)(claimSequence.get() - consumedSequence);
+    }
+
+    /**
+     * Checks if there are no claimed slots in this buffer.
+     * @return {@code true} if the buffer is empty, {@code false} otherwise
+     */
+    boolean isEmpty() {
+        return claimSequence.get() == consumedSequence;
+    }
+
+    /**
+     * Inserts the given message into the buffer, waiting for space if necessary.
+     *
+     * @param message the message to insert
+     * @throws InterruptedException if the thread was interrupted while waiting for space
+     */
+    void put(Message message) throws InterruptedException {
+        long seq = claim(1);
+        publish(seq, message);
+    }
+
+    /**
+     * Inserts the given message into the buffer if there is space for it, without
+     * waiting.
+     *
+     * @param message the message to insert
+     * @return {@code true} if the message was inserted, {@code false} if the buffer was
+     * full
+     */
+    boolean offer(Message message) {
+        long seq = tryClaim(1);
+        if (seq < 0)
+            return false;
+
+        publish(seq, message);
+        return true;
+    }
+
+    /**
+     * Inserts the given message into the buffer, waiting up to the given time for space
+     * if necessary.
+     *
+     * @param message the message to insert
+     * @param timeout the maximum time to wait
+     * @param unit the unit of {@code timeout}
+     * @return {@code true} if the message was inserted, {@code false} if the timeout
+     * elapsed before space became available
+     * @throws InterruptedException if the thread was interrupted while waiting for space
+     */
+    boolean offer(Message message, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int tries = 0;
+
+        for (;;) {
+            long seq = tryClaim(1);
+
+            if (seq >= 0) {
+                publish(seq, message);
+                return true;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return false;
+
+            if (Thread.interrupted())
+                throw new InterruptedException();
+
+            if (tries++ < SPIN_TRIES) Thread.yield();
+            else                      LockSupport.parkNanos(this, Math.min(PARK_NANOS, remaining));
+        }
+    }
+
+    /**
+     * Drains all published messages from the buffer into the given collection, in
+     * sequence order. Draining stops at the first slot that has been claimed but not yet
+     * published. This must only be invoked by the single consumer thread.
+     *
+     * @param c the collection to add the drained messages to
+     * @return the number of messages drained
+     */
+    int drainTo(Collection<? super Message> c) {
+        long seq = consumedSequence;
+        int count = 0;
+
+        for (;;) {
+            int index = (int)(seq & mask);
+            if (published.get(index) != seq)
+                break;
+
+            c.add(slots[index]);
+            slots[index] = null;
+            ++seq;
+            ++count;
+        }
+
+        if (count > 0)
+            consumedSequence = seq;
+
+        return count;
+    }
+
+    /**
+     * Claims the given number of contiguous slots, waiting for space if necessary.
+     *
+     * @param n the number of slots to claim
+     * @return the sequence number of the first claimed slot
+     * @throws InterruptedException if the thread was interrupted while waiting for space
+     * @throws IllegalArgumentException if {@code n} is greater than the capacity of the
+     * buffer
+     */
+    private long claim(int n) throws InterruptedException {
+        if (n > slots.length)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x<=", "n", n, slots.length));
+
+        int tries = 0;
+
+        for (;;) {
+            long seq = claimSequence.get();
+
+            if (seq + n - consumedSequence <= slots.length) {
+                if (claimSequence.compareAndSet(seq, seq + n))
+                    return seq;
+
+            } else {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+
+                if (tries++ < SPIN_TRIES) Thread.yield();
+                else                      LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Claims the given number of contiguous slots if they are free, without waiting. A
+     * failed compare-and-set against another producer is retried, as it does not
+     * indicate that the buffer is full.
+     *
+     * @param n the number of slots to claim
+     * @return the sequence number of the first claimed slot, or -1 if the buffer does not
+     * have enough free slots
+     */
+    private long tryClaim(int n) {
+        for (;;) {
+            long seq = claimSequence.get();
+
+            if (seq + n - consumedSequence > slots.length)
+                return -1;
+            if (claimSequence.compareAndSet(seq, seq + n))
+                return seq;
+        }
+    }
+
+    /**
+     * Publishes the given message into the slot with the given claimed sequence number.
+     * The ordered store to the published sequence guarantees the consumer sees the
+     * message once it sees the sequence number.
+     */
+    private void publish(long seq, Message message) {
+        int index = (int)(seq & mask);
+        slots[index] = message;
+        published.lazySet(index, seq);
+    }
+}
@@ -0,0 +1,111 @@
+package net.vob.core.graphics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An ordered collection of renderables that are drawn with the same shader program.
+ * Renderables are drawn in order of their {@link GLRenderable#sortKey sort key}, which
+ * packs the identities of the mesh, texture set and skeleton of each renderable; thus,
+ * renderables that share attachments are drawn consecutively, and the graphics thread
+ * can skip rebinding any attachment that is already bound.<p>
+ *
+ * The queue is only re-sorted when a renderable is added to it, or when one of its
+ * renderables changes its attachments and updates its sort key; otherwise, the order
+ * from the last frame is reused as-is. A renderable may only belong to one queue at a
+ * time.
+ *
+ * @author Lyn-Park
+ */
+final class RenderQueue {
+    private static final Comparator<GLRenderable> ORDER = (a, b) -> Long.compare(a.sortKey, b.sortKey);
+
+    private final List<GLRenderable> renderables = new ArrayList<>();
+    private boolean dirty = false;
+
+    /**
+     * Adds the given renderable to this queue, removing it from any queue it was
+     * previously in. Does nothing if the renderable is already in this queue.
+     *
+     * @param renderable the renderable to add
+     */
+    void add(GLRenderable renderable) {
+        if (renderable.queue == this)
+            return;
+        if (renderable.queue != null)
+            renderable.queue.remove(renderable);
+
+        renderables.add(renderable);
+        renderable.queue = this;
+        dirty = true;
+    }
+
+    /**
+     * Moves all renderables in the given queue to this queue, leaving the given queue
+     * empty.
+     *
+     * @param queue the queue to take the renderables from
+     */
+    void addAll(RenderQueue queue) {
+        for (GLRenderable renderable : queue.renderables) {
+            renderables.add(renderable);
+            renderable.queue = this;
+        }
+
+        queue.renderables.clear();
+        dirty = true;
+    }
+
+    /**
+     * Removes the given renderable from this queue, along with its instances from the
+     * instance index. Does nothing if the renderable is not in this queue.
+     *
+     * @param renderable the renderable to remove
+     */
+    void remove(GLRenderable renderable) {
+        if (renderable.queue != this)
+            return;
+
+        renderables.remove(renderable);
+        renderable.queue = null;
+        renderable.unindexInstances();
+    }
+
+    boolean isEmpty() {
+        return renderables.isEmpty();
+    }
+
+    /**
+     * Flags this queue as needing to be re-sorted before it is next iterated over.
+     */
+    void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Performs the given action for each renderable in this queue, in order of their
+     * sort keys. The action must not add or remove renderables from this queue.
+     *
+     * @param action the action to perform
+     */
+    void forEachSorted(Consumer<GLRenderable> action) {
+        if (dirty) {
+            renderables.sort(ORDER);
+            dirty = false;
+        }
+
+        renderables.forEach(action);
+    }
+
+    /**
+     * Performs the given action for each renderable in this queue, in no particular
+     * order. The action must not add or remove renderables from this queue.
+     *
+     * @param action the action to perform
+     */
+    void forEach(Consumer<GLRenderable> action) {
+        renderables.forEach(action);
+    }
+}
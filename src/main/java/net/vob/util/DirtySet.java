@@ -0,0 +1,110 @@
+package net.vob.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import net.vob.util.logging.LocaleUtils;
+
+/**
+ * A fixed-size set of dirty indices, which may be marked concurrently by any number of
+ * threads while being drained by another. The set is a two-level bitset: each bit of
+ * the lower level marks a single index, and each bit of the upper level marks a word of
+ * the lower level with at least one index marked. Thus, draining the set only visits the
+ * words that actually hold marked indices, and checking if the set is empty only visits
+ * the upper level, which is 4096 times smaller than the number of indices.<p>
+ *
+ * Marking and draining are lock-free. An index marked while the set is being drained is
+ * either visited by that drain, or left marked for the next one; it is never lost.
+ *
+ * @author Lyn-Park
+ */
+public final class DirtySet {
+    private static final LongBinaryOperator OR = (a, b) -> a | b;
+
+    private final int size;
+    private final AtomicLongArray words, summary;
+
+    /**
+     * Constructs an empty set.
+     * @param size The number of indices in the set
+     * @throws IllegalArgumentException If {@code size} is negative
+     */
+    public DirtySet(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>=", "size", size, 0));
+
+        int numWords = (size + 63) >>> 6;
+
+        this.size = size;
+        this.words = new AtomicLongArray(numWords);
+        this.summary = new AtomicLongArray((numWords + 63) >>> 6);
+    }
+
+    /**
+     * Gets the number of indices in this set, marked or not.
+     * @return The number of indices
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Marks the given index as dirty. Does nothing if the index is already marked.
+     * @param index The index to mark
+     * @throws IndexOutOfBoundsException If {@code index} is negative, or not less than
+     * {@link size()}
+     */
+    public void mark(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(LocaleUtils.format("global.Exception.OutOfRange.<=x<", "index", index, 0, size));
+
+        int word = index >>> 6;
+        long bit = 1L << index;
+
+        // The word bit is set before the summary bit, so a drain that clears the summary
+        // bit first either sees the word bit, or leaves the summary bit set after it
+        if ((words.get(word) & bit) == 0) {
+            words.accumulateAndGet(word, bit, OR);
+            summary.accumulateAndGet(word >>> 6, 1L << word, OR);
+        }
+    }
+
+    /**
+     * Gets if no index is currently marked. If the set is being marked concurrently,
+     * this may miss indices marked during the check.
+     * @return {@code true} if no index is marked, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        for (int s = 0; s < summary.length(); ++s)
+            if (summary.get(s) != 0)
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Unmarks every marked index, passing each of them to the given action in
+     * ascending order. The index is unmarked before the action is performed, so an
+     * index marked again by another thread during the action is kept for the next
+     * drain.
+     * @param action The action to perform on each marked index
+     */
+    public void drain(IntConsumer action) {
+        for (int s = 0; s < summary.length(); ++s) {
+            if (summary.get(s) == 0)
+                continue;
+
+            long summaryBits = summary.getAndSet(s, 0);
+            while (summaryBits != 0) {
+                int word = (s << 6) + Long.numberOfTrailingZeros(summaryBits);
+                summaryBits &= summaryBits - 1;
+
+                long bits = words.getAndSet(word, 0);
+                while (bits != 0) {
+                    action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package net.vob.util;
+
+import java.util.Arrays;
+import net.vob.util.logging.LocaleUtils;
+
+/**
+ * A histogram over a rolling window of the most recent values added to it. The values
+ * are sorted into buckets of equal width starting at 0; values below 0 are counted in
+ * the first bucket, and values at or above the upper bound of the last bucket are
+ * counted in the last bucket. Once the window is full, each added value evicts the
+ * oldest value in the window.<p>
+ *
+ * Histograms are synchronized, and so may be written to by one thread while being read
+ * from by others. To read several statistics consistently, take a {@link copy()}
+ * first.
+ *
+ * @author Lyn-Park
+ */
+public final class RollingHistogram {
+    private final double bucketWidth;
+    private final int[] counts;
+    private final double[] window;
+    private int next = 0, size = 0;
+    private double sum = 0;
+
+    /**
+     * Constructs an empty histogram.
+     * @param windowSize The number of most recent values held in the window
+     * @param numBuckets The number of buckets
+     * @param bucketWidth The width of each bucket
+     * @throws IllegalArgumentException If {@code windowSize} or {@code numBuckets} is
+     * less than 1, or {@code bucketWidth} is not greater than 0
+     */
+    public RollingHistogram(int windowSize, int numBuckets, double bucketWidth) {
+        if (windowSize < 1)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>=", "windowSize", windowSize, 1));
+        if (numBuckets < 1)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>=", "numBuckets", numBuckets, 1));
+        if (!(bucketWidth > 0))
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>", "bucketWidth", bucketWidth, 0));
+
+        this.bucketWidth = bucketWidth;
+        this.counts = new int[numBuckets];
+        this.window = new double[windowSize];
+    }
+
+    private RollingHistogram(RollingHistogram histogram) {
+        this.bucketWidth = histogram.bucketWidth;
+        this.counts = histogram.counts.clone();
+        this.window = histogram.window.clone();
+        this.next = histogram.next;
+        this.size = histogram.size;
+        this.sum = histogram.sum;
+    }
+
+    /**
+     * Gets a copy of this histogram, as it currently is.
+     * @return The copy
+     */
+    public synchronized RollingHistogram copy() {
+        return new RollingHistogram(this);
+    }
+
+    /**
+     * Adds a value to the window of this histogram, evicting the oldest value in the
+     * window if it is full.
+     * @param value The value to add
+     */
+    public synchronized void add(double value) {
+        if (size == window.length) {
+            double oldest = window[next];
+            --counts[getBucket(oldest)];
+            sum -= oldest;
+        } else
+            ++size;
+
+        window[next] = value;
+        next = (next + 1) % window.length;
+
+        ++counts[getBucket(value)];
+        sum += value;
+    }
+
+    /**
+     * Removes every value from the window of this histogram.
+     */
+    public synchronized void clear() {
+        Arrays.fill(counts, 0);
+        next = 0;
+        size = 0;
+        sum = 0;
+    }
+
+    private int getBucket(double value) {
+        if (!(value >= 0))
+            return 0;
+
+        return (int)Math.min(counts.length - 1, Math.floor(value / bucketWidth));
+    }
+
+    public int getNumBuckets() {
+        return counts.length;
+    }
+
+    public double getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public int getWindowSize() {
+        return window.length;
+    }
+
+    /**
+     * Gets the number of values currently in the window.
+     * @return The number of values
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of values in the window that lie in the given bucket.
+     * @param bucket The index of the bucket
+     * @return The number of values in the bucket
+     * @throws IndexOutOfBoundsException If {@code bucket} is negative, or not less than
+     * {@link getNumBuckets()}
+     */
+    public synchronized int getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Gets the mean of the values in the window.
+     * @return The mean, or 0 if the window is empty
+     */
+    public synchronized double getMean() {
+        return size == 0 ? 0 : sum / size;
+    }
+
+    /**
+     * Gets the largest value in the window.
+     * @return The largest value, or 0 if the window is empty
+     */
+    public synchronized double getMax() {
+        double max = size == 0 ? 0 : Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; ++i)
+            max = Math.max(max, window[i]);
+
+        return max;
+    }
+
+    /**
+     * Gets the given percentile of the values in the window, using the nearest-rank
+     * method.
+     * @param percentile The percentile, between 0 and 100
+     * @return The value at the given percentile, or 0 if the window is empty
+     * @throws IllegalArgumentException If {@code percentile} is not between 0 and 100
+     */
+    public synchronized double getPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.<=x<=", "percentile", percentile, 0, 100));
+        if (size == 0)
+            return 0;
+
+        double[] sorted = Arrays.copyOf(window, size);
+        Arrays.sort(sorted);
+
+        int rank = (int)Math.ceil((percentile / 100) * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
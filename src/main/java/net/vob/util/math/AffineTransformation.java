@@ -225,6 +225,30 @@ public interface AffineTransformation {
      */
     public boolean isDirty();
     
+    /**
+     * Subscribes the given listener to changes to this transformation. Whenever any
+     * component of this transformation changes, the listener is notified with the
+     * given key; unlike {@link isDirty()}, this is unaffected by calls to the
+     * transformation matrix methods. A listener may be subscribed several times with
+     * different keys, and is then notified once for each key.<p>
+     * 
+     * Implementations that can never change may ignore subscriptions entirely.
+     * 
+     * @param listener the listener to subscribe
+     * @param key the key to notify the listener with
+     */
+    public void subscribe(ChangeListener listener, int key);
+    
+    /**
+     * Unsubscribes the given listener from changes to this transformation, for the
+     * given key. Once this method returns, the listener is no longer notified with
+     * the key. Does nothing if the listener is not subscribed with the key.
+     * 
+     * @param listener the listener to unsubscribe
+     * @param key the key the listener was subscribed with
+     */
+    public void unsubscribe(ChangeListener listener, int key);
+    
     /**
      * Gets the lock this transformation uses for thread-safety and synchronization.
      * @return the {@link ReentrantLock} lock for this instance
@@ -244,4 +268,20 @@ public interface AffineTransformation {
      * @return an unmodifiable view of this affine transformation
      */
     public AffineTransformation getAsUnmodifiable(boolean allowMatrixQuery);
+    
+    /**
+     * A listener notified of changes to the transformations it is subscribed to.
+     */
+    @FunctionalInterface
+    public static interface ChangeListener {
+        /**
+         * Invoked whenever a component of a subscribed transformation changes. This is
+         * invoked by the thread changing the transformation, while holding the lock of
+         * the transformation; thus, implementations must be thread-safe, should return
+         * quickly, and must not block.
+         * 
+         * @param key the key the listener was subscribed with
+         */
+        void transformationChanged(int key);
+    }
 }
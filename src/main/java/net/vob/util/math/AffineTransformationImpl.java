@@ -1,5 +1,6 @@
 package net.vob.util.math;
 
+import java.util.Arrays;
 import java.util.concurrent.locks.ReentrantLock;
 import net.vob.util.logging.LocaleUtils;
 
@@ -14,7 +15,7 @@ public class AffineTransformationImpl implements AffineTransformation {
      * An unmodifiable affine transformation, representing the identity transform;
      * i.e. this transform maps any given point, vector, etc. to itself.
      */
-    public static final AffineTransformation IDENTITY = new AffineTransformationImpl().getAsUnmodifiable(true);
+    public static final AffineTransformation IDENTITY = new AffineTransformationImpl(true).getAsUnmodifiable(true);
     
     protected Vector3 translation = Vector3.ZERO;
     protected Quaternion rotation = Quaternion.POS_W;
@@ -24,13 +25,32 @@ public class AffineTransformationImpl implements AffineTransformation {
     private int prevFlags = 0;
     private boolean dirty = true;
     
+    /** Whether this transformation can never change, and so ignores subscriptions. */
+    private final boolean constant;
+    private AffineTransformation.ChangeListener[] listeners = null;
+    private int[] listenerKeys = null;
+    private int numListeners = 0;
+    
     private final ReentrantLock lock = new ReentrantLock();
     
+    /**
+     * The unmodifiable views of this transformation, with and without matrix queries,
+     * created when first requested; as views hold no state of their own, the same view
+     * is handed out every time.
+     */
+    private Unmodifiable matrixView = null, noMatrixView = null;
+    
     public AffineTransformationImpl() {
+        this(false);
+    }
+    
+    private AffineTransformationImpl(boolean constant) {
+        this.constant = constant;
         matrix.immutable();
     }
     
     public AffineTransformationImpl(AffineTransformation transform) {
+        constant = false;
         translation = transform.getTranslation();
         rotation = transform.getRotation();
         scale = transform.getScale();
@@ -51,7 +71,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             translation = new Vector3(newTranslation);
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -64,7 +84,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             translation = translation.add(appendOffset);
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -77,7 +97,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             translation = Vector3.ZERO;
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -100,7 +120,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             rotation = newRotation.normalized();
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -113,7 +133,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             rotation = appendOffset.normalized().product(rotation);
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -126,7 +146,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             rotation = rotation.product(prependOffset.normalized());
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -139,7 +159,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             rotation = Quaternion.POS_W;
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -162,7 +182,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             scale = new Vector3(newScale);
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -175,7 +195,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             scale = scale.elementMul(appendOffset);
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -188,7 +208,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         lock.lock();
         try {
             scale = Vector3.ONES;
-            dirty = true;
+            markDirty();
         } finally {
             lock.unlock();
         }
@@ -295,6 +315,62 @@ public class AffineTransformationImpl implements AffineTransformation {
         }
     }
     
+    @Override
+    public void subscribe(AffineTransformation.ChangeListener listener, int key) {
+        if (constant)
+            return;
+        
+        lock.lock();
+        try {
+            if (listeners == null) {
+                listeners = new AffineTransformation.ChangeListener[1];
+                listenerKeys = new int[1];
+            } else if (numListeners == listeners.length) {
+                listeners = Arrays.copyOf(listeners, 2 * numListeners);
+                listenerKeys = Arrays.copyOf(listenerKeys, 2 * numListeners);
+            }
+            
+            listeners[numListeners] = listener;
+            listenerKeys[numListeners] = key;
+            ++numListeners;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void unsubscribe(AffineTransformation.ChangeListener listener, int key) {
+        if (constant)
+            return;
+        
+        lock.lock();
+        try {
+            for (int i = 0; i < numListeners; ++i) {
+                if (listeners[i] == listener && listenerKeys[i] == key) {
+                    // Swap in the last subscription, as the order is irrelevant
+                    --numListeners;
+                    listeners[i] = listeners[numListeners];
+                    listenerKeys[i] = listenerKeys[numListeners];
+                    listeners[numListeners] = null;
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Flags this transformation as dirty, and notifies every subscribed listener.
+     * Must be invoked while holding the lock.
+     */
+    private void markDirty() {
+        dirty = true;
+        
+        for (int i = 0; i < numListeners; ++i)
+            listeners[i].transformationChanged(listenerKeys[i]);
+    }
+    
     @Override
     public ReentrantLock getLock() {
         return lock;
@@ -302,7 +378,17 @@ public class AffineTransformationImpl implements AffineTransformation {
     
     @Override
     public AffineTransformation getAsUnmodifiable(boolean allowMatrixQuery) {
-        return new Unmodifiable(this, allowMatrixQuery);
+        // Views are immutable, so a view published by a racing thread is safe to use,
+        // and at worst an extra view is created
+        if (allowMatrixQuery) {
+            if (matrixView == null)
+                matrixView = new Unmodifiable(this, true);
+            return matrixView;
+        } else {
+            if (noMatrixView == null)
+                noMatrixView = new Unmodifiable(this, false);
+            return noMatrixView;
+        }
     }
     
     private static class Unmodifiable implements AffineTransformation {
@@ -478,6 +564,16 @@ public class AffineTransformationImpl implements AffineTransformation {
             return wrapped.isDirty();
         }
         
+        @Override
+        public void subscribe(AffineTransformation.ChangeListener listener, int key) {
+            wrapped.subscribe(listener, key);
+        }
+        
+        @Override
+        public void unsubscribe(AffineTransformation.ChangeListener listener, int key) {
+            wrapped.unsubscribe(listener, key);
+        }
+        
         @Override
         public ReentrantLock getLock() {
             return wrapped.getLock();
@@ -485,7 +581,7 @@ public class AffineTransformationImpl implements AffineTransformation {
         
         @Override
         public AffineTransformation getAsUnmodifiable(boolean allowMatrixQuery) {
-            return new Unmodifiable(wrapped, allowMatrixQuery);
+            return wrapped.getAsUnmodifiable(allowMatrixQuery);
         }
     }
 }
@@ -0,0 +1,557 @@
+package net.vob.util.math;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import net.vob.util.logging.LocaleUtils;
+
+/**
+ * Class for dynamic bounding volume hierarchies. A hierarchy is a balanced binary tree
+ * of axis-aligned boxes; each value inserted into it is held by a leaf, and each
+ * internal node encloses the boxes of both its children. This allows frustum, box and
+ * ray queries to skip entire subtrees that cannot match, rather than testing every
+ * value.<p>
+ *
+ * Each value is identified by an integer <i>proxy</i>, returned when the value is
+ * inserted, and used to update or remove it later. The box held by each leaf is
+ * enlarged by a fixed margin in every direction; updating a value with new bounds that
+ * still lie within its enlarged box does nothing, so small movements do not alter the
+ * tree. Otherwise, the leaf is removed and reinserted, and its ancestors are refitted
+ * and rebalanced.<p>
+ *
+ * Queries are conservative: they visit every value whose enlarged box matches the
+ * query, which may include values whose exact bounds do not. Callers that need exact
+ * results should test the exact bounds of each visited value themselves. Values are
+ * visited in no particular order, and the hierarchy must not be modified while a query
+ * is in progress.<p>
+ *
+ * Bounds may be given either as a {@link Cuboid}, or as 6 consecutive values in an
+ * array: the X, Y and Z coordinates of the center of the box, followed by the
+ * half-extents of the box along the X, Y and Z axes (the same form used by
+ * {@link Frustum}).<p>
+ *
+ * This class is not thread-safe.
+ *
+ * @param <E> the type of values held by the hierarchy
+ * @author Lyn-Park
+ */
+public final class BoundingVolumeHierarchy<E> {
+    private static final int NULL = -1;
+
+    private final double margin;
+
+    /** The boxes of each node, as 6 values: the lower X, Y, Z and upper X, Y, Z bounds. */
+    private double[] boxes;
+    /** The parent of each node; for free nodes, the next free node instead. */
+    private int[] parents;
+    private int[] lefts, rights;
+    /** The height of each node; 0 for leaves, and -1 for free nodes. */
+    private int[] heights;
+    private Object[] values;
+
+    private int root = NULL, free = NULL;
+    private int size = 0;
+
+    /**
+     * Constructs a new, empty hierarchy.
+     * @param margin the distance to enlarge the box of each value by in every direction
+     * @throws IllegalArgumentException if {@code margin} is less than 0
+     */
+    public BoundingVolumeHierarchy(double margin) {
+        if (margin < 0)
+            throw new IllegalArgumentException(LocaleUtils.format("global.Exception.OutOfRange.x>=", "margin", margin, 0));
+
+        this.margin = margin;
+
+        boxes = new double[0];
+        parents = new int[0];
+        lefts = new int[0];
+        rights = new int[0];
+        heights = new int[0];
+        values = new Object[0];
+    }
+
+    /**
+     * Gets the number of values in the hierarchy.
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the value held by the given proxy.
+     * @param proxy the proxy of the value
+     * @return the value
+     * @throws IllegalArgumentException if {@code proxy} does not identify a value in
+     * this hierarchy
+     */
+    @SuppressWarnings("unchecked")
+    public E getValue(int proxy) {
+        checkProxy(proxy);
+        return (E)values[proxy];
+    }
+
+    /**
+     * Inserts the given value into the hierarchy.
+     * @param value the value to insert
+     * @param bounds the bounds of the value
+     * @return the proxy of the value
+     * @throws NullPointerException if {@code bounds} is {@code null}
+     */
+    public int insert(E value, Cuboid bounds) {
+        if (bounds == null)
+            throw new NullPointerException(LocaleUtils.format("global.Exception.Null", "bounds"));
+
+        int leaf = allocateNode();
+        setBox(leaf, bounds.getLowerX(), bounds.getLowerY(), bounds.getLowerZ(),
+                     bounds.getUpperX(), bounds.getUpperY(), bounds.getUpperZ());
+        return insertValue(leaf, value);
+    }
+
+    /**
+     * Inserts the given value into the hierarchy.
+     * @param value the value to insert
+     * @param bounds the array containing the bounds of the value, as a center and
+     * half-extents
+     * @param offset the index of the first value of the bounds in the array
+     * @return the proxy of the value
+     */
+    public int insert(E value, double[] bounds, int offset) {
+        int leaf = allocateNode();
+        setBox(leaf, bounds, offset);
+        return insertValue(leaf, value);
+    }
+
+    /**
+     * Removes the value with the given proxy from the hierarchy. The proxy may be
+     * reused by values inserted afterwards.
+     * @param proxy the proxy of the value
+     * @return the removed value
+     * @throws IllegalArgumentException if {@code proxy} does not identify a value in
+     * this hierarchy
+     */
+    @SuppressWarnings("unchecked")
+    public E remove(int proxy) {
+        checkProxy(proxy);
+
+        E value = (E)values[proxy];
+        removeLeaf(proxy);
+        freeNode(proxy);
+        --size;
+
+        return value;
+    }
+
+    /**
+     * Updates the bounds of the value with the given proxy. Does nothing if the new
+     * bounds lie within the enlarged box of the value.
+     * @param proxy the proxy of the value
+     * @param bounds the new bounds of the value
+     * @return {@code true} if the value was moved within the hierarchy,
+     * {@code false} otherwise
+     * @throws IllegalArgumentException if {@code proxy} does not identify a value in
+     * this hierarchy
+     * @throws NullPointerException if {@code bounds} is {@code null}
+     */
+    public boolean update(int proxy, Cuboid bounds) {
+        checkProxy(proxy);
+        if (bounds == null)
+            throw new NullPointerException(LocaleUtils.format("global.Exception.Null", "bounds"));
+
+        double xL = bounds.getLowerX(), yL = bounds.getLowerY(), zL = bounds.getLowerZ();
+        double xH = bounds.getUpperX(), yH = bounds.getUpperY(), zH = bounds.getUpperZ();
+
+        if (boxContains(proxy, xL, yL, zL, xH, yH, zH))
+            return false;
+
+        removeLeaf(proxy);
+        setBox(proxy, xL, yL, zL, xH, yH, zH);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    /**
+     * Updates the bounds of the value with the given proxy. Does nothing if the new
+     * bounds lie within the enlarged box of the value.
+     * @param proxy the proxy of the value
+     * @param bounds the array containing the new bounds of the value, as a center and
+     * half-extents
+     * @param offset the index of the first value of the bounds in the array
+     * @return {@code true} if the value was moved within the hierarchy,
+     * {@code false} otherwise
+     * @throws IllegalArgumentException if {@code proxy} does not identify a value in
+     * this hierarchy
+     */
+    public boolean update(int proxy, double[] bounds, int offset) {
+        checkProxy(proxy);
+
+        double cx = bounds[offset],     cy = bounds[offset + 1], cz = bounds[offset + 2];
+        double ex = bounds[offset + 3], ey = bounds[offset + 4], ez = bounds[offset + 5];
+
+        if (boxContains(proxy, cx - ex, cy - ey, cz - ez, cx + ex, cy + ey, cz + ez))
+            return false;
+
+        removeLeaf(proxy);
+        setBox(proxy, bounds, offset);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    /**
+     * Performs the given action for each value whose box intersects the given cuboid.
+     * @param bounds the cuboid to query
+     * @param action the action to perform
+     */
+    public void query(Cuboid bounds, Consumer<? super E> action) {
+        if (bounds == null)
+            return;
+
+        double xL = bounds.getLowerX(), yL = bounds.getLowerY(), zL = bounds.getLowerZ();
+        double xH = bounds.getUpperX(), yH = bounds.getUpperY(), zH = bounds.getUpperZ();
+
+        traverse((node) -> {
+            int i = 6 * node;
+            return boxes[i]     <= xH && boxes[i + 3] >= xL &&
+                   boxes[i + 1] <= yH && boxes[i + 4] >= yL &&
+                   boxes[i + 2] <= zH && boxes[i + 5] >= zL;
+        }, action);
+    }
+
+    /**
+     * Performs the given action for each value whose box intersects the given frustum.
+     * @param frustum the frustum to query
+     * @param action the action to perform
+     */
+    public void query(Frustum frustum, Consumer<? super E> action) {
+        traverse((node) -> {
+            int i = 6 * node;
+            return frustum.intersects((boxes[i]     + boxes[i + 3]) / 2D,
+                                      (boxes[i + 1] + boxes[i + 4]) / 2D,
+                                      (boxes[i + 2] + boxes[i + 5]) / 2D,
+                                      (boxes[i + 3] - boxes[i])     / 2D,
+                                      (boxes[i + 4] - boxes[i + 1]) / 2D,
+                                      (boxes[i + 5] - boxes[i + 2]) / 2D);
+        }, action);
+    }
+
+    /**
+     * Performs the given action for each value whose box is hit by the given ray,
+     * within the given distance of the origin of the ray.
+     * @param origin the origin of the ray
+     * @param direction the direction of the ray; this need not be normalized, in which
+     * case {@code maxDistance} is measured in multiples of its length
+     * @param maxDistance the maximum distance along the ray to query
+     * @param action the action to perform
+     */
+    public void raycast(Vector3 origin, Vector3 direction, double maxDistance, Consumer<? super E> action) {
+        double[] o = { origin.getX(), origin.getY(), origin.getZ() };
+        double[] d = { direction.getX(), direction.getY(), direction.getZ() };
+
+        traverse((node) -> {
+            double tL = 0, tH = maxDistance;
+
+            for (int axis = 0; axis < 3; ++axis) {
+                double lower = boxes[(6 * node) + axis], upper = boxes[(6 * node) + axis + 3];
+
+                // a ray parallel to this axis either always or never lies between the
+                // two planes
+                if (d[axis] == 0) {
+                    if (o[axis] < lower || o[axis] > upper)
+                        return false;
+                    continue;
+                }
+
+                double t1 = (lower - o[axis]) / d[axis], t2 = (upper - o[axis]) / d[axis];
+                tL = Math.max(tL, Math.min(t1, t2));
+                tH = Math.min(tH, Math.max(t1, t2));
+
+                if (tL > tH)
+                    return false;
+            }
+
+            return true;
+        }, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void traverse(NodeTest test, Consumer<? super E> action) {
+        if (root == NULL)
+            return;
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = root;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (!test.test(node))
+                continue;
+
+            if (heights[node] == 0)
+                action.accept((E)values[node]);
+
+            else {
+                if (top + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+
+                stack[top++] = lefts[node];
+                stack[top++] = rights[node];
+            }
+        }
+    }
+
+    private int insertValue(int leaf, E value) {
+        values[leaf] = value;
+        heights[leaf] = 0;
+        lefts[leaf] = rights[leaf] = NULL;
+
+        insertLeaf(leaf);
+        ++size;
+        return leaf;
+    }
+
+    private void checkProxy(int proxy) {
+        if (proxy < 0 || proxy >= heights.length || heights[proxy] != 0)
+            throw new IllegalArgumentException(LocaleUtils.format("BoundingVolumeHierarchy.InvalidProxy", proxy));
+    }
+
+    private int allocateNode() {
+        if (free == NULL) {
+            int oldCapacity = heights.length, newCapacity = Math.max(16, oldCapacity * 2);
+
+            boxes = Arrays.copyOf(boxes, 6 * newCapacity);
+            parents = Arrays.copyOf(parents, newCapacity);
+            lefts = Arrays.copyOf(lefts, newCapacity);
+            rights = Arrays.copyOf(rights, newCapacity);
+            heights = Arrays.copyOf(heights, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+
+            for (int i = newCapacity - 1; i >= oldCapacity; --i) {
+                heights[i] = -1;
+                parents[i] = free;
+                free = i;
+            }
+        }
+
+        int node = free;
+        free = parents[node];
+        parents[node] = NULL;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        values[node] = null;
+        heights[node] = -1;
+        parents[node] = free;
+        free = node;
+    }
+
+    private void setBox(int node, double xL, double yL, double zL, double xH, double yH, double zH) {
+        int i = 6 * node;
+        boxes[i]     = xL - margin;
+        boxes[i + 1] = yL - margin;
+        boxes[i + 2] = zL - margin;
+        boxes[i + 3] = xH + margin;
+        boxes[i + 4] = yH + margin;
+        boxes[i + 5] = zH + margin;
+    }
+
+    private void setBox(int node, double[] bounds, int offset) {
+        double cx = bounds[offset],     cy = bounds[offset + 1], cz = bounds[offset + 2];
+        double ex = bounds[offset + 3], ey = bounds[offset + 4], ez = bounds[offset + 5];
+
+        setBox(node, cx - ex, cy - ey, cz - ez, cx + ex, cy + ey, cz + ez);
+    }
+
+    private boolean boxContains(int node, double xL, double yL, double zL, double xH, double yH, double zH) {
+        int i = 6 * node;
+        return boxes[i]     <= xL && boxes[i + 3] >= xH &&
+               boxes[i + 1] <= yL && boxes[i + 4] >= yH &&
+               boxes[i + 2] <= zL && boxes[i + 5] >= zH;
+    }
+
+    /** Sets the box of {@code node} to the union of the boxes of {@code a} and {@code b}. */
+    private void union(int node, int a, int b) {
+        int i = 6 * node, j = 6 * a, k = 6 * b;
+
+        for (int c = 0; c < 3; ++c) {
+            boxes[i + c]     = Math.min(boxes[j + c],     boxes[k + c]);
+            boxes[i + c + 3] = Math.max(boxes[j + c + 3], boxes[k + c + 3]);
+        }
+    }
+
+    /** Gets the surface area of the box of the given node. */
+    private double area(int node) {
+        int i = 6 * node;
+        double w = boxes[i + 3] - boxes[i], h = boxes[i + 4] - boxes[i + 1], d = boxes[i + 5] - boxes[i + 2];
+
+        return 2 * ((w * h) + (w * d) + (h * d));
+    }
+
+    /** Gets the surface area of the union of the boxes of the given nodes. */
+    private double unionArea(int a, int b) {
+        int j = 6 * a, k = 6 * b;
+        double w = Math.max(boxes[j + 3], boxes[k + 3]) - Math.min(boxes[j],     boxes[k]);
+        double h = Math.max(boxes[j + 4], boxes[k + 4]) - Math.min(boxes[j + 1], boxes[k + 1]);
+        double d = Math.max(boxes[j + 5], boxes[k + 5]) - Math.min(boxes[j + 2], boxes[k + 2]);
+
+        return 2 * ((w * h) + (w * d) + (h * d));
+    }
+
+    /**
+     * Inserts the given leaf into the tree. The sibling of the leaf is chosen by
+     * descending from the root towards whichever child would grow the least in surface
+     * area, stopping once pairing with the current node is cheaper than descending.
+     */
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parents[leaf] = NULL;
+            return;
+        }
+
+        int node = root;
+        while (heights[node] > 0) {
+            int left = lefts[node], right = rights[node];
+
+            double area = area(node);
+            double combinedArea = unionArea(node, leaf);
+
+            // cost of pairing the leaf with this node, and the minimum cost pushed
+            // down to the children if descending instead
+            double cost = 2 * combinedArea;
+            double inheritedCost = 2 * (combinedArea - area);
+
+            double leftCost = unionArea(left, leaf) + inheritedCost;
+            if (heights[left] > 0)
+                leftCost -= area(left);
+
+            double rightCost = unionArea(right, leaf) + inheritedCost;
+            if (heights[right] > 0)
+                rightCost -= area(right);
+
+            if (cost < leftCost && cost < rightCost)
+                break;
+
+            node = leftCost < rightCost ? left : right;
+        }
+
+        int sibling = node, oldParent = parents[sibling];
+        int newParent = allocateNode();
+
+        parents[newParent] = oldParent;
+        values[newParent] = null;
+        heights[newParent] = heights[sibling] + 1;
+        union(newParent, sibling, leaf);
+
+        replaceChild(oldParent, sibling, newParent);
+        lefts[newParent] = sibling;
+        rights[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+
+        refitAncestors(newParent);
+    }
+
+    /**
+     * Removes the given leaf from the tree. The parent of the leaf is freed, and its
+     * other child takes its place.
+     */
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+
+        int parent = parents[leaf], grandparent = parents[parent];
+        int sibling = lefts[parent] == leaf ? rights[parent] : lefts[parent];
+
+        replaceChild(grandparent, parent, sibling);
+        parents[sibling] = grandparent;
+        freeNode(parent);
+
+        if (grandparent != NULL)
+            refitAncestors(grandparent);
+    }
+
+    /**
+     * Walks up the tree from the given node to the root, rebalancing each node and
+     * recomputing its height and box.
+     */
+    private void refitAncestors(int node) {
+        while (node != NULL) {
+            node = balance(node);
+
+            int left = lefts[node], right = rights[node];
+            heights[node] = 1 + Math.max(heights[left], heights[right]);
+            union(node, left, right);
+
+            node = parents[node];
+        }
+    }
+
+    /**
+     * Rebalances the given node if the heights of its children differ by more than 1,
+     * by rotating the taller child up into its place.
+     * @return the node now in the place of the given node
+     */
+    private int balance(int node) {
+        if (heights[node] < 2)
+            return node;
+
+        int left = lefts[node], right = rights[node];
+        int diff = heights[right] - heights[left];
+
+        if (diff > 1)
+            return rotate(node, right, left);
+        if (diff < -1)
+            return rotate(node, left, right);
+
+        return node;
+    }
+
+    /**
+     * Rotates {@code up}, a child of {@code node}, into the place of {@code node}.
+     * {@code node} becomes a child of {@code up}, and takes the shorter of the
+     * children of {@code up} in its place.
+     * @return {@code up}
+     */
+    private int rotate(int node, int up, int other) {
+        int a = lefts[up], b = rights[up];
+        int taller = heights[a] > heights[b] ? a : b, shorter = taller == a ? b : a;
+
+        parents[up] = parents[node];
+        replaceChild(parents[up], node, up);
+        lefts[up] = node;
+        rights[up] = taller;
+        parents[node] = up;
+
+        if (lefts[node] == up)
+            lefts[node] = shorter;
+        else
+            rights[node] = shorter;
+        parents[shorter] = node;
+
+        union(node, other, shorter);
+        heights[node] = 1 + Math.max(heights[other], heights[shorter]);
+
+        union(up, node, taller);
+        heights[up] = 1 + Math.max(heights[node], heights[taller]);
+
+        return up;
+    }
+
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NULL)
+            root = newChild;
+        else if (lefts[parent] == oldChild)
+            lefts[parent] = newChild;
+        else
+            rights[parent] = newChild;
+    }
+
+    @FunctionalInterface
+    private interface NodeTest {
+        boolean test(int node);
+    }
+}
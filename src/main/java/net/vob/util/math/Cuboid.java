@@ -28,7 +28,7 @@ public final class Cuboid {
         this.zL = Math.min(zL, zH);
         this.xH = Math.max(xL, xH);
         this.yH = Math.max(yL, yH);
-        this.zL = Math.max(zL, zH);
+        this.zH = Math.max(zL, zH);
     }
     
     /**
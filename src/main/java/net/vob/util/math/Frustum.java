@@ -0,0 +1,109 @@
+package net.vob.util.math;
+
+/**
+ * Class for viewing frustums. A frustum is defined by 6 planes, extracted from a combined
+ * projection-view matrix. This is used by the graphics thread to cull instances whose
+ * bounds lie entirely outside of the view, and by {@link BoundingVolumeHierarchy} to
+ * perform frustum queries.<p>
+ *
+ * Bounds are given as axis-aligned boxes in the form of 6 consecutive values: the
+ * X, Y and Z coordinates of the center of the box, followed by the half-extents of the
+ * box along the X, Y and Z axes. A box is considered visible unless it lies entirely
+ * on the outer side of at least one plane; this is conservative, so some boxes that
+ * are not actually visible near the corners of the frustum are still reported as
+ * visible.<p>
+ *
+ * A newly constructed frustum has all plane coefficients set to 0, and so reports
+ * every box as visible until it is first updated.
+ *
+ * @author Lyn-Park
+ */
+public final class Frustum {
+    /** The coefficients (a, b, c, d) of each plane, such that ax + by + cz + d >= 0 inside. */
+    private final double[] planes = new double[24];
+
+    /**
+     * Extracts the planes of this frustum from the given projection-view matrix.
+     * @param projView the combined projection-view matrix
+     */
+    public void update(Matrix projView) {
+        for (int p = 0; p < 6; ++p) {
+            int row = p / 2;
+            double sign = (p % 2 == 0) ? 1 : -1;
+
+            for (int c = 0; c < 4; ++c)
+                planes[(4 * p) + c] = projView.getElement(3, c) + (sign * projView.getElement(row, c));
+        }
+    }
+
+    /**
+     * Writes the coefficients (a, b, c, d) of each plane of this frustum to the given
+     * array, as 24 consecutive values.
+     * @param dst the array to write to
+     * @param offset the index to write the first value at
+     */
+    public void writeToFloatArray(float[] dst, int offset) {
+        for (int i = 0; i < 24; ++i)
+            dst[offset + i] = (float)planes[i];
+    }
+
+    /**
+     * Checks if the given box intersects this frustum.
+     *
+     * @param bounds the array containing the box, as a center and half-extents
+     * @param offset the index of the first value of the box in the array
+     * @return {@code false} if the box is entirely outside of this frustum,
+     * {@code true} otherwise
+     */
+    public boolean intersects(double[] bounds, int offset) {
+        return intersects(bounds[offset],     bounds[offset + 1], bounds[offset + 2],
+                          bounds[offset + 3], bounds[offset + 4], bounds[offset + 5]);
+    }
+
+    /**
+     * Checks if the given cuboid intersects this frustum. As a special case, passing
+     * {@code null} as the parameter returns {@code false}.
+     *
+     * @param cubd the cuboid to check
+     * @return {@code true} if {@code cubd} is non-{@code null} and is not entirely
+     * outside of this frustum, {@code false} otherwise
+     */
+    public boolean intersects(Cuboid cubd) {
+        return cubd != null &&
+               intersects(cubd.getMidpointX(), cubd.getMidpointY(), cubd.getMidpointZ(),
+                          cubd.getWidth() / 2D, cubd.getHeight() / 2D, cubd.getDepth() / 2D);
+    }
+
+    boolean intersects(double cx, double cy, double cz, double ex, double ey, double ez) {
+        for (int p = 0; p < 24; p += 4) {
+            double a = planes[p], b = planes[p + 1], c = planes[p + 2], d = planes[p + 3];
+
+            double distance = (a * cx) + (b * cy) + (c * cz) + d;
+            double radius = (Math.abs(a) * ex) + (Math.abs(b) * ey) + (Math.abs(c) * ez);
+
+            if (distance + radius < 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Transforms the given box by the given affine transformation matrix, and writes the
+     * axis-aligned box enclosing the result to the given array.
+     *
+     * @param local the array containing the box to transform
+     * @param localOffset the index of the first value of the box to transform
+     * @param model the 4x4 affine transformation matrix
+     * @param world the array to write the transformed box to
+     * @param worldOffset the index to write the first value of the transformed box at
+     */
+    public static void transformBounds(double[] local, int localOffset, Matrix model, double[] world, int worldOffset) {
+        for (int r = 0; r < 3; ++r) {
+            double m0 = model.getElement(r, 0), m1 = model.getElement(r, 1), m2 = model.getElement(r, 2);
+
+            world[worldOffset + r] = (m0 * local[localOffset]) + (m1 * local[localOffset + 1]) + (m2 * local[localOffset + 2]) + model.getElement(r, 3);
+            world[worldOffset + r + 3] = (Math.abs(m0) * local[localOffset + 3]) + (Math.abs(m1) * local[localOffset + 4]) + (Math.abs(m2) * local[localOffset + 5]);
+        }
+    }
+}
@@ -530,6 +530,62 @@ public class Matrix {
                     buf.putFloat((float)getElement(i, j));
     }
     
+    /**
+     * Writes the matrix elements to the given array, starting at the given offset.
+     * Note that this does not perform any writing of the matrix sizes.<p>
+     * 
+     * The {@code transpose} parameter allows the matrix to be transposed during
+     * writing; this transposition is thus more efficient than the use of
+     * {@link transpose()}.
+     * 
+     * @param arr The array to write to
+     * @param offset The index in the array to write the first element to
+     * @param transpose {@code false} if the matrix should be written to the
+     * array in row-major order, or {@code true} for column-major order
+     */
+    public void writeToFloatArray(float[] arr, int offset, boolean transpose) {
+        if (transpose)
+            for (int j = 0; j < columns; ++j)
+                for (int i = 0; i < rows; i++)
+                    arr[offset++] = (float)getElement(i, j);
+            
+        else
+            for (int i = 0; i < rows; ++i)
+                for (int j = 0; j < columns; j++)
+                    arr[offset++] = (float)getElement(i, j);
+    }
+    
+    /**
+     * Performs standard matrix-matrix multiplication with this matrix and the given
+     * matrix, and writes the elements of the result to the given array, starting at the
+     * given offset. This is equivalent to
+     * {@code mul(mat).writeToFloatArray(arr, offset, transpose)}, but does not allocate
+     * a matrix for the result.
+     * 
+     * @param mat The other matrix operand
+     * @param arr The array to write to
+     * @param offset The index in the array to write the first element to
+     * @param transpose {@code false} if the result should be written to the
+     * array in row-major order, or {@code true} for column-major order
+     * @throws IllegalArgumentException If the given matrix parameter is of
+     * incompatible size with this matrix
+     */
+    public void mulToFloatArray(Matrix mat, float[] arr, int offset, boolean transpose) {
+        if (columns != mat.rows)
+            throw new IllegalArgumentException(LocaleUtils.format("Matrix.InvalidRowNumber", mat.rows, columns));
+        
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < mat.columns; c++) {
+                double element = 0;
+                
+                for (int z = 0; z < columns; z++)
+                    element += elements[z + (r * columns)] * mat.elements[c + (z * mat.columns)];
+                
+                arr[offset + (transpose ? r + (c * rows) : c + (r * mat.columns))] = (float)element;
+            }
+        }
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (o == null || !(o instanceof Matrix)) return false;
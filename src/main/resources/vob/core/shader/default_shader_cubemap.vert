@@ -12,7 +12,14 @@ layout(std430) restrict buffer skeletonSSBO
     mat4[] bones;
 };
 
-in mat4 instance_ProjectionViewModelMatrix;
+layout(std140) uniform frameUBO
+{
+    mat4 frame_ProjectionMatrix;
+    mat4 frame_ViewMatrix;
+    mat4 frame_ProjectionViewMatrix;
+};
+
+in mat3x4 instance_AffineModelMatrix;
 
 in vec3 in_Position;
 in vec3 in_TexCoord;
@@ -36,6 +43,6 @@ void main()
         posVec = sum * posVec;
     }
 
-    gl_Position = instance_ProjectionViewModelMatrix * posVec;
+    gl_Position = frame_ProjectionViewMatrix * vec4(posVec * instance_AffineModelMatrix, 1.0);
     pass_TexCoord = in_TexCoord;
 }
@@ -2,7 +2,7 @@
 
 uniform uvec3 windowSize;
 
-in mat4 instance_ModelMatrix;
+in mat3x4 instance_AffineModelMatrix;
 
 in vec3 in_Position;
 in vec2 in_TexCoord;
@@ -11,7 +11,7 @@ out vec2 pass_TexCoord;
 
 void main()
 {
-    gl_Position = instance_ModelMatrix * vec4(in_Position, 1.0);
+    gl_Position = vec4(vec4(in_Position, 1.0) * instance_AffineModelMatrix, 1.0);
     gl_Position.xyz = (2.0 * gl_Position.xyz / windowSize) - 1.0;
     pass_TexCoord = in_TexCoord;
 }
@@ -0,0 +1,101 @@
+package net.vob.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import net.vob.core.graphics.GraphicsEngine;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the lazy instantiation of the handles of {@link Mesh} and {@link Texture2D}
+ * objects. Runs the graphics engine headless, which can only be initialized once per
+ * JVM, so this test needs a JVM of its own.
+ *
+ * @author Lyn-Park
+ */
+class MeshHandleTest {
+    private static final int THREADS = 8;
+
+    @BeforeAll
+    static void init() throws InterruptedException {
+        GraphicsEngine.initHeadless(800, 600, 100, 70f, 0.1f, 1000f, 1);
+    }
+
+    @AfterAll
+    static void close() {
+        GraphicsEngine.close();
+    }
+
+    @Test
+    void concurrentGetHandleInstantiatesOnce() throws InterruptedException {
+        Mesh mesh = triangle();
+        assertFalse(mesh.hasHandle());
+
+        int[] handles = new int[THREADS];
+        Thread[] threads = new Thread[THREADS];
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int i = 0; i < THREADS; ++i) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    handles[index] = mesh.getHandle();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+
+        assertTrue(mesh.hasHandle());
+        for (int handle : handles)
+            assertEquals(handles[0], handle);
+    }
+
+    @Test
+    void selectAndGetHandleShareTheInstance() {
+        Mesh mesh = triangle();
+
+        GraphicsEngine.MESSAGE_LOCK.lock();
+        try {
+            mesh.select();
+        } finally {
+            GraphicsEngine.MESSAGE_LOCK.unlock();
+        }
+
+        int handle = mesh.getHandle();
+        assertTrue(mesh.hasHandle());
+        assertEquals(handle, mesh.getHandle());
+    }
+
+    @Test
+    void texturesInstantiateOnce() {
+        Texture2D texture = new Texture2D(GraphicsEngine.DEFAULT_TEXTURE_ID, 0);
+        assertFalse(texture.hasHandle());
+
+        int handle = texture.getHandle();
+        assertTrue(texture.hasHandle());
+        assertEquals(handle, texture.getHandle());
+    }
+
+    private static Mesh triangle() {
+        return new Mesh(new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                        new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                        null, new int[] { 0, 1, 2 });
+    }
+}
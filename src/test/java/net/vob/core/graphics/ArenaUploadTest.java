@@ -0,0 +1,222 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Matrix;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.opengl.GL15;
+
+/**
+ * Tests that the instances of resident renderables uploaded to the
+ * {@link GLInstanceArena} as runs leave the arena holding the current model matrix of
+ * every instance. The GL calls made to the arena are replayed onto a shadow copy of each
+ * buffer, which is compared against the model matrices of the instances after every
+ * frame.
+ *
+ * @author Lyn-Park
+ */
+class ArenaUploadTest {
+    private static final double[] MESH_BOUNDS = { 0, 0, 0, 1, 1, 1 };
+    private static final int FLOATS_PER_INSTANCE = GraphicsManager.COMPACT_INSTANCE_STRIDE / Float.BYTES;
+
+    private Shadow shadow;
+
+    @BeforeEach
+    void createArena() {
+        shadow = new Shadow();
+        GraphicsManager.BACKEND = GLBackendSpy.wrap(new HeadlessGLBackend(), shadow);
+        GraphicsManager.INSTANCE_ARENA = new GLInstanceArena();
+        GraphicsManager.INSTANCE_ARENA.init();
+    }
+
+    @Test
+    void scatteredAndClusteredChangesAreUploaded() {
+        Random random = new Random(42);
+        Resident other = new Resident(100, random), resident = new Resident(2000, random);
+        other.upload();
+
+        for (int cluster : new int[] { 1, 32 }) {
+            for (double ratio : new double[] { 0.001, 0.01, 0.1, 0.6, 1 }) {
+                for (int frame = 0; frame < 5; ++frame) {
+                    int dirty = Math.max(1, (int)(resident.size() * ratio));
+                    for (int i = 0; i < dirty; i += cluster) {
+                        int first = random.nextInt(resident.size() - cluster + 1);
+                        for (int j = first; j < first + Math.min(cluster, dirty - i); ++j)
+                            resident.move(j, random);
+                    }
+
+                    resident.upload();
+                    resident.assertUploaded("cluster " + cluster + ", ratio " + ratio + ", frame " + frame);
+                    other.assertUploaded("other");
+                }
+            }
+        }
+    }
+
+    @Test
+    void sparseChangesUploadOnlyTheirRuns() {
+        Random random = new Random(7);
+        Resident resident = new Resident(4000, random);
+        resident.upload();
+
+        int[] moved = { 3, 10, 500, 1500, 1503, 3999 };
+        for (int i : moved)
+            resident.move(i, random);
+
+        shadow.calls = 0;
+        shadow.bytes = 0;
+        resident.upload();
+        resident.assertUploaded("sparse");
+
+        // 10 is more than ARENA_RUN_GAP past 3, so only 1500 and 1503 share a run
+        assertEquals(5, shadow.calls);
+        assertEquals((1 + 1 + 1 + 4 + 1) * GraphicsManager.COMPACT_INSTANCE_STRIDE, shadow.bytes);
+    }
+
+    @Test
+    void appendedAndRemovedInstancesAreUploaded() {
+        Random random = new Random(3);
+        Resident other = new Resident(50, random), resident = new Resident(1000, random);
+        other.upload();
+        resident.upload();
+
+        // grows the renderable past its arena range, and then the arena itself
+        for (int round = 0; round < 3; ++round) {
+            for (int i = 0; i < 1500; ++i)
+                resident.append(random);
+            for (int i = 0; i < 200; ++i)
+                resident.remove(random.nextInt(resident.size()));
+            for (int i = 0; i < 50; ++i)
+                resident.move(random.nextInt(resident.size()), random);
+
+            resident.upload();
+            resident.assertUploaded("round " + round);
+            other.assertUploaded("other");
+        }
+
+        assertTrue(GraphicsManager.INSTANCE_ARENA.getCapacity() > 4096);
+    }
+
+    private static AffineTransformation transform(Random random) {
+        return new AffineTransformationImpl().setTranslation(new Vector3(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50))
+                                             .setScale(new Vector3(random.nextDouble() + 0.5, 1, 1));
+    }
+
+    /**
+     * A renderable drawn from the arena, along with the transforms of its instances in
+     * the order of their IDs.
+     */
+    private final class Resident {
+        final List<AffineTransformation> transforms = new ArrayList<>();
+        final GLRenderable renderable;
+
+        Resident(int instances, Random random) {
+            for (int i = 0; i < instances; ++i)
+                transforms.add(transform(random));
+
+            renderable = new GLRenderable(transforms.toArray(new AffineTransformation[instances]));
+        }
+
+        int size() {
+            return transforms.size();
+        }
+
+        void move(int instanceID, Random random) {
+            transforms.get(instanceID).setTranslation(new Vector3(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50));
+        }
+
+        void append(Random random) {
+            transforms.add(transform(random));
+            assertEquals(transforms.size() - 1, renderable.appendInstance(transforms.get(transforms.size() - 1)));
+        }
+
+        void remove(int instanceID) {
+            renderable.removeInstance(instanceID);
+            transforms.set(instanceID, transforms.get(transforms.size() - 1));
+            transforms.remove(transforms.size() - 1);
+        }
+
+        void upload() {
+            renderable.prepareInstances(MESH_BOUNDS);
+            renderable.updateArena();
+        }
+
+        void assertUploaded(String message) {
+            float[] data = shadow.buffers.get(GraphicsManager.INSTANCE_ARENA.getBuffer());
+            float[] expected = new float[FLOATS_PER_INSTANCE], actual = new float[FLOATS_PER_INSTANCE];
+
+            for (int i = 0; i < transforms.size(); ++i) {
+                Matrix model = transforms.get(i).getTransformationMatrix(0);
+                for (int r = 0, k = 0; r < 3; ++r)
+                    for (int c = 0; c < 4; ++c)
+                        expected[k++] = (float)model.getElement(r, c);
+
+                int offset = (renderable.getArenaBaseInstance() + i) * FLOATS_PER_INSTANCE;
+                System.arraycopy(data, offset, actual, 0, FLOATS_PER_INSTANCE);
+                assertArrayEquals(expected, actual, message + ": instance " + i);
+            }
+        }
+    }
+
+    /**
+     * Replays the buffer calls made to the backend onto a float array for each buffer,
+     * and counts the calls and bytes uploaded to the arena with {@code glBufferSubData}.
+     */
+    private static final class Shadow implements GLBackendSpy.Listener {
+        final Map<Integer, float[]> buffers = new HashMap<>();
+        final Map<Integer, Integer> bound = new HashMap<>();
+        int calls;
+        long bytes;
+
+        @Override
+        public void call(String method, Object[] args) {
+            switch (method) {
+                case "glBindBuffer":
+                    bound.put((Integer)args[0], (Integer)args[1]);
+                    break;
+
+                case "glBufferData":
+                    if (args[1] instanceof Long)
+                        buffers.put(bound.get((Integer)args[0]), new float[(int)((Long)args[1] / Float.BYTES)]);
+                    break;
+
+                case "glCopyBufferSubData": {
+                    float[] src = buffers.get(bound.get((Integer)args[0])), dst = buffers.get(bound.get((Integer)args[1]));
+                    System.arraycopy(src, (int)((Long)args[2] / Float.BYTES), dst, (int)((Long)args[3] / Float.BYTES), (int)((Long)args[4] / Float.BYTES));
+                    break;
+                }
+
+                case "glBufferSubData":
+                    if (args[2] instanceof FloatBuffer && (Integer)args[0] == GL15.GL_ARRAY_BUFFER) {
+                        FloatBuffer data = ((FloatBuffer)args[2]).duplicate();
+                        float[] dst = buffers.get(bound.get(GL15.GL_ARRAY_BUFFER));
+                        int offset = (int)((Long)args[1] / Float.BYTES);
+
+                        bytes += (long)data.remaining() * Float.BYTES;
+                        ++calls;
+                        data.get(dst, offset, data.remaining());
+                    }
+                    break;
+
+                case "glDeleteBuffers":
+                    buffers.remove((Integer)args[0]);
+                    break;
+
+                default:
+                    break;
+            }
+        }
+    }
+}
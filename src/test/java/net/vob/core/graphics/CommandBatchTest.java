@@ -0,0 +1,103 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import net.vob.util.math.AffineTransformationImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the recording of a {@link CommandBatch}, and its replay by the graphics thread.
+ * Runs the graphics engine headless, which can only be initialized once per JVM, so this
+ * test needs a JVM of its own.
+ *
+ * @author Lyn-Park
+ */
+class CommandBatchTest {
+    private static final long TIMEOUT = 10;
+
+    @BeforeAll
+    static void init() throws InterruptedException {
+        GraphicsEngine.initHeadless(800, 600, 100, 70f, 0.1f, 1000f, 1);
+    }
+
+    @AfterAll
+    static void close() {
+        GraphicsEngine.close();
+    }
+
+    @Test
+    void markResultReplacesPreviousMark() {
+        CommandBatch batch = new CommandBatch();
+        assertThrows(IllegalStateException.class, batch::markResult);
+
+        batch.renderableCreate(1).markResult().renderableCreate(2).renderableCreate(3).markResult().renderableCreate(4);
+        Message message = batch.toMessage();
+
+        assertSame(Message.Type.BATCH, message.getType());
+        assertEquals(4, ((Message[])message.getRef(0)).length);
+        assertEquals(2, message.getInt(1));
+    }
+
+    @Test
+    void submittedBatchIsSnapshot() {
+        CommandBatch batch = new CommandBatch().renderableCreate(1).markResult();
+        Message message = batch.toMessage();
+
+        batch.renderableCreate(2).markResult();
+        assertEquals(1, ((Message[])message.getRef(0)).length);
+        assertEquals(0, message.getInt(1));
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertEquals(-1, batch.toMessage().getInt(1));
+    }
+
+    @Test
+    void batchCompletesWithMarkedResult() throws Exception {
+        int renderable = get(GraphicsEngine.msgBatch(new CommandBatch().viewportSetTransform(new AffineTransformationImpl())
+                                                                        .renderableCreate(1).markResult()
+                                                                        .viewportSetTransform(new AffineTransformationImpl())));
+
+        // the result is the handle of the created renderable, which can be closed once
+        assertEquals(0, get(GraphicsEngine.msgRenderableClose(renderable)));
+        assertCancelled(GraphicsEngine.msgRenderableClose(renderable));
+    }
+
+    @Test
+    void unmarkedBatchCompletesWithZero() throws Exception {
+        assertEquals(0, get(GraphicsEngine.msgBatch(new CommandBatch().viewportSetTransform(new AffineTransformationImpl()))));
+        assertEquals(0, get(GraphicsEngine.msgBatch(new CommandBatch())));
+    }
+
+    @Test
+    void replayStopsAtFirstFailingCommand() throws Exception {
+        int before = get(GraphicsEngine.msgRenderableCreate(1));
+        int after = get(GraphicsEngine.msgRenderableCreate(1));
+        int closed = get(GraphicsEngine.msgRenderableCreate(1));
+        get(GraphicsEngine.msgRenderableClose(closed));
+
+        // the batch fails, even though the failing command follows the marked one
+        assertCancelled(GraphicsEngine.msgBatch(new CommandBatch().renderableClose(before).markResult()
+                                                                  .renderableClose(closed)
+                                                                  .renderableClose(after)));
+
+        // the command before the failure took effect, the one after it did not
+        assertCancelled(GraphicsEngine.msgRenderableClose(before));
+        assertEquals(0, get(GraphicsEngine.msgRenderableClose(after)));
+    }
+
+    private static int get(CompletableFuture<Integer> future) throws Exception {
+        return future.get(TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    private static void assertCancelled(CompletableFuture<Integer> future) {
+        assertThrows(CancellationException.class, () -> future.get(TIMEOUT, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,178 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Matrix;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the handoff of draw lists between the graphics thread and the prepare stage of
+ * the {@link FramePipeline}. The frames are snapshotted in the full layout, with
+ * culling disabled, so that no GL objects or instance index are needed to prepare them.
+ *
+ * @author Lyn-Park
+ */
+class FramePipelineTest {
+    private static final GLMesh MESH = new GLMesh(new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                                                  new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                                                  null, new int[] { 0, 1, 2 });
+
+    private FramePipeline pipeline;
+
+    @BeforeEach
+    void createPipeline() {
+        pipeline = new FramePipeline(2);
+    }
+
+    @AfterEach
+    void closePipeline() {
+        pipeline.close();
+    }
+
+    @Test
+    void drawListsAlternateAndAreCleared() {
+        DrawList first = snapshot(pipeline.acquire(), renderable(3, 0));
+        pipeline.launch(first);
+        assertSame(first, pipeline.await());
+
+        DrawList second = pipeline.acquire();
+        assertNotSame(first, second);
+        assertEquals(1, first.size);
+
+        DrawList third = pipeline.acquire();
+        assertSame(first, third);
+        assertEquals(0, third.size);
+        assertEquals(0, third.numPasses);
+        assertEquals(0, third.instancesPacked);
+        assertNull(third.renderables[0]);
+        assertNull(third.projViewMatrix);
+    }
+
+    @Test
+    void awaitReturnsNullWithoutLaunch() {
+        assertNull(pipeline.await());
+
+        pipeline.launch(snapshot(pipeline.acquire(), renderable(1, 0)));
+        pipeline.await();
+        assertNull(pipeline.await());
+    }
+
+    @Test
+    void awaitedFrameIsPrepared() {
+        GLRenderable a = renderable(3, 0), b = renderable(5, 10);
+        DrawList frame = snapshot(pipeline.acquire(), a, b);
+        pipeline.launch(frame);
+
+        assertSame(frame, pipeline.await());
+        assertTrue(frame.prepareNanos > 0);
+        assertEquals(3, frame.visibleCounts[0]);
+        assertEquals(5, frame.visibleCounts[1]);
+        assertEquals(8, frame.instancesVisible);
+        assertEquals(0, frame.instancesCulled);
+        assertEquals(8, frame.instancesPacked);
+        assertFalse(frame.resident[0]);
+        assertFalse(frame.resident[1]);
+
+        assertInstances(frame, 0, 0);
+        assertInstances(frame, 1, 10);
+    }
+
+    @Test
+    void nextFrameCanBeSnapshottedWhileAwaitedFrameIsRead() {
+        GLRenderable renderable = renderable(4, 0);
+        DrawList frame = snapshot(pipeline.acquire(), renderable);
+        pipeline.launch(frame);
+        assertSame(frame, pipeline.await());
+
+        DrawList next = snapshot(pipeline.acquire(), renderable(2, 20));
+        pipeline.launch(next);
+
+        // the awaited frame is untouched by the preparation of the next
+        assertSame(renderable, frame.renderables[0]);
+        assertEquals(4, frame.instancesPacked);
+        assertInstances(frame, 0, 0);
+
+        assertSame(next, pipeline.await());
+        assertInstances(next, 0, 20);
+    }
+
+    @Test
+    void parallelismCanChangeBetweenFrames() {
+        for (int parallelism : new int[] { 1, 4, 4, 2 }) {
+            pipeline.setParallelism(parallelism);
+
+            DrawList frame = snapshot(pipeline.acquire(), renderable(600, parallelism));
+            pipeline.launch(frame);
+
+            assertSame(frame, pipeline.await());
+            assertEquals(600, frame.instancesPacked);
+            assertInstances(frame, 0, parallelism);
+        }
+    }
+
+    @Test
+    void closeWaitsForPendingFrame() {
+        DrawList frame = snapshot(pipeline.acquire(), renderable(600, 0));
+        pipeline.launch(frame);
+        pipeline.close();
+
+        assertTrue(frame.prepareNanos > 0);
+        assertEquals(600, frame.instancesPacked);
+        assertNull(pipeline.await());
+    }
+
+    /**
+     * Creates a renderable with the given number of instances, each translated along
+     * the x axis by the given offset plus its ID.
+     */
+    private static GLRenderable renderable(int instances, int offset) {
+        AffineTransformation[] transforms = new AffineTransformation[instances];
+        for (int i = 0; i < instances; ++i)
+            transforms[i] = new AffineTransformationImpl().setTranslation(new Vector3(offset + i, 0, 0));
+
+        GLRenderable renderable = new GLRenderable(transforms);
+        renderable.mesh = MESH;
+        return renderable;
+    }
+
+    private static DrawList snapshot(DrawList frame, GLRenderable... renderables) {
+        frame.projViewMatrix = Matrix.identity(4);
+        frame.beginPass(new GLShaderProgram(false), false);
+        for (GLRenderable renderable : renderables)
+            frame.add(renderable, false, false);
+
+        return frame;
+    }
+
+    /**
+     * Asserts that the packed instances of the given entry are translated along the x
+     * axis by the given offset plus their ID; as the projection-view matrix is the
+     * identity, both matrices of each instance are its model matrix.
+     */
+    private static void assertInstances(DrawList frame, int entry, int offset) {
+        int floats = GraphicsManager.INSTANCE_STRIDE / Float.BYTES;
+        float[] expected = new float[floats], actual = new float[floats];
+
+        for (int i = 0; i < frame.visibleCounts[entry]; ++i) {
+            Matrix model = Matrix.getTranslationMatrix(new Vector3(offset + i, 0, 0));
+            model.writeToFloatArray(expected, 0, true);
+            model.writeToFloatArray(expected, 16, true);
+
+            for (int j = 0; j < floats; ++j)
+                actual[j] = frame.instanceData.get(frame.dataOffsets[entry] + i * floats + j);
+
+            assertArrayEquals(expected, actual, "instance " + i + " of entry " + entry);
+        }
+    }
+}
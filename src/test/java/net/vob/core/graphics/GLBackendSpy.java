@@ -0,0 +1,45 @@
+package net.vob.core.graphics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Wraps a {@link GLBackend} such that every call made to it is first passed to a
+ * listener, which can record or check its arguments, before being forwarded to the
+ * wrapped backend. Used by tests to observe the calls the graphics code makes without a
+ * GL context, typically by wrapping a {@link HeadlessGLBackend}.
+ *
+ * @author Lyn-Park
+ */
+final class GLBackendSpy {
+    private GLBackendSpy() {}
+
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * Invoked before each call is forwarded to the wrapped backend.
+         * @param method the name of the method called
+         * @param args the arguments of the call; these must not be modified
+         */
+        void call(String method, Object[] args);
+    }
+
+    /**
+     * Wraps the given backend.
+     * @param backend the backend to forward calls to
+     * @param listener the listener to pass each call to
+     * @return the wrapping backend
+     */
+    static GLBackend wrap(GLBackend backend, Listener listener) {
+        return (GLBackend)Proxy.newProxyInstance(GLBackend.class.getClassLoader(), new Class<?>[] { GLBackend.class }, (proxy, method, args) -> {
+            Object[] a = args == null ? new Object[0] : args;
+            listener.call(method.getName(), a);
+
+            try {
+                return method.invoke(backend, a);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
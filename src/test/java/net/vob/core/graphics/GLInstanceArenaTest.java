@@ -0,0 +1,179 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the free-list allocator of the {@link GLInstanceArena}, on a
+ * {@link HeadlessGLBackend}.
+ *
+ * @author Lyn-Park
+ */
+class GLInstanceArenaTest {
+    private GLInstanceArena arena;
+    private int initialCapacity;
+
+    @BeforeEach
+    void init() {
+        GraphicsManager.BACKEND = new HeadlessGLBackend();
+        arena = new GLInstanceArena();
+        arena.init();
+        initialCapacity = arena.getCapacity();
+    }
+
+    @Test
+    void allocationIsFirstFit() {
+        int a = arena.allocate(10), b = arena.allocate(20), c = arena.allocate(30);
+        assertEquals(0, a);
+        assertEquals(10, b);
+        assertEquals(30, c);
+
+        arena.free(b, 20);
+        assertEquals(10, arena.allocate(5));
+        assertEquals(15, arena.allocate(15));
+        assertEquals(60, arena.allocate(1));
+    }
+
+    @Test
+    void freedRangesMergeWithNeighbours() {
+        int a = arena.allocate(10), b = arena.allocate(10), c = arena.allocate(10);
+        arena.allocate(10);
+
+        arena.free(a, 10);
+        arena.free(c, 10);
+        assertEquals(3, arena.getFreeRanges().size());
+
+        arena.free(b, 10);
+        SortedMap<Integer, Integer> free = arena.getFreeRanges();
+        assertEquals(2, free.size());
+        assertEquals(30, (int)free.get(0));
+        assertEquals(initialCapacity - 40, (int)free.get(40));
+
+        assertEquals(0, arena.allocate(30));
+    }
+
+    @Test
+    void invalidFreesAreDetected() {
+        int a = arena.allocate(10), b = arena.allocate(10);
+        arena.free(a, 10);
+
+        // double free, and frees overlapping a free range from either side
+        assertThrows(IllegalArgumentException.class, () -> arena.free(a, 10));
+        assertThrows(IllegalArgumentException.class, () -> arena.free(5, 10));
+        assertThrows(IllegalArgumentException.class, () -> arena.free(b, 11));
+        assertThrows(IllegalArgumentException.class, () -> arena.free(b + 5, 10));
+
+        // frees outside the buffer, or of no instances
+        assertThrows(IllegalArgumentException.class, () -> arena.free(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> arena.free(b, 0));
+        assertThrows(IllegalArgumentException.class, () -> arena.free(initialCapacity, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> arena.allocate(0));
+
+        // none of the rejected frees changed the free list
+        SortedMap<Integer, Integer> free = arena.getFreeRanges();
+        assertEquals(2, free.size());
+        assertEquals(10, (int)free.get(0));
+        assertEquals(initialCapacity - 20, (int)free.get(20));
+    }
+
+    @Test
+    void growthExtendsFreeTail() {
+        int generation = arena.getGeneration();
+        int head = arena.allocate(initialCapacity - 100);
+
+        // the 100 free instances at the end of the buffer count towards the allocation
+        int offset = arena.allocate(initialCapacity);
+        assertEquals(head + initialCapacity - 100, offset);
+        assertEquals(2 * initialCapacity, arena.getCapacity());
+        assertNotEquals(generation, arena.getGeneration());
+        assertFreeRanges(arena, 2 * initialCapacity - 100, 100);
+
+        // with no free tail, the buffer grows by the whole allocation
+        generation = arena.getGeneration();
+        arena.allocate(100);
+        offset = arena.allocate(3 * initialCapacity);
+        assertEquals(2 * initialCapacity, offset);
+        assertEquals(5 * initialCapacity, arena.getCapacity());
+        assertNotEquals(generation, arena.getGeneration());
+        assertTrue(arena.getFreeRanges().isEmpty());
+    }
+
+    @Test
+    void growthKeepsInteriorFreeRanges() {
+        int a = arena.allocate(100);
+        arena.allocate(initialCapacity - 100);
+        arena.free(a, 100);
+
+        assertEquals(initialCapacity, arena.allocate(200));
+        assertEquals(2 * initialCapacity, arena.getCapacity());
+        assertFreeRanges(arena, 0, 100, initialCapacity + 200, initialCapacity - 200);
+    }
+
+    @Test
+    void randomSequenceMatchesOracle() {
+        Random random = new Random(7);
+        BitSet used = new BitSet();
+        List<int[]> allocated = new ArrayList<>();
+
+        for (int step = 0; step < 20_000; ++step) {
+            if (allocated.isEmpty() || random.nextInt(5) < 3) {
+                int count = 1 + random.nextInt(random.nextInt(10) == 0 ? 2000 : 100);
+                int offset = arena.allocate(count);
+
+                assertTrue(offset >= 0 && offset + count <= arena.getCapacity());
+                assertEquals(-1, used.get(offset, offset + count).nextSetBit(0), "overlapping allocation");
+                used.set(offset, offset + count);
+                allocated.add(new int[] { offset, count });
+
+            } else {
+                int[] range = allocated.remove(random.nextInt(allocated.size()));
+                arena.free(range[0], range[1]);
+                used.clear(range[0], range[0] + range[1]);
+            }
+
+            if (step % 100 == 0)
+                assertFreeListMatches(used);
+        }
+
+        for (int[] range : allocated)
+            arena.free(range[0], range[1]);
+        assertFreeRanges(arena, 0, arena.getCapacity());
+    }
+
+    /**
+     * Checks that the free ranges are exactly the unused instances of the buffer, with no
+     * two free ranges adjacent.
+     */
+    private void assertFreeListMatches(BitSet used) {
+        int expectedOffset = used.nextClearBit(0);
+        for (Map.Entry<Integer, Integer> range : arena.getFreeRanges().entrySet()) {
+            int offset = range.getKey(), end = offset + range.getValue();
+
+            assertEquals(expectedOffset, offset);
+            assertEquals(Math.min(used.nextSetBit(offset) < 0 ? Integer.MAX_VALUE : used.nextSetBit(offset), arena.getCapacity()), end);
+            expectedOffset = used.nextClearBit(end);
+        }
+
+        assertFalse(expectedOffset < arena.getCapacity(), "unused instances missing from free list");
+    }
+
+    private static void assertFreeRanges(GLInstanceArena arena, int... offsetsAndLengths) {
+        SortedMap<Integer, Integer> free = arena.getFreeRanges();
+        assertEquals(offsetsAndLengths.length / 2, free.size());
+        for (int i = 0; i < offsetsAndLengths.length; i += 2)
+            assertEquals(offsetsAndLengths[i + 1], (int)free.get(offsetsAndLengths[i]));
+    }
+}
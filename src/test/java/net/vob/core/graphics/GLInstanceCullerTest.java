@@ -0,0 +1,247 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.opengl.GL43;
+
+/**
+ * Tests the CPU side of the {@link GLInstanceCuller}: the draw commands built for the
+ * GPU-culled renderables of a draw list, and the jobs they are split into and
+ * dispatched as. The culler runs against a {@link HeadlessGLBackend}, and the commands
+ * and jobs are read back from the buffers uploaded to it; the compute shader itself is
+ * not run.
+ *
+ * @author Lyn-Park
+ */
+class GLInstanceCullerTest {
+    private static final int GROUP_SIZE = 64, MAX_GROUPS = 65535;
+    private static final int JOB_HEADER_SIZE = (24 * Float.BYTES) + (4 * Integer.BYTES);
+    private static final int JOB_SIZE = (8 * Float.BYTES) + (4 * Integer.BYTES);
+
+    private GLMesh triangle, quad;
+    private GLInstanceCuller culler;
+
+    private int[] commands;
+    private long visibleSize;
+    private final List<ByteBuffer> dispatchedJobs = new ArrayList<>();
+    private final List<Integer> dispatchedGroups = new ArrayList<>();
+    private int calls;
+
+    @BeforeEach
+    void createCuller() {
+        GraphicsManager.BACKEND = GLBackendSpy.wrap(new HeadlessGLBackend(), this::record);
+        GraphicsManager.INSTANCE_ARENA = new GLInstanceArena();
+        GraphicsManager.INSTANCE_ARENA.init();
+
+        triangle = new GLMesh(new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                              new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                              null, new int[] { 0, 1, 2 });
+        quad = new GLMesh(new Vector3[] { new Vector3(-1, -2, 0), new Vector3(1, -2, 0), new Vector3(1, 2, 3), new Vector3(-1, 2, 3) },
+                          new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(1, 1, 0), new Vector3(0, 1, 0) },
+                          null, new int[] { 0, 1, 2, 0, 2, 3 });
+        triangle.init();
+        quad.init();
+
+        culler = new GLInstanceCuller();
+        culler.init();
+        assertTrue(culler.isAvailable());
+
+        calls = 0;
+    }
+
+    @Test
+    void commandsAreBuiltForGPUCulledEntriesOnly() {
+        GLRenderable a = renderable(triangle, 3), b = renderable(quad, 4), c = renderable(quad, 100), d = renderable(triangle, 2);
+        d.close();
+
+        DrawList frame = frame();
+        add(frame, a, true, true);
+        add(frame, b, true, false);
+        add(frame, c, true, true);
+        add(frame, d, true, true);
+        add(frame, renderable(triangle, 5), false, true);
+        culler.cull(frame);
+
+        assertEquals(5, frame.size);
+        assertArrayEquals(new boolean[] { true, false, true, true, false }, gpuCulled(frame));
+
+        // base instances leave room for every instance of the commands before
+        assertArrayEquals(new int[] { 3, 0, 0, 0, 0,
+                                      6, 0, 0, 0, 3 }, commands);
+        assertEquals(0, culler.getCommandOffset(0));
+        assertEquals(5 * Integer.BYTES, culler.getCommandOffset(2));
+        assertEquals(103L * GraphicsManager.COMPACT_INSTANCE_STRIDE, visibleSize);
+
+        assertEquals(1, dispatchedGroups.size());
+        assertEquals(1 + 2, (int)dispatchedGroups.get(0));
+
+        ByteBuffer jobs = dispatchedJobs.get(0);
+        assertHeader(jobs, frame, 2);
+        assertJob(jobs, 0, triangle.getBounds(), 0, a.getArenaBaseInstance(), 3, 0);
+        assertJob(jobs, 1, quad.getBounds(), 1, c.getArenaBaseInstance(), 100, 1);
+    }
+
+    @Test
+    void nothingIsDispatchedWithoutGPUCulledEntries() {
+        DrawList frame = frame();
+        add(frame, renderable(triangle, 3), true, false);
+        add(frame, renderable(quad, 3), false, true);
+
+        calls = 0;
+        culler.cull(frame);
+
+        assertEquals(0, calls);
+        assertTrue(dispatchedGroups.isEmpty());
+    }
+
+    @Test
+    void largeRenderablesAreSplitOverDispatches() {
+        GLRenderable a = renderable(triangle, 1), b = renderable(quad, 1);
+        int jobInstances = MAX_GROUPS * GROUP_SIZE;
+
+        DrawList frame = frame();
+        add(frame, a, true, true);
+        add(frame, b, true, true);
+
+        // only the counts of the draw list are read, not the instances themselves
+        frame.visibleCounts[0] = jobInstances + 10;
+        frame.visibleCounts[1] = 3 * GROUP_SIZE;
+        culler.cull(frame);
+
+        assertArrayEquals(new int[] { 3, 0, 0, 0, 0,
+                                      6, 0, 0, 0, jobInstances + 10 }, commands);
+        assertEquals((long)(jobInstances + 10 + 3 * GROUP_SIZE) * GraphicsManager.COMPACT_INSTANCE_STRIDE, visibleSize);
+
+        assertEquals(2, dispatchedGroups.size());
+        assertEquals(MAX_GROUPS, (int)dispatchedGroups.get(0));
+        assertEquals(1 + 3, (int)dispatchedGroups.get(1));
+
+        ByteBuffer first = dispatchedJobs.get(0), second = dispatchedJobs.get(1);
+        assertHeader(first, frame, 1);
+        assertJob(first, 0, triangle.getBounds(), 0, a.getArenaBaseInstance(), jobInstances, 0);
+
+        assertHeader(second, frame, 2);
+        assertJob(second, 0, triangle.getBounds(), 0, a.getArenaBaseInstance() + jobInstances, 10, 0);
+        assertJob(second, 1, quad.getBounds(), 1, b.getArenaBaseInstance(), 3 * GROUP_SIZE, 1);
+    }
+
+    @Test
+    void jobsFillingADispatchExactlyShareIt() {
+        GLRenderable a = renderable(triangle, 1), b = renderable(quad, 1);
+
+        DrawList frame = frame();
+        add(frame, a, true, true);
+        add(frame, b, true, true);
+        frame.visibleCounts[0] = GROUP_SIZE + 1;
+        frame.visibleCounts[1] = (MAX_GROUPS - 2) * GROUP_SIZE;
+        culler.cull(frame);
+
+        assertEquals(1, dispatchedGroups.size());
+        assertEquals(MAX_GROUPS, (int)dispatchedGroups.get(0));
+
+        ByteBuffer jobs = dispatchedJobs.get(0);
+        assertHeader(jobs, frame, 2);
+        assertJob(jobs, 0, triangle.getBounds(), 0, a.getArenaBaseInstance(), GROUP_SIZE + 1, 0);
+        assertJob(jobs, 1, quad.getBounds(), 2, b.getArenaBaseInstance(), (MAX_GROUPS - 2) * GROUP_SIZE, 1);
+    }
+
+    private void record(String method, Object[] args) {
+        ++calls;
+
+        if (method.equals("glBufferData") && (Integer)args[0] == GL43.GL_SHADER_STORAGE_BUFFER) {
+            if (args[1] instanceof IntBuffer) {
+                IntBuffer data = ((IntBuffer)args[1]).duplicate();
+                commands = new int[data.remaining()];
+                data.get(commands);
+
+            } else if (args[1] instanceof ByteBuffer) {
+                ByteBuffer data = ((ByteBuffer)args[1]).duplicate().order(ByteOrder.nativeOrder());
+                ByteBuffer copy = ByteBuffer.allocate(data.remaining()).order(ByteOrder.nativeOrder());
+                copy.put(data).flip();
+                dispatchedJobs.add(copy);
+
+            } else if (args[1] instanceof Long)
+                visibleSize = (Long)args[1];
+
+        } else if (method.equals("glDispatchCompute"))
+            dispatchedGroups.add((Integer)args[0]);
+    }
+
+    private GLRenderable renderable(GLMesh mesh, int instances) {
+        AffineTransformation[] transforms = new AffineTransformation[instances];
+        for (int i = 0; i < instances; ++i)
+            transforms[i] = new AffineTransformationImpl().setTranslation(new Vector3(i, 0, 0));
+
+        GLRenderable renderable = new GLRenderable(transforms);
+        renderable.mesh = mesh;
+        renderable.prepareInstances(mesh.getBounds());
+        renderable.updateArena();
+        return renderable;
+    }
+
+    /**
+     * Creates a draw list with GPU culling enabled, and distinct frustum planes.
+     */
+    private static DrawList frame() {
+        DrawList frame = new DrawList();
+        frame.gpuCull = true;
+        for (int i = 0; i < frame.frustumPlanes.length; ++i)
+            frame.frustumPlanes[i] = i + 0.5f;
+
+        return frame;
+    }
+
+    /**
+     * Adds the given renderable to the draw list, in a new pass of the given layout,
+     * with every instance visible.
+     */
+    private static void add(DrawList frame, GLRenderable renderable, boolean compact, boolean culled) {
+        frame.beginPass(new GLShaderProgram(false), false);
+        frame.passCompact[frame.numPasses - 1] = compact;
+        frame.add(renderable, culled, true);
+        frame.visibleCounts[frame.size - 1] = renderable.getNumInstances();
+    }
+
+    private static boolean[] gpuCulled(DrawList frame) {
+        boolean[] gpuCulled = new boolean[frame.size];
+        for (int i = 0; i < frame.size; ++i)
+            gpuCulled[i] = frame.gpuCulled[i];
+
+        return gpuCulled;
+    }
+
+    private static void assertHeader(ByteBuffer jobs, DrawList frame, int numJobs) {
+        assertEquals(JOB_HEADER_SIZE + numJobs * JOB_SIZE, jobs.limit());
+        for (int i = 0; i < 24; ++i)
+            assertEquals(frame.frustumPlanes[i], jobs.getFloat(i * Float.BYTES), 0, "plane " + i);
+
+        assertEquals(numJobs, jobs.getInt(24 * Float.BYTES));
+    }
+
+    private static void assertJob(ByteBuffer jobs, int job, double[] bounds, int firstGroup, int arenaOffset, int count, int command) {
+        int offset = JOB_HEADER_SIZE + job * JOB_SIZE;
+
+        for (int i = 0; i < 3; ++i) {
+            assertEquals((float)bounds[i], jobs.getFloat(offset + i * Float.BYTES), 0, "job " + job + " min " + i);
+            assertEquals((float)bounds[3 + i], jobs.getFloat(offset + (4 + i) * Float.BYTES), 0, "job " + job + " max " + i);
+        }
+
+        offset += 8 * Float.BYTES;
+        assertEquals(firstGroup, jobs.getInt(offset), "job " + job + " first group");
+        assertEquals(arenaOffset, jobs.getInt(offset + Integer.BYTES), "job " + job + " arena offset");
+        assertEquals(count, jobs.getInt(offset + 2 * Integer.BYTES), "job " + job + " count");
+        assertEquals(command, jobs.getInt(offset + 3 * Integer.BYTES), "job " + job + " command");
+    }
+}
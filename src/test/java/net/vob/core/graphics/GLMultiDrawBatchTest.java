@@ -0,0 +1,183 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.opengl.GL40;
+
+/**
+ * Tests the draw commands of the {@link GLMultiDrawBatch}. Runs the graphics engine
+ * headless, with the draw calls of its backend observed by a {@link GLBackendSpy}; the
+ * engine can only be initialized once per JVM, so this test needs a JVM of its own.<p>
+ *
+ * The scene holds three renderables with the same (default) texture and no skeleton,
+ * two of which share a mesh, and so are drawn as one batch; and a fourth renderable with
+ * its own texture, which cannot join the batch, and is drawn alone.
+ *
+ * @author Lyn-Park
+ */
+class GLMultiDrawBatchTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final int COMMAND_SIZE = 5;
+
+    /** The commands last uploaded to the draw indirect buffer. */
+    private static final AtomicReference<int[]> INDIRECT = new AtomicReference<>();
+    /** The commands of the last multi-draw call. */
+    private static final AtomicReference<int[]> MULTI_DRAW = new AtomicReference<>();
+    /** The draw count of the last multi-draw call. */
+    private static final AtomicInteger DRAW_COUNT = new AtomicInteger();
+    private static final AtomicInteger MULTI_DRAWS = new AtomicInteger(), SINGLE_DRAWS = new AtomicInteger();
+
+    @BeforeAll
+    static void init() throws Exception {
+        GraphicsEngine.initHeadless(800, 600, 100, 70f, 0.1f, 1000f, 1);
+
+        GraphicsManager.BACKEND = GLBackendSpy.wrap(GraphicsManager.BACKEND, (method, args) -> {
+            switch (method) {
+                case "glBufferData":
+                    if ((int)args[0] == GL40.GL_DRAW_INDIRECT_BUFFER && args[1] instanceof IntBuffer) {
+                        IntBuffer data = ((IntBuffer)args[1]).duplicate();
+                        int[] commands = new int[data.remaining()];
+                        data.get(commands);
+                        INDIRECT.set(commands);
+                    }
+                    break;
+                case "glMultiDrawElementsIndirect":
+                    DRAW_COUNT.set((int)args[3]);
+                    MULTI_DRAW.set(INDIRECT.get());
+                    MULTI_DRAWS.incrementAndGet();
+                    break;
+                case "glDrawElementsInstancedBaseInstance":
+                    SINGLE_DRAWS.incrementAndGet();
+                    break;
+            }
+        });
+
+        int program = GraphicsEngine.msgShaderProgramNew(false).get();
+        GraphicsEngine.msgShaderSelectDefaultVertUI().get();
+        GraphicsEngine.msgShaderProgramAttachShader().get();
+        GraphicsEngine.msgShaderSelectDefaultFragUI().get();
+        GraphicsEngine.msgShaderProgramAttachShader().get();
+
+        // a triangle of 3 vertices, and a quad of 4 vertices and 2 triangles
+        int triangle = GraphicsEngine.msgMeshNew(vertices(3), vertices(3), null, new int[] { 0, 1, 2 }).get();
+        int quad = GraphicsEngine.msgMeshNew(vertices(4), vertices(4), null, new int[] { 0, 1, 2, 0, 2, 3 }).get();
+        int texture = GraphicsEngine.msgTexture2DNew(new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB), 0).get();
+
+        create(program, triangle, 2);
+        create(program, quad, 3);
+        create(program, triangle, 1);
+        create(program, triangle, 5, texture);
+    }
+
+    @AfterAll
+    static void close() {
+        GraphicsEngine.close();
+    }
+
+    @Test
+    void batchableRenderablesDrawnWithOneCall() throws Exception {
+        GraphicsEngine.enableMultiDraw();
+        int[] commands = awaitMultiDraw();
+        assertEquals(3 * COMMAND_SIZE, commands.length, Arrays.toString(commands));
+        assertEquals(3, DRAW_COUNT.get());
+
+        // sort the commands by index count, then instance count: the quad (6 indices,
+        // 3 instances), then the triangles (3 indices, 1 and 2 instances)
+        List<int[]> draws = new ArrayList<>();
+        for (int i = 0; i < commands.length; i += COMMAND_SIZE)
+            draws.add(Arrays.copyOfRange(commands, i, i + COMMAND_SIZE));
+        draws.sort((a, b) -> a[0] != b[0] ? Integer.compare(b[0], a[0]) : Integer.compare(a[1], b[1]));
+
+        int[] quad = draws.get(0), triangle1 = draws.get(1), triangle2 = draws.get(2);
+        assertArrayStart(quad, 6, 3);
+        assertArrayStart(triangle1, 3, 1);
+        assertArrayStart(triangle2, 3, 2);
+
+        // renderables with the same mesh share its geometry in the shared buffers, and
+        // different meshes do not overlap
+        assertEquals(triangle1[2], triangle2[2]);
+        assertEquals(triangle1[3], triangle2[3]);
+        assertTrue(quad[2] + 6 <= triangle1[2] || triangle1[2] + 3 <= quad[2], "index ranges overlap");
+        assertTrue(quad[3] + 4 <= triangle1[3] || triangle1[3] + 3 <= quad[3], "vertex ranges overlap");
+
+        // each renderable has its own range of instances
+        for (int i = 0; i < draws.size(); ++i)
+            for (int j = i + 1; j < draws.size(); ++j) {
+                int[] a = draws.get(i), b = draws.get(j);
+                assertTrue(a[4] + a[1] <= b[4] || b[4] + b[1] <= a[4], "instance ranges overlap");
+            }
+    }
+
+    @Test
+    void noMultiDrawWhenDisabled() throws Exception {
+        GraphicsEngine.disableMultiDraw();
+        awaitFrames();
+
+        int multi = MULTI_DRAWS.get(), single = SINGLE_DRAWS.get();
+        awaitFrames();
+
+        assertEquals(multi, MULTI_DRAWS.get());
+        assertTrue(SINGLE_DRAWS.get() - single >= 4, "single draws: " + (SINGLE_DRAWS.get() - single));
+
+        GraphicsEngine.enableMultiDraw();
+    }
+
+    private static int[] awaitMultiDraw() throws Exception {
+        MULTI_DRAW.set(null);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (MULTI_DRAW.get() == null && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+
+        assertNotNull(MULTI_DRAW.get(), "no multi-draw call was made");
+        return MULTI_DRAW.get();
+    }
+
+    /**
+     * Waits for a message round trip, then for several graphics loops to pass.
+     */
+    private static void awaitFrames() throws Exception {
+        GraphicsEngine.msgViewportSetTransform(new AffineTransformationImpl()).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+    }
+
+    private static void assertArrayStart(int[] command, int indices, int instances) {
+        assertEquals(indices, command[0]);
+        assertEquals(instances, command[1]);
+    }
+
+    private static void create(int program, int mesh, int instances, int... textures) throws Exception {
+        AffineTransformation[] transforms = new AffineTransformation[instances];
+        for (int i = 0; i < instances; ++i)
+            transforms[i] = new AffineTransformationImpl().setTranslation(new Vector3(i * 0.1, 0, -10));
+
+        int renderable = GraphicsEngine.msgRenderableCreate(transforms).get();
+        GraphicsEngine.msgRenderableAttachMesh(renderable, mesh).get();
+        for (int texture : textures)
+            GraphicsEngine.msgRenderableAttachTexture(renderable, texture).get();
+        GraphicsEngine.msgShaderProgramAssignRenderable(program, renderable).get();
+    }
+
+    private static Vector3[] vertices(int count) {
+        Vector3[] vertices = new Vector3[count];
+        for (int i = 0; i < count; ++i)
+            vertices[i] = new Vector3(i & 1, i >> 1, 0);
+        return vertices;
+    }
+}
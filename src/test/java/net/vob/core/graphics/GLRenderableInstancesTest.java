@@ -0,0 +1,213 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Cuboid;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.BufferUtils;
+
+/**
+ * Tests that appending and removing the instances of a {@link GLRenderable} keeps the
+ * instance IDs contiguous, with the model matrix and instance index entry of every
+ * instance following it to its new ID. Each instance is translated along the x axis, 10
+ * units apart, so that its model matrix and its entry in the instance index can be
+ * located by its translation.
+ *
+ * @author Lyn-Park
+ */
+class GLRenderableInstancesTest {
+    private static final double[] MESH_BOUNDS = { 0, 0, 0, 1, 1, 1 };
+
+    private final List<GLRenderable> renderables = new ArrayList<>();
+
+    @AfterEach
+    void unindexRenderables() {
+        for (GLRenderable renderable : renderables)
+            renderable.unindexInstances();
+
+        assertEquals(0, GraphicsManager.INSTANCE_INDEX.size());
+    }
+
+    @Test
+    void appendedInstancesTakeTheNextID() {
+        GLRenderable renderable = renderable(0);
+        prepare(renderable);
+
+        for (int i = 1; i <= 100; ++i)
+            assertEquals(i, renderable.appendInstance(transform(i)));
+
+        assertEquals(101, renderable.getNumInstances());
+        prepare(renderable);
+        assertInstances(renderable, range(0, 101));
+    }
+
+    @Test
+    void removedInstanceIsReplacedByTheLast() {
+        GLRenderable renderable = renderable(0, 1, 2, 3, 4, 5);
+        prepare(renderable);
+
+        renderable.removeInstance(1);
+        prepare(renderable);
+        assertInstances(renderable, 0, 5, 2, 3, 4);
+
+        // removing the last instance moves no other
+        renderable.removeInstance(4);
+        prepare(renderable);
+        assertInstances(renderable, 0, 5, 2, 3);
+
+        renderable.removeInstance(0);
+        renderable.removeInstance(0);
+        prepare(renderable);
+        assertInstances(renderable, 2, 5);
+    }
+
+    @Test
+    void removalUnindexesUntilPrepared() {
+        GLRenderable renderable = renderable(0, 1, 2, 3);
+        prepare(renderable);
+        assertEquals(4, GraphicsManager.INSTANCE_INDEX.size());
+
+        // the moved instance is indexed again under its new ID when prepared
+        renderable.removeInstance(0);
+        assertEquals(2, GraphicsManager.INSTANCE_INDEX.size());
+
+        prepare(renderable);
+        assertEquals(3, GraphicsManager.INSTANCE_INDEX.size());
+        assertInstances(renderable, 3, 1, 2);
+    }
+
+    @Test
+    void movedInstanceFollowsItsTransform() {
+        AffineTransformation last = transform(3);
+        GLRenderable renderable = renderable(0, 1, 2);
+        renderable.appendInstance(last);
+        prepare(renderable);
+
+        renderable.removeInstance(1);
+        prepare(renderable);
+        assertInstances(renderable, 0, 3, 2);
+
+        // the transform now notifies the new ID of its instance
+        last.setTranslation(new Vector3(70, 0, 0));
+        prepare(renderable);
+        assertInstances(renderable, 0, 7, 2);
+    }
+
+    @Test
+    void interleavedAppendsAndRemovalsStayContiguous() {
+        GLRenderable renderable = renderable(0);
+        List<Integer> expected = new ArrayList<>();
+        expected.add(0);
+
+        int next = 1;
+        for (int round = 0; round < 20; ++round) {
+            for (int i = 0; i < 5; ++i, ++next) {
+                renderable.appendInstance(transform(next));
+                expected.add(next);
+            }
+
+            for (int id : new int[] { 0, expected.size() / 2, expected.size() - 3 }) {
+                renderable.removeInstance(id);
+                expected.set(id, expected.get(expected.size() - 1));
+                expected.remove(expected.size() - 1);
+            }
+
+            if (round % 3 == 0)
+                prepare(renderable);
+        }
+
+        prepare(renderable);
+        int[] positions = new int[expected.size()];
+        for (int i = 0; i < positions.length; ++i)
+            positions[i] = expected.get(i);
+
+        assertInstances(renderable, positions);
+    }
+
+    @Test
+    void setNumInstancesAppendsIdentitiesAndRemovesFromTheEnd() {
+        GLRenderable renderable = renderable(1, 2, 3);
+        prepare(renderable);
+
+        renderable.setNumInstances(5);
+        assertEquals(5, renderable.getNumInstances());
+        prepare(renderable);
+        assertInstances(renderable, 1, 2, 3, 0, 0);
+
+        renderable.setNumInstances(2);
+        assertEquals(2, renderable.getNumInstances());
+        prepare(renderable);
+        assertInstances(renderable, 1, 2);
+    }
+
+    /**
+     * Creates a renderable with an instance at each of the given positions.
+     */
+    private GLRenderable renderable(int... positions) {
+        AffineTransformation[] transforms = new AffineTransformation[positions.length];
+        for (int i = 0; i < positions.length; ++i)
+            transforms[i] = transform(positions[i]);
+
+        GLRenderable renderable = new GLRenderable(transforms);
+        renderables.add(renderable);
+        return renderable;
+    }
+
+    /**
+     * Creates a transform translating along the x axis by 10 times the given position.
+     */
+    private static AffineTransformation transform(int position) {
+        return new AffineTransformationImpl().setTranslation(new Vector3(10 * position, 0, 0));
+    }
+
+    private static int[] range(int start, int end) {
+        int[] range = new int[end - start];
+        for (int i = 0; i < range.length; ++i)
+            range[i] = start + i;
+
+        return range;
+    }
+
+    private static void prepare(GLRenderable renderable) {
+        renderable.prepareInstances(MESH_BOUNDS);
+        renderable.indexInstances(true);
+    }
+
+    /**
+     * Asserts that the instances of the given renderable are at the given positions, in
+     * order of their IDs. Both the model matrix of each instance, and the entry of each
+     * instance in the instance index, must be at its position; positions of 0 are not
+     * looked up in the index, as identity instances overlap.
+     */
+    private static void assertInstances(GLRenderable renderable, int... positions) {
+        assertEquals(positions.length, renderable.getNumInstances());
+
+        int floats = GraphicsManager.COMPACT_INSTANCE_STRIDE / Float.BYTES;
+        FloatBuffer data = BufferUtils.createFloatBuffer(positions.length * floats);
+        assertEquals(positions.length, renderable.cullInstances(false, true, null));
+        renderable.writeVisibleInstances(0, positions.length, null, true, data, 0);
+
+        for (int i = 0; i < positions.length; ++i) {
+            assertEquals(10 * positions[i], data.get(i * floats + 3), 0, "translation of instance " + i);
+
+            if (positions[i] == 0)
+                continue;
+
+            List<GLRenderable.Instance> found = new ArrayList<>();
+            double x = 10 * positions[i] + 0.5;
+            GraphicsManager.INSTANCE_INDEX.query(new Cuboid(x - 0.01, 0.49, 0.49, x + 0.01, 0.51, 0.51), found::add);
+
+            assertEquals(1, found.size(), "index entries of instance " + i);
+            assertSame(renderable, found.get(0).renderable);
+            assertEquals(i, found.get(0).instanceID);
+        }
+    }
+}
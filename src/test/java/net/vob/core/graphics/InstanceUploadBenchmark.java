@@ -0,0 +1,102 @@
+package net.vob.core.graphics;
+
+import java.util.Arrays;
+import java.util.Random;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Vector3;
+
+/**
+ * Measures the cost of uploading the changed instances of a renderable to the instance
+ * arena, as the fraction of instances changed each frame varies. A renderable with many
+ * instances is given a range of an arena backed by a {@link HeadlessGLBackend}; each
+ * frame, a random selection of the given fraction of its instances is moved, then the
+ * renderable is prepared and its arena range is updated, as the graphics thread does for
+ * resident renderables. The GL calls and bytes uploaded per frame, and the median time
+ * taken to prepare and upload, are then reported.<p>
+ *
+ * The instances moved are either <i>scattered</i>, each chosen at random, or
+ * <i>clustered</i>, in blocks of {@link CLUSTER} contiguous instances starting at random
+ * offsets, as when groups of neighbouring instances move together.<p>
+ *
+ * This is a standalone program rather than a unit test; run its {@code main} method with
+ * the test classpath. The number of instances can be given as the first argument.
+ *
+ * @author Lyn-Park
+ */
+public final class InstanceUploadBenchmark {
+    private static final double[] DIRTY_RATIOS = { 0.01, 0.1, 0.9 };
+    private static final int DEFAULT_INSTANCES = 16384;
+    private static final int WARMUP_FRAMES = 500;
+    private static final int MEASURED_FRAMES = 500;
+    private static final int CLUSTER = 32;
+    private static final double[] MESH_BOUNDS = { 0, 0, 0, 1, 1, 1 };
+
+    public static void main(String[] args) {
+        int instances = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_INSTANCES;
+        Random random = new Random(42);
+
+        HeadlessGLBackend backend = new HeadlessGLBackend();
+        GraphicsManager.BACKEND = backend;
+        GraphicsManager.INSTANCE_ARENA = new GLInstanceArena();
+        GraphicsManager.INSTANCE_ARENA.init();
+
+        AffineTransformation[] transforms = new AffineTransformation[instances];
+        for (int i = 0; i < instances; ++i)
+            transforms[i] = new AffineTransformationImpl().setTranslation(position(random));
+
+        GLRenderable renderable = new GLRenderable(transforms);
+        renderable.prepareInstances(MESH_BOUNDS);
+        renderable.updateArena();
+
+        System.out.printf("%d instances, %d bytes each%n", instances, GraphicsManager.COMPACT_INSTANCE_STRIDE);
+        System.out.printf("%-9s %6s %8s %12s %12s %10s%n", "pattern", "dirty", "calls/f", "bytes/f", "dirty bytes", "median us");
+
+        for (int cluster : new int[] { 1, CLUSTER }) {
+            for (double ratio : DIRTY_RATIOS) {
+                int dirty = Math.max(1, (int)(instances * ratio));
+                frames(renderable, transforms, dirty, cluster, random, WARMUP_FRAMES, null);
+
+                long[] times = new long[MEASURED_FRAMES];
+                backend.resetCounters();
+                frames(renderable, transforms, dirty, cluster, random, MEASURED_FRAMES, times);
+                Arrays.sort(times);
+
+                System.out.printf("%-9s %5.0f%% %8.1f %12.0f %12d %10.1f%n", cluster == 1 ? "scattered" : "clustered",
+                                  ratio * 100,
+                                  (double)backend.getCalls() / MEASURED_FRAMES,
+                                  (double)backend.getBytesUploaded() / MEASURED_FRAMES,
+                                  (long)dirty * GraphicsManager.COMPACT_INSTANCE_STRIDE,
+                                  times[times.length / 2] / 1e3);
+            }
+        }
+    }
+
+    /**
+     * Moves the given number of random instances, in blocks of the given number of
+     * contiguous instances, then prepares and uploads the renderable, once per frame for
+     * the given number of frames; the time taken to prepare and upload each frame is
+     * recorded if the array is given.
+     */
+    private static void frames(GLRenderable renderable, AffineTransformation[] transforms, int dirty, int cluster,
+                               Random random, int frames, long[] times) {
+        for (int f = 0; f < frames; ++f) {
+            for (int i = 0; i < dirty; i += cluster) {
+                int first = random.nextInt(transforms.length - cluster + 1);
+                for (int j = first; j < first + Math.min(cluster, dirty - i); ++j)
+                    transforms[j].setTranslation(position(random));
+            }
+
+            long start = System.nanoTime();
+            renderable.prepareInstances(MESH_BOUNDS);
+            renderable.updateArena();
+
+            if (times != null)
+                times[f] = System.nanoTime() - start;
+        }
+    }
+
+    private static Vector3 position(Random random) {
+        return new Vector3(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+    }
+}
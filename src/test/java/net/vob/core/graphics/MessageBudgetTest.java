@@ -0,0 +1,111 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.vob.util.math.AffineTransformationImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the deferral of drained messages once the message time budget has been used up.
+ * The messages used only touch the view transform and status flags of the manager, and
+ * so need no GL context.
+ *
+ * @author Lyn-Park
+ */
+class MessageBudgetTest {
+    @AfterEach
+    void reset() {
+        GraphicsManager.MESSAGE_BUDGET_NANOS = 0;
+        MessageCoalescer.setEnabled(false);
+    }
+
+    @Test
+    void everyMessageHandledWithoutBudget() {
+        Message[] messages = { cheap(), expensive(), expensive(), cheap(), expensive() };
+        List<Message> list = list(messages);
+
+        GraphicsManager.handleDrainedMessages(list);
+
+        assertTrue(list.isEmpty());
+        assertEquals(0, GraphicsManager.DEFERRED_MESSAGES);
+        for (Message message : messages)
+            assertTrue(message.future.isDone());
+    }
+
+    @Test
+    void deferralStopsAtExpensiveMessageAndKeepsOrder() {
+        GraphicsManager.MESSAGE_BUDGET_NANOS = 1;
+        Message c1 = cheap(), e1 = expensive(), c2 = cheap(), e2 = expensive(), c3 = cheap(), e3 = expensive();
+        List<Message> list = list(c1, e1, c2, e2, c3, e3);
+
+        // the first expensive message is always handled, and uses up the budget; the
+        // cheap message after it is still handled
+        GraphicsManager.handleDrainedMessages(list);
+
+        assertEquals(Arrays.asList(e2, c3, e3), list);
+        assertEquals(3, GraphicsManager.DEFERRED_MESSAGES);
+        assertTrue(c1.future.isDone() && e1.future.isDone() && c2.future.isDone());
+        assertFalse(e2.future.isDone() || c3.future.isDone() || e3.future.isDone());
+
+        // the deferred messages are handled first in the next loop, with one expensive
+        // message handled per loop
+        GraphicsManager.handleDrainedMessages(list);
+        assertEquals(Arrays.asList(e3), list);
+        assertTrue(e2.future.isDone() && c3.future.isDone());
+
+        GraphicsManager.handleDrainedMessages(list);
+        assertTrue(list.isEmpty());
+        assertEquals(0, GraphicsManager.DEFERRED_MESSAGES);
+        assertTrue(e3.future.isDone());
+    }
+
+    @Test
+    void deferralDropsCoalescedSlots() throws Exception {
+        GraphicsManager.MESSAGE_BUDGET_NANOS = 1;
+        MessageCoalescer.setEnabled(true);
+
+        Message e1 = expensive(), e2 = expensive(), v1 = cheap(), c = new Message(Message.Type.SKYBOX_DISABLE), v2 = cheap();
+        List<Message> list = list(e1, e2, v1, c, v2);
+
+        GraphicsManager.handleDrainedMessages(list);
+
+        // v1 was collapsed into v2, and its slot is not carried over as a null
+        assertEquals(Arrays.asList(e2, c, v2), list);
+        assertEquals(3, GraphicsManager.DEFERRED_MESSAGES);
+        assertFalse(v1.future.isDone());
+
+        GraphicsManager.handleDrainedMessages(list);
+        assertTrue(list.isEmpty());
+        assertEquals(0, (int)v1.future.get());
+        assertTrue(v2.future.isDone());
+    }
+
+    private static List<Message> list(Message... messages) {
+        return new ArrayList<>(Arrays.asList(messages));
+    }
+
+    private static Message cheap() {
+        return new Message(Message.Type.VIEWPORT_SET_TRANSFORM, new AffineTransformationImpl());
+    }
+
+    /**
+     * Creates a batch, which is in the expensive cost class, of enough view transform
+     * commands that handling it takes longer than a budget of 1 nanosecond.
+     */
+    private static Message expensive() {
+        Message[] entries = new Message[100];
+        for (int i = 0; i < entries.length; ++i)
+            entries[i] = Message.unbound(Message.Type.VIEWPORT_SET_TRANSFORM, new AffineTransformationImpl());
+
+        Message message = new Message(Message.Type.BATCH, entries, -1);
+        assertTrue(message.isExpensive());
+        return message;
+    }
+}
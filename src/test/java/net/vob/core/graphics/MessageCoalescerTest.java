@@ -0,0 +1,186 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which messages the {@link MessageCoalescer} collapses, and that the futures of
+ * collapsed messages are completed with the result of the messages superseding them.
+ *
+ * @author Lyn-Park
+ */
+class MessageCoalescerTest {
+    private static final Message.Type[] BARRIERS = {
+        Message.Type.MESH_NEW, Message.Type.MESH_CREATE,
+        Message.Type.MESH_CLOSE, Message.Type.MESH_CLOSE_BY_HANDLE,
+        Message.Type.MESH_RECALC_NORMALS, Message.Type.MESH_RECALC_NORMALS_BY_HANDLE,
+        Message.Type.MESH_SET_READONLY, Message.Type.MESH_SET_READONLY_BY_HANDLE,
+        Message.Type.RENDERABLE_NEW, Message.Type.RENDERABLE_NEW_TRANSFORMS,
+        Message.Type.RENDERABLE_CREATE, Message.Type.RENDERABLE_CREATE_TRANSFORMS,
+        Message.Type.RENDERABLE_CLOSE, Message.Type.RENDERABLE_CLOSE_BY_HANDLE,
+        Message.Type.RENDERABLE_SET_INSTANCES, Message.Type.RENDERABLE_SET_INSTANCES_BY_HANDLE,
+        Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS, Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORMS_BY_HANDLE,
+        Message.Type.RENDERABLE_ADD_INSTANCE, Message.Type.RENDERABLE_ADD_INSTANCE_BY_HANDLE,
+        Message.Type.RENDERABLE_REMOVE_INSTANCE, Message.Type.RENDERABLE_REMOVE_INSTANCE_BY_HANDLE,
+        Message.Type.RENDERABLE_COPY, Message.Type.RENDERABLE_COPY_BY_HANDLE,
+        Message.Type.BATCH
+    };
+
+    private static final Vector3[] POSITIONS = { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) };
+    private static final Vector3[] UVS = { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) };
+    private static final Vector3[] NORMALS = { new Vector3(0, 0, 1), new Vector3(0, 0, 1), new Vector3(0, 0, 1) };
+
+    @Test
+    void laterMessageForSameTargetSupersedes() {
+        Message first = viewport(), second = viewport(), third = viewport();
+        List<Message> messages = coalesce(first, second, third);
+
+        assertNull(messages.get(0));
+        assertNull(messages.get(1));
+        assertSame(third, messages.get(2));
+    }
+
+    @Test
+    void coalescedFuturesCompleteWithLaterResult() throws Exception {
+        Message first = viewport(), second = viewport(), third = viewport();
+        coalesce(first, second, third);
+
+        assertFalse(first.future.isDone());
+        third.complete(7);
+
+        assertEquals(7, (int)first.future.get());
+        assertEquals(7, (int)second.future.get());
+        assertEquals(7, (int)third.future.get());
+    }
+
+    @Test
+    void coalescedFuturesAreCancelledWhenLaterMessageFails() {
+        Message first = instanceTransform(1, 0), second = instanceTransform(1, 0);
+        coalesce(first, second);
+
+        second.complete(null);
+        assertTrue(first.future.isCancelled());
+        assertTrue(second.future.isCancelled());
+    }
+
+    @Test
+    void differentInstanceOrHandleIsNotMerged() {
+        List<Message> messages = coalesce(instanceTransform(1, 0), instanceTransform(1, 1),
+                                          instanceTransform(2, 0), instanceTransform(1, 0),
+                                          meshAttributes(1, POSITIONS, null, null), meshAttributes(2, POSITIONS, null, null));
+
+        assertNull(messages.get(0));
+        for (int i = 1; i < messages.size(); ++i)
+            assertTrue(messages.get(i) != null, "message " + i);
+    }
+
+    @Test
+    void messagesWithoutValueDoNotSupersede() {
+        Message nullViewport = new Message(Message.Type.VIEWPORT_SET_TRANSFORM, (Object)null);
+        Message nullTransform = new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE, 1, null, 0);
+
+        assertEquals(0, nulls(coalesce(viewport(), nullViewport)));
+        assertEquals(0, nulls(coalesce(instanceTransform(1, 0), nullTransform)));
+    }
+
+    @Test
+    void selectionBasedMessagesAreNotMerged() {
+        AffineTransformation transform = new AffineTransformationImpl();
+        List<Message> messages = coalesce(new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM, transform, 0),
+                                          new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM, transform, 0),
+                                          new Message(Message.Type.MESH_SET_ATTRIBUTES, POSITIONS, null, null, null),
+                                          new Message(Message.Type.MESH_SET_ATTRIBUTES, POSITIONS, null, null, null));
+
+        assertEquals(0, nulls(messages));
+    }
+
+    @Test
+    void coalescingStopsAtEveryBarrier() {
+        for (Message.Type barrier : BARRIERS) {
+            List<Message> messages = coalesce(viewport(), instanceTransform(1, 0), meshAttributes(1, POSITIONS, null, null),
+                                              new Message(barrier),
+                                              viewport(), instanceTransform(1, 0), meshAttributes(1, POSITIONS, null, null));
+
+            assertEquals(0, nulls(messages), barrier.toString());
+        }
+    }
+
+    @Test
+    void coalescingLooksPastUnrelatedMessages() {
+        List<Message> messages = coalesce(viewport(), new Message(Message.Type.ENABLE_VSYNC),
+                                          instanceTransform(3, 0), new Message(Message.Type.MESH_SELECT_CUBE),
+                                          viewport());
+
+        assertNull(messages.get(0));
+        assertEquals(1, nulls(messages));
+    }
+
+    @Test
+    void meshAttributesSupersededOnlyBySuperset() {
+        // a later message setting fewer attributes must not hide the earlier ones
+        assertEquals(0, nulls(coalesce(meshAttributes(1, POSITIONS, UVS, null), meshAttributes(1, POSITIONS, null, null))));
+        assertEquals(0, nulls(coalesce(meshAttributes(1, POSITIONS, null, null), meshAttributes(1, null, UVS, null))));
+
+        List<Message> messages = coalesce(meshAttributes(1, POSITIONS, UVS, null), meshAttributes(1, POSITIONS, UVS, NORMALS));
+        assertNull(messages.get(0));
+
+        messages = coalesce(meshAttributes(1, null, UVS, null), meshAttributes(1, POSITIONS, UVS, null));
+        assertNull(messages.get(0));
+    }
+
+    @Test
+    void onlyNearestEarlierMessageForTargetIsConsidered() {
+        // the last message does not supersede the middle one, and so is never compared
+        // with the first, even though it sets the same attributes
+        List<Message> messages = coalesce(meshAttributes(1, POSITIONS, null, null),
+                                          meshAttributes(1, null, UVS, null),
+                                          meshAttributes(1, POSITIONS, null, null));
+
+        assertEquals(0, nulls(messages));
+    }
+
+    @Test
+    void coalescedCountIsAccumulated() {
+        long before = MessageCoalescer.getCoalescedCount();
+        coalesce(viewport(), viewport(), instanceTransform(1, 0), instanceTransform(1, 0), viewport());
+
+        assertEquals(before + 3, MessageCoalescer.getCoalescedCount());
+    }
+
+    private static List<Message> coalesce(Message... messages) {
+        List<Message> list = new ArrayList<>(Arrays.asList(messages));
+        MessageCoalescer.coalesce(list);
+        return list;
+    }
+
+    private static int nulls(List<Message> messages) {
+        int n = 0;
+        for (Message message : messages)
+            if (message == null)
+                ++n;
+        return n;
+    }
+
+    private static Message viewport() {
+        return new Message(Message.Type.VIEWPORT_SET_TRANSFORM, new AffineTransformationImpl());
+    }
+
+    private static Message instanceTransform(int handle, int instance) {
+        return new Message(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE, handle, new AffineTransformationImpl(), instance);
+    }
+
+    private static Message meshAttributes(int handle, Vector3[] positions, Vector3[] uvs, Vector3[] normals) {
+        return new Message(Message.Type.MESH_SET_ATTRIBUTES_BY_HANDLE, handle, positions, uvs, normals, null);
+    }
+}
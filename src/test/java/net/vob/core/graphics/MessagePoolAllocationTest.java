@@ -0,0 +1,61 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that posting messages generates no garbage at steady state. Runs the graphics
+ * engine headless, creates a renderable, and posts instance transform updates to it;
+ * once warmed up, the number of messages allocated by the {@link MessagePool}, and the
+ * number of bytes allocated by the posting thread, are measured over a run of posts, and
+ * both must be 0.<p>
+ *
+ * The graphics engine can only be initialized once per JVM, so this test needs a JVM of
+ * its own.
+ *
+ * @author Lyn-Park
+ */
+class MessagePoolAllocationTest {
+    private static final int WARMUP_POSTS = 500_000;
+    private static final int MEASURED_POSTS = 100_000;
+
+    @BeforeAll
+    static void init() throws InterruptedException {
+        GraphicsEngine.initHeadless(800, 600, 100, 70f, 0.1f, 1000f, 1);
+    }
+
+    @AfterAll
+    static void close() {
+        GraphicsEngine.close();
+    }
+
+    @Test
+    void postingAllocatesNothingAtSteadyState() throws Exception {
+        int renderable = GraphicsEngine.msgRenderableCreate(1).get();
+        AffineTransformation transform = new AffineTransformationImpl();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_POSTS; ++i)
+            GraphicsEngine.postRenderableSetInstanceTransform(renderable, transform, 0);
+
+        long poolBefore = GraphicsEngine.getMessagePoolAllocations();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+
+        for (int i = 0; i < MEASURED_POSTS; ++i)
+            GraphicsEngine.postRenderableSetInstanceTransform(renderable, transform, 0);
+
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        long pooled = GraphicsEngine.getMessagePoolAllocations() - poolBefore;
+
+        assertEquals(0, pooled, "pool allocations");
+        assertEquals(0, bytes, "bytes allocated by the posting thread");
+    }
+}
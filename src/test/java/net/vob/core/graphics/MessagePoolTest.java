@@ -0,0 +1,138 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link MessagePool}, with messages acquired on one thread and released on
+ * another, as the producing threads and the graphics thread do.
+ *
+ * @author Lyn-Park
+ */
+class MessagePoolTest {
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new MessagePool(0));
+    }
+
+    @Test
+    void releasedMessagesAreReset() {
+        MessagePool pool = new MessagePool(4);
+        Message message = pool.acquire();
+
+        assertTrue(message.isPooled());
+        message.withInt(0, 5).withBoolean(1, true).withRef(2, "ref");
+        pool.release(message);
+
+        Message again = pool.acquire();
+        assertSame(message, again);
+        assertNull(again.getType());
+        for (int i = 0; i < Message.MAX_ARGS; ++i) {
+            assertEquals(0, again.getInt(i));
+            assertNull(again.getRef(i));
+        }
+    }
+
+    @Test
+    void unpooledMessagesAreIgnored() {
+        MessagePool pool = new MessagePool(4);
+        Message message = Message.unbound(Message.Type.ENABLE_VSYNC);
+
+        pool.release(message);
+        assertFalse(pool.acquire() == message);
+        assertEquals(1, pool.getAllocations());
+    }
+
+    @Test
+    void messagesReleasedOnAnotherThreadAreReused() throws Exception {
+        MessagePool pool = new MessagePool(64);
+        BlockingQueue<Message> queue = new ArrayBlockingQueue<>(16);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int rounds = 10_000;
+
+        Thread consumer = new Thread(() -> {
+            try {
+                for (int i = 0; i < rounds; ++i) {
+                    Message message = queue.poll(10, TimeUnit.SECONDS);
+                    assertEquals(i, message.getInt(0));
+                    pool.release(message);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }, "Consumer");
+        consumer.start();
+
+        for (int i = 0; i < rounds; ++i)
+            assertTrue(queue.offer(pool.acquire().withInt(0, i), 10, TimeUnit.SECONDS));
+
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+
+        long allocations = pool.getAllocations();
+        assertTrue(allocations <= 64, "allocations: " + allocations);
+
+        for (int i = 0; i < 64; ++i)
+            pool.acquire();
+        assertEquals(64, pool.getAllocations());
+    }
+
+    @Test
+    void freeListsArePerThread() throws Exception {
+        MessagePool pool = new MessagePool(4);
+        pool.release(pool.acquire());
+
+        AtomicReference<Message> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(pool.acquire()));
+        thread.start();
+        thread.join();
+
+        assertEquals(2, pool.getAllocations());
+        pool.release(other.get());
+
+        Message message = pool.acquire();
+        assertFalse(message == other.get());
+        assertEquals(2, pool.getAllocations());
+    }
+
+    @Test
+    void messagesBeyondCapacityAreDropped() throws Exception {
+        MessagePool pool = new MessagePool(2);
+        Message[] acquired = new Message[4];
+        for (int i = 0; i < acquired.length; ++i)
+            acquired[i] = pool.acquire();
+        assertEquals(4, pool.getAllocations());
+
+        Thread releaser = new Thread(() -> {
+            for (Message message : acquired)
+                pool.release(message);
+        });
+        releaser.start();
+        releaser.join();
+
+        Set<Message> first = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(first, acquired);
+
+        int reused = 0;
+        for (int i = 0; i < acquired.length; ++i)
+            if (first.contains(pool.acquire()))
+                ++reused;
+
+        assertEquals(2, reused);
+        assertEquals(6, pool.getAllocations());
+    }
+}
@@ -0,0 +1,141 @@
+package net.vob.core.graphics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares the producer throughput and tail latency of the {@link MessageRingBuffer}
+ * against the queue it replaced: a 100-slot {@link LinkedBlockingQueue}, with every
+ * producer holding a single global lock while putting. Each run has a number of
+ * producer threads putting messages as fast as they can, and a single consumer draining
+ * the queue continuously; the latency of each put is recorded, and the throughput is
+ * the total number of messages put over the length of the run.<p>
+ *
+ * This is a standalone program rather than a unit test; run its {@code main} method
+ * with the test classpath. The number of messages each producer puts can be given as
+ * the first argument.
+ *
+ * @author Lyn-Park
+ */
+public final class MessageQueueBenchmark {
+    private static final int[] PRODUCERS = { 1, 4, 16 };
+    private static final int DEFAULT_MESSAGES = 200_000;
+
+    private interface Queue {
+        void put(Message message) throws InterruptedException;
+        int drainTo(List<Message> c);
+    }
+
+    private static final class RingQueue implements Queue {
+        private final MessageRingBuffer ring = new MessageRingBuffer(128);
+
+        @Override
+        public void put(Message message) throws InterruptedException {
+            ring.put(message);
+        }
+
+        @Override
+        public int drainTo(List<Message> c) {
+            return ring.drainTo(c);
+        }
+    }
+
+    private static final class LockedQueue implements Queue {
+        private final Object lock = new Object();
+        private final LinkedBlockingQueue<Message> queue = new LinkedBlockingQueue<>(100);
+
+        @Override
+        public void put(Message message) throws InterruptedException {
+            synchronized (lock) {
+                queue.put(message);
+            }
+        }
+
+        @Override
+        public int drainTo(List<Message> c) {
+            return queue.drainTo(c);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES;
+
+        System.out.printf("%d CPUs, %d messages per producer%n", Runtime.getRuntime().availableProcessors(), messages);
+        System.out.printf("%-8s %9s %14s %10s %10s %10s%n", "queue", "producers", "msgs/s", "p50 ns", "p99 ns", "p99.9 ns");
+
+        // the first round of each is a warmup, and is not printed
+        for (int round = 0; round < 2; ++round) {
+            for (int producers : PRODUCERS) {
+                run("locked", new LockedQueue(), producers, messages, round > 0);
+                run("ring", new RingQueue(), producers, messages, round > 0);
+            }
+        }
+    }
+
+    private static void run(String name, Queue queue, int producers, int messages, boolean print) throws Exception {
+        AtomicBoolean done = new AtomicBoolean(false);
+        CountDownLatch start = new CountDownLatch(1);
+        long[][] latencies = new long[producers][messages];
+        Thread[] threads = new Thread[producers];
+
+        Thread consumer = new Thread(() -> {
+            List<Message> drained = new ArrayList<>(256);
+
+            for (;;) {
+                int n = queue.drainTo(drained);
+                drained.clear();
+
+                if (n == 0) {
+                    if (done.get())
+                        break;
+                    Thread.yield();
+                }
+            }
+        });
+        consumer.start();
+
+        for (int p = 0; p < producers; ++p) {
+            long[] latency = latencies[p];
+            Message message = Message.newPooled();
+
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < messages; ++i) {
+                        long t = System.nanoTime();
+                        queue.put(message);
+                        latency[i] = System.nanoTime() - t;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[p].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        long elapsed = System.nanoTime() - begin;
+
+        done.set(true);
+        consumer.join();
+
+        if (!print)
+            return;
+
+        long[] all = new long[producers * messages];
+        for (int p = 0; p < producers; ++p)
+            System.arraycopy(latencies[p], 0, all, p * messages, messages);
+        Arrays.sort(all);
+
+        System.out.printf("%-8s %9d %14.0f %10d %10d %10d%n", name, producers,
+                          all.length / (elapsed / 1e9),
+                          all[(int)(all.length * 0.5)], all[(int)(all.length * 0.99)], all[(int)(all.length * 0.999)]);
+    }
+}
@@ -0,0 +1,150 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Quaternion;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a stream of messages recorded by a {@link MessageRecorder} is replayed by a
+ * {@link MessageReplayer} as the same messages, including when the replayed messages are
+ * recycled from the {@link MessagePool}.
+ *
+ * @author Lyn-Park
+ */
+class MessageReplayerTest {
+    private Path path;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        path = Files.createTempFile("vob-recording", ".bin");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void roundTripPreservesEverySlot() throws IOException {
+        AffineTransformation transform = new AffineTransformationImpl().setTranslation(new Vector3(1, 2, 3))
+                                                                       .setRotation(Quaternion.rotationQuaternion(new Vector3(0, 1, 0), 0.5))
+                                                                       .setScale(new Vector3(2, 2, 2));
+        Message[] recorded = {
+            Message.unbound(Message.Type.RENDERABLE_ATTACH_MESH_BY_HANDLE, 7, 3),
+            Message.unbound(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE, 7, transform, 5),
+            Message.unbound(Message.Type.MESH_SET_ATTRIBUTES_BY_HANDLE, 3,
+                            new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                            null, null, new int[] { 0, 1, 2 }),
+            Message.unbound(Message.Type.BATCH, new Message[] {
+                Message.unbound(Message.Type.RENDERABLE_ATTACH_MESH_BY_HANDLE, 1, 2),
+                Message.unbound(Message.Type.RENDERABLE_CLOSE_BY_HANDLE, 1)
+            }, 1)
+        };
+
+        record(recorded);
+
+        try (MessageReplayer replayer = new MessageReplayer(path)) {
+            for (Message expected : recorded)
+                assertMessageEquals(expected, replayer.next());
+
+            assertNull(replayer.next());
+        }
+    }
+
+    @Test
+    void recycledMessagesDoNotKeepStaleInts() throws IOException {
+        record(Message.unbound(Message.Type.RENDERABLE_ATTACH_MESH_BY_HANDLE, 0, 4),
+               Message.unbound(Message.Type.RENDERABLE_SET_INSTANCE_TRANSFORM_BY_HANDLE, 0, new AffineTransformationImpl(), 0));
+
+        Message[] stale = { GraphicsManager.MESSAGE_POOL.acquire(), GraphicsManager.MESSAGE_POOL.acquire() };
+        for (Message message : stale) {
+            for (int j = 0; j < Message.MAX_ARGS; ++j)
+                message.withInt(j, 99);
+            GraphicsManager.MESSAGE_POOL.release(message);
+        }
+
+        try (MessageReplayer replayer = new MessageReplayer(path)) {
+            Message first = replayer.next();
+            assertTrue(first.isPooled());
+            assertEquals(0, first.getInt(0));
+            assertEquals(4, first.getInt(1));
+
+            Message second = replayer.next();
+            assertTrue(second.isPooled());
+            assertEquals(0, second.getInt(0));
+            assertEquals(0, second.getInt(2));
+
+            for (int j = 3; j < Message.MAX_ARGS; ++j) {
+                assertEquals(0, first.getInt(j));
+                assertEquals(0, second.getInt(j));
+            }
+        }
+    }
+
+    private void record(Message... messages) throws IOException {
+        try (MessageRecorder recorder = new MessageRecorder(path)) {
+            for (Message message : messages)
+                recorder.record(message);
+        }
+    }
+
+    private static void assertMessageEquals(Message expected, Message actual) {
+        assertSame(expected.getType(), actual.getType());
+
+        for (int i = 0; i < Message.MAX_ARGS; ++i) {
+            assertEquals(expected.getInt(i), actual.getInt(i), "int slot " + i);
+            assertRefEquals(expected.getRef(i), actual.getRef(i));
+        }
+    }
+
+    private static void assertRefEquals(Object expected, Object actual) {
+        if (expected == null) {
+            assertNull(actual);
+
+        } else if (expected instanceof Vector3[]) {
+            Vector3[] e = (Vector3[])expected, a = (Vector3[])actual;
+            assertEquals(e.length, a.length);
+            for (int i = 0; i < e.length; ++i)
+                assertVectorEquals(e[i], a[i]);
+
+        } else if (expected instanceof int[]) {
+            assertArrayEquals((int[])expected, (int[])actual);
+
+        } else if (expected instanceof AffineTransformation) {
+            AffineTransformation e = (AffineTransformation)expected, a = (AffineTransformation)actual;
+            assertVectorEquals(e.getTranslation(), a.getTranslation());
+            assertVectorEquals(e.getScale(), a.getScale());
+            assertEquals(e.getRotation().getW(), a.getRotation().getW(), 1e-12);
+            assertEquals(e.getRotation().getX(), a.getRotation().getX(), 1e-12);
+            assertEquals(e.getRotation().getY(), a.getRotation().getY(), 1e-12);
+            assertEquals(e.getRotation().getZ(), a.getRotation().getZ(), 1e-12);
+
+        } else if (expected instanceof Message[]) {
+            Message[] e = (Message[])expected, a = (Message[])actual;
+            assertEquals(e.length, a.length);
+            for (int i = 0; i < e.length; ++i)
+                assertMessageEquals(e[i], a[i]);
+
+        } else
+            assertEquals(expected, actual);
+    }
+
+    private static void assertVectorEquals(Vector3 expected, Vector3 actual) {
+        assertEquals(expected.getX(), actual.getX(), 1e-12);
+        assertEquals(expected.getY(), actual.getY(), 1e-12);
+        assertEquals(expected.getZ(), actual.getZ(), 1e-12);
+    }
+}
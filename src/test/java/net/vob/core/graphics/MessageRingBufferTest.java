@@ -0,0 +1,132 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ordering and capacity guarantees of the {@link MessageRingBuffer}.
+ *
+ * @author Lyn-Park
+ */
+class MessageRingBufferTest {
+    private static final int PRODUCERS = 4;
+    private static final int MESSAGES_PER_PRODUCER = 50_000;
+    private static final int CAPACITY = 16;
+
+    @Test
+    void capacityIsRoundedUpToPowerOf2() {
+        assertEquals(1, new MessageRingBuffer(1).capacity());
+        assertEquals(16, new MessageRingBuffer(16).capacity());
+        assertEquals(32, new MessageRingBuffer(17).capacity());
+
+        assertThrows(IllegalArgumentException.class, () -> new MessageRingBuffer(0));
+    }
+
+    @Test
+    void offerFailsWhenFull() throws InterruptedException {
+        MessageRingBuffer buffer = new MessageRingBuffer(CAPACITY);
+
+        for (int i = 0; i < CAPACITY; ++i)
+            assertTrue(buffer.offer(message(0, i)));
+
+        assertEquals(CAPACITY, buffer.size());
+        assertFalse(buffer.offer(message(0, CAPACITY)));
+        assertFalse(buffer.offer(message(0, CAPACITY), 1, TimeUnit.MILLISECONDS));
+
+        List<Message> drained = new ArrayList<>();
+        assertEquals(CAPACITY, buffer.drainTo(drained));
+        assertTrue(buffer.isEmpty());
+
+        for (int i = 0; i < CAPACITY; ++i)
+            assertEquals(i, drained.get(i).getInt(1));
+
+        assertTrue(buffer.offer(message(0, CAPACITY)));
+    }
+
+    @Test
+    void drainStopsAtEmptyBuffer() {
+        MessageRingBuffer buffer = new MessageRingBuffer(CAPACITY);
+        List<Message> drained = new ArrayList<>();
+
+        assertEquals(0, buffer.drainTo(drained));
+        assertTrue(drained.isEmpty());
+
+        Message message = message(0, 0);
+        assertTrue(buffer.offer(message));
+        assertEquals(1, buffer.drainTo(drained));
+        assertSame(message, drained.get(0));
+        assertEquals(0, buffer.drainTo(drained));
+    }
+
+    @Test
+    void everyMessageArrivesOnceInProducerOrder() throws InterruptedException {
+        MessageRingBuffer buffer = new MessageRingBuffer(CAPACITY);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] producers = new Thread[PRODUCERS];
+
+        for (int p = 0; p < PRODUCERS; ++p) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < MESSAGES_PER_PRODUCER; ++i) {
+                        Message message = message(producer, i);
+
+                        if ((i & 1) == 0) buffer.put(message);
+                        else              assertTrue(buffer.offer(message, 10, TimeUnit.SECONDS));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }, "Producer " + p);
+            producers[p].start();
+        }
+
+        int[] next = new int[PRODUCERS];
+        int total = PRODUCERS * MESSAGES_PER_PRODUCER, received = 0;
+        List<Message> drained = new ArrayList<>(CAPACITY);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+
+        start.countDown();
+
+        while (received < total && failure.get() == null && System.nanoTime() < deadline) {
+            drained.clear();
+            received += buffer.drainTo(drained);
+
+            for (Message message : drained) {
+                int producer = message.getInt(0);
+                assertEquals(next[producer]++, message.getInt(1), "message of producer " + producer);
+            }
+
+            if (drained.isEmpty())
+                Thread.yield();
+        }
+
+        for (Thread producer : producers)
+            producer.join(TimeUnit.SECONDS.toMillis(10));
+
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+
+        assertEquals(total, received);
+        for (int p = 0; p < PRODUCERS; ++p)
+            assertEquals(MESSAGES_PER_PRODUCER, next[p]);
+
+        assertEquals(0, buffer.drainTo(drained));
+    }
+
+    private static Message message(int producer, int index) {
+        return Message.newPooled().withInt(0, producer).withInt(1, index);
+    }
+}
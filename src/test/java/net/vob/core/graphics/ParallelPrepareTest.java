@@ -0,0 +1,192 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Matrix;
+import net.vob.util.math.Quaternion;
+import net.vob.util.math.Vector3;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the instance matrices packed by the prepare stage of the
+ * {@link FramePipeline} do not depend on how the packed instances are split between
+ * workers. Two copies of the same scene are prepared, one on a single worker and one on
+ * several; the renderables are sized so that the ranges of instances split between the
+ * workers start and end both inside renderables and across them. Every packed float of
+ * both frames must be identical, and match the matrices computed directly from the
+ * transforms.
+ *
+ * @author Lyn-Park
+ */
+class ParallelPrepareTest {
+    private static final int[][] PASSES = { { 1, 255, 256, 257, 3 }, { 1000, 2, 513, 1 } };
+    private static final GLMesh MESH = new GLMesh(new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                                                  new Vector3[] { new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0) },
+                                                  null, new int[] { 0, 1, 2 });
+
+    private FramePipeline serial, parallel;
+
+    @BeforeEach
+    void createPipelines() {
+        serial = new FramePipeline(1);
+        parallel = new FramePipeline(4);
+    }
+
+    @AfterEach
+    void closePipelines() {
+        serial.close();
+        parallel.close();
+    }
+
+    @Test
+    void parallelMatricesEqualSerial() {
+        Scene a = new Scene(7), b = new Scene(7);
+        Matrix projView = projView(new Random(3));
+
+        assertFramesEqual(a, b, projView);
+
+        // only the moved instances are stale
+        Random random = new Random(11);
+        for (int s = 0; s < 3; ++s) {
+            int step = random.nextInt(7) + 1;
+            a.move(step, new Random(s));
+            b.move(step, new Random(s));
+            assertFramesEqual(a, b, projView);
+        }
+
+        // every instance is stale
+        assertFramesEqual(a, b, projView(new Random(5)));
+    }
+
+    private void assertFramesEqual(Scene a, Scene b, Matrix projView) {
+        DrawList frameA = a.snapshot(serial.acquire(), projView), frameB = b.snapshot(parallel.acquire(), projView);
+        serial.launch(frameA);
+        parallel.launch(frameB);
+        serial.await();
+        parallel.await();
+
+        assertEquals(a.numInstances(), frameA.instancesPacked);
+        assertEquals(frameA.instancesPacked, frameB.instancesPacked);
+        assertEquals(frameA.instanceFloats, frameB.instanceFloats);
+
+        float[] expected = a.expected(frameA, projView);
+        assertArrayEquals(expected, floats(frameA), "serial");
+        assertArrayEquals(expected, floats(frameB), "parallel");
+    }
+
+    private static float[] floats(DrawList frame) {
+        float[] floats = new float[frame.instanceFloats];
+        for (int i = 0; i < floats.length; ++i)
+            floats[i] = frame.instanceData.get(i);
+
+        return floats;
+    }
+
+    private static Matrix projView(Random random) {
+        Matrix matrix = new Matrix(4);
+        for (int r = 0; r < 4; ++r)
+            for (int c = 0; c < 4; ++c)
+                matrix.setElement(r, c, random.nextDouble() * 2 - 1);
+
+        return matrix;
+    }
+
+    private static AffineTransformation transform(Random random) {
+        return new AffineTransformationImpl().setTranslation(new Vector3(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50))
+                                             .setRotation(Quaternion.rotationQuaternion(new Vector3(random.nextDouble(), 1, random.nextDouble()), random.nextDouble() * 6))
+                                             .setScale(new Vector3(random.nextDouble() + 0.5, random.nextDouble() + 0.5, random.nextDouble() + 0.5));
+    }
+
+    /**
+     * A scene of renderables in the full layout, with random transforms generated from
+     * a seed; two scenes from the same seed are identical.
+     */
+    private static final class Scene {
+        final GLShaderProgram[] programs = new GLShaderProgram[PASSES.length];
+        final GLRenderable[][] renderables = new GLRenderable[PASSES.length][];
+        final AffineTransformation[][][] transforms = new AffineTransformation[PASSES.length][][];
+
+        Scene(long seed) {
+            Random random = new Random(seed);
+
+            for (int p = 0; p < PASSES.length; ++p) {
+                programs[p] = new GLShaderProgram(false);
+                renderables[p] = new GLRenderable[PASSES[p].length];
+                transforms[p] = new AffineTransformation[PASSES[p].length][];
+
+                for (int r = 0; r < PASSES[p].length; ++r) {
+                    transforms[p][r] = new AffineTransformation[PASSES[p][r]];
+                    for (int i = 0; i < PASSES[p][r]; ++i)
+                        transforms[p][r][i] = transform(random);
+
+                    renderables[p][r] = new GLRenderable(transforms[p][r]);
+                    renderables[p][r].mesh = MESH;
+                }
+            }
+        }
+
+        int numInstances() {
+            int count = 0;
+            for (int[] pass : PASSES)
+                for (int instances : pass)
+                    count += instances;
+
+            return count;
+        }
+
+        /**
+         * Replaces the transform of every instance whose ID is a multiple of the given
+         * step.
+         */
+        void move(int step, Random random) {
+            for (int p = 0; p < PASSES.length; ++p) {
+                for (int r = 0; r < PASSES[p].length; ++r) {
+                    for (int i = 0; i < PASSES[p][r]; i += step) {
+                        transforms[p][r][i] = transform(random);
+                        renderables[p][r].setInstanceTransform(i, transforms[p][r][i]);
+                    }
+                }
+            }
+        }
+
+        DrawList snapshot(DrawList frame, Matrix projView) {
+            frame.projViewMatrix = projView;
+            for (int p = 0; p < PASSES.length; ++p) {
+                frame.beginPass(programs[p], false);
+                for (GLRenderable renderable : renderables[p])
+                    frame.add(renderable, false, false);
+            }
+
+            return frame;
+        }
+
+        /**
+         * Computes the packed instance data of the given prepared frame of this scene,
+         * directly from the transforms.
+         */
+        float[] expected(DrawList frame, Matrix projView) {
+            float[] floats = new float[frame.instanceFloats];
+            int perInstance = GraphicsManager.INSTANCE_STRIDE / Float.BYTES, entry = 0;
+
+            for (int p = 0; p < PASSES.length; ++p) {
+                for (int r = 0; r < PASSES[p].length; ++r, ++entry) {
+                    for (int i = 0; i < PASSES[p][r]; ++i) {
+                        int offset = frame.dataOffsets[entry] + i * perInstance;
+                        Matrix model = transforms[p][r][i].getTransformationMatrix(0);
+
+                        model.writeToFloatArray(floats, offset, true);
+                        projView.mulToFloatArray(model, floats, offset + (GraphicsManager.INSTANCE_PROJECTION_VIEW_MODEL_MATRIX_OFFSET / Float.BYTES), true);
+                    }
+                }
+            }
+
+            return floats;
+        }
+    }
+}
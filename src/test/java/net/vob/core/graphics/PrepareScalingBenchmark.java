@@ -0,0 +1,108 @@
+package net.vob.core.graphics;
+
+import java.util.Arrays;
+import java.util.Random;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Quaternion;
+import net.vob.util.math.Vector3;
+
+/**
+ * Measures how the time taken to prepare a frame scales with the number of worker
+ * threads it is prepared on. Runs the graphics engine headless and uncapped, creates a
+ * scene of many instanced renderables, and rotates the camera continuously, so that the
+ * matrices of every instance are recomputed each frame; the prepare time of the frames
+ * is then sampled at each parallelism, and the median is reported along with the speedup
+ * over a single worker thread.<p>
+ *
+ * Note that the speedup is bounded by the number of available processors, which is
+ * printed first; parallelisms above it only measure the overhead of splitting the
+ * instances into ranges.<p>
+ *
+ * This is a standalone program rather than a unit test, as it needs the whole graphics
+ * thread running; run its {@code main} method with the test classpath. The number of
+ * renderables and the number of instances of each can be given as the first and second
+ * arguments.
+ *
+ * @author Lyn-Park
+ */
+public final class PrepareScalingBenchmark {
+    private static final int[] PARALLELISMS = { 1, 2, 4, 8 };
+    private static final int DEFAULT_RENDERABLES = 64;
+    private static final int DEFAULT_INSTANCES = 2048;
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long SAMPLE_MILLIS = 2000;
+
+    public static void main(String[] args) throws Exception {
+        int renderables = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RENDERABLES;
+        int instances = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_INSTANCES;
+        Random random = new Random(42);
+
+        GraphicsEngine.initHeadless(800, 600, 100, 70f, 0.1f, 1000f, 1);
+        GraphicsEngine.setFramePacing(GraphicsEngine.FramePacing.UNCAPPED);
+
+        int program = GraphicsEngine.msgShaderProgramSelectDefaultCube().get();
+        int mesh = GraphicsEngine.msgMeshSelectDefaultCube().get();
+
+        for (int i = 0; i < renderables; ++i) {
+            AffineTransformation[] transforms = new AffineTransformation[instances];
+            for (int j = 0; j < instances; ++j)
+                transforms[j] = new AffineTransformationImpl().setTranslation(new Vector3(random.nextDouble() * 200 - 100,
+                                                                                          random.nextDouble() * 200 - 100,
+                                                                                          random.nextDouble() * 200 - 100));
+
+            int renderable = GraphicsEngine.msgRenderableCreate(transforms).get();
+            GraphicsEngine.msgRenderableAttachMesh(renderable, mesh).get();
+            GraphicsEngine.msgShaderProgramAssignRenderable(program, renderable).get();
+        }
+
+        AffineTransformation view = new AffineTransformationImpl();
+        GraphicsEngine.msgViewportSetTransform(view).get();
+
+        System.out.printf("%d CPUs; %d renderables, %d instances each%n",
+                          Runtime.getRuntime().availableProcessors(), renderables, instances);
+        System.out.printf("%-11s %12s %12s %8s%n", "parallelism", "median ms", "p90 ms", "speedup");
+
+        double single = 0;
+        for (int parallelism : PARALLELISMS) {
+            GraphicsEngine.setPrepareParallelism(parallelism);
+            sample(view, WARMUP_MILLIS);
+
+            double[] times = sample(view, SAMPLE_MILLIS);
+            double median = times[times.length / 2];
+            if (parallelism == 1)
+                single = median;
+
+            System.out.printf("%-11d %12.3f %12.3f %7.2fx%n", parallelism, median,
+                              times[(int)(times.length * 0.9)], single / median);
+        }
+
+        GraphicsEngine.close();
+        System.exit(0);
+    }
+
+    /**
+     * Rotates the camera for the given length of time, sampling the prepare time of the
+     * last frame after each rotation.
+     *
+     * @return the sorted samples
+     */
+    private static double[] sample(AffineTransformation view, long millis) throws InterruptedException {
+        double[] times = new double[1024];
+        int n = 0;
+        long end = System.currentTimeMillis() + millis;
+
+        while (System.currentTimeMillis() < end) {
+            view.setRotation(Quaternion.rotationQuaternion(new Vector3(0, 1, 0), (System.nanoTime() % 6_283_185_307L) / 1e9));
+            Thread.sleep(2);
+
+            if (n == times.length)
+                times = Arrays.copyOf(times, n * 2);
+            times[n++] = GraphicsEngine.getFramePrepareTime();
+        }
+
+        times = Arrays.copyOf(times, n);
+        Arrays.sort(times);
+        return times;
+    }
+}
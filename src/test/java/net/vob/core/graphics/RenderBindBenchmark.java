@@ -0,0 +1,98 @@
+package net.vob.core.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import net.vob.util.math.AffineTransformation;
+import net.vob.util.math.AffineTransformationImpl;
+import net.vob.util.math.Vector3;
+
+/**
+ * Measures the number of binds made per frame when rendering a scene of many renderables
+ * sharing a small number of shader programs, meshes and textures. Runs the graphics
+ * engine headless, creates the renderables in a random order, and reports the binds and
+ * skipped binds of the last frame, both with and without multi-draw batching. Without
+ * multi-draw batching, the sum of the two is the number of binds the frame would have
+ * made if every renderable bound its own attachments, as it did before renderables were
+ * sorted by their attachments.<p>
+ *
+ * This is a standalone program rather than a unit test, as it needs the whole graphics
+ * thread running; run its {@code main} method with the test classpath. The number of
+ * renderables can be given as the first argument.
+ *
+ * @author Lyn-Park
+ */
+public final class RenderBindBenchmark {
+    private static final int PROGRAMS = 4;
+    private static final int MESHES = 8;
+    private static final int TEXTURES = 8;
+    private static final int INSTANCES = 4;
+    private static final int DEFAULT_RENDERABLES = 1024;
+    private static final long SETTLE_MILLIS = 500;
+
+    public static void main(String[] args) throws Exception {
+        int renderables = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RENDERABLES;
+        Random random = new Random(42);
+
+        GraphicsEngine.initHeadless(800, 600, 100, 70f, 0.1f, 1000f, 1);
+
+        int[] programs = new int[PROGRAMS];
+        for (int i = 0; i < PROGRAMS; ++i) {
+            programs[i] = GraphicsEngine.msgShaderProgramNew(false).get();
+            GraphicsEngine.msgShaderSelectDefaultVertUI().get();
+            GraphicsEngine.msgShaderProgramAttachShader().get();
+            GraphicsEngine.msgShaderSelectDefaultFragUI().get();
+            GraphicsEngine.msgShaderProgramAttachShader().get();
+        }
+
+        int[] meshes = new int[MESHES];
+        for (int i = 0; i < MESHES; ++i)
+            meshes[i] = GraphicsEngine.msgMeshNew(triangle(i), triangle(0), null, new int[] { 0, 1, 2 }).get();
+
+        int[] textures = new int[TEXTURES];
+        for (int i = 0; i < TEXTURES; ++i) {
+            BufferedImage im = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+            im.setRGB(0, 0, random.nextInt());
+            textures[i] = GraphicsEngine.msgTexture2DNew(im, 0).get();
+        }
+
+        for (int i = 0; i < renderables; ++i) {
+            AffineTransformation[] transforms = new AffineTransformation[INSTANCES];
+            for (int j = 0; j < INSTANCES; ++j)
+                transforms[j] = new AffineTransformationImpl().setTranslation(new Vector3(random.nextDouble() * 4 - 2,
+                                                                                          random.nextDouble() * 4 - 2,
+                                                                                          -10 - random.nextDouble() * 10));
+
+            int renderable = GraphicsEngine.msgRenderableCreate(transforms).get();
+            GraphicsEngine.msgRenderableAttachMesh(renderable, meshes[random.nextInt(MESHES)]).get();
+            GraphicsEngine.msgRenderableAttachTexture(renderable, textures[random.nextInt(TEXTURES)]).get();
+            GraphicsEngine.msgShaderProgramAssignRenderable(programs[random.nextInt(PROGRAMS)], renderable).get();
+        }
+
+        System.out.printf("%d renderables, %d instances each; %d programs, %d meshes, %d textures%n",
+                          renderables, INSTANCES, PROGRAMS, MESHES, TEXTURES);
+        System.out.printf("%-10s %8s %8s %10s %8s%n", "multi-draw", "binds", "skipped", "sum", "visible");
+
+        GraphicsEngine.disableMultiDraw();
+        report("off");
+        GraphicsEngine.enableMultiDraw();
+        report("on");
+
+        GraphicsEngine.close();
+        System.exit(0);
+    }
+
+    private static void report(String name) throws InterruptedException {
+        Thread.sleep(SETTLE_MILLIS);
+
+        int binds = GraphicsEngine.getBindCount();
+        int skipped = GraphicsEngine.getSkippedBindCount();
+
+        System.out.printf("%-10s %8d %8d %10d %8d%n", name, binds, skipped, binds + skipped,
+                          GraphicsEngine.getVisibleInstanceCount());
+    }
+
+    private static Vector3[] triangle(int i) {
+        double s = 1 + i * 0.1;
+        return new Vector3[] { new Vector3(0, 0, 0), new Vector3(s, 0, 0), new Vector3(0, s, 0) };
+    }
+}
@@ -0,0 +1,140 @@
+package net.vob.core.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import net.vob.util.math.AffineTransformationImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ordering of a {@link RenderQueue}, and that it is only re-sorted when
+ * flagged.
+ *
+ * @author Lyn-Park
+ */
+class RenderQueueTest {
+    @BeforeEach
+    void init() {
+        GraphicsManager.BACKEND = new HeadlessGLBackend();
+    }
+
+    @Test
+    void iteratesInSortKeyOrder() {
+        Random random = new Random(3);
+        RenderQueue queue = new RenderQueue();
+        GLRenderable[] renderables = new GLRenderable[200];
+
+        for (int i = 0; i < renderables.length; ++i) {
+            renderables[i] = renderable(random.nextInt(20));
+            queue.add(renderables[i]);
+        }
+
+        List<GLRenderable> order = sorted(queue);
+        assertEquals(renderables.length, order.size());
+        for (int i = 1; i < order.size(); ++i)
+            assertTrue(order.get(i - 1).sortKey <= order.get(i).sortKey);
+    }
+
+    @Test
+    void equalKeysKeepInsertionOrder() {
+        RenderQueue queue = new RenderQueue();
+        GLRenderable a = renderable(1), b = renderable(0), c = renderable(1), d = renderable(0);
+        for (GLRenderable r : Arrays.asList(a, b, c, d))
+            queue.add(r);
+
+        assertEquals(Arrays.asList(b, d, a, c), sorted(queue));
+    }
+
+    @Test
+    void resortedOnlyWhenDirty() {
+        RenderQueue queue = new RenderQueue();
+        GLRenderable a = renderable(1), b = renderable(2);
+        queue.add(a);
+        queue.add(b);
+        assertEquals(Arrays.asList(a, b), sorted(queue));
+
+        // a changed key is not noticed until the queue is flagged
+        a.sortKey = 3;
+        assertEquals(Arrays.asList(a, b), sorted(queue));
+
+        queue.markDirty();
+        assertEquals(Arrays.asList(b, a), sorted(queue));
+
+        // updating the sort key of a renderable flags its queue
+        b.sortKey = Long.MAX_VALUE;
+        assertEquals(Arrays.asList(b, a), sorted(queue));
+        a.updateSortKey();
+        assertEquals(Arrays.asList(a, b), sorted(queue));
+    }
+
+    @Test
+    void sameAttachmentsGiveSameKey() {
+        GLRenderable a = new GLRenderable(1), b = new GLRenderable(new AffineTransformationImpl());
+        a.updateSortKey();
+        b.updateSortKey();
+
+        assertEquals(a.sortKey, b.sortKey);
+    }
+
+    @Test
+    void renderableBelongsToOneQueue() {
+        RenderQueue first = new RenderQueue(), second = new RenderQueue();
+        GLRenderable a = renderable(2), b = renderable(1);
+
+        first.add(a);
+        first.add(a);
+        assertEquals(Arrays.asList(a), sorted(first));
+
+        second.add(b);
+        second.add(a);
+        assertTrue(first.isEmpty());
+        assertSame(second, a.queue);
+        assertEquals(Arrays.asList(b, a), sorted(second));
+
+        // removing from a queue the renderable is not in does nothing
+        first.remove(a);
+        assertSame(second, a.queue);
+
+        second.remove(a);
+        assertNull(a.queue);
+        assertEquals(Arrays.asList(b), sorted(second));
+    }
+
+    @Test
+    void addAllMovesAndResorts() {
+        RenderQueue first = new RenderQueue(), second = new RenderQueue();
+        GLRenderable a = renderable(3), b = renderable(1), c = renderable(2);
+
+        first.add(a);
+        first.add(b);
+        second.add(c);
+        sorted(second);
+
+        second.addAll(first);
+        assertTrue(first.isEmpty());
+        assertFalse(second.isEmpty());
+        assertSame(second, a.queue);
+        assertSame(second, b.queue);
+        assertEquals(Arrays.asList(b, c, a), sorted(second));
+    }
+
+    private static GLRenderable renderable(long sortKey) {
+        GLRenderable renderable = new GLRenderable(1);
+        renderable.sortKey = sortKey;
+        return renderable;
+    }
+
+    private static List<GLRenderable> sorted(RenderQueue queue) {
+        List<GLRenderable> order = new ArrayList<>();
+        queue.forEachSorted(order::add);
+        return order;
+    }
+}
@@ -0,0 +1,144 @@
+package net.vob.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link DirtySet}, both on its own and with indices marked concurrently while
+ * it is being drained.
+ *
+ * @author Lyn-Park
+ */
+class DirtySetTest {
+    @Test
+    void emptySet() {
+        DirtySet set = new DirtySet(0);
+        assertEquals(0, set.size());
+        assertTrue(set.isEmpty());
+        set.drain(i -> { throw new AssertionError(i); });
+
+        assertThrows(IllegalArgumentException.class, () -> new DirtySet(-1));
+    }
+
+    @Test
+    void outOfRangeIndicesAreRejected() {
+        DirtySet set = new DirtySet(100);
+        assertThrows(IndexOutOfBoundsException.class, () -> set.mark(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.mark(100));
+    }
+
+    @Test
+    void wordAndSummaryBoundaries() {
+        // 63 and 64 straddle the first word boundary; 4095 and 4096 straddle the first
+        // summary word boundary
+        DirtySet set = new DirtySet(8192);
+        int[] indices = { 0, 63, 64, 127, 4095, 4096, 8191 };
+
+        for (int i = indices.length - 1; i >= 0; --i)
+            set.mark(indices[i]);
+        assertFalse(set.isEmpty());
+
+        assertArrayEquals(indices, drain(set));
+        assertTrue(set.isEmpty());
+        assertArrayEquals(new int[0], drain(set));
+    }
+
+    @Test
+    void partialLastWord() {
+        DirtySet set = new DirtySet(4097);
+        set.mark(4096);
+        set.mark(4095);
+        set.mark(63);
+
+        assertArrayEquals(new int[] { 63, 4095, 4096 }, drain(set));
+    }
+
+    @Test
+    void markingTwiceIsIdempotent() {
+        DirtySet set = new DirtySet(128);
+        set.mark(64);
+        set.mark(64);
+
+        assertArrayEquals(new int[] { 64 }, drain(set));
+    }
+
+    @Test
+    void indicesMarkedDuringDrainAreKept() {
+        DirtySet set = new DirtySet(256);
+        set.mark(10);
+        set.mark(200);
+
+        List<Integer> first = new ArrayList<>();
+        set.drain(i -> {
+            first.add(i);
+            if (i == 10) {
+                set.mark(10);
+                set.mark(5);
+            }
+        });
+
+        assertEquals(2, first.size());
+        assertArrayEquals(new int[] { 5, 10 }, drain(set));
+    }
+
+    @Test
+    void concurrentMarksAreNeitherLostNorDuplicated() throws InterruptedException {
+        int markers = 4, size = 1 << 16, rounds = 20;
+        DirtySet set = new DirtySet(size);
+        int[] drained = new int[size];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int r = 0; r < rounds; ++r) {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[markers];
+
+            // Each marker thread marks a disjoint, interleaved subset of the indices once
+            for (int m = 0; m < markers; ++m) {
+                int first = m;
+                threads[m] = new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int i = first; i < size; i += markers)
+                            set.mark(i);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                });
+                threads[m].start();
+            }
+
+            start.countDown();
+            boolean running = true;
+            while (running) {
+                running = false;
+                for (Thread thread : threads)
+                    running |= thread.isAlive();
+
+                set.drain(i -> ++drained[i]);
+            }
+            set.drain(i -> ++drained[i]);
+
+            if (failure.get() != null)
+                throw new AssertionError(failure.get());
+            assertTrue(set.isEmpty());
+        }
+
+        for (int i = 0; i < size; ++i)
+            assertEquals(rounds, drained[i], "index " + i);
+    }
+
+    private static int[] drain(DirtySet set) {
+        List<Integer> list = new ArrayList<>();
+        set.drain(list::add);
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
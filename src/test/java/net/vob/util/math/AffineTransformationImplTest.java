@@ -0,0 +1,136 @@
+package net.vob.util.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the change notifications of the {@link AffineTransformationImpl}.
+ *
+ * @author Lyn-Park
+ */
+class AffineTransformationImplTest {
+    private static final Vector3 V = new Vector3(1, 2, 3);
+    private static final Quaternion Q = Quaternion.rotationQuaternion(new Vector3(0, 0, 1), 0.25);
+
+    @Test
+    void everyMutatorNotifies() {
+        List<Consumer<AffineTransformation>> mutators = new ArrayList<>();
+        mutators.add(t -> t.setTranslation(V));
+        mutators.add(t -> t.appendTranslation(V));
+        mutators.add(t -> t.resetTranslation());
+        mutators.add(t -> t.setRotation(Q));
+        mutators.add(t -> t.appendRotation(Q));
+        mutators.add(t -> t.prependRotation(Q));
+        mutators.add(t -> t.resetRotation());
+        mutators.add(t -> t.setScale(V));
+        mutators.add(t -> t.appendScale(V));
+        mutators.add(t -> t.resetScale());
+
+        for (int i = 0; i < mutators.size(); ++i) {
+            AffineTransformation transform = new AffineTransformationImpl();
+            RecordingListener listener = new RecordingListener();
+            transform.subscribe(listener, i);
+
+            mutators.get(i).accept(transform);
+            assertArrayEquals(new int[] { i }, listener.keys(), "mutator " + i);
+        }
+    }
+
+    @Test
+    void notificationsUseEachSubscribedKey() {
+        AffineTransformation transform = new AffineTransformationImpl();
+        RecordingListener a = new RecordingListener(), b = new RecordingListener();
+
+        transform.subscribe(a, 1);
+        transform.subscribe(a, 2);
+        transform.subscribe(b, 3);
+        transform.setTranslation(V);
+
+        int[] keys = a.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(new int[] { 1, 2 }, keys);
+        assertArrayEquals(new int[] { 3 }, b.keys());
+    }
+
+    @Test
+    void noNotificationAfterUnsubscribe() {
+        AffineTransformation transform = new AffineTransformationImpl();
+        RecordingListener a = new RecordingListener(), b = new RecordingListener();
+
+        transform.subscribe(a, 1);
+        transform.subscribe(a, 2);
+        transform.subscribe(b, 3);
+
+        transform.unsubscribe(a, 1);
+        transform.unsubscribe(b, 4);
+        transform.setScale(V);
+
+        assertArrayEquals(new int[] { 2 }, a.keys());
+        assertArrayEquals(new int[] { 3 }, b.keys());
+
+        transform.unsubscribe(a, 2);
+        transform.unsubscribe(b, 3);
+        transform.setRotation(Q);
+
+        assertEquals(1, a.keys().length);
+        assertEquals(1, b.keys().length);
+    }
+
+    @Test
+    void matrixQueriesDoNotAffectNotifications() {
+        AffineTransformation transform = new AffineTransformationImpl();
+        RecordingListener listener = new RecordingListener();
+        transform.subscribe(listener, 0);
+
+        transform.getTransformationMatrix(0);
+        transform.setTranslation(V);
+        transform.getTransformationMatrix(0);
+        transform.setTranslation(V);
+
+        assertEquals(2, listener.keys().length);
+        assertTrue(transform.isDirty());
+    }
+
+    @Test
+    void unmodifiableViewsShareSubscriptions() {
+        AffineTransformationImpl transform = new AffineTransformationImpl();
+        AffineTransformation view = transform.getAsUnmodifiable(false);
+        RecordingListener listener = new RecordingListener();
+
+        view.subscribe(listener, 7);
+        transform.setTranslation(V);
+        assertArrayEquals(new int[] { 7 }, listener.keys());
+
+        view.unsubscribe(listener, 7);
+        transform.setTranslation(V);
+        assertArrayEquals(new int[] { 7 }, listener.keys());
+    }
+
+    @Test
+    void identityIgnoresSubscriptions() {
+        RecordingListener listener = new RecordingListener();
+        AffineTransformationImpl.IDENTITY.subscribe(listener, 0);
+        AffineTransformationImpl.IDENTITY.unsubscribe(listener, 0);
+        assertEquals(0, listener.keys().length);
+    }
+
+    private static final class RecordingListener implements AffineTransformation.ChangeListener {
+        private final List<Integer> keys = new ArrayList<>();
+
+        @Override
+        public void transformationChanged(int key) {
+            keys.add(key);
+        }
+
+        int[] keys() {
+            return keys.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
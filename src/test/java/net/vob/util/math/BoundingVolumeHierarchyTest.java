@@ -0,0 +1,217 @@
+package net.vob.util.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link BoundingVolumeHierarchy} against a brute-force oracle, which tests
+ * the bounds of every value directly, through a random sequence of insertions, updates
+ * and removals.
+ *
+ * @author Lyn-Park
+ */
+class BoundingVolumeHierarchyTest {
+    private static final int VALUES = 500;
+    private static final int STEPS = 2000;
+    private static final double WORLD = 100;
+
+    @Test
+    void emptyHierarchy() {
+        BoundingVolumeHierarchy<Integer> bvh = new BoundingVolumeHierarchy<>(0);
+        assertEquals(0, bvh.size());
+
+        bvh.query(new Cuboid(-1e9, -1e9, -1e9, 1e9, 1e9, 1e9), v -> { throw new AssertionError(v); });
+        bvh.query(new Frustum(), v -> { throw new AssertionError(v); });
+
+        assertThrows(IllegalArgumentException.class, () -> new BoundingVolumeHierarchy<>(-1));
+        assertThrows(IllegalArgumentException.class, () -> bvh.getValue(0));
+        assertThrows(IllegalArgumentException.class, () -> bvh.remove(0));
+    }
+
+    @Test
+    void removedProxiesAreInvalid() {
+        BoundingVolumeHierarchy<String> bvh = new BoundingVolumeHierarchy<>(0);
+        int a = bvh.insert("a", new Cuboid(0, 0, 0, 1, 1, 1));
+        int b = bvh.insert("b", new double[] { 5, 5, 5, 1, 1, 1 }, 0);
+
+        assertSame("a", bvh.getValue(a));
+        assertSame("b", bvh.remove(b));
+        assertEquals(1, bvh.size());
+        assertThrows(IllegalArgumentException.class, () -> bvh.getValue(b));
+        assertThrows(IllegalArgumentException.class, () -> bvh.update(b, new Cuboid(0, 0, 0, 1, 1, 1)));
+    }
+
+    @Test
+    void updatesWithinMarginDoNotMove() {
+        BoundingVolumeHierarchy<String> bvh = new BoundingVolumeHierarchy<>(1);
+        int proxy = bvh.insert("a", new double[] { 0, 0, 0, 1, 1, 1 }, 0);
+
+        assertFalse(bvh.update(proxy, new double[] { 0.5, -0.5, 1, 1, 1, 1 }, 0));
+        assertTrue(bvh.update(proxy, new double[] { 1.5, 0, 0, 1, 1, 1 }, 0));
+        assertFalse(bvh.update(proxy, new Cuboid(0.5, -1, -1, 2.5, 1, 1)));
+
+        Set<String> hits = new HashSet<>();
+        bvh.query(new Cuboid(2.9, 0, 0, 3, 0.1, 0.1), hits::add);
+        assertTrue(hits.contains("a"));
+    }
+
+    @Test
+    void exactQueriesMatchOracle() {
+        // With no margin, the box of each leaf is exactly the bounds of its value, so
+        // every query must match the oracle exactly
+        run(0, new Random(1));
+    }
+
+    @Test
+    void enlargedQueriesBracketOracle() {
+        run(0.5, new Random(2));
+    }
+
+    private static void run(double margin, Random random) {
+        BoundingVolumeHierarchy<Integer> bvh = new BoundingVolumeHierarchy<>(margin);
+        Map<Integer, double[]> bounds = new HashMap<>();
+        Map<Integer, Integer> proxies = new HashMap<>();
+        int next = 0;
+
+        for (; next < VALUES; ++next) {
+            double[] b = randomBox(random);
+            bounds.put(next, b);
+            proxies.put(next, bvh.insert(next, b, 0));
+        }
+
+        for (int step = 0; step < STEPS; ++step) {
+            List<Integer> live = new ArrayList<>(bounds.keySet());
+            int op = random.nextInt(10);
+
+            if (op < 5 && !live.isEmpty()) {
+                // move a value, either slightly or to a random position, keeping its size
+                int value = live.get(random.nextInt(live.size()));
+                double[] b = bounds.get(value);
+                double jump = random.nextBoolean() ? 0.2 : WORLD;
+                for (int i = 0; i < 3; ++i)
+                    b[i] += (random.nextDouble() * 2 - 1) * jump;
+
+                if (random.nextBoolean())
+                    bvh.update(proxies.get(value), b, 0);
+                else
+                    bvh.update(proxies.get(value), toCuboid(b));
+
+            } else if (op < 7 && !live.isEmpty()) {
+                int value = live.get(random.nextInt(live.size()));
+                assertEquals(value, (int)bvh.remove(proxies.remove(value)));
+                bounds.remove(value);
+
+            } else if (op < 9) {
+                double[] b = randomBox(random);
+                bounds.put(next, b);
+                proxies.put(next, random.nextBoolean() ? bvh.insert(next, b, 0) : bvh.insert(next, toCuboid(b)));
+                ++next;
+
+            } else
+                query(bvh, bounds, margin, random);
+
+            assertEquals(bounds.size(), bvh.size());
+        }
+
+        for (Map.Entry<Integer, Integer> e : proxies.entrySet())
+            assertEquals(e.getKey(), bvh.getValue(e.getValue()));
+
+        for (int i = 0; i < 50; ++i)
+            query(bvh, bounds, margin, random);
+    }
+
+    /**
+     * Runs a random box, frustum and ray query, and checks that the values visited
+     * include every value whose exact bounds match, and no value whose bounds enlarged
+     * by twice the margin do not. Values are only ever moved without being resized, so
+     * the box of each leaf always lies within that enlargement.
+     */
+    private static void query(BoundingVolumeHierarchy<Integer> bvh, Map<Integer, double[]> bounds, double margin, Random random) {
+        double[] q = randomBox(random);
+        q[3] *= 10; q[4] *= 10; q[5] *= 10;
+        Cuboid cuboid = toCuboid(q);
+
+        check(action -> bvh.query(cuboid, action), bounds, margin,
+              (b, m) -> overlaps(b, m, q));
+
+        Frustum frustum = new Frustum();
+        frustum.update(Matrix.getScalingMatrix(new Vector3(1 / 30D, 1 / 30D, 1 / 30D))
+                             .mul(Matrix.getTranslationMatrix(new Vector3(-q[0], -q[1], -q[2]))));
+        check(action -> bvh.query(frustum, action), bounds, margin,
+              (b, m) -> frustum.intersects(b[0], b[1], b[2], b[3] + m, b[4] + m, b[5] + m));
+
+        Vector3 origin = new Vector3(q[0], q[1], q[2]);
+        Vector3 direction = new Vector3(random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1, 0);
+        double maxDistance = random.nextDouble() * WORLD;
+        check(action -> bvh.raycast(origin, direction, maxDistance, action), bounds, margin,
+              (b, m) -> hits(b, m, origin, direction, maxDistance));
+    }
+
+    private static void check(Consumer<Consumer<Integer>> query, Map<Integer, double[]> bounds, double margin, Oracle oracle) {
+        Set<Integer> visited = new HashSet<>();
+        query.accept(value -> assertTrue(visited.add(value), "value visited twice: " + value));
+
+        for (Map.Entry<Integer, double[]> e : bounds.entrySet()) {
+            if (oracle.matches(e.getValue(), 0))
+                assertTrue(visited.contains(e.getKey()), "missed value " + e.getKey());
+            if (!oracle.matches(e.getValue(), 2 * margin))
+                assertFalse(visited.contains(e.getKey()), "visited value " + e.getKey());
+        }
+    }
+
+    private static boolean overlaps(double[] b, double m, double[] q) {
+        for (int i = 0; i < 3; ++i)
+            if (Math.abs(b[i] - q[i]) > b[i + 3] + m + q[i + 3])
+                return false;
+        return true;
+    }
+
+    private static boolean hits(double[] b, double m, Vector3 origin, Vector3 direction, double maxDistance) {
+        double[] o = { origin.getX(), origin.getY(), origin.getZ() };
+        double[] d = { direction.getX(), direction.getY(), direction.getZ() };
+        double tL = 0, tH = maxDistance;
+
+        for (int i = 0; i < 3; ++i) {
+            double lower = b[i] - b[i + 3] - m, upper = b[i] + b[i + 3] + m;
+
+            if (d[i] == 0) {
+                if (o[i] < lower || o[i] > upper)
+                    return false;
+                continue;
+            }
+
+            double t1 = (lower - o[i]) / d[i], t2 = (upper - o[i]) / d[i];
+            tL = Math.max(tL, Math.min(t1, t2));
+            tH = Math.min(tH, Math.max(t1, t2));
+        }
+
+        return tL <= tH;
+    }
+
+    private static double[] randomBox(Random random) {
+        return new double[] { (random.nextDouble() * 2 - 1) * WORLD, (random.nextDouble() * 2 - 1) * WORLD, (random.nextDouble() * 2 - 1) * WORLD,
+                              0.1 + random.nextDouble() * 3, 0.1 + random.nextDouble() * 3, 0.1 + random.nextDouble() * 3 };
+    }
+
+    private static Cuboid toCuboid(double[] b) {
+        return new Cuboid(b[0] - b[3], b[1] - b[4], b[2] - b[5], b[0] + b[3], b[1] + b[4], b[2] + b[5]);
+    }
+
+    @FunctionalInterface
+    private interface Oracle {
+        boolean matches(double[] bounds, double margin);
+    }
+}
@@ -0,0 +1,147 @@
+package net.vob.util.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the plane extraction and box tests of the {@link Frustum}, against known
+ * orthographic and perspective projection-view matrices.
+ *
+ * @author Lyn-Park
+ */
+class FrustumTest {
+    private static final double NEAR = 1, FAR = 100;
+
+    @Test
+    void newFrustumContainsEverything() {
+        Frustum frustum = new Frustum();
+        assertTrue(frustum.intersects(box(1e6, -1e6, 1e6, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(null));
+    }
+
+    @Test
+    void orthographicClipCube() {
+        // The identity matrix as projection-view matrix has the clip cube [-1, 1]^3 as
+        // its frustum
+        Frustum frustum = new Frustum();
+        frustum.update(Matrix.identity(4));
+
+        assertTrue(frustum.intersects(box(0, 0, 0, 0.5, 0.5, 0.5), 0));
+        assertTrue(frustum.intersects(box(1.5, 0, 0, 1, 1, 1), 0));
+        assertTrue(frustum.intersects(box(0, 0, 0, 10, 10, 10), 0));
+        assertFalse(frustum.intersects(box(3, 0, 0, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(box(0, -3, 0, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(box(0, 0, 2.5, 1, 1, 1), 0));
+
+        assertTrue(frustum.intersects(new Cuboid(0.9, 0.9, 0.9, 2, 2, 2)));
+        assertFalse(frustum.intersects(new Cuboid(1.1, 0, 0, 2, 1, 1)));
+    }
+
+    @Test
+    void perspectiveInsideOutsideAndStraddling() {
+        Frustum frustum = new Frustum();
+        frustum.update(perspective());
+
+        // inside
+        assertTrue(frustum.intersects(box(0, 0, -10, 1, 1, 1), 0));
+        assertTrue(frustum.intersects(box(5, -5, -50, 1, 1, 1), 0));
+
+        // outside: behind the camera, beyond the far plane, and beside the frustum
+        assertFalse(frustum.intersects(box(0, 0, 10, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(box(0, 0, -150, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(box(20, 0, -10, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(box(0, -20, -10, 1, 1, 1), 0));
+
+        // straddling the near plane, the far plane and a side plane
+        assertTrue(frustum.intersects(box(0, 0, -1, 0.5, 0.5, 0.5), 0));
+        assertTrue(frustum.intersects(box(0, 0, -100, 5, 5, 5), 0));
+        assertTrue(frustum.intersects(box(10.5, 0, -10, 1, 1, 1), 0));
+    }
+
+    @Test
+    void viewMatrixMovesTheFrustum() {
+        // The camera is moved to z = 20, so the view matrix translates by -20
+        Frustum frustum = new Frustum();
+        frustum.update(perspective().mul(Matrix.getTranslationMatrix(new Vector3(0, 0, -20))));
+
+        assertTrue(frustum.intersects(box(0, 0, 10, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(box(0, 0, 25, 1, 1, 1), 0));
+        assertFalse(frustum.intersects(box(0, 0, -90, 1, 1, 1), 0));
+    }
+
+    @Test
+    void boundsAreReadAtOffset() {
+        Frustum frustum = new Frustum();
+        frustum.update(Matrix.identity(4));
+
+        double[] bounds = { 9, 9, 9, 0, 0, 0, 0, 0, 0.5, 0.5, 0.5 };
+        assertTrue(frustum.intersects(bounds, 5));
+        assertFalse(frustum.intersects(bounds, 0));
+    }
+
+    @Test
+    void planesAreWrittenInOrder() {
+        Frustum frustum = new Frustum();
+        frustum.update(Matrix.identity(4));
+
+        float[] planes = new float[26];
+        frustum.writeToFloatArray(planes, 2);
+
+        // left, right, bottom, top, near and far planes of the clip cube
+        assertArrayEquals(new float[] { 0, 0,
+                                        1, 0, 0, 1,  -1, 0, 0, 1,
+                                        0, 1, 0, 1,   0, -1, 0, 1,
+                                        0, 0, 1, 1,   0, 0, -1, 1 }, planes, 0f);
+    }
+
+    @Test
+    void transformBoundsIdentityAndTranslation() {
+        double[] local = box(1, 2, 3, 0.5, 1, 1.5), world = new double[8];
+
+        Frustum.transformBounds(local, 0, Matrix.identity(4), world, 2);
+        assertArrayEquals(new double[] { 0, 0, 1, 2, 3, 0.5, 1, 1.5 }, world, 1e-12);
+
+        world = new double[6];
+        Frustum.transformBounds(local, 0, Matrix.getTranslationMatrix(new Vector3(10, 0, -10)), world, 0);
+        assertArrayEquals(new double[] { 11, 2, -7, 0.5, 1, 1.5 }, world, 1e-12);
+    }
+
+    @Test
+    void transformBoundsScaleAndRotation() {
+        double[] local = box(1, 0, 0, 1, 2, 3), world = new double[6];
+
+        Frustum.transformBounds(local, 0, Matrix.getScalingMatrix(new Vector3(2, 3, 4)), world, 0);
+        assertArrayEquals(new double[] { 2, 0, 0, 2, 6, 12 }, world, 1e-12);
+
+        // A quarter turn about Z maps X to Y, and so swaps the X and Y extents
+        Quaternion quarter = Quaternion.rotationQuaternion(new Vector3(0, 0, 1), Math.PI / 2);
+        Frustum.transformBounds(local, 0, Matrix.getRotationMatrix(quarter), world, 0);
+        assertArrayEquals(new double[] { 0, 1, 0, 2, 1, 3 }, world, 1e-12);
+
+        // An eighth turn encloses the rotated box, growing a unit square by sqrt(2)
+        Quaternion eighth = Quaternion.rotationQuaternion(new Vector3(0, 0, 1), Math.PI / 4);
+        Frustum.transformBounds(box(0, 0, 0, 1, 1, 1), 0, Matrix.getRotationMatrix(eighth), world, 0);
+        assertArrayEquals(new double[] { 0, 0, 0, Math.sqrt(2), Math.sqrt(2), 1 }, world, 1e-12);
+    }
+
+    /**
+     * Builds a right-handed perspective projection matrix with a 90 degree vertical
+     * field of view and an aspect ratio of 1, looking down the negative Z axis.
+     */
+    private static Matrix perspective() {
+        Matrix m = new Matrix(4);
+        m.setElement(0, 0, 1);
+        m.setElement(1, 1, 1);
+        m.setElement(2, 2, (FAR + NEAR) / (NEAR - FAR));
+        m.setElement(2, 3, (2 * FAR * NEAR) / (NEAR - FAR));
+        m.setElement(3, 2, -1);
+        return m;
+    }
+
+    private static double[] box(double cx, double cy, double cz, double ex, double ey, double ez) {
+        return new double[] { cx, cy, cz, ex, ey, ez };
+    }
+}